@@ -1,7 +1,16 @@
 package hrps;
 
+import hrps.boundary.HttpServerUI;
+import hrps.boundary.KioskServerUI;
+import hrps.control.CommandEngine;
+import hrps.control.InvoiceController;
+import hrps.control.KitchenController;
+import hrps.control.OccupancyHistoryController;
 import hrps.boundary.UI;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 /**
  * The class that contains the UI and the only main() method that runs the app.
  */
@@ -26,11 +35,43 @@ public class HRPS {
     }
 
     /**
-     * Runs the app.
+     * Runs the app. With the arguments "--server [port]", serves the controllers over HTTP, and with "--kiosk [port]",
+     * serves kiosk terminals over the binary kiosk protocol, instead of running the text UI. Both servers may be
+     * started together. With "--engine" as well, the servers apply updates through the command engine. The daily
+     * occupancy history is captured and the kitchen moves room service orders on in every mode, and invoices still
+     * queued at exit are archived before the app stops.
      *
      * @param args A String array contains arguments passed to the program when starting the program.
+     * @throws IOException If a server cannot be started.
      */
-    public static void main(String[] args) {
-        new HRPS().run();
+    public static void main(String[] args) throws IOException {
+        boolean isServing = false;
+        OccupancyHistoryController.getInstance().start();
+        KitchenController.getInstance().start();
+        Runtime.getRuntime().addShutdownHook(new Thread(InvoiceController.getInstance()::stop));
+        if (Arrays.asList(args).contains("--engine")) {
+            CommandEngine engine = CommandEngine.getInstance();
+            Runtime.getRuntime().addShutdownHook(new Thread(engine::stop));
+            engine.start();
+        }
+        for (int i = 0; i < args.length; i++) {
+            boolean hasPort = i + 1 < args.length && !args[i + 1].startsWith("--");
+            if (args[i].equals("--server")) {
+                int port = hasPort ? Integer.parseInt(args[++i]) : HttpServerUI.DEFAULT_PORT;
+                HttpServerUI server = HttpServerUI.getInstance();
+                Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+                server.start(port);
+                isServing = true;
+            } else if (args[i].equals("--kiosk")) {
+                int port = hasPort ? Integer.parseInt(args[++i]) : KioskServerUI.DEFAULT_PORT;
+                KioskServerUI server = KioskServerUI.getInstance();
+                Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+                server.start(port);
+                isServing = true;
+            }
+        }
+        if (!isServing) {
+            new HRPS().run();
+        }
     }
 }
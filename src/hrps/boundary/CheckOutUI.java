@@ -4,11 +4,15 @@ import hrps.control.*;
 import hrps.entity.*;
 import hrps.exception.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.InputMismatchException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Scanner;
 
@@ -80,6 +84,21 @@ public class CheckOutUI {
                     case 2:
                         checkOutAReservationUI(2);
                         break;
+                    case 3:
+                        printRevenueReport();
+                        break;
+                    case 4:
+                        printFolioStatement();
+                        break;
+                    case 5:
+                        postFolioAdjustment();
+                        break;
+                    case 6:
+                        checkOutGroupUI();
+                        break;
+                    case 7:
+                        printInvoices();
+                        break;
                     default:
                         System.out.println("Invalid choice.");
                         break;
@@ -96,6 +115,94 @@ public class CheckOutUI {
         }
     }
 
+    /**
+     * Prints the revenue report of the stays checked out within a period.
+     */
+    private void printRevenueReport() {
+        try {
+            System.out.println("Please enter the first day of the period (yyyy-MM-dd):");
+            LocalDate from = LocalDate.parse(sc.nextLine().trim());
+            System.out.println("Please enter the last day of the period (yyyy-MM-dd):");
+            LocalDate to = LocalDate.parse(sc.nextLine().trim());
+            System.out.println(RevenueController.getInstance().getRevenueReport(from, to));
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date keyed in! Exiting to check out page.");
+        }
+    }
+
+    /**
+     * Prints the interim statement of the folio of the stay in a room.
+     */
+    private void printFolioStatement() {
+        CheckedInReservation reservation = getCheckedInReservationByRoom();
+        if (Objects.nonNull(reservation)) {
+            System.out.println(FolioController.getInstance().getFolio(reservation));
+        }
+    }
+
+    /**
+     * Posts a manual adjustment, such as a charge for a damage or a credit for a complaint, to the folio of the stay
+     * in a room.
+     */
+    private void postFolioAdjustment() {
+        CheckedInReservation reservation = getCheckedInReservationByRoom();
+        if (Objects.isNull(reservation)) {
+            return;
+        }
+        System.out.println("Enter the description of the adjustment: ");
+        String description = sc.nextLine().trim();
+        System.out.println("Enter the amount (negative for a credit): ");
+        try {
+            Money amount = Money.of(Double.parseDouble(sc.nextLine().trim()));
+            FolioPosting posting = FolioController.getInstance().postAdjustment(reservation, description, amount);
+            System.out.printf("Adjustment posted. Balance of the folio: $%s%n", posting.getBalance());
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid amount keyed in! Exiting to check out page.");
+        }
+    }
+
+    /**
+     * Prints an invoice found by its number, or all invoices of a guest found by contact.
+     */
+    private void printInvoices() {
+        System.out.println("Find invoices by 1: invoice number, 2: guest contact");
+        int choice = Parser.getChoice();
+        if (choice == 1) {
+            System.out.println("Enter the invoice number: ");
+            try {
+                Invoice invoice = InvoiceController.getInstance().getInvoice(Long.parseLong(sc.nextLine().trim()));
+                System.out.println(Objects.isNull(invoice) ? "Invoice not found." : invoice);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid invoice number keyed in! Exiting to check out page.");
+            }
+        } else if (choice == 2) {
+            System.out.println("Enter the guest contact: ");
+            List<Invoice> invoices = InvoiceController.getInstance().findInvoicesByGuest(sc.nextLine().trim());
+            if (invoices.isEmpty()) {
+                System.out.println("No invoice found.");
+            }
+            invoices.forEach(System.out::println);
+        } else {
+            System.out.println("Invalid choice.");
+        }
+    }
+
+    /**
+     * Asks for a room number and finds the checked-in reservation of the room.
+     *
+     * @return The checked-in reservation, null if the room does not exist or has no checked-in reservation.
+     */
+    private CheckedInReservation getCheckedInReservationByRoom() {
+        System.out.println("Enter the room number (xx-xx): ");
+        Room room = RoomController.getInstance().findRoomByRoomNumber(sc.nextLine().trim());
+        CheckedInReservation reservation = Objects.isNull(room) ? null
+                : reservationController.findCheckedInReservationByRoom(room);
+        if (Objects.isNull(reservation)) {
+            System.out.println("No guest is checked in to this room.");
+        }
+        return reservation;
+    }
+
     /**
      * Displays the UI for checking out a reservation and making payment.
      *
@@ -105,7 +212,6 @@ public class CheckOutUI {
      * @throws InvalidDateTimeFormatException If the date and time format is invalid.
      */
     private void checkOutAReservationUI(int choice) throws InvalidDateTimeFormatException {
-        OrderController orderController = OrderController.getInstance();
         Guest targetGuest;
         if (choice == 1) {
             System.out.println("Enter guest name for check-out service: ");
@@ -190,14 +296,15 @@ public class CheckOutUI {
             LocalDateTime checkOutDate;
             checkOutDate = getValidDateTime();
 
-            boolean hasPromotion = getPromotion();
-            Bill currentBill = checkOutController.checkOut(targetRoom, hasPromotion, checkOutDate);
+            String promoCode = getPromoCode();
+            Bill currentBill = checkOutController.checkOut(targetRoom, promoCode, checkOutDate);
             System.out.println("Check-out service is completed. Bill is listed below: ");
             System.out.println(currentBill);
-            System.out.println(makePayment(currentBill.getTotalPrice(), targetGuest));
-            reservationController.deleteReservationAfterCheckingOutByRoom(targetRoom);
-            orderController.flushRoomOrderAfterCheckOut(targetRoom);  // remove room orders only when payment is finished
-            if (roomController.checkOutRoom(targetRoom, checkOutDate)) {
+            String receipt = makePayment(currentBill.getTotalPrice(), targetGuest);
+            System.out.println(receipt);
+            long invoiceNumber = InvoiceController.getInstance().issueInvoice(currentBill, receipt);
+            System.out.printf("Invoice No. %06d is issued.%n", invoiceNumber);
+            if (checkOutController.finishCheckOut(targetRoom, checkOutDate, currentBill)) {
                 System.out.printf("Room %s has been set to available.%n", targetRoom.getRoomNumber());
             } else {
                 System.out.printf("Room %s has been set to reserved for future reservation.%n",
@@ -215,6 +322,78 @@ public class CheckOutUI {
         }
     }
 
+    /**
+     * Displays the UI for checking out a group of rooms together, such as a tour group leaving, and paying either
+     * each room's bill or all of them at once as the master folio.
+     *
+     * @throws InvalidDateTimeFormatException If the date and time format is invalid.
+     */
+    private void checkOutGroupUI() throws InvalidDateTimeFormatException {
+        System.out.println("Enter the room numbers (xx-xx), separated by commas: ");
+        List<Room> rooms = new ArrayList<>();
+        for (String roomNumber : sc.nextLine().split(",")) {
+            Room room = roomController.findRoomByRoomNumber(roomNumber.trim());
+            if (Objects.isNull(room)) {
+                System.out.printf("Room %s does not exist. Exiting to check out page.%n", roomNumber.trim());
+                return;
+            }
+            rooms.add(room);
+        }
+        try {
+            System.out.println("Please enter check out time for these rooms (yyyy-MM-dd HH:mm):");
+            LocalDateTime checkOutDate = getValidDateTime();
+            String promoCode = getPromoCode();
+            GroupBill groupBill = checkOutController.checkOutGroup(rooms, promoCode, checkOutDate);
+            System.out.println("Check-out service is completed. Bills are listed below: ");
+            for (Bill bill : groupBill.getBills()) {
+                System.out.printf("Room %s:%n", bill.getCheckedOutReservation().getRoomNum());
+                System.out.println(bill);
+            }
+            System.out.println(groupBill);
+            System.out.println("Settle all rooms with one payment of the master folio? (1: Yes, 0: No)");
+            int choice = Parser.getChoice();
+            while (choice != 0 && choice != 1) {
+                System.out.println("Invalid input. Please enter 1 or 0");
+                choice = Parser.getChoice();
+            }
+            List<String> receipts = new ArrayList<>();
+            if (choice == 1) {
+                Guest guest = groupBill.getBills().get(0).getCheckedOutReservation().getGuest();
+                String receipt = makePayment(groupBill.getTotalPrice(), guest);
+                System.out.println(receipt);
+                receipts.addAll(Collections.nCopies(groupBill.getBills().size(), String.format(
+                        "Settled with the master folio of %d room(s). %s", groupBill.getBills().size(), receipt)));
+            } else {
+                for (Bill bill : groupBill.getBills()) {
+                    System.out.printf("Payment of room %s:%n", bill.getCheckedOutReservation().getRoomNum());
+                    receipts.add(makePayment(bill.getTotalPrice(), bill.getCheckedOutReservation().getGuest()));
+                    System.out.println(receipts.get(receipts.size() - 1));
+                }
+            }
+            for (int i = 0; i < receipts.size(); i++) {
+                long invoiceNumber = InvoiceController.getInstance().issueInvoice(groupBill.getBills().get(i),
+                        receipts.get(i));
+                System.out.printf("Invoice No. %06d is issued for room %s.%n", invoiceNumber,
+                        groupBill.getRooms().get(i).getRoomNumber());
+            }
+            Map<String, Boolean> isVacant = checkOutController.finishGroupCheckOut(checkOutDate, groupBill);
+            for (Map.Entry<String, Boolean> room : isVacant.entrySet()) {
+                if (room.getValue()) {
+                    System.out.printf("Room %s has been set to available.%n", room.getKey());
+                } else {
+                    System.out.printf("Room %s has been set to reserved for future reservation.%n", room.getKey());
+                }
+            }
+            System.out.println("Successfully check out!");
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date or time keyed in! Exiting to check out page.");
+        } catch (InvalidCheckOutTimeException | IllegalRoomInSerializableBinaryFileException
+                 | IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println("Checking out failed. Exiting to check out page.");
+        }
+    }
+
     /**
      * Makes the payment by calling the Payable interface. It allows user to choose the payment method.
      *
@@ -222,7 +401,7 @@ public class CheckOutUI {
      * @param guest       The guest who is paying the bill.
      * @return the String of payment details.
      */
-    private String makePayment(double totalAmount, Guest guest) {
+    private String makePayment(Money totalAmount, Guest guest) {
         System.out.println("Enter payment method, 1: cash, 2: credit card");
         int choice = Parser.getChoice();
         while (choice != 1 && choice != 2) {
@@ -239,18 +418,27 @@ public class CheckOutUI {
     }
 
     /**
-     * Gets from the users input whether the guest has promotion or not.
+     * Gets from the users input whether the guest has promotion or not, and the promotion code if so.
      *
-     * @return true if user wants to use promotion, false otherwise
+     * @return the valid promotion code entered, null if the guest has no promotion
      */
-    private boolean getPromotion() {
+    private String getPromoCode() {
         System.out.println("Do you want to apply promotion code? (1: Yes, 0: No)");
         int choice = Parser.getChoice();
         while (choice != 0 && choice != 1) {
             System.out.println("Invalid input. Please enter 1 or 0");
             choice = Parser.getChoice();
         }
-        return choice == 1;
+        if (choice == 0) {
+            return null;
+        }
+        System.out.println("Enter promotion code (leave empty for none): ");
+        String promoCode = sc.nextLine().trim();
+        while (!promoCode.isEmpty() && !PricingController.getInstance().isValidPromoCode(promoCode)) {
+            System.out.println("Invalid promotion code. Please try again (leave empty for none): ");
+            promoCode = sc.nextLine().trim();
+        }
+        return promoCode.isEmpty() ? null : promoCode;
     }
 
 
@@ -335,6 +523,11 @@ public class CheckOutUI {
         System.out.println("0. Back to main menu");
         System.out.println("1. Check out a guest by name");
         System.out.println("2. Check out a guest by contact");
+        System.out.println("3. Revenue report");
+        System.out.println("4. Print the folio statement of a room");
+        System.out.println("5. Post an adjustment to the folio of a room");
+        System.out.println("6. Check out a group of rooms");
+        System.out.println("7. Print invoices");
     }
 }
 
@@ -0,0 +1,1376 @@
+package hrps.boundary;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import hrps.control.*;
+import hrps.entity.*;
+import hrps.entity.enums.ForecastCategory;
+import hrps.entity.enums.PostingType;
+import hrps.entity.enums.PricingRuleType;
+import hrps.entity.enums.RoomType;
+import hrps.exception.*;
+import tool.CsvReportWriter;
+import tool.Json;
+import tool.ReportWriter;
+import tool.TableReportWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class is used for serving the HRPS controllers over HTTP with JSON bodies, so that many front desks, kiosks
+ * and tablets can share one running HRPS. Requests are handled by a fixed pool of threads, which read the requests and
+ * write the responses in parallel, but access the controllers only while holding the reservation controller's lock
+ * and only for the routing itself. When the command engine is running, requests other than GET are submitted to it
+ * instead, so that concurrent updates are applied and persisted in batches.
+ * <p>
+ * Endpoints:
+ * <ul>
+ *     <li>GET /rooms?type=&amp;bedType=&amp;facing=&amp;status=&amp;checkIn=&amp;checkOut= - search rooms</li>
+ *     <li>GET /rooms/{roomNumber} - get a room</li>
+ *     <li>GET /rooms/{roomNumber}/quote?checkIn=&amp;checkOut=&amp;children=&amp;promoCode= - price of a stay, from
+ *     the rate calendar and the pricing rules</li>
+ *     <li>POST /rooms/{roomNumber}/check-out - check out a room, pay the bill and release the room</li>
+ *     <li>POST /rooms/check-out - check out a group of rooms together, paying each bill or the master folio</li>
+ *     <li>GET /invoices/{number} - an issued invoice; GET /invoices?reservation= or ?contact= - the invoices of a
+ *     reservation or a guest</li>
+ *     <li>GET /rooms/{roomNumber}/folio - interim folio statement of the stay in a room; POST
+ *     /rooms/{roomNumber}/folio - post an adjustment to it</li>
+ *     <li>GET /reservations?contact= - list reservations</li>
+ *     <li>GET /reservations/{code} - get a reservation</li>
+ *     <li>POST /reservations - book a room</li>
+ *     <li>POST /reservations/group - book a block of rooms, all or none</li>
+ *     <li>PUT /reservations/{code} - update a reservation at an expected version</li>
+ *     <li>DELETE /reservations/{code} - cancel a reservation</li>
+ *     <li>POST /reservations/{code}/check-in - check in a reservation</li>
+ *     <li>GET /orders?room= - list room service orders of a room, with their estimated delivery times</li>
+ *     <li>POST /orders - make a room service order</li>
+ *     <li>GET /kitchen - the kitchen's capacity and the orders it is handling; PUT /kitchen - set its capacity</li>
+ *     <li>GET /reports/occupancy and GET /reports/status - room reports, read without any lock; with
+ *     ?format=csv or ?format=table they are streamed as CSV or as a fixed-width table instead of JSON</li>
+ *     <li>GET /reports/history?month= or ?year= - occupancy history of a month (yyyy-MM) or a year (yyyy)</li>
+ *     <li>GET /reports/revenue?from=&amp;to= - revenue of the stays checked out between two dates (yyyy-MM-dd)</li>
+ *     <li>GET /reports/forecast?type=&amp;from= - room-nights on each of the coming nights, by reservation status</li>
+ *     <li>GET /night-audit - the business date; POST /night-audit - audit the business date and roll it</li>
+ *     <li>GET /pricing-rules - the active pricing rules; POST /pricing-rules - add a rule; DELETE
+ *     /pricing-rules/{index} - remove a rule</li>
+ *     <li>GET /front-desk?date= - arrivals and departures of a date (today if none) and the guests in house, read
+ *     without any lock</li>
+ * </ul>
+ * Date-times are written as yyyy-MM-dd HH:mm (ISO yyyy-MM-ddTHH:mm is accepted as well).
+ *
+ * @author Peng Wenxuan
+ */
+public class HttpServerUI {
+    /**
+     * Port used when none is specified.
+     */
+    public static final int DEFAULT_PORT = 8080;
+    /**
+     * Maximum number of queued incoming connections.
+     */
+    private static final int BACKLOG = 256;
+    /**
+     * Number of threads handling requests. Most of a request's time is spent reading and writing the connection,
+     * which does not hold any lock, so this is more than the number of processors.
+     */
+    private static final int THREADS = 16;
+    /**
+     * The only one instance, this is to avoid multiple instantiations.
+     */
+    private static HttpServerUI instance = null;
+    /**
+     * To access guests' data.
+     */
+    private final GuestController guestController = GuestController.getInstance();
+    /**
+     * To access and update rooms' data.
+     */
+    private final RoomController roomController = RoomController.getInstance();
+    /**
+     * To access and update reservations' data, its lock also guards every controller call of this UI.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+    /**
+     * To check out rooms and generate bills.
+     */
+    private final CheckOutController checkOutController = CheckOutController.getInstance();
+    /**
+     * To issue and look up invoices.
+     */
+    private final InvoiceController invoiceController = InvoiceController.getInstance();
+    /**
+     * To access and create room service orders.
+     */
+    private final OrderController orderController = OrderController.getInstance();
+    /**
+     * To estimate the delivery times of orders and set the kitchen's capacity.
+     */
+    private final KitchenController kitchenController = KitchenController.getInstance();
+    /**
+     * To look up menu items when making orders.
+     */
+    private final MenuController menuController = MenuController.getInstance();
+    /**
+     * To manage the pricing rules and price quotes.
+     */
+    private final PricingController pricingController = PricingController.getInstance();
+    /**
+     * To apply updates in batches when the engine is running.
+     */
+    private final CommandEngine commandEngine = CommandEngine.getInstance();
+    /**
+     * The running server, null if the server is not started.
+     */
+    private HttpServer server;
+    /**
+     * Executor that runs the requests on a fixed pool of threads.
+     */
+    private ExecutorService executor;
+
+    /**
+     * Private constructor to prevent instantiation from other classes.
+     */
+    private HttpServerUI() {
+    }
+
+    /**
+     * Get the UI instance, or create new one if no UI was instantiated.
+     *
+     * @return The singleton HttpServerUI instance.
+     */
+    public static HttpServerUI getInstance() {
+        if (Objects.isNull(instance)) {
+            instance = new HttpServerUI();
+        }
+        return instance;
+    }
+
+    /**
+     * Start serving requests on the specified port.
+     *
+     * @param port The port to listen on.
+     * @throws IOException If the server cannot be bound to the port.
+     */
+    public synchronized void start(int port) throws IOException {
+        UI.getInstance().intializeRoom();
+        SnapshotController.getInstance();
+        server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.createContext("/rooms", exchange -> handle(exchange, this::routeRooms));
+        server.createContext("/reservations", exchange -> handle(exchange, this::routeReservations));
+        server.createContext("/orders", exchange -> handle(exchange, this::routeOrders));
+        server.createContext("/kitchen", exchange -> handle(exchange, this::routeKitchen));
+        server.createContext("/reports", exchange -> handle(exchange, this::routeReports, false));
+        server.createContext("/night-audit", exchange -> handle(exchange, this::routeNightAudit));
+        server.createContext("/front-desk", exchange -> handle(exchange, this::routeFrontDesk, false));
+        server.createContext("/pricing-rules", exchange -> handle(exchange, this::routePricingRules));
+        server.createContext("/invoices", exchange -> handle(exchange, this::routeInvoices, false));
+        executor = Executors.newFixedThreadPool(THREADS);
+        server.setExecutor(executor);
+        server.start();
+        System.out.printf("HRPS server is listening on port %d.%n", server.getAddress().getPort());
+    }
+
+    /**
+     * Stop serving requests, waiting at most one second for the requests being handled.
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(1);
+            executor.shutdown();
+            server = null;
+        }
+    }
+
+    /**
+     * A handler of the requests under one context path.
+     */
+    private interface Route {
+        /**
+         * Handle a request. Called while holding the reservation controller's lock, unless the route only reads
+         * immutable published state.
+         *
+         * @param request The request.
+         * @return The response.
+         * @throws HRPSException If the request breaks a business rule.
+         */
+        Response handle(Request request) throws HRPSException;
+    }
+
+    /**
+     * A report streamed row by row into the response instead of being converted to JSON.
+     */
+    private interface Report {
+        /**
+         * Write the report.
+         *
+         * @param writer The report writer to write to.
+         * @throws IOException If the report cannot be written.
+         */
+        void writeTo(ReportWriter writer) throws IOException;
+    }
+
+    /**
+     * A parsed request.
+     */
+    private static class Request {
+        /**
+         * HTTP method, such as GET.
+         */
+        private final String method;
+        /**
+         * Segments of the request path, eg. ["rooms", "02-01", "check-out"].
+         */
+        private final List<String> path;
+        /**
+         * Decoded query parameters.
+         */
+        private final Map<String, String> query;
+        /**
+         * Parsed JSON body, empty if the request has no body.
+         */
+        private final Map<String, Object> body;
+
+        /**
+         * Create a parsed request.
+         *
+         * @param method HTTP method.
+         * @param path   Path segments.
+         * @param query  Query parameters.
+         * @param body   JSON body.
+         */
+        Request(String method, List<String> path, Map<String, String> query, Map<String, Object> body) {
+            this.method = method;
+            this.path = path;
+            this.query = query;
+            this.body = body;
+        }
+
+        /**
+         * Check if this request has the specified method and number of path segments.
+         *
+         * @param method      The HTTP method.
+         * @param numSegments The number of path segments.
+         * @return true if both match.
+         */
+        boolean is(String method, int numSegments) {
+            return this.method.equals(method) && path.size() == numSegments;
+        }
+
+        /**
+         * Get a required string field of the body.
+         *
+         * @param name Name of the field.
+         * @return The field's value as a String.
+         */
+        String string(String name) {
+            Object value = body.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing field: " + name);
+            }
+            return value.toString();
+        }
+
+        /**
+         * Get an optional field of the body as a string.
+         *
+         * @param name         Name of the field.
+         * @param defaultValue Value used when the field is absent.
+         * @return The field's value.
+         */
+        String string(String name, String defaultValue) {
+            Object value = body.get(name);
+            return value == null ? defaultValue : value.toString();
+        }
+
+        /**
+         * Get an optional integer field of the body.
+         *
+         * @param name         Name of the field.
+         * @param defaultValue Value used when the field is absent.
+         * @return The field's value as an int.
+         */
+        int integer(String name, int defaultValue) {
+            Object value = body.get(name);
+            return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+        }
+
+        /**
+         * Get an optional date-time field of the body.
+         *
+         * @param name Name of the field.
+         * @return The field's value, null if it is absent.
+         */
+        LocalDateTime dateTime(String name) {
+            Object value = body.get(name);
+            return value == null ? null : parseDateTime(value.toString());
+        }
+    }
+
+    /**
+     * A response status and a body that is written as JSON.
+     */
+    private static class Response {
+        /**
+         * HTTP status code.
+         */
+        private final int status;
+        /**
+         * Body to be converted to JSON.
+         */
+        private final Object body;
+        /**
+         * Format of the streamed report, csv or table, null if the body is converted to JSON.
+         */
+        private final String format;
+        /**
+         * The streamed report, null if the body is converted to JSON.
+         */
+        private final Report report;
+        /**
+         * Widths of the columns when the report is streamed as a table.
+         */
+        private final int[] widths;
+
+        /**
+         * Create a response.
+         *
+         * @param status HTTP status code.
+         * @param body   Body to be converted to JSON.
+         */
+        Response(int status, Object body) {
+            this.status = status;
+            this.body = body;
+            this.format = null;
+            this.report = null;
+            this.widths = null;
+        }
+
+        /**
+         * Create a 200 OK response streaming a report.
+         *
+         * @param format Format of the report, csv or table.
+         * @param report The report.
+         * @param widths Widths of the columns when the report is streamed as a table.
+         */
+        private Response(String format, Report report, int[] widths) {
+            this.status = 200;
+            this.body = null;
+            this.format = format;
+            this.report = report;
+            this.widths = widths;
+        }
+
+        /**
+         * Create a 200 OK response.
+         *
+         * @param body Body to be converted to JSON.
+         * @return The response.
+         */
+        static Response ok(Object body) {
+            return new Response(200, body);
+        }
+
+        /**
+         * Create an error response.
+         *
+         * @param status  HTTP status code.
+         * @param message The error message.
+         * @return The response.
+         */
+        static Response error(int status, String message) {
+            return new Response(status, Map.of("error", message));
+        }
+
+        /**
+         * Create a response streaming a report.
+         *
+         * @param format Format of the report, csv or table.
+         * @param report The report.
+         * @param widths Widths of the columns when the report is streamed as a table.
+         * @return The response.
+         * @throws IllegalArgumentException If the format is neither csv nor table.
+         */
+        static Response report(String format, Report report, int... widths) {
+            if (!format.equals("csv") && !format.equals("table")) {
+                throw new IllegalArgumentException("Unknown format " + format + ", expected csv or table.");
+            }
+            return new Response(format, report, widths);
+        }
+    }
+
+    /**
+     * Parse a request, route it while holding the reservation controller's lock or on the command engine, and write
+     * the JSON response.
+     *
+     * @param exchange The HTTP exchange.
+     * @param route    The route of the request's context.
+     * @throws IOException If the response cannot be written.
+     */
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        handle(exchange, route, true);
+    }
+
+    /**
+     * Parse a request, route it, and write the JSON response.
+     *
+     * @param exchange  The HTTP exchange.
+     * @param route     The route of the request's context.
+     * @param needsLock false if the route only reads immutable published state, and so is called without any lock.
+     * @throws IOException If the response cannot be written.
+     */
+    private void handle(HttpExchange exchange, Route route, boolean needsLock) throws IOException {
+        Response response;
+        try {
+            Request request = parseRequest(exchange);
+            if (!needsLock) {
+                response = route.handle(request);
+            } else if (commandEngine.isRunning() && !request.method.equals("GET")) {
+                response = commandEngine.call(() -> route.handle(request));
+            } else {
+                synchronized (reservationController) {
+                    response = route.handle(request);
+                }
+            }
+        } catch (RoomNumberNotExistException e) {
+            response = Response.error(404, e.getMessage());
+        } catch (ReservationVersionConflictException | RoomNotAvailableException e) {
+            response = Response.error(409, e.getMessage());
+        } catch (HRPSException | IllegalArgumentException | DateTimeParseException e) {
+            response = Response.error(400, e.getMessage());
+        } catch (RuntimeException e) {
+            response = Response.error(500, "An error has occurred: " + e);
+        }
+        if (Objects.nonNull(response.report)) {
+            writeReport(exchange, response);
+            return;
+        }
+        byte[] bytes = Json.write(response.body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Stream a report into the response body with chunked transfer encoding, so that its first rows are sent before
+     * the rest are written.
+     *
+     * @param exchange The HTTP exchange.
+     * @param response The response streaming the report.
+     * @throws IOException If the response cannot be written.
+     */
+    private void writeReport(HttpExchange exchange, Response response) throws IOException {
+        boolean isCsv = response.format.equals("csv");
+        exchange.getResponseHeaders().set("Content-Type", (isCsv ? "text/csv" : "text/plain") + "; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, 0);
+        try (Writer out = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8);
+             ReportWriter writer = isCsv ? new CsvReportWriter(out) : new TableReportWriter(out, response.widths)) {
+            response.report.writeTo(writer);
+        }
+    }
+
+    /**
+     * Read the method, path, query and JSON body of a request.
+     *
+     * @param exchange The HTTP exchange.
+     * @return The parsed request.
+     * @throws IOException If the body cannot be read.
+     */
+    private Request parseRequest(HttpExchange exchange) throws IOException {
+        List<String> path = new ArrayList<>();
+        for (String segment : exchange.getRequestURI().getPath().split("/")) {
+            if (!segment.isEmpty()) {
+                path.add(URLDecoder.decode(segment, StandardCharsets.UTF_8));
+            }
+        }
+        Map<String, String> query = new HashMap<>();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        return new Request(exchange.getRequestMethod(), path, query, Json.parseObject(body));
+    }
+
+    /**
+     * Route requests under /rooms.
+     *
+     * @param request The request.
+     * @return The response.
+     * @throws HRPSException If the request breaks a business rule.
+     */
+    private Response routeRooms(Request request) throws HRPSException {
+        if (request.is("GET", 1)) {
+            List<Room> rooms = request.query.containsKey("type") ?
+                    roomController.findRoomByType(request.query.get("type")) : roomController.getAllRooms();
+            if (request.query.containsKey("bedType")) {
+                rooms = roomController.findRoomByBedType(rooms, request.query.get("bedType"));
+            }
+            if (request.query.containsKey("facing")) {
+                rooms = roomController.findRoomByFacing(rooms, request.query.get("facing"));
+            }
+            if (request.query.containsKey("status")) {
+                rooms = roomController.findRoomByStatus(rooms, request.query.get("status"));
+            }
+            if (request.query.containsKey("checkIn") && request.query.containsKey("checkOut")) {
+                rooms = roomController.checkAvailableRooms(rooms, parseDateTime(request.query.get("checkIn")),
+                        parseDateTime(request.query.get("checkOut")));
+            }
+            List<Object> body = new ArrayList<>();
+            for (Room room : rooms) {
+                body.add(toJson(room));
+            }
+            return Response.ok(body);
+        }
+        if (request.is("POST", 2) && request.path.get(1).equals("check-out")) {
+            return checkOutGroup(request);
+        }
+        if (request.path.size() < 2) {
+            return Response.error(405, "Method not allowed");
+        }
+        Room room = findRoom(request.path.get(1));
+        if (request.is("GET", 2)) {
+            return Response.ok(toJson(room));
+        }
+        if (request.is("POST", 3) && request.path.get(2).equals("check-out")) {
+            return checkOut(room, request);
+        }
+        if (request.path.size() == 3 && request.path.get(2).equals("folio")) {
+            return routeFolio(room, request);
+        }
+        if (request.is("GET", 3) && request.path.get(2).equals("quote")) {
+            if (!request.query.containsKey("checkIn") || !request.query.containsKey("checkOut")) {
+                return Response.error(400, "A check-in and a check-out time are required.");
+            }
+            LocalDateTime checkInTime = parseDateTime(request.query.get("checkIn"));
+            LocalDateTime checkOutTime = parseDateTime(request.query.get("checkOut"));
+            int numberOfChild = Integer.parseInt(request.query.getOrDefault("children", "0"));
+            String promoCode = request.query.get("promoCode");
+            if (Objects.nonNull(promoCode) && !pricingController.isValidPromoCode(promoCode)) {
+                return Response.error(400, "Invalid promotion code: " + promoCode);
+            }
+            Money roomPrice = roomController.quoteStay(room, checkInTime, checkOutTime);
+            int numberOfNights = (int) Math.max(0, checkInTime.until(checkOutTime, ChronoUnit.DAYS));
+            long totalCents = pricingController.getPipeline().price(roomPrice.getCents(), 0, numberOfNights,
+                    numberOfChild, promoCode, null);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("roomNumber", room.getRoomNumber());
+            body.put("checkIn", checkInTime);
+            body.put("checkOut", checkOutTime);
+            body.put("roomPrice", roomPrice.toDouble());
+            body.put("totalPrice", Money.ofCents(totalCents).toDouble());
+            return Response.ok(body);
+        }
+        return Response.error(405, "Method not allowed");
+    }
+
+    /**
+     * Get the interim statement of the folio of the stay in a room, or post an adjustment to it.
+     *
+     * @param room    The room.
+     * @param request The request, with fields description and amount to post an adjustment.
+     * @return The response containing the folio.
+     */
+    private Response routeFolio(Room room, Request request) {
+        CheckedInReservation reservation = reservationController.findCheckedInReservationByRoom(room);
+        if (reservation == null) {
+            return Response.error(409, "Room " + room.getRoomNumber() + " has no checked-in reservation.");
+        }
+        FolioController folioController = FolioController.getInstance();
+        if (request.method.equals("GET")) {
+            return Response.ok(toJson(folioController.getFolio(reservation)));
+        }
+        if (request.method.equals("POST")) {
+            Money amount = Money.of(Double.parseDouble(request.string("amount")));
+            folioController.postAdjustment(reservation, request.string("description"), amount);
+            return new Response(201, toJson(folioController.getFolio(reservation)));
+        }
+        return Response.error(405, "Method not allowed");
+    }
+
+    /**
+     * Check out a room: generate the bill, pay it with cash or the guest's credit card, and release the room.
+     *
+     * @param room    The room to be checked out.
+     * @param request The request, with optional fields checkOutTime, promotion and payment ("cash" or "card").
+     * @return The response containing the bill and the payment.
+     * @throws HRPSException If the room cannot be checked out at that time.
+     */
+    private Response checkOut(Room room, Request request) throws HRPSException {
+        CheckedInReservation reservation = reservationController.findCheckedInReservationByRoom(room);
+        if (reservation == null) {
+            return Response.error(409, "Room " + room.getRoomNumber() + " has no checked-in reservation.");
+        }
+        LocalDateTime checkOutTime = Objects.requireNonNullElse(request.dateTime("checkOutTime"), LocalDateTime.now());
+        String promoCode = request.string("promoCode",
+                Boolean.TRUE.equals(request.body.get("promotion")) ? PricingController.DEFAULT_PROMO_CODE : null);
+        Bill bill = checkOutController.checkOut(room, promoCode, checkOutTime);
+        Payable payment = "card".equals(request.body.get("payment")) ?
+                checkOutController.generatePayment(bill.getTotalPrice(), reservation.getGuest().getCreditCard()) :
+                checkOutController.generatePayment(bill.getTotalPrice());
+        String receipt = payment.pay();
+        boolean isVacant = checkOutController.finishCheckOut(room, checkOutTime, bill);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("roomNumber", room.getRoomNumber());
+        body.put("totalPrice", bill.getTotalPrice().toDouble());
+        body.put("breakdown", toJson(bill.getBreakdown()));
+        body.put("invoiceNumber", invoiceController.issueInvoice(bill, receipt));
+        body.put("payment", receipt);
+        body.put("roomStatus", isVacant ? "VACANT" : "RESERVED");
+        return Response.ok(body);
+    }
+
+    /**
+     * Check out a group of rooms together: generate their bills, pay them one by one or together as the master folio,
+     * and release the rooms, persisting every change in one commit.
+     *
+     * @param request The request, with required field rooms (a list of room numbers) and optional fields
+     *                checkOutTime, promoCode, payment ("cash" or "card") and consolidated (true to pay the master
+     *                folio with one payment, by the first room's guest if by card).
+     * @return The response containing the bill of each room, the master folio and the payments.
+     * @throws HRPSException If a room does not exist or cannot be checked out at that time.
+     */
+    private Response checkOutGroup(Request request) throws HRPSException {
+        Object requestedRooms = request.body.get("rooms");
+        if (!(requestedRooms instanceof List) || ((List<?>) requestedRooms).isEmpty()) {
+            throw new IllegalArgumentException("A group check-out must contain at least one room.");
+        }
+        List<Room> rooms = new ArrayList<>();
+        for (Object roomNumber : (List<?>) requestedRooms) {
+            rooms.add(findRoom(String.valueOf(roomNumber)));
+        }
+        LocalDateTime checkOutTime = Objects.requireNonNullElse(request.dateTime("checkOutTime"), LocalDateTime.now());
+        GroupBill groupBill = checkOutController.checkOutGroup(rooms, request.string("promoCode", null),
+                checkOutTime);
+        boolean isByCard = "card".equals(request.body.get("payment"));
+        List<Object> payments = new ArrayList<>();
+        List<String> receipts = new ArrayList<>();
+        if (Boolean.TRUE.equals(request.body.get("consolidated"))) {
+            Guest guest = groupBill.getBills().get(0).getCheckedOutReservation().getGuest();
+            String receipt = generatePayment(groupBill.getTotalPrice(), guest, isByCard).pay();
+            payments.add(receipt);
+            receipts.addAll(Collections.nCopies(groupBill.getBills().size(), String.format(
+                    "Settled with the master folio of %d room(s). %s", groupBill.getBills().size(), receipt)));
+        } else {
+            for (Bill bill : groupBill.getBills()) {
+                Guest guest = bill.getCheckedOutReservation().getGuest();
+                receipts.add(generatePayment(bill.getTotalPrice(), guest, isByCard).pay());
+            }
+            payments.addAll(receipts);
+        }
+        Map<String, Boolean> isVacant = checkOutController.finishGroupCheckOut(checkOutTime, groupBill);
+        List<Object> bills = new ArrayList<>();
+        for (int i = 0; i < groupBill.getBills().size(); i++) {
+            Bill bill = groupBill.getBills().get(i);
+            String roomNumber = bill.getCheckedOutReservation().getRoomNum();
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("roomNumber", roomNumber);
+            json.put("totalPrice", bill.getTotalPrice().toDouble());
+            json.put("breakdown", toJson(bill.getBreakdown()));
+            json.put("invoiceNumber", invoiceController.issueInvoice(bill, receipts.get(i)));
+            json.put("roomStatus", isVacant.get(roomNumber) ? "VACANT" : "RESERVED");
+            bills.add(json);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("rooms", bills);
+        body.put("totalPrice", groupBill.getTotalPrice().toDouble());
+        body.put("masterFolio", groupBill.toString());
+        body.put("payments", payments);
+        return Response.ok(body);
+    }
+
+    /**
+     * Generate a payment with cash or a guest's credit card.
+     *
+     * @param totalAmount Total amount needed to be paid.
+     * @param guest       The guest paying.
+     * @param isByCard    true to pay with the guest's credit card, false to pay with cash.
+     * @return The payment.
+     */
+    private Payable generatePayment(Money totalAmount, Guest guest, boolean isByCard) {
+        return isByCard ? checkOutController.generatePayment(totalAmount, guest.getCreditCard()) :
+                checkOutController.generatePayment(totalAmount);
+    }
+
+    /**
+     * Route requests under /reservations.
+     *
+     * @param request The request.
+     * @return The response.
+     * @throws HRPSException If the request breaks a business rule.
+     */
+    private Response routeReservations(Request request) throws HRPSException {
+        if (request.is("GET", 1)) {
+            List<Reservation> reservations = new ArrayList<>();
+            if (request.query.containsKey("contact")) {
+                reservations.addAll(reservationController.searchReservationsByContact(request.query.get("contact")));
+            } else {
+                reservations.addAll(reservationController.getAllReservations());
+                reservations.addAll(reservationController.getAllWaitingReservations());
+            }
+            List<Object> body = new ArrayList<>();
+            for (Reservation reservation : reservations) {
+                body.add(toJson(reservation));
+            }
+            return Response.ok(body);
+        }
+        if (request.is("POST", 1)) {
+            Guest guest = findGuest(request.string("contact"));
+            ConfirmedReservation reservation = reservationController.bookRoom(guest,
+                    parseDateTime(request.string("checkIn")), parseDateTime(request.string("checkOut")),
+                    request.integer("adults", 1), request.integer("children", 0), request.string("roomNumber"));
+            return new Response(201, toJson(reservation));
+        }
+        if (request.is("POST", 2) && request.path.get(1).equals("group")) {
+            Guest guest = findGuest(request.string("contact"));
+            List<ConfirmedReservation> reservations = reservationController.bookRooms(guest,
+                    request.string("type", null), request.string("bedType", null), request.string("facing", null),
+                    parseDateTime(request.string("checkIn")), parseDateTime(request.string("checkOut")),
+                    request.integer("rooms", 1), request.integer("adults", 1), request.integer("children", 0));
+            List<Object> body = new ArrayList<>();
+            for (Reservation reservation : reservations) {
+                body.add(toJson(reservation));
+            }
+            return new Response(201, body);
+        }
+        if (request.path.size() < 2) {
+            return Response.error(405, "Method not allowed");
+        }
+        Reservation reservation = findReservation(request.path.get(1));
+        if (reservation == null) {
+            return Response.error(404, "Reservation not found.");
+        }
+        if (request.is("GET", 2)) {
+            return Response.ok(toJson(reservation));
+        }
+        if (request.is("PUT", 2)) {
+            return updateReservation(reservation, request);
+        }
+        if (request.is("DELETE", 2)) {
+            boolean isVacant = reservationController.cancelReservation(reservation);
+            return Response.ok(Map.of("cancelled", reservation.getReservationCode().toString(),
+                    "roomStatus", isVacant ? "VACANT" : "RESERVED"));
+        }
+        if (request.is("POST", 3) && request.path.get(2).equals("check-in")) {
+            LocalDateTime checkInTime = Objects.requireNonNullElse(request.dateTime("checkInTime"),
+                    LocalDateTime.now());
+            reservationController.validateCheckIn(reservation, checkInTime);
+            Reservation checkedIn = findReservation(request.path.get(1));
+            if (checkedIn == null) {
+                return Response.error(409, "The reservation has expired.");
+            }
+            return Response.ok(toJson(checkedIn));
+        }
+        return Response.error(405, "Method not allowed");
+    }
+
+    /**
+     * Update the check-in time, check-out time and number of guests of a reservation, only if the reservation is at
+     * the version given in the request. All the changes are applied as one transaction, so either all of them are
+     * persisted with one commit or none is.
+     *
+     * @param reservation The reservation to be updated.
+     * @param request     The request, with required field version and optional fields checkIn, checkOut, adults
+     *                    and children.
+     * @return The response containing the updated reservation.
+     * @throws HRPSException If the reservation was modified meanwhile or no room is available for the new period.
+     */
+    private Response updateReservation(Reservation reservation, Request request) throws HRPSException {
+        Object version = request.body.get("version");
+        if (!(version instanceof Number)) {
+            throw new IllegalArgumentException("Missing field: version");
+        }
+        long expectedVersion = ((Number) version).longValue();
+        if (reservation.getVersion() != expectedVersion) {
+            throw new ReservationVersionConflictException();
+        }
+        LocalDateTime checkInTime = Objects.requireNonNullElse(request.dateTime("checkIn"),
+                reservation.getCheckInTime());
+        LocalDateTime checkOutTime = Objects.requireNonNullElse(request.dateTime("checkOut"),
+                reservation.getCheckOutTime());
+        boolean isPeriodChanged = !checkInTime.equals(reservation.getCheckInTime())
+                || !checkOutTime.equals(reservation.getCheckOutTime());
+        if (isPeriodChanged && !checkInTime.isBefore(checkOutTime)) {
+            throw new InvalidDatePairException();
+        }
+        boolean isGuestsChanged = request.body.containsKey("adults") || request.body.containsKey("children");
+        int numOfAdult = request.integer("adults", reservation.getNumAdult());
+        int numOfChild = request.integer("children", reservation.getNumChild());
+        if (numOfAdult < 0 || numOfChild < 0) {
+            throw new NegativeNumberException();
+        }
+        Transaction.apply(() -> {
+            if (isPeriodChanged) {
+                reservationController.updateStayPeriod(reservation, checkInTime, checkOutTime, expectedVersion);
+                if (!checkInTime.equals(reservation.getCheckInTime())
+                        || !checkOutTime.equals(reservation.getCheckOutTime())) {
+                    throw new RoomNotAvailableException();
+                }
+            }
+            if (isGuestsChanged) {
+                reservationController.updateNumberOfGuests(reservation, numOfAdult, numOfChild);
+            }
+            return reservation;
+        });
+        return Response.ok(toJson(reservation));
+    }
+
+    /**
+     * Route requests under /orders.
+     *
+     * @param request The request.
+     * @return The response.
+     * @throws HRPSException If the request breaks a business rule.
+     */
+    private Response routeOrders(Request request) throws HRPSException {
+        if (request.is("GET", 1)) {
+            if (!request.query.containsKey("room")) {
+                throw new IllegalArgumentException("Missing parameter: room");
+            }
+            Room room = findRoom(request.query.get("room"));
+            Map<UUID, LocalDateTime> estimates = kitchenController.getEstimatedDeliveryTimes(LocalDateTime.now());
+            List<Object> body = new ArrayList<>();
+            for (OrderedRoomService order : orderController.getRoomOrder(room)) {
+                body.add(toJson(order, estimates.get(order.getOrderID())));
+            }
+            return Response.ok(body);
+        }
+        if (request.is("POST", 1)) {
+            Room room = findRoom(request.string("room"));
+            if (!roomController.canBeOrdered(room.getRoomNumber())) {
+                return Response.error(409, "This room has no guest and cannot order service now!");
+            }
+            List<OrderedMenuItem> items = new ArrayList<>();
+            Object requestedItems = request.body.get("items");
+            if (!(requestedItems instanceof List) || ((List<?>) requestedItems).isEmpty()) {
+                throw new IllegalArgumentException("An order must contain at least one item.");
+            }
+            for (Object requestedItem : (List<?>) requestedItems) {
+                if (!(requestedItem instanceof Map)) {
+                    throw new IllegalArgumentException("Each item must be an object with a name and a quantity.");
+                }
+                Map<?, ?> item = (Map<?, ?>) requestedItem;
+                String name = String.valueOf(item.get("name"));
+                if (!menuController.existMenuItem(name)) {
+                    throw new MenuItemNotExistException();
+                }
+                int quantity = item.get("quantity") instanceof Number ? ((Number) item.get("quantity")).intValue() : 1;
+                if (quantity <= 0) {
+                    throw new InvalidOrderedMenuItemQuantityException();
+                }
+                MenuItem menuItem = menuController.getMenuItem(name);
+                items.add(new OrderedMenuItem(menuItem.getName(), menuItem.getDescription(), menuItem.getPrice(),
+                        quantity));
+            }
+            Object remarks = request.body.get("remarks");
+            OrderedRoomService order = orderController.makeOrder(room, remarks == null ? "" : remarks.toString(),
+                    items);
+            return new Response(201, toJson(order, kitchenController.getEstimatedDeliveryTime(order)));
+        }
+        return Response.error(405, "Method not allowed");
+    }
+
+    /**
+     * Route requests under /kitchen.
+     *
+     * @param request The request.
+     * @return The response.
+     */
+    private Response routeKitchen(Request request) {
+        if (request.is("PUT", 1)) {
+            kitchenController.setCapacity(request.integer("capacity", 0));
+        } else if (!request.is("GET", 1)) {
+            return Response.error(405, "Method not allowed");
+        }
+        Map<UUID, LocalDateTime> estimates = kitchenController.getEstimatedDeliveryTimes(LocalDateTime.now());
+        List<OrderedRoomService> handled = new ArrayList<>();
+        for (OrderedRoomService order : orderController.getAllOrders()) {
+            if (estimates.containsKey(order.getOrderID())) {
+                handled.add(order);
+            }
+        }
+        handled.sort(Comparator.comparing(order -> estimates.get(order.getOrderID())));
+        List<Object> orders = new ArrayList<>();
+        for (OrderedRoomService order : handled) {
+            orders.add(toJson(order, estimates.get(order.getOrderID())));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("capacity", kitchenController.getCapacity());
+        body.put("orders", orders);
+        return Response.ok(body);
+    }
+
+    /**
+     * Route requests under /pricing-rules.
+     *
+     * @param request The request.
+     * @return The response.
+     */
+    private Response routePricingRules(Request request) {
+        if (request.is("GET", 1)) {
+            List<Object> body = new ArrayList<>();
+            for (PricingRule rule : pricingController.getRules()) {
+                body.add(toJson(rule));
+            }
+            return Response.ok(body);
+        }
+        if (request.is("POST", 1)) {
+            String name = request.string("name");
+            PricingRule rule;
+            switch (PricingRuleType.valueOf(request.string("type").toUpperCase())) {
+                case PROMO_CODE:
+                    rule = PricingRule.promoCode(name, request.string("promoCode"), request.integer("percent", 0));
+                    break;
+                case LENGTH_OF_STAY:
+                    rule = PricingRule.lengthOfStay(name, request.integer("minimumNights", 0),
+                            request.integer("percent", 0));
+                    break;
+                case CHILD:
+                    rule = PricingRule.childCharge(name, Money.of(Double.parseDouble(request.string("charge"))));
+                    break;
+                default:
+                    rule = PricingRule.tax(name, request.integer("percent", 0));
+                    break;
+            }
+            pricingController.addRule(rule);
+            return new Response(201, toJson(rule));
+        }
+        if (request.is("DELETE", 2)) {
+            try {
+                return Response.ok(toJson(pricingController.removeRule(Integer.parseInt(request.path.get(1)))));
+            } catch (IndexOutOfBoundsException e) {
+                return Response.error(404, "Pricing rule not found.");
+            }
+        }
+        return Response.error(405, "Method not allowed");
+    }
+
+    /**
+     * Route requests under /night-audit.
+     *
+     * @param request The request.
+     * @return The response.
+     */
+    private Response routeNightAudit(Request request) {
+        NightAuditController nightAuditController = NightAuditController.getInstance();
+        if (request.is("GET", 1)) {
+            return Response.ok(Map.of("businessDate", nightAuditController.getBusinessDate().toString()));
+        }
+        if (request.is("POST", 1)) {
+            NightAuditReport report = nightAuditController.runNightAudit();
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("auditedDate", report.getAuditedDate().toString());
+            body.put("businessDate", nightAuditController.getBusinessDate().toString());
+            body.put("expiredReservations", report.getNumberOfExpiredReservations());
+            body.put("postedStays", report.getNumberOfPostedStays());
+            body.put("postedRoomCharges", report.getPostedRoomCharges().toDouble());
+            body.put("occupiedRooms", report.getNumberOfOccupiedRooms());
+            return Response.ok(body);
+        }
+        return Response.error(405, "Method not allowed");
+    }
+
+    /**
+     * Route requests under /front-desk.
+     *
+     * @param request The request.
+     * @return The response.
+     */
+    private Response routeFrontDesk(Request request) {
+        if (request.is("GET", 1)) {
+            LocalDate date = request.query.containsKey("date") ? LocalDate.parse(request.query.get("date"))
+                    : LocalDate.now();
+            FrontDeskView frontDeskView = reservationController.getFrontDeskView();
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("date", date.toString());
+            body.put("arrivals", toJson(frontDeskView.getArrivals(date)));
+            body.put("departures", toJson(frontDeskView.getDepartures(date)));
+            body.put("inHouse", toJson(frontDeskView.getInHouse()));
+            return Response.ok(body);
+        }
+        return Response.error(405, "Method not allowed");
+    }
+
+    /**
+     * Route requests under /invoices. Invoices are looked up without the reservation controller's lock.
+     *
+     * @param request The request.
+     * @return The response.
+     */
+    private Response routeInvoices(Request request) {
+        if (request.is("GET", 1)) {
+            List<Invoice> invoices;
+            if (request.query.containsKey("reservation")) {
+                invoices = invoiceController.findInvoicesByReservation(
+                        UUID.fromString(request.query.get("reservation")));
+            } else if (request.query.containsKey("contact")) {
+                invoices = invoiceController.findInvoicesByGuest(request.query.get("contact"));
+            } else {
+                throw new IllegalArgumentException("Missing query: reservation or contact");
+            }
+            List<Object> body = new ArrayList<>();
+            for (Invoice invoice : invoices) {
+                body.add(toJson(invoice));
+            }
+            return Response.ok(body);
+        }
+        if (request.is("GET", 2)) {
+            Invoice invoice = invoiceController.getInvoice(Long.parseLong(request.path.get(1)));
+            return invoice == null ? Response.error(404, "Invoice not found.") : Response.ok(toJson(invoice));
+        }
+        return Response.error(405, "Method not allowed");
+    }
+
+    /**
+     * Route requests under /reports.
+     *
+     * @param request The request.
+     * @return The response.
+     */
+    private Response routeReports(Request request) {
+        if (request.is("GET", 2) && request.path.get(1).equals("occupancy")) {
+            if (request.query.containsKey("format")) {
+                return Response.report(request.query.get("format"), roomController::writeRoomOccupancyReport,
+                        12, 7, 6, 96);
+            }
+            return Response.ok(Map.of("report", roomController.getRoomOccupancyReport()));
+        }
+        if (request.is("GET", 2) && request.path.get(1).equals("status")) {
+            if (request.query.containsKey("format")) {
+                return Response.report(request.query.get("format"), roomController::writeRoomStatusReport,
+                        12, 16, 96);
+            }
+            return Response.ok(Map.of("report", roomController.getRoomStatusRateReport()));
+        }
+        if (request.is("GET", 2) && request.path.get(1).equals("history")) {
+            OccupancyHistoryController historyController = OccupancyHistoryController.getInstance();
+            if (request.query.containsKey("month")) {
+                return Response.ok(Map.of("report",
+                        historyController.getMonthlyOccupancyReport(YearMonth.parse(request.query.get("month")))));
+            }
+            if (request.query.containsKey("year")) {
+                return Response.ok(Map.of("report",
+                        historyController.getYearlyOccupancyReport(Year.parse(request.query.get("year")))));
+            }
+            return Response.error(400, "A month or a year is required.");
+        }
+        if (request.is("GET", 2) && request.path.get(1).equals("forecast")) {
+            OccupancyForecast forecast = reservationController.getOccupancyForecast();
+            RoomType roomType = request.query.containsKey("type") ?
+                    RoomType.valueOf(request.query.get("type").toUpperCase()) : null;
+            LocalDate from = request.query.containsKey("from") ? LocalDate.parse(request.query.get("from")) :
+                    LocalDate.now();
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("from", from.toString());
+            body.put("confirmed", toList(forecast.getForecast(ForecastCategory.CONFIRMED, roomType, from)));
+            body.put("checkedIn", toList(forecast.getForecast(ForecastCategory.CHECKED_IN, roomType, from)));
+            body.put("waitlisted", toList(forecast.getForecast(ForecastCategory.WAITLISTED, roomType, from)));
+            return Response.ok(body);
+        }
+        if (request.is("GET", 2) && request.path.get(1).equals("revenue")) {
+            if (!request.query.containsKey("from") || !request.query.containsKey("to")) {
+                return Response.error(400, "A period from and to is required.");
+            }
+            return Response.ok(Map.of("report", RevenueController.getInstance().getRevenueReport(
+                    LocalDate.parse(request.query.get("from")), LocalDate.parse(request.query.get("to")))));
+        }
+        return Response.error(404, "Report not found.");
+    }
+
+    /**
+     * Copy the counts of a buffer into a list, to be written as a JSON array.
+     *
+     * @param buffer The buffer.
+     * @return The list of counts.
+     */
+    private static List<Integer> toList(IntBuffer buffer) {
+        List<Integer> list = new ArrayList<>(buffer.remaining());
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            list.add(buffer.get(i));
+        }
+        return list;
+    }
+
+    /**
+     * Find a room by its number.
+     *
+     * @param roomNumber The room number.
+     * @return The room.
+     * @throws HRPSException If the room number is malformed or does not exist.
+     */
+    private Room findRoom(String roomNumber) throws HRPSException {
+        roomController.isValidRoomNumber(roomNumber);
+        return roomController.findRoomByRoomNumber(roomNumber);
+    }
+
+    /**
+     * Find a registered guest by contact.
+     *
+     * @param contact The guest's contact.
+     * @return The guest.
+     */
+    private Guest findGuest(String contact) {
+        List<Guest> guests = guestController.searchGuestByContact(contact);
+        if (guests.isEmpty()) {
+            throw new IllegalArgumentException("No guest is registered with contact " + contact + ".");
+        }
+        return guests.get(0);
+    }
+
+    /**
+     * Find a non-waitlisted or waitlisted reservation by its code.
+     *
+     * @param code The reservation code.
+     * @return The reservation, null if there is no reservation with the code.
+     */
+    private Reservation findReservation(String code) {
+        UUID reservationCode = UUID.fromString(code);
+        List<Reservation> found = reservationController.searchReservationsByCode(reservationCode);
+        if (!found.isEmpty()) {
+            return found.get(0);
+        }
+        for (WaitListReservation reservation : reservationController.getAllWaitingReservations()) {
+            if (reservation.getReservationCode().equals(reservationCode)) {
+                return reservation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parse a date-time written as yyyy-MM-dd HH:mm or yyyy-MM-ddTHH:mm.
+     *
+     * @param text The text to parse.
+     * @return The date-time.
+     */
+    static LocalDateTime parseDateTime(String text) {
+        return LocalDateTime.parse(text.trim().replace(" ", "T"));
+    }
+
+    /**
+     * Convert a room to a JSON object.
+     *
+     * @param room The room.
+     * @return A Map representing the room.
+     */
+    private static Map<String, Object> toJson(Room room) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("roomNumber", room.getRoomNumber());
+        json.put("type", room.getRoomType().toString());
+        json.put("bedType", room.getRoomBedType().toString());
+        json.put("facing", room.getRoomFacing().toString());
+        json.put("status", room.getRoomStatus().toString());
+        json.put("wifi", room.isHasWiFi());
+        json.put("smokingFree", room.isSmokingFree());
+        json.put("rate", room.getRate().toDouble());
+        return json;
+    }
+
+    /**
+     * Convert a reservation to a JSON object.
+     *
+     * @param reservation The reservation.
+     * @return A Map representing the reservation.
+     */
+    private static Map<String, Object> toJson(Reservation reservation) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("code", reservation.getReservationCode().toString());
+        json.put("version", reservation.getVersion());
+        json.put("status", reservation.getStatus());
+        json.put("roomNumber", reservation.getRoomNum());
+        json.put("guestName", reservation.getGuest().getGuestName());
+        json.put("contact", reservation.getGuest().getContact());
+        json.put("adults", reservation.getNumAdult());
+        json.put("children", reservation.getNumChild());
+        json.put("checkIn", reservation.getCheckInTime());
+        json.put("checkOut", reservation.getCheckOutTime());
+        return json;
+    }
+
+    /**
+     * Convert a list of reservation snapshots to a JSON array.
+     *
+     * @param reservations The reservation snapshots.
+     * @return A List representing the reservations.
+     */
+    private static List<Object> toJson(List<ReservationSnapshot> reservations) {
+        List<Object> json = new ArrayList<>(reservations.size());
+        for (ReservationSnapshot reservation : reservations) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("code", reservation.getReservationCode().toString());
+            item.put("version", reservation.getVersion());
+            item.put("status", reservation.getStatus());
+            item.put("roomNumber", reservation.getRoomNum());
+            item.put("guestName", reservation.getGuestName());
+            item.put("contact", reservation.getContact());
+            item.put("adults", reservation.getNumAdult());
+            item.put("children", reservation.getNumChild());
+            item.put("checkIn", reservation.getCheckInTime());
+            item.put("checkOut", reservation.getCheckOutTime());
+            json.add(item);
+        }
+        return json;
+    }
+
+    /**
+     * Convert a room service order to a JSON object.
+     *
+     * @param order                 The order.
+     * @param estimatedDeliveryTime The estimated delivery time of the order, null if it is delivered.
+     * @return A Map representing the order.
+     */
+    private static Map<String, Object> toJson(OrderedRoomService order, LocalDateTime estimatedDeliveryTime) {
+        List<Object> items = new ArrayList<>();
+        for (OrderedMenuItem item : order.getOrderItems()) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("name", item.getName());
+            json.put("quantity", item.getQuantity());
+            json.put("price", item.getPrice().toDouble());
+            items.add(json);
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", order.getOrderID().toString());
+        json.put("roomNumber", order.getRoom().getRoomNumber());
+        json.put("orderTime", order.getOrderTime());
+        json.put("remarks", order.getRemark());
+        json.put("status", order.getOrderStatus().toString());
+        json.put("estimatedDeliveryTime", estimatedDeliveryTime);
+        json.put("items", items);
+        json.put("totalPrice", order.getTotalPrice().toDouble());
+        return json;
+    }
+
+    /**
+     * Convert a bill's breakdown to a JSON object.
+     *
+     * @param breakdown The breakdown.
+     * @return A Map representing the breakdown.
+     */
+    private static Map<String, Object> toJson(BillBreakdown breakdown) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("nights", breakdown.getNumberOfNights());
+        json.put("weekdayNights", breakdown.getWeekdayNights());
+        json.put("weekendNights", breakdown.getWeekendNights());
+        json.put("roomPrice", breakdown.getRoomPrice().toDouble());
+        json.put("servicePrice", breakdown.getServicePrice().toDouble());
+        json.put("folioAdjustments", breakdown.getFolioAdjustments().toDouble());
+        json.put("childCharge", breakdown.getChildCharge().toDouble());
+        json.put("promotionDiscount", breakdown.getPromotionDiscount().toDouble());
+        json.put("taxPayable", breakdown.getTaxPayable().toDouble());
+        List<Object> adjustments = new ArrayList<>();
+        for (int i = 0; i < breakdown.getNumberOfAdjustments(); i++) {
+            if (breakdown.getAdjustment(i).getCents() != 0) {
+                Map<String, Object> adjustment = new LinkedHashMap<>();
+                adjustment.put("rule", breakdown.getRule(i).getName().trim());
+                adjustment.put("amount", breakdown.getAdjustment(i).toDouble());
+                adjustments.add(adjustment);
+            }
+        }
+        json.put("adjustments", adjustments);
+        json.put("totalPrice", breakdown.getTotalPrice().toDouble());
+        return json;
+    }
+
+    /**
+     * Convert an invoice to a JSON object.
+     *
+     * @param invoice The invoice.
+     * @return A Map representing the invoice.
+     */
+    private static Map<String, Object> toJson(Invoice invoice) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("invoiceNumber", invoice.getInvoiceNumber());
+        json.put("reservationCode", invoice.getReservationCode().toString());
+        json.put("roomNumber", invoice.getRoomNumber());
+        json.put("guestName", invoice.getGuestName());
+        json.put("guestContact", invoice.getGuestContact());
+        json.put("issueTime", invoice.getIssueTime());
+        json.put("totalPrice", invoice.getTotalPrice().toDouble());
+        json.put("invoice", invoice.getText());
+        return json;
+    }
+
+    /**
+     * Convert a folio to a JSON object.
+     *
+     * @param folio The folio.
+     * @return A Map representing the folio.
+     */
+    private static Map<String, Object> toJson(Folio folio) {
+        List<Object> postings = new ArrayList<>();
+        for (FolioPosting posting : folio.getPostings()) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("postingTime", posting.getPostingTime());
+            json.put("type", posting.getType().toString());
+            json.put("description", posting.getDescription());
+            json.put("amount", posting.getAmount().toDouble());
+            json.put("balance", posting.getBalance().toDouble());
+            postings.add(json);
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("reservationCode", folio.getReservationCode().toString());
+        json.put("roomNumber", folio.getRoomNumber());
+        json.put("postings", postings);
+        json.put("roomCharges", folio.getTotal(PostingType.ROOM_CHARGE).toDouble());
+        json.put("roomService", folio.getTotal(PostingType.ROOM_SERVICE).toDouble());
+        json.put("adjustments", folio.getTotal(PostingType.ADJUSTMENT).toDouble());
+        json.put("balance", folio.getBalance().toDouble());
+        return json;
+    }
+
+    /**
+     * Convert a pricing rule to a JSON object.
+     *
+     * @param rule The rule.
+     * @return A Map representing the rule.
+     */
+    private static Map<String, Object> toJson(PricingRule rule) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("type", rule.getType().toString());
+        json.put("name", rule.getName().trim());
+        switch (rule.getType()) {
+            case PROMO_CODE:
+                json.put("promoCode", rule.getPromoCode());
+                json.put("percent", rule.getValue());
+                break;
+            case LENGTH_OF_STAY:
+                json.put("minimumNights", rule.getMinimumNights());
+                json.put("percent", rule.getValue());
+                break;
+            case CHILD:
+                json.put("charge", Money.ofCents(rule.getValue()).toDouble());
+                break;
+            default:
+                json.put("percent", rule.getValue());
+                break;
+        }
+        return json;
+    }
+}
@@ -0,0 +1,583 @@
+package hrps.boundary;
+
+import hrps.control.CommandEngine;
+import hrps.control.GuestController;
+import hrps.control.ReservationController;
+import hrps.control.RoomController;
+import hrps.entity.*;
+import hrps.exception.HRPSException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * This class is used for serving self-service kiosks and channel feeds with a compact binary protocol over plain TCP.
+ * One non-blocking selector thread serves all connections. Clients may pipeline requests: every complete request
+ * read from a connection is handled in order while holding the reservation controller's lock once (or as one command
+ * of the command engine when it is running), and all their responses are written back together.
+ * <p>
+ * Every frame starts with its length (int32, not counting the length itself), followed by a request ID (int32) which
+ * the response echoes. A request then has an opcode (byte) and its payload; a response has a status (byte, 0 = OK,
+ * 1 = rejected by a business rule, 2 = malformed request) and its payload, which is an error message for status 1
+ * and 2. Numbers are big-endian, strings are a uint16 length followed by UTF-8 bytes, date-times are int64 seconds
+ * since 1970-01-01T00:00 (local time, no zone), and UUIDs are two int64.
+ * <table>
+ *     <caption>Operations</caption>
+ *     <tr><th>Opcode</th><th>Request payload</th><th>Response payload</th></tr>
+ *     <tr><td>1 PING</td><td>-</td><td>-</td></tr>
+ *     <tr><td>2 AVAILABILITY</td><td>room type ("" for any), check-in, check-out</td>
+ *         <td>uint16 count, room numbers</td></tr>
+ *     <tr><td>3 HOLD</td><td>room number, check-in, check-out, int32 seconds to hold</td>
+ *         <td>hold ID, expiry time</td></tr>
+ *     <tr><td>4 RELEASE</td><td>hold ID</td><td>-</td></tr>
+ *     <tr><td>5 BOOK</td><td>hold ID, guest contact, byte adults, byte children</td>
+ *         <td>reservation code, int64 version</td></tr>
+ *     <tr><td>6 CHECK_IN</td><td>reservation code, check-in time</td>
+ *         <td>byte 1 if checked in, 0 if the reservation expired instead</td></tr>
+ *     <tr><td>7 CANCEL</td><td>reservation code</td><td>byte 1 if the room became vacant, 0 if reserved</td></tr>
+ *     <tr><td>8 ROOM_STATUS</td><td>room number, byte 1 to start or 0 to finish maintenance</td>
+ *         <td>new room status</td></tr>
+ * </table>
+ *
+ * @author Peng Wenxuan
+ */
+public class KioskServerUI {
+    /**
+     * Port used when none is specified.
+     */
+    public static final int DEFAULT_PORT = 8081;
+    /**
+     * Opcode of PING.
+     */
+    public static final byte PING = 1;
+    /**
+     * Opcode of AVAILABILITY.
+     */
+    public static final byte AVAILABILITY = 2;
+    /**
+     * Opcode of HOLD.
+     */
+    public static final byte HOLD = 3;
+    /**
+     * Opcode of RELEASE.
+     */
+    public static final byte RELEASE = 4;
+    /**
+     * Opcode of BOOK.
+     */
+    public static final byte BOOK = 5;
+    /**
+     * Opcode of CHECK_IN.
+     */
+    public static final byte CHECK_IN = 6;
+    /**
+     * Opcode of CANCEL.
+     */
+    public static final byte CANCEL = 7;
+    /**
+     * Opcode of ROOM_STATUS.
+     */
+    public static final byte ROOM_STATUS = 8;
+    /**
+     * Response status of a successful request.
+     */
+    public static final byte STATUS_OK = 0;
+    /**
+     * Response status of a request rejected by a business rule.
+     */
+    public static final byte STATUS_REJECTED = 1;
+    /**
+     * Response status of a malformed request.
+     */
+    public static final byte STATUS_MALFORMED = 2;
+    /**
+     * Largest accepted frame; a connection sending a larger frame is closed.
+     */
+    private static final int MAX_FRAME_LENGTH = 64 * 1024;
+    /**
+     * Amount of unsent responses above which a connection is not read until its client catches up.
+     */
+    private static final int MAX_PENDING_OUTPUT = 1024 * 1024;
+    /**
+     * The only one instance, this is to avoid multiple instantiations.
+     */
+    private static KioskServerUI instance = null;
+    /**
+     * To look up guests when booking.
+     */
+    private final GuestController guestController = GuestController.getInstance();
+    /**
+     * To access and update rooms' data.
+     */
+    private final RoomController roomController = RoomController.getInstance();
+    /**
+     * To access and update reservations' data, its lock also guards every controller call of this UI.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+    /**
+     * To handle requests in batches when the engine is running.
+     */
+    private final CommandEngine commandEngine = CommandEngine.getInstance();
+    /**
+     * Selector of the listening channel and all connections.
+     */
+    private Selector selector;
+    /**
+     * The listening channel.
+     */
+    private ServerSocketChannel serverChannel;
+    /**
+     * Thread running the selector loop.
+     */
+    private Thread selectorThread;
+
+    /**
+     * Private constructor to prevent instantiation from other classes.
+     */
+    private KioskServerUI() {
+    }
+
+    /**
+     * Get the UI instance, or create new one if no UI was instantiated.
+     *
+     * @return The singleton KioskServerUI instance.
+     */
+    public static KioskServerUI getInstance() {
+        if (Objects.isNull(instance)) {
+            instance = new KioskServerUI();
+        }
+        return instance;
+    }
+
+    /**
+     * Buffers of one client connection.
+     */
+    private static class Connection {
+        /**
+         * The connection's channel.
+         */
+        private final SocketChannel channel;
+        /**
+         * Bytes read but not yet handled, in write mode.
+         */
+        private final ByteBuffer input = ByteBuffer.allocate(MAX_FRAME_LENGTH + 4);
+        /**
+         * Responses not yet sent, in write mode.
+         */
+        private ByteBuffer output = ByteBuffer.allocate(MAX_FRAME_LENGTH);
+
+        /**
+         * Create the buffers of a connection.
+         *
+         * @param channel The connection's channel.
+         */
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Make sure the output buffer can take the specified number of bytes more.
+         *
+         * @param numBytes The number of bytes to be written.
+         */
+        void reserveOutput(int numBytes) {
+            if (output.remaining() < numBytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(output.capacity() * 2, output.position() + numBytes));
+                output.flip();
+                larger.put(output);
+                output = larger;
+            }
+        }
+    }
+
+    /**
+     * Start serving kiosks on the specified port.
+     *
+     * @param port The port to listen on.
+     * @throws IOException If the server cannot be bound to the port.
+     */
+    public synchronized void start(int port) throws IOException {
+        UI.getInstance().intializeRoom();
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        selectorThread = new Thread(this::runSelectorLoop, "kiosk-server");
+        selectorThread.start();
+        System.out.printf("HRPS kiosk server is listening on port %d.%n",
+                ((InetSocketAddress) serverChannel.getLocalAddress()).getPort());
+    }
+
+    /**
+     * Stop serving kiosks and close all connections.
+     */
+    public synchronized void stop() {
+        if (selectorThread != null) {
+            selectorThread.interrupt();
+            selector.wakeup();
+            try {
+                selectorThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            selectorThread = null;
+        }
+    }
+
+    /**
+     * Accept connections and handle readable and writable connections until the selector thread is interrupted.
+     */
+    private void runSelectorLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            if (key.isReadable()) {
+                                read(key);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                flush(key);
+                            }
+                        }
+                    } catch (IOException e) {
+                        close(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Kiosk server stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                close(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // nothing left to release
+            }
+        }
+    }
+
+    /**
+     * Accept a pending connection.
+     *
+     * @throws IOException If the connection cannot be set up.
+     */
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+    }
+
+    /**
+     * Read from a connection, handle every complete request read so far in one batch, and send the responses. The
+     * batch is handled on the command engine when it is running, or while holding the reservation controller's lock
+     * otherwise.
+     *
+     * @param key The connection's key.
+     * @throws IOException If the connection fails.
+     */
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        if (connection.channel.read(connection.input) < 0) {
+            close(key);
+            return;
+        }
+        connection.input.flip();
+        boolean isWellFormed;
+        if (commandEngine.isRunning()) {
+            isWellFormed = commandEngine.submit(() -> handleFrames(connection)).join();
+        } else {
+            synchronized (reservationController) {
+                isWellFormed = handleFrames(connection);
+            }
+        }
+        if (!isWellFormed) {
+            close(key);
+            return;
+        }
+        connection.input.compact();
+        flush(key);
+    }
+
+    /**
+     * Handle every complete request in a connection's input.
+     *
+     * @param connection The connection, with its input in read mode.
+     * @return false if the input holds a frame of an illegal length, true otherwise.
+     */
+    private boolean handleFrames(Connection connection) {
+        ByteBuffer input = connection.input;
+        while (input.remaining() >= 4) {
+            int length = input.getInt(input.position());
+            if (length < 5 || length > MAX_FRAME_LENGTH) {
+                return false;
+            }
+            if (input.remaining() < 4 + length) {
+                break;
+            }
+            input.getInt();
+            ByteBuffer frame = input.slice(input.position(), length);
+            input.position(input.position() + length);
+            handleFrame(frame, connection);
+        }
+        return true;
+    }
+
+    /**
+     * Write as many pending responses as the connection takes, and watch for writability (and stop reading) while
+     * responses are left.
+     *
+     * @param key The connection's key.
+     * @throws IOException If the connection fails.
+     */
+    private void flush(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        connection.output.flip();
+        connection.channel.write(connection.output);
+        connection.output.compact();
+        int interestOps = connection.output.position() > MAX_PENDING_OUTPUT ? 0 : SelectionKey.OP_READ;
+        if (connection.output.position() > 0) {
+            interestOps |= SelectionKey.OP_WRITE;
+        }
+        key.interestOps(interestOps);
+    }
+
+    /**
+     * Close a connection or the listening channel.
+     *
+     * @param key The channel's key.
+     */
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+
+    /**
+     * Handle one request frame and append its response to the connection's output.
+     *
+     * @param frame      The frame without its length, starting at the request ID.
+     * @param connection The connection the frame was read from.
+     */
+    private void handleFrame(ByteBuffer frame, Connection connection) {
+        int requestId = frame.getInt();
+        ByteBuffer payload = ByteBuffer.allocate(256);
+        byte status;
+        try {
+            payload = handleRequest(frame.get(), frame, payload);
+            status = STATUS_OK;
+        } catch (HRPSException e) {
+            status = STATUS_REJECTED;
+            payload = putString(payload.clear(), e.getMessage());
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            status = STATUS_MALFORMED;
+            payload = putString(payload.clear(), "Malformed request.");
+        } catch (RuntimeException e) {
+            // answer it rather than let it end the selector thread, which serves every other kiosk
+            status = STATUS_REJECTED;
+            payload = putString(payload.clear(), "Request failed.");
+        }
+        payload.flip();
+        connection.reserveOutput(9 + payload.remaining());
+        connection.output.putInt(5 + payload.remaining()).putInt(requestId).put(status).put(payload);
+    }
+
+    /**
+     * Handle a request and write its response payload.
+     *
+     * @param opcode  The request's opcode.
+     * @param request The request payload.
+     * @param payload The buffer to write the response payload to.
+     * @return The buffer holding the response payload, which is a larger buffer if the given one was too small.
+     * @throws HRPSException If the request is rejected by a business rule.
+     */
+    private ByteBuffer handleRequest(byte opcode, ByteBuffer request, ByteBuffer payload) throws HRPSException {
+        switch (opcode) {
+            case PING:
+                return payload;
+            case AVAILABILITY: {
+                String roomType = getString(request);
+                LocalDateTime checkInTime = getDateTime(request);
+                LocalDateTime checkOutTime = getDateTime(request);
+                List<Room> rooms = roomType.isEmpty() ? roomController.getAllRooms() :
+                        roomController.findRoomByType(roomType);
+                List<Room> availableRooms = roomController.checkAvailableRooms(rooms, checkInTime, checkOutTime);
+                payload = ensureCapacity(payload, 2 + availableRooms.size() * 16);
+                payload.putShort((short) availableRooms.size());
+                for (Room room : availableRooms) {
+                    payload = putString(payload, room.getRoomNumber());
+                }
+                return payload;
+            }
+            case HOLD: {
+                String roomNum = getString(request);
+                LocalDateTime checkInTime = getDateTime(request);
+                LocalDateTime checkOutTime = getDateTime(request);
+                Duration timeToLive = Duration.ofSeconds(request.getInt());
+                RoomHold hold = reservationController.holdRoom(roomNum, checkInTime, checkOutTime, timeToLive);
+                putUuid(payload, hold.getHoldId());
+                putDateTime(payload, hold.getExpiryTime());
+                return payload;
+            }
+            case RELEASE:
+                reservationController.releaseHold(getUuid(request));
+                return payload;
+            case BOOK: {
+                UUID holdId = getUuid(request);
+                List<Guest> guests = guestController.searchGuestByContact(getString(request));
+                if (guests.isEmpty()) {
+                    throw new IllegalArgumentException("Unknown guest contact");
+                }
+                ConfirmedReservation reservation = reservationController.bookHeldRoom(holdId, guests.get(0),
+                        request.get(), request.get());
+                putUuid(payload, reservation.getReservationCode());
+                payload.putLong(reservation.getVersion());
+                return payload;
+            }
+            case CHECK_IN: {
+                UUID code = getUuid(request);
+                Reservation reservation = findReservation(code);
+                reservationController.validateCheckIn(reservation, getDateTime(request));
+                Reservation updated = findReservation(code);
+                payload.put((byte) (updated instanceof CheckedInReservation ? 1 : 0));
+                return payload;
+            }
+            case CANCEL: {
+                boolean isVacant = reservationController.cancelReservation(findReservation(getUuid(request)));
+                payload.put((byte) (isVacant ? 1 : 0));
+                return payload;
+            }
+            case ROOM_STATUS: {
+                String roomNum = getString(request);
+                roomController.isValidRoomNumber(roomNum);
+                Room room = request.get() == 1 ? roomController.maintain(roomNum) :
+                        roomController.finishMaintain(roomNum);
+                return putString(payload, room.getRoomStatus().toString());
+            }
+            default:
+                throw new IllegalArgumentException("Unknown opcode " + opcode);
+        }
+    }
+
+    /**
+     * Find a non-waitlisted reservation by its code.
+     *
+     * @param code The reservation code.
+     * @return The reservation, or null if the reservation is no longer in the system.
+     */
+    private Reservation findReservation(UUID code) {
+        List<Reservation> found = reservationController.searchReservationsByCode(code);
+        if (found.isEmpty()) {
+            throw new IllegalArgumentException("Unknown reservation code");
+        }
+        return found.get(0);
+    }
+
+    /**
+     * Return a buffer with at least the specified number of bytes remaining, holding the content of the given one.
+     *
+     * @param buffer   The buffer in write mode.
+     * @param numBytes The number of bytes to be written.
+     * @return The given buffer if it is large enough, a larger copy otherwise.
+     */
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int numBytes) {
+        if (buffer.remaining() >= numBytes) {
+            return buffer;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + numBytes));
+        buffer.flip();
+        return larger.put(buffer);
+    }
+
+    /**
+     * Read a length-prefixed UTF-8 string.
+     *
+     * @param buffer The buffer to read from.
+     * @return The string.
+     */
+    static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write a length-prefixed UTF-8 string.
+     *
+     * @param buffer The buffer to write to.
+     * @param s      The string.
+     * @return The buffer holding the written string, which is a larger buffer if the given one was too small.
+     */
+    static ByteBuffer putString(ByteBuffer buffer, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        buffer = ensureCapacity(buffer, 2 + bytes.length);
+        return buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    /**
+     * Read a date-time written as seconds since 1970-01-01T00:00.
+     *
+     * @param buffer The buffer to read from.
+     * @return The date-time.
+     */
+    static LocalDateTime getDateTime(ByteBuffer buffer) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Write a date-time as seconds since 1970-01-01T00:00.
+     *
+     * @param buffer   The buffer to write to.
+     * @param dateTime The date-time.
+     */
+    static void putDateTime(ByteBuffer buffer, LocalDateTime dateTime) {
+        buffer.putLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    /**
+     * Read a UUID.
+     *
+     * @param buffer The buffer to read from.
+     * @return The UUID.
+     */
+    static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Write a UUID.
+     *
+     * @param buffer The buffer to write to.
+     * @param uuid   The UUID.
+     */
+    static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+    }
+}
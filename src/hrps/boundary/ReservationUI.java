@@ -3,9 +3,17 @@ package hrps.boundary;
 import hrps.control.GuestController;
 import hrps.control.ReservationController;
 import hrps.control.RoomController;
+import hrps.control.SnapshotController;
+import hrps.control.Transaction;
 import hrps.entity.*;
 import hrps.exception.*;
+import tool.ReportWriter;
+import tool.TableReportWriter;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -73,6 +81,7 @@ public class ReservationUI {
         // for staff to check and remove those reservations in waitList that are expired
         System.out.println("6. Walk-in reservation");
         System.out.println("7. Print all reservations");
+        System.out.println("8. Print today's arrivals, departures and in-house guests");
         System.out.println("Your choice: ");
     }
 
@@ -158,6 +167,9 @@ public class ReservationUI {
                     case 7:
                         printReservationUI();
                         break;
+                    case 8:
+                        printFrontDeskUI();
+                        break;
                     default:
                         break;
                 }
@@ -249,7 +261,8 @@ public class ReservationUI {
                     System.out.printf("|    %s    |  $%s%.2f  |       %s%s      |      %s%s     " +
                                     "|\n",
                             room.getRoomNumber(),
-                            room.getRate() >= 100 ? "" : " ", room.getRate(), room.isHasWiFi() ? "" : " ",
+                            room.getRate().toDouble() >= 100 ? "" : " ", room.getRate().toDouble(),
+                            room.isHasWiFi() ? "" : " ",
                             room.isHasWiFi() ? "Yes" : "No", room.isSmokingFree() ? "" : " ",
                             room.isSmokingFree() ? "Yes" : "No");
                 }
@@ -276,13 +289,15 @@ public class ReservationUI {
             }
         } else {    // there are rooms can be reserved for the time period
             System.out.println("These are the available rooms with the specified requirements: ");
-            System.out.println("| Room number | Flat Rate | Wifi Available | Smoking Free |");
+            System.out.println("| Room number | Flat Rate | Wifi Available | Smoking Free | Price of Stay |");
             for (Room room : preferredRooms) {
-                System.out.printf("|    %s    |  $%s%.2f  |       %s%s      |      %s%s     |\n",
+                System.out.printf("|    %s    |  $%s%.2f  |       %s%s      |      %s%s     | %13s |\n",
                         room.getRoomNumber(),
-                        room.getRate() >= 100 ? "" : " ", room.getRate(), room.isHasWiFi() ? "" : " ",
+                        room.getRate().toDouble() >= 100 ? "" : " ", room.getRate().toDouble(),
+                        room.isHasWiFi() ? "" : " ",
                         room.isHasWiFi() ? "Yes" : "No", room.isSmokingFree() ? "" : " ",
-                        room.isSmokingFree() ? "Yes" : "No");
+                        room.isSmokingFree() ? "Yes" : "No",
+                        "$" + roomController.quoteStay(room, desiredCheckInDate, desiredCheckOutDate));
             }
             //enter reservation detail
             System.out.println("Select a room: ");
@@ -303,16 +318,24 @@ public class ReservationUI {
                 throw new NegativeNumberException();
             }
             in.nextLine();
+            String roomNumber = selectedRoomNumber;
             Reservation reservationMade;
             if (isBookOnline) {
-                reservationMade = reservationController.createConfirmedReservation(guest,
-                        desiredCheckInDate, desiredCheckOutDate, numOfAdult, numOfChild, selectedRoomNumber);
-                roomController.reserve(selectedRoomNumber);
+                reservationMade = Transaction.apply(() -> {
+                    Reservation reservation = reservationController.createConfirmedReservation(guest,
+                            desiredCheckInDate, desiredCheckOutDate, numOfAdult, numOfChild, roomNumber);
+                    roomController.reserve(roomNumber);
+                    return reservation;
+                });
                 System.out.println(selectedRoomNumber + " has been reserved for " + guest.getGuestName() +
                         "!");
             } else {
-                reservationMade = reservationController.createWalkInReservation(guest, guestContact, desiredCheckInDate, desiredCheckOutDate, numOfAdult, numOfChild, selectedRoomNumber);
-                roomController.checkIn(selectedRoomNumber, guest);
+                reservationMade = Transaction.apply(() -> {
+                    Reservation reservation = reservationController.createWalkInReservation(guest, guestContact,
+                            desiredCheckInDate, desiredCheckOutDate, numOfAdult, numOfChild, roomNumber);
+                    roomController.checkIn(roomNumber, guest);
+                    return reservation;
+                });
                 System.out.println(selectedRoomNumber + " has been set to occupied for walk in " +
                         "guest, " + guest.getGuestName() + "!");
             }
@@ -394,8 +417,10 @@ public class ReservationUI {
      *                      2) Invalid date time pair input (check-in date is after check-out date)
      *                      3) Negative input for number of adults and children under this
      *                      reservation.
+     *                      4) The reservation was modified by another operation meanwhile.
      */
     private void updateReservationUI(Reservation reservation) throws HRPSException {
+        long version = reservation.getVersion();   // the version the user is looking at
         System.out.println("-".repeat(30));
         System.out.println("Please enter the information that you want to update: ");
         System.out.println("1. Guest Contact ");
@@ -418,7 +443,8 @@ public class ReservationUI {
             case 2:
                 System.out.print("Check In time (yyyy-MM-dd HH:mm): ");
                 LocalDateTime updatedCheckInTime = getValidDateTime();
-                Reservation updatedCheckIn = reservationController.updateCheckInTime(reservation, updatedCheckInTime);
+                Reservation updatedCheckIn = reservationController.updateCheckInTime(reservation, updatedCheckInTime,
+                        version);
                 if (!updatedCheckIn.getCheckInTime().equals(updatedCheckInTime))
                     System.out.println("We cannot find a room that satisfies your new check-in time, therefore it is " +
                             "not updated");
@@ -433,9 +459,10 @@ public class ReservationUI {
             case 3:
                 System.out.print("Check Out time (yyyy-MM-dd HH:mm): ");
                 LocalDateTime updatedCheckOutTime = getValidDateTime();
-                Reservation updatedCheckOut = reservationController.updateCheckOutTime(reservation, updatedCheckOutTime);
-                if (!updatedCheckOut.getCheckInTime().equals(updatedCheckOutTime))
-                    System.out.println("We cannot find a room that satisfies your new check-in time, therefore it is " +
+                Reservation updatedCheckOut = reservationController.updateCheckOutTime(reservation, updatedCheckOutTime,
+                        version);
+                if (!updatedCheckOut.getCheckOutTime().equals(updatedCheckOutTime))
+                    System.out.println("We cannot find a room that satisfies your new check-out time, therefore it is " +
                             "not updated");
                 else {
                     System.out.println("Reservation details updated: ");
@@ -510,42 +537,90 @@ public class ReservationUI {
      * @param reservation the reservation need to be canceled, which is searched by guest contact.
      */
     private void cancelExpiredReservation(Reservation reservation) throws CancelCheckInReservationException {
-        if (reservation instanceof ConfirmedReservation) {
-            RoomController roomController = RoomController.getInstance();
-            Room releasedRoom = roomController.findRoomByRoomNumber(reservation.getRoomNum());
-            if (roomController.checkOutRoom(releasedRoom, reservation.getCheckInTime())) {
-                System.out.printf("Room %s has been set to available.%n", releasedRoom.getRoomNumber());
-            } else {
-                System.out.printf("Room %s has been set to reserved for future reservation.%n",
-                        releasedRoom.getRoomNumber());
-            }
-            reservationController.removeReservation(reservation);
+        if (reservationController.cancelReservation(reservation)) {
+            System.out.printf("Room %s has been set to available.%n", reservation.getRoomNum());
         } else {
-            throw new CancelCheckInReservationException();
+            System.out.printf("Room %s has been set to reserved for future reservation.%n",
+                    reservation.getRoomNum());
         }
     }
 
     /**
-     * Print all reservations in the system record. If no reservation is found, display a message.
+     * Print all reservations in the system record, as of the latest published snapshot, streaming each reservation
+     * to the console as it is written. If no reservation is found, display a message.
+     *
+     * @throws IOException If the reservations cannot be written to the console.
      */
-    private void printReservationUI() {
-        List<Reservation> reservations = reservationController.getAllReservations();
-        List<WaitListReservation> waitListReservations = reservationController.getAllWaitingReservations();
+    private void printReservationUI() throws IOException {
+        StateSnapshot snapshot = SnapshotController.getInstance().getSnapshot();
+        List<ReservationSnapshot> reservations = snapshot.getReservations();
+        List<ReservationSnapshot> waitListReservations = snapshot.getWaitListReservations();
         if (reservations.isEmpty() && waitListReservations.isEmpty()) {
             System.out.println("No records found!");
         } else {
             System.out.println("Printing all reservations in the system record...");
-            System.out.println("Reservations in process");
-            for (Reservation reservation : reservations) {
-                System.out.println(reservation.toString());
-                System.out.print('\n');
-            }
-            System.out.println("Reservations in waitList");
-            for (WaitListReservation waitListReservation : waitListReservations) {
-                System.out.println(waitListReservation.toString());
-                System.out.print('\n');
+            Writer console = new OutputStreamWriter(System.out);
+            printReservations(console, "Reservations in process", reservations);
+            printReservations(console, "Reservations in waitList", waitListReservations);
+        }
+
+    }
+
+    /**
+     * Print a list of reservations under a heading, each reservation as a table followed by a blank line.
+     *
+     * @param console      The writer to the console, flushed after each reservation.
+     * @param heading      Heading of the list.
+     * @param reservations The reservations to be printed.
+     * @throws IOException If the reservations cannot be written to the console.
+     */
+    private void printReservations(Writer console, String heading, List<ReservationSnapshot> reservations)
+            throws IOException {
+        console.write(heading + System.lineSeparator());
+        for (ReservationSnapshot reservation : reservations) {
+            try (ReportWriter writer = Reservation.tableWriter(console)) {
+                reservation.writeTo(writer);
             }
+            console.write(System.lineSeparator() + '\n');
+            console.flush();
         }
+        console.flush();
+    }
+
+    /**
+     * Print today's arrivals, departures and in-house guests from the front desk view, which is read without
+     * waiting for updates.
+     *
+     * @throws IOException If the lists cannot be written to the console.
+     */
+    private void printFrontDeskUI() throws IOException {
+        FrontDeskView frontDeskView = reservationController.getFrontDeskView();
+        LocalDate today = LocalDate.now();
+        Writer console = new OutputStreamWriter(System.out);
+        printFrontDeskList(console, "Arrivals on " + today, frontDeskView.getArrivals(today));
+        printFrontDeskList(console, "Departures on " + today, frontDeskView.getDepartures(today));
+        printFrontDeskList(console, "In-house guests", frontDeskView.getInHouse());
+    }
 
+    /**
+     * Print one of the front desk's lists as a table with one reservation per row.
+     *
+     * @param console      The writer to the console.
+     * @param title        Title of the list.
+     * @param reservations The reservations in the list.
+     * @throws IOException If the list cannot be written to the console.
+     */
+    private void printFrontDeskList(Writer console, String title, List<ReservationSnapshot> reservations)
+            throws IOException {
+        try (ReportWriter writer = new TableReportWriter(console, 8, 20, 12, 17, 17)) {
+            writer.writeTitle(title + " (" + reservations.size() + ")");
+            writer.writeHeader("Room", "Guest Name", "Contact", "Check-in time", "Check-out time");
+            for (ReservationSnapshot reservation : reservations) {
+                writer.writeRow(reservation.getRoomNum(), reservation.getGuestName(), reservation.getContact(),
+                        reservation.getCheckInTime(), reservation.getCheckOutTime());
+            }
+        }
+        console.write(System.lineSeparator());
+        console.flush();
     }
-}
\ No newline at end of file
+}
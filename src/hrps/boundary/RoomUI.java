@@ -1,12 +1,18 @@
 package hrps.boundary;
 
+import hrps.control.OccupancyHistoryController;
 import hrps.control.RoomController;
+import hrps.entity.Money;
 import hrps.entity.Room;
 import hrps.entity.enums.RoomStatus;
 import hrps.exception.HRPSException;
 import hrps.exception.InvalidRoomTypeException;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Scanner;
@@ -91,6 +97,9 @@ public class RoomUI {
                     case 8:
                         printRoomStatusReport();
                         break;
+                    case 9:
+                        printOccupancyHistoryReport();
+                        break;
                     default:
                         System.out.println("Invalid choice. Exiting.");
                         break;
@@ -120,6 +129,24 @@ public class RoomUI {
         System.out.println(roomController.getRoomOccupancyReport());
     }
 
+    /**
+     * Prints the occupancy history report of a month or a year.
+     */
+    private void printOccupancyHistoryReport() {
+        OccupancyHistoryController historyController = OccupancyHistoryController.getInstance();
+        System.out.println("Please enter a month (yyyy-MM) or a year (yyyy):");
+        String period = sc.nextLine().trim();
+        try {
+            if (period.contains("-")) {
+                System.out.println(historyController.getMonthlyOccupancyReport(YearMonth.parse(period)));
+            } else {
+                System.out.println(historyController.getYearlyOccupancyReport(Year.parse(period)));
+            }
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid period.");
+        }
+    }
+
     /**
      * Deals with interaction with user on maintaining rooms and finishing maintenance of rooms.
      */
@@ -186,7 +213,8 @@ public class RoomUI {
         for (Room room : preferredRooms) {
             System.out.printf("|    %s    |  $%s%.2f  |       %s%s      |      %s%s     |\n",
                     room.getRoomNumber(),
-                    room.getRate() >= 100 ? "" : " ", room.getRate(), room.isHasWiFi() ? "" : " ",
+                    room.getRate().toDouble() >= 100 ? "" : " ", room.getRate().toDouble(),
+                    room.isHasWiFi() ? "" : " ",
                     room.isHasWiFi() ? "Yes" : "No", room.isSmokingFree() ? "" : " ",
                     room.isSmokingFree() ? "Yes" : "No");
         }
@@ -374,6 +402,7 @@ public class RoomUI {
         System.out.println("6. Room maintenance");
         System.out.println("7. Room occupancy Report");
         System.out.println("8. Room status Report");
+        System.out.println("9. Occupancy history Report");
         System.out.println("Your choice: ");
     }
 
@@ -519,6 +548,34 @@ public class RoomUI {
     }
 
 
+    /**
+     * Display the UI to set the nightly rate of a room, or of all rooms of its type, over a period of nights.
+     *
+     * @param targetRoom   The room.
+     * @param isByRoomType true to set the rate of all rooms of the room's type, false to set it of the room only.
+     */
+    private void updateNightlyRate(Room targetRoom, boolean isByRoomType) {
+        try {
+            System.out.print("First night (yyyy-MM-dd): ");
+            LocalDate firstNight = LocalDate.parse(sc.nextLine().trim());
+            System.out.print("Last night (yyyy-MM-dd): ");
+            LocalDate endNight = LocalDate.parse(sc.nextLine().trim()).plusDays(1);
+            System.out.print("New nightly rate: ");
+            Money rate = Money.of(scanForValidRoomRateInput());
+            if (isByRoomType) {
+                roomController.setRoomTypeRate(targetRoom.getRoomType(), firstNight, endNight, rate);
+                System.out.println("Nightly rate of " + targetRoom.getRoomType() + " rooms updated.");
+            } else {
+                roomController.setRoomRate(targetRoom, firstNight, endNight, rate);
+                System.out.println("Nightly rate of room " + targetRoom.getRoomNumber() + " updated.");
+            }
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date.");
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
     /**
      * Display the UI to update the room details for the given room.
      *
@@ -527,6 +584,8 @@ public class RoomUI {
     private void updateRoom(Room targetRoom) {
         System.out.println("Please enter the information that you want to update: ");
         System.out.println("1. Room Rate ");
+        System.out.println("2. Nightly rate of this room over a period ");
+        System.out.println("3. Nightly rate of this room type over a period ");
         System.out.println("0. Cancel ");
         int choice = Parser.getChoice();
         System.out.println("Please enter the updated information: ");
@@ -534,10 +593,14 @@ public class RoomUI {
             case 1:
                 System.out.print("New room rate: ");
                 double updatedRoomRate = scanForValidRoomRateInput();
-                roomController.updateRoomRate(targetRoom, updatedRoomRate);
+                roomController.updateRoomRate(targetRoom, Money.of(updatedRoomRate));
                 System.out.println("Room rate updated: ");
                 System.out.println(targetRoom);
                 break;
+            case 2:
+            case 3:
+                updateNightlyRate(targetRoom, choice == 3);
+                break;
             case 0:
                 break;
             default:
@@ -1,15 +1,19 @@
 package hrps.boundary;
 
+import hrps.control.KitchenController;
 import hrps.control.MenuController;
 import hrps.control.OrderController;
 import hrps.control.RoomController;
 import hrps.entity.MenuItem;
+import hrps.entity.Money;
 import hrps.entity.OrderedMenuItem;
 import hrps.entity.OrderedRoomService;
 import hrps.entity.Room;
 import hrps.entity.enums.OrderStatus;
 import hrps.exception.*;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 /**
@@ -23,6 +27,10 @@ public class ServiceUI {
      * The only instance of this class to prevent multiple instantiations.
      */
     private static ServiceUI instance = null;
+    /**
+     * Format of the estimated delivery times.
+     */
+    private static final DateTimeFormatter DELIVERY_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
     /**
      * To access and update menu items' data.
      */
@@ -31,6 +39,10 @@ public class ServiceUI {
      * To access and update orders' data.
      */
     private final OrderController orderController = OrderController.getInstance();
+    /**
+     * To estimate the delivery times of orders and set the kitchen's capacity.
+     */
+    private final KitchenController kitchenController = KitchenController.getInstance();
     /**
      * To check if a room exists and is valid for room service.
      */
@@ -70,6 +82,7 @@ public class ServiceUI {
         System.out.println("4. Remove Menu Item");
         System.out.println("5. Make an order");
         System.out.println("6. Check or update order status");
+        System.out.println("7. Set kitchen capacity");
     }
 
     /**
@@ -103,6 +116,9 @@ public class ServiceUI {
                     case 6:
                         checkOrder();
                         break;
+                    case 7:
+                        setKitchenCapacity();
+                        break;
                     default:
                         System.out.println("Please select a valid option!");
                         break;
@@ -138,10 +154,15 @@ public class ServiceUI {
             if (roomController.canBeOrdered(roomNum)) {
                 Room room = roomController.findRoomByRoomNumber(roomNum);
                 List<OrderedRoomService> orders = orderController.getRoomOrder(room);
+                Map<UUID, LocalDateTime> estimates = kitchenController.getEstimatedDeliveryTimes(LocalDateTime.now());
                 int counter = 0;
                 for (OrderedRoomService order : orders) {
                     System.out.printf("%d, ", ++counter);
                     System.out.println(order);
+                    if (estimates.containsKey(order.getOrderID())) {
+                        System.out.println("Estimated delivery: " +
+                                estimates.get(order.getOrderID()).format(DELIVERY_TIME_FORMAT));
+                    }
                 }
                 System.out.println("Would you like to update any order's status? (Y/N)");
                 String choice = in.nextLine().trim();
@@ -166,6 +187,21 @@ public class ServiceUI {
         }
     }
 
+    /**
+     * Display the kitchen's capacity and read the number of orders it prepares at the same time from now on.
+     */
+    private void setKitchenCapacity() {
+        System.out.println("The kitchen prepares " + kitchenController.getCapacity() + " order(s) at the same time.");
+        System.out.print("Enter the new capacity: ");
+        int capacity = Parser.getChoice();
+        while (capacity < 1) {
+            System.out.println("Please enter a capacity of at least 1!");
+            capacity = Parser.getChoice();
+        }
+        kitchenController.setCapacity(capacity);
+        System.out.println("Kitchen capacity is set to " + capacity);
+    }
+
     /**
      * Iteratively ask user to enter a valid new status of order as an integer choice from a list of status.
      * @return The OrderStatus parsed from user's input.
@@ -248,8 +284,10 @@ public class ServiceUI {
                 if (!items.isEmpty()) {
                     System.out.print("Enter the remarks for this order: ");
                     remarks = in.nextLine().trim();
-                    orderController.makeOrder(roomController.findRoomByRoomNumber(roomNum), remarks, items);
-                    System.out.println("Order made!\n");
+                    OrderedRoomService order = orderController.makeOrder(roomController.findRoomByRoomNumber(roomNum),
+                            remarks, items);
+                    System.out.println("Order made! Estimated delivery: " +
+                            kitchenController.getEstimatedDeliveryTime(order).format(DELIVERY_TIME_FORMAT) + "\n");
                 } else {
                     System.out.println("An empty order is made. As a result, this order is " +
                             "forfeited.\n");
@@ -357,7 +395,7 @@ public class ServiceUI {
                         newPrice = Parser.getDouble();
                     }
                 } else if (choice.charAt(0) == 'n' || choice.charAt(0) == 'N') {
-                    newPrice = menuController.searchMenuItem(oldName).getPrice();
+                    newPrice = menuController.searchMenuItem(oldName).getPrice().toDouble();
                     hasUpdatedPrice = false;
                 } else {
                     throw new InvalidInputChoiceException();
@@ -366,7 +404,7 @@ public class ServiceUI {
                     System.out.println("No update is done.Exiting");
                     return;
                 }
-                menuController.updateMenuItem(oldName, newName, newDescription, newPrice);
+                menuController.updateMenuItem(oldName, newName, newDescription, Money.of(newPrice));
                 System.out.println("Item information updated!\n");
             } else {
                 System.out.println("Item not in menu!\n");
@@ -399,7 +437,7 @@ public class ServiceUI {
                     System.out.print("Enter the item price: ");
                     price = Parser.getDouble();
                 }
-                menuController.createMenuItem(name, description, price);
+                menuController.createMenuItem(name, description, Money.of(price));
                 System.out.println("Item created!");
             } else {
                 System.out.println("Item already exists in menu!");
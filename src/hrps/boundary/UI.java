@@ -1,8 +1,8 @@
 package hrps.boundary;
 
+import hrps.control.NightAuditController;
 import hrps.control.RoomController;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.Objects;
 
@@ -19,11 +19,6 @@ public class UI {
      */
     private static UI instance = null;
 
-    /**
-     * The relative path to rooms' data file.
-     */
-    private static final String DIR_OF_ROOM_LIST = "src/data/room_list.dat";
-
     /**
      * Dummy constructor.
      */
@@ -78,6 +73,9 @@ public class UI {
                         CheckOutUI checkOutUI = CheckOutUI.getInstance();
                         checkOutUI.run();
                         break;
+                    case 6:
+                        System.out.println(NightAuditController.getInstance().runNightAudit());
+                        break;
                     default:
                         System.out.println("Invalid choice!");
                         break;
@@ -93,14 +91,13 @@ public class UI {
     }
 
     /**
-     * Initialize the room list. If the Serializable file is not found in the data folder, we will
+     * Initialize the room list. If the Serializable file is not found in the data folder (or holds no room), we will
      * read from the txt file that contains initial room list. Otherwise, read from the Serializable binary file.
      */
-    private void intializeRoom() {
-        File tempRoomList = new File(DIR_OF_ROOM_LIST);
-        if (!tempRoomList.exists()) {
+    void intializeRoom() {
+        RoomController roomController = RoomController.getInstance();   // creates an empty file if none is found
+        if (roomController.getAllRooms().isEmpty()) {
             try {
-                RoomController roomController = RoomController.getInstance();
                 roomController.initializeRooms();
             } catch (IOException e) {
                 System.out.println("Initialzation of room fails. Please check if you have " +
@@ -120,6 +117,7 @@ public class UI {
         System.out.println("3. Room Page");
         System.out.println("4. Service Page");
         System.out.println("5. Check out Page");
+        System.out.println("6. Run night audit");
         System.out.println("Your choice: ");
     }
 
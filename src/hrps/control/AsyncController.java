@@ -0,0 +1,372 @@
+package hrps.control;
+
+import hrps.control.CommandEngine.CommandFuture;
+import hrps.entity.*;
+import hrps.entity.enums.IDType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The non-blocking counterpart of the mutating operations of GuestController, ReservationController, RoomController
+ * and CheckOutController. Each operation is submitted to the command engine and returns at once with a future that
+ * completes once the change is persisted, so callers never wait on disk writes.
+ * <p>
+ * Guests and reservations are passed as futures, which may be futures returned by earlier operations of this
+ * controller. Such an operation uses the earlier result as soon as it is applied instead of waiting for it to be
+ * persisted, so callers can pipeline dependent operations, eg. creating a guest, confirming their reservation and
+ * reserving the room, and all of them are usually persisted in one commit. Pass
+ * {@link CompletableFuture#completedFuture(Object)} for a guest or reservation at hand.
+ *
+ * @author Peng Wenxuan
+ */
+public class AsyncController {
+    /**
+     * The static controller instance to avoid multiple instantiations.
+     */
+    private static AsyncController instance = null;
+    /**
+     * The engine applying the operations.
+     */
+    private final CommandEngine commandEngine = CommandEngine.getInstance();
+    /**
+     * Instance of guest controller.
+     */
+    private final GuestController guestController = GuestController.getInstance();
+    /**
+     * Instance of reservation controller.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+    /**
+     * Instance of room controller.
+     */
+    private final RoomController roomController = RoomController.getInstance();
+    /**
+     * Instance of check-out controller.
+     */
+    private final CheckOutController checkOutController = CheckOutController.getInstance();
+
+    /**
+     * Start the command engine if it is not running yet.
+     */
+    private AsyncController() {
+        commandEngine.start();
+    }
+
+    /**
+     * Get the controller instance. This is to avoid multiple instantiation of controller.
+     *
+     * @return The singleton AsyncController instance.
+     */
+    public static AsyncController getInstance() {
+        if (Objects.isNull(instance)) {
+            instance = new AsyncController();
+        }
+        return instance;
+    }
+
+    /**
+     * Create a guest, see {@link GuestController#createGuest}.
+     *
+     * @param guestName            Guest's name.
+     * @param creditCardNo         Guest's credit card number.
+     * @param creditBillingAddress Guest's credit card's billing address.
+     * @param address              Guest's address.
+     * @param country              Guest's country.
+     * @param gender               Guest's gender.
+     * @param IDNumber             Guest's id number.
+     * @param IDType               Guest's id type.
+     * @param nationality          Guest's nationality.
+     * @param contact              Guest's contact information.
+     * @return A future of the guest just created.
+     */
+    public CommandFuture<Guest> createGuest(String guestName, String creditCardNo, String creditBillingAddress,
+                                            String address, String country, String gender, String IDNumber,
+                                            IDType IDType, String nationality, String contact) {
+        return commandEngine.submit(() -> guestController.createGuest(guestName, creditCardNo, creditBillingAddress,
+                address, country, gender, IDNumber, IDType, nationality, contact));
+    }
+
+    /**
+     * Create a confirmed reservation, see {@link ReservationController#createConfirmedReservation}.
+     *
+     * @param guest        Future of the guest who made the reservation.
+     * @param checkInTime  Confirmed check-in time.
+     * @param checkOutTime Confirmed check-out time.
+     * @param numOfAdult   Number of adults.
+     * @param numOfChild   Number of children.
+     * @param roomNum      Room no wished to be booked.
+     * @return A future of the reservation.
+     */
+    public CommandFuture<ConfirmedReservation> createConfirmedReservation(CompletableFuture<Guest> guest,
+                                                                          LocalDateTime checkInTime,
+                                                                          LocalDateTime checkOutTime, int numOfAdult,
+                                                                          int numOfChild, String roomNum) {
+        return commandEngine.submit(() -> reservationController.createConfirmedReservation(
+                CommandEngine.resultOf(guest), checkInTime, checkOutTime, numOfAdult, numOfChild, roomNum));
+    }
+
+    /**
+     * Book a room if it is available, see {@link ReservationController#bookRoom}.
+     *
+     * @param guest        Future of the guest who made the reservation.
+     * @param checkInTime  Confirmed check-in time.
+     * @param checkOutTime Confirmed check-out time.
+     * @param numOfAdult   Number of adults.
+     * @param numOfChild   Number of children.
+     * @param roomNum      Room no to be booked.
+     * @return A future of the reservation of the booked room.
+     */
+    public CommandFuture<ConfirmedReservation> bookRoom(CompletableFuture<Guest> guest, LocalDateTime checkInTime,
+                                                        LocalDateTime checkOutTime, int numOfAdult, int numOfChild,
+                                                        String roomNum) {
+        return commandEngine.submit(() -> reservationController.bookRoom(CommandEngine.resultOf(guest), checkInTime,
+                checkOutTime, numOfAdult, numOfChild, roomNum));
+    }
+
+    /**
+     * Book a block of rooms for a group, all or none, see {@link ReservationController#bookRooms}.
+     *
+     * @param guest        Future of the guest who made the group reservation.
+     * @param roomType     Type of the rooms, null for any type.
+     * @param bedType      Bed type of the rooms, null for any bed type.
+     * @param facing       Facing direction of the rooms, null for any direction.
+     * @param checkInTime  Confirmed check-in time.
+     * @param checkOutTime Confirmed check-out time.
+     * @param numOfRooms   Number of rooms to be booked.
+     * @param numOfAdult   Number of adults per room.
+     * @param numOfChild   Number of children per room.
+     * @return A future of the reservations of the booked rooms.
+     */
+    public CommandFuture<List<ConfirmedReservation>> bookRooms(CompletableFuture<Guest> guest, String roomType,
+                                                               String bedType, String facing,
+                                                               LocalDateTime checkInTime, LocalDateTime checkOutTime,
+                                                               int numOfRooms, int numOfAdult, int numOfChild) {
+        return commandEngine.submit(() -> reservationController.bookRooms(CommandEngine.resultOf(guest), roomType,
+                bedType, facing, checkInTime, checkOutTime, numOfRooms, numOfAdult, numOfChild));
+    }
+
+    /**
+     * Create a reservation in the waitlist, see {@link ReservationController#createWaitListReservation}.
+     *
+     * @param guest               Future of the guest who made the reservation.
+     * @param desiredCheckInTime  Desired check-in time.
+     * @param desiredCheckOutTime Desired check-out time.
+     * @param numOfAdult          Number of adults.
+     * @param numOfChild          Number of children.
+     * @param roomNum             Room number wished to be booked.
+     * @return A future of the reservation created in the waitlist.
+     */
+    public CommandFuture<WaitListReservation> createWaitListReservation(CompletableFuture<Guest> guest,
+                                                                        LocalDateTime desiredCheckInTime,
+                                                                        LocalDateTime desiredCheckOutTime,
+                                                                        int numOfAdult, int numOfChild,
+                                                                        String roomNum) {
+        return commandEngine.submit(() -> {
+            Guest resolvedGuest = CommandEngine.resultOf(guest);
+            return reservationController.createWaitListReservation(resolvedGuest, resolvedGuest.getContact(),
+                    desiredCheckInTime, desiredCheckOutTime, numOfAdult, numOfChild, roomNum);
+        });
+    }
+
+    /**
+     * Create a checked-in walk-in reservation, see {@link ReservationController#createWalkInReservation}.
+     *
+     * @param guest                Future of the guest who made the reservation.
+     * @param checkInTime          Checked-in time.
+     * @param expectedCheckOutTime Expected check-out time.
+     * @param numOfAdult           Number of adults.
+     * @param numOfChild           Number of children.
+     * @param roomNum              Booked room no.
+     * @return A future of the checked-in reservation.
+     */
+    public CommandFuture<CheckedInReservation> createWalkInReservation(CompletableFuture<Guest> guest,
+                                                                       LocalDateTime checkInTime,
+                                                                       LocalDateTime expectedCheckOutTime,
+                                                                       int numOfAdult, int numOfChild,
+                                                                       String roomNum) {
+        return commandEngine.submit(() -> {
+            Guest resolvedGuest = CommandEngine.resultOf(guest);
+            return reservationController.createWalkInReservation(resolvedGuest, resolvedGuest.getContact(),
+                    checkInTime, expectedCheckOutTime, numOfAdult, numOfChild, roomNum);
+        });
+    }
+
+    /**
+     * Update contact of a reservation, see {@link ReservationController#updateContact}.
+     *
+     * @param reservation    Future of the reservation.
+     * @param updatedContact New contact.
+     * @return A future of the reservation after updated.
+     */
+    public CommandFuture<Reservation> updateContact(CompletableFuture<? extends Reservation> reservation,
+                                                    String updatedContact) {
+        return commandEngine.submit(() -> reservationController.updateContact(CommandEngine.resultOf(reservation),
+                updatedContact));
+    }
+
+    /**
+     * Update number of guests of a reservation, see {@link ReservationController#updateNumberOfGuests}.
+     *
+     * @param reservation  Future of the reservation.
+     * @param updatedAdult New number of adults.
+     * @param updatedChild New number of children.
+     * @return A future of the reservation after updated.
+     */
+    public CommandFuture<Reservation> updateNumberOfGuests(CompletableFuture<? extends Reservation> reservation,
+                                                           int updatedAdult, int updatedChild) {
+        return commandEngine.submit(() -> reservationController.updateNumberOfGuests(
+                CommandEngine.resultOf(reservation), updatedAdult, updatedChild));
+    }
+
+    /**
+     * Update check-in time of a reservation at an expected version, see
+     * {@link ReservationController#updateCheckInTime(Reservation, LocalDateTime, long)}.
+     *
+     * @param reservation        Future of the reservation.
+     * @param updatedCheckInTime New check-in time.
+     * @param expectedVersion    The version of the reservation the caller has seen.
+     * @return A future of the reservation after updated.
+     */
+    public CommandFuture<Reservation> updateCheckInTime(CompletableFuture<? extends Reservation> reservation,
+                                                        LocalDateTime updatedCheckInTime, long expectedVersion) {
+        return commandEngine.submit(() -> reservationController.updateCheckInTime(
+                CommandEngine.resultOf(reservation), updatedCheckInTime, expectedVersion));
+    }
+
+    /**
+     * Update check-out time of a reservation at an expected version, see
+     * {@link ReservationController#updateCheckOutTime(Reservation, LocalDateTime, long)}.
+     *
+     * @param reservation         Future of the reservation.
+     * @param updatedCheckOutTime New check-out time.
+     * @param expectedVersion     The version of the reservation the caller has seen.
+     * @return A future of the reservation after updated.
+     */
+    public CommandFuture<Reservation> updateCheckOutTime(CompletableFuture<? extends Reservation> reservation,
+                                                         LocalDateTime updatedCheckOutTime, long expectedVersion) {
+        return commandEngine.submit(() -> reservationController.updateCheckOutTime(
+                CommandEngine.resultOf(reservation), updatedCheckOutTime, expectedVersion));
+    }
+
+    /**
+     * Check in or expire a reservation, see {@link ReservationController#validateCheckIn}.
+     *
+     * @param reservation           Future of the reservation.
+     * @param actualCheckInDateTime Actual check-in date time.
+     * @return A future completed once the change is persisted.
+     */
+    public CommandFuture<Void> validateCheckIn(CompletableFuture<? extends Reservation> reservation,
+                                               LocalDateTime actualCheckInDateTime) {
+        return commandEngine.submit(() -> {
+            reservationController.validateCheckIn(CommandEngine.resultOf(reservation), actualCheckInDateTime);
+            return null;
+        });
+    }
+
+    /**
+     * Cancel a reservation, see {@link ReservationController#cancelReservation}.
+     *
+     * @param reservation Future of the reservation.
+     * @return A future of whether the room became vacant.
+     */
+    public CommandFuture<Boolean> cancelReservation(CompletableFuture<? extends Reservation> reservation) {
+        return commandEngine.submit(() -> reservationController.cancelReservation(
+                CommandEngine.resultOf(reservation)));
+    }
+
+    /**
+     * Reserve a room, see {@link RoomController#reserve}.
+     *
+     * @param roomNumber The room number.
+     * @return A future completed once the change is persisted.
+     */
+    public CommandFuture<Void> reserve(String roomNumber) {
+        return commandEngine.submit(() -> {
+            roomController.reserve(roomNumber);
+            return null;
+        });
+    }
+
+    /**
+     * Check a guest into a room, see {@link RoomController#checkIn}.
+     *
+     * @param roomNumber The room number.
+     * @param guest      Future of the guest.
+     * @return A future of the checked-in room.
+     */
+    public CommandFuture<Room> checkIn(String roomNumber, CompletableFuture<Guest> guest) {
+        return commandEngine.submit(() -> roomController.checkIn(roomNumber, CommandEngine.resultOf(guest)));
+    }
+
+    /**
+     * Start maintaining a room, see {@link RoomController#maintain}.
+     *
+     * @param roomNumber The room number.
+     * @return A future of the room.
+     */
+    public CommandFuture<Room> maintain(String roomNumber) {
+        return commandEngine.submit(() -> roomController.maintain(roomNumber));
+    }
+
+    /**
+     * Finish maintaining a room, see {@link RoomController#finishMaintain}.
+     *
+     * @param roomNumber The room number.
+     * @return A future of the room.
+     */
+    public CommandFuture<Room> finishMaintain(String roomNumber) {
+        return commandEngine.submit(() -> roomController.finishMaintain(roomNumber));
+    }
+
+    /**
+     * Change a room's rate, see {@link RoomController#updateRoomRate}.
+     *
+     * @param room            The room.
+     * @param updatedRoomRate New rate.
+     * @return A future completed once the change is persisted.
+     */
+    public CommandFuture<Void> updateRoomRate(Room room, Money updatedRoomRate) {
+        return commandEngine.submit(() -> {
+            roomController.updateRoomRate(room, updatedRoomRate);
+            return null;
+        });
+    }
+
+    /**
+     * Change a room's status, see {@link RoomController#updateRoomStatus}.
+     *
+     * @param room              The room.
+     * @param updatedRoomStatus New status.
+     * @return A future completed once the change is persisted.
+     */
+    public CommandFuture<Void> updateRoomStatus(Room room, String updatedRoomStatus) {
+        return commandEngine.submit(() -> {
+            roomController.updateRoomStatus(room, updatedRoomStatus);
+            return null;
+        });
+    }
+
+    /**
+     * Audit the business date and roll it, see {@link NightAuditController#runNightAudit}.
+     *
+     * @return A future of the audit's report.
+     */
+    public CommandFuture<NightAuditReport> runNightAudit() {
+        return commandEngine.submit(() -> NightAuditController.getInstance().runNightAudit());
+    }
+
+    /**
+     * Finish checking out a room after its bill is paid, see {@link CheckOutController#finishCheckOut}.
+     *
+     * @param room         The room.
+     * @param checkOutDate The actual date of check-out.
+     * @param paidBill     The bill that is paid.
+     * @return A future of whether the room became vacant.
+     */
+    public CommandFuture<Boolean> finishCheckOut(Room room, LocalDateTime checkOutDate, Bill paidBill) {
+        return commandEngine.submit(() -> checkOutController.finishCheckOut(room, checkOutDate, paidBill));
+    }
+}
@@ -1,10 +1,18 @@
 package hrps.control;
 
 import hrps.entity.*;
+import hrps.entity.enums.PostingType;
+import hrps.exception.IllegalRoomInSerializableBinaryFileException;
 import hrps.exception.InvalidCheckOutTimeException;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Objects;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * The controller that handles the checking out process, including checking out guest(s), requesting payment and
@@ -44,38 +52,252 @@ public class CheckOutController {
     }
 
     /**
-     * Check out guest(s) and the associated check-in reservations from the specified room. Calculate the total price
-     * of room and room services and generate the bill.
+     * Check out guest(s) and the associated check-in reservations from the specified room. Settle the stay from its
+     * folio, whose totals are kept as they are posted, and generate the bill. The room price is the room charges
+     * posted to the folio, plus the rates of the nights not posted yet, see {@link #getRoomPrice}.
      *
      * @param targetRoom   The room to be checked out.
-     * @param hasPromotion true if this bill is valid for promotion, false otherwise.
+     * @param promoCode    The promotion code given by the guest, null if none.
      * @param checkOutDate the actual date of check-out that is used to compute the total housing
      *                    price.
      * @return The Bill containing the details of total amount the guest need to pay.
      * @throws InvalidCheckOutTimeException if the check-out date is before the check-in date.
+     * @throws IllegalArgumentException     if the promotion code is not valid.
      */
-    public Bill checkOut(Room targetRoom, boolean hasPromotion, LocalDateTime checkOutDate) throws InvalidCheckOutTimeException {
+    public Bill checkOut(Room targetRoom, String promoCode, LocalDateTime checkOutDate) throws InvalidCheckOutTimeException {
+        PricingPipeline pipeline = PricingController.getInstance().getPipeline();
+        if (Objects.nonNull(promoCode) && !pipeline.isValidPromoCode(promoCode)) {
+            throw new IllegalArgumentException("Invalid promotion code: " + promoCode);
+        }
         CheckedInReservation targetCheckedInReservation =
                 reservationController.findCheckedInReservationByRoom(targetRoom);
         if (checkOutDate.isBefore(targetCheckedInReservation.getCheckInTime())) {
             throw new InvalidCheckOutTimeException();
         }
-        double servicePrice = orderController.findOrderedRoomServiceTotalPriceByRoom(targetRoom);
-        double roomFlatPrice = targetRoom.getRate();
+        Folio folio = FolioController.getInstance().getFolio(targetCheckedInReservation);
+        Money servicePrice = folio.getTotal(PostingType.ROOM_SERVICE);
+        Money folioAdjustments = folio.getTotal(PostingType.ADJUSTMENT);
         CheckedOutReservation checkedOutReservation =
                 targetCheckedInReservation.checkOut(checkOutDate);
-        Bill currentBill = new Bill(checkedOutReservation, roomFlatPrice, servicePrice,
-                hasPromotion);
+        Money roomPrice = getRoomPrice(folio.getTotal(PostingType.ROOM_CHARGE), folio.getLastRoomChargeNight(),
+                targetRoom, checkedOutReservation);
+        Bill currentBill = new Bill(checkedOutReservation, roomPrice, servicePrice,
+                folioAdjustments, pipeline, promoCode);
         return currentBill;
     }
 
+    /**
+     * Get the room price of a stay from its folio: the room charges posted by the night audits, plus the rates from
+     * the rate calendar of the nights of the stay after the last night posted, so the bill settles what the folio
+     * shows.
+     *
+     * @param postedRoomCharge      Total of the room charges posted to the folio of the stay.
+     * @param lastPostedNight       Last night whose room charge was posted, null if none.
+     * @param room                  The room of the stay.
+     * @param checkedOutReservation The checked-out reservation of the stay.
+     * @return The room price, before promotion and tax.
+     */
+    private static Money getRoomPrice(Money postedRoomCharge, LocalDate lastPostedNight, Room room,
+                                      CheckedOutReservation checkedOutReservation) {
+        LocalDateTime checkInTime = checkedOutReservation.getCheckInTime();
+        LocalDate firstNight = checkInTime.toLocalDate();
+        LocalDate endNight = firstNight.plusDays(
+                Math.max(0, checkInTime.until(checkedOutReservation.getCheckOutTime(), ChronoUnit.DAYS)));
+        if (Objects.nonNull(lastPostedNight) && !lastPostedNight.isBefore(firstNight)) {
+            firstNight = lastPostedNight.plusDays(1);
+        }
+        Money unpostedRoomCharge = RoomController.getInstance().getRateCalendar().getStayPrice(room, firstNight,
+                endNight);
+        return postedRoomCharge.plus(unpostedRoomCharge);
+    }
+
+    /**
+     * Finish checking out the specified room after the bill is paid: remove its checked-in reservation and its room
+     * service orders, close its folio, release the room to a future reservation or set it to vacant, and record the
+     * revenue of the stay. All of it is one transaction, persisted with one commit, see {@link Transaction#apply}.
+     * The room must still be checked in under the reservation it was billed for, or else it is not checked out.
+     *
+     * @param targetRoom   The room that is checked out.
+     * @param checkOutDate The actual date of check-out.
+     * @param paidBill     The bill that is paid.
+     * @return true if the room is set to vacant, false if it is reserved for a future reservation.
+     * @throws IllegalRoomInSerializableBinaryFileException If the room no longer has the checked-in reservation it
+     *                                                      was billed for.
+     * @throws UncheckedIOException                         If the changes cannot be persisted.
+     */
+    public boolean finishCheckOut(Room targetRoom, LocalDateTime checkOutDate, Bill paidBill)
+            throws IllegalRoomInSerializableBinaryFileException {
+        UUID reservationCode = paidBill.getCheckedOutReservation().getReservationCode();
+        return Transaction.apply(() -> {
+            CheckedInReservation checkedInReservation =
+                    reservationController.findCheckedInReservationByRoom(targetRoom);
+            if (Objects.isNull(checkedInReservation)
+                    || !checkedInReservation.getReservationCode().equals(reservationCode)) {
+                throw new IllegalRoomInSerializableBinaryFileException();
+            }
+            reservationController.deleteReservationAfterCheckingOutByRoom(targetRoom);
+            orderController.flushRoomOrderAfterCheckOut(targetRoom);  // remove room orders only when payment is done
+            FolioController.getInstance().closeFolio(reservationCode);
+            boolean isVacant = RoomController.getInstance().checkOutRoom(targetRoom, checkOutDate);
+            try {
+                RevenueController.getInstance().recordSettledBill(paidBill, targetRoom);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return isVacant;
+        });
+    }
+
+    /**
+     * Check out a group of rooms together, eg. when a tour group leaves. The checked-in reservations and folios of all
+     * the rooms are found in one pass holding the lock of the ReservationController, and the rooms are then settled
+     * from their folios as by {@link #checkOut}, in parallel and without the lock. If a room's reservation or folio
+     * changed meanwhile, found again under the lock, the rooms are settled again.
+     *
+     * @param targetRooms  The rooms to be checked out.
+     * @param promoCode    The promotion code given by the group, applied to every room, null if none.
+     * @param checkOutDate The actual date of check-out of every room.
+     * @return The bills of the rooms, with the master folio consolidating them.
+     * @throws InvalidCheckOutTimeException if the check-out date is before the check-in date of any room.
+     * @throws IllegalArgumentException     if the promotion code is not valid, or a room is given twice or has no
+     *                                      checked-in reservation.
+     */
+    public GroupBill checkOutGroup(List<Room> targetRooms, String promoCode, LocalDateTime checkOutDate)
+            throws InvalidCheckOutTimeException {
+        PricingPipeline pipeline = PricingController.getInstance().getPipeline();
+        if (Objects.nonNull(promoCode) && !pipeline.isValidPromoCode(promoCode)) {
+            throw new IllegalArgumentException("Invalid promotion code: " + promoCode);
+        }
+        int size = targetRooms.size();
+        CheckedInReservation[] reservations = new CheckedInReservation[size];
+        Folio[] folios = new Folio[size];
+        int[] numbersOfPostings = new int[size];
+        Money[] postedRoomCharges = new Money[size];
+        LocalDate[] lastPostedNights = new LocalDate[size];
+        Money[] servicePrices = new Money[size];
+        Money[] folioAdjustments = new Money[size];
+        CheckedOutReservation[] checkedOutReservations = new CheckedOutReservation[size];
+        while (true) {
+            synchronized (reservationController) {
+                Map<String, CheckedInReservation> checkedInReservations =
+                        reservationController.findCheckedInReservationsByRooms(targetRooms);
+                Set<String> roomNumbers = new HashSet<>();
+                for (int i = 0; i < size; i++) {
+                    String roomNumber = targetRooms.get(i).getRoomNumber();
+                    reservations[i] = checkedInReservations.get(roomNumber);
+                    if (!roomNumbers.add(roomNumber)) {
+                        throw new IllegalArgumentException("Room " + roomNumber + " is given more than once.");
+                    }
+                    if (Objects.isNull(reservations[i])) {
+                        throw new IllegalArgumentException("Room " + roomNumber + " has no checked-in reservation.");
+                    }
+                    if (checkOutDate.isBefore(reservations[i].getCheckInTime())) {
+                        throw new InvalidCheckOutTimeException();
+                    }
+                    // postings are only appended, and only removed to undo a rolled back transaction
+                    folios[i] = FolioController.getInstance().getFolio(reservations[i]);
+                    numbersOfPostings[i] = folios[i].getPostings().size();
+                    postedRoomCharges[i] = folios[i].getTotal(PostingType.ROOM_CHARGE);
+                    lastPostedNights[i] = folios[i].getLastRoomChargeNight();
+                    servicePrices[i] = folios[i].getTotal(PostingType.ROOM_SERVICE);
+                    folioAdjustments[i] = folios[i].getTotal(PostingType.ADJUSTMENT);
+                    checkedOutReservations[i] = reservations[i].checkOut(checkOutDate);
+                }
+            }
+            List<Bill> bills = IntStream.range(0, size).parallel()
+                    .mapToObj(i -> new Bill(checkedOutReservations[i], getRoomPrice(postedRoomCharges[i],
+                            lastPostedNights[i], targetRooms.get(i), checkedOutReservations[i]), servicePrices[i],
+                            folioAdjustments[i], pipeline, promoCode))
+                    .collect(Collectors.toList());
+            synchronized (reservationController) {
+                if (isUnchanged(targetRooms, reservations, folios, numbersOfPostings)) {
+                    return new GroupBill(targetRooms, bills);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check that the rooms are still checked in under the same reservations, and that their folios have had no
+     * posting since they were read. The caller must hold the lock of the ReservationController.
+     *
+     * @param rooms             The rooms.
+     * @param reservations      The checked-in reservation of each room when it was read.
+     * @param folios            The folio of each room when it was read.
+     * @param numbersOfPostings The number of postings of each folio when it was read.
+     * @return true if nothing changed.
+     */
+    private boolean isUnchanged(List<Room> rooms, CheckedInReservation[] reservations, Folio[] folios,
+                                int[] numbersOfPostings) {
+        Map<String, CheckedInReservation> checkedInReservations =
+                reservationController.findCheckedInReservationsByRooms(rooms);
+        for (int i = 0; i < rooms.size(); i++) {
+            if (checkedInReservations.get(rooms.get(i).getRoomNumber()) != reservations[i]
+                    || FolioController.getInstance().getFolio(reservations[i]) != folios[i]
+                    || folios[i].getPostings().size() != numbersOfPostings[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finish checking out a group of rooms after their bills are paid, whether one by one or together as the master
+     * folio. Each room is finished as by {@link #finishCheckOut}, but the reservations, room service orders and
+     * folios of all the rooms are each removed in one pass, and all of it is one transaction persisted with one
+     * commit. Every room must still be checked in under the reservation it was billed for, or else no room is checked
+     * out.
+     *
+     * @param checkOutDate The actual date of check-out.
+     * @param paidBill     The group bill that is paid.
+     * @return For each room number, true if the room is set to vacant, false if it is reserved for a future
+     * reservation.
+     * @throws IllegalRoomInSerializableBinaryFileException If a room no longer has the checked-in reservation it was
+     *                                                      billed for.
+     * @throws UncheckedIOException                         If the changes cannot be persisted.
+     */
+    public Map<String, Boolean> finishGroupCheckOut(LocalDateTime checkOutDate, GroupBill paidBill)
+            throws IllegalRoomInSerializableBinaryFileException {
+        List<Room> rooms = paidBill.getRooms();
+        List<CheckedOutReservation> reservations = new ArrayList<>(rooms.size());
+        List<UUID> reservationCodes = new ArrayList<>(rooms.size());
+        for (Bill bill : paidBill.getBills()) {
+            reservations.add(bill.getCheckedOutReservation());
+            reservationCodes.add(bill.getCheckedOutReservation().getReservationCode());
+        }
+        return Transaction.apply(() -> {
+            Map<String, CheckedInReservation> checkedInReservations =
+                    reservationController.findCheckedInReservationsByRooms(rooms);
+            for (int i = 0; i < rooms.size(); i++) {
+                CheckedInReservation checkedInReservation = checkedInReservations.get(rooms.get(i).getRoomNumber());
+                if (Objects.isNull(checkedInReservation)
+                        || !checkedInReservation.getReservationCode().equals(reservationCodes.get(i))) {
+                    throw new IllegalRoomInSerializableBinaryFileException();
+                }
+            }
+            Map<String, Boolean> releasedRooms = new LinkedHashMap<>();
+            reservationController.removeReservations(reservations);
+            orderController.flushRoomOrdersAfterCheckOut(rooms);
+            FolioController.getInstance().closeFolios(reservationCodes);
+            for (Room room : rooms) {
+                releasedRooms.put(room.getRoomNumber(), RoomController.getInstance().checkOutRoom(room, checkOutDate));
+            }
+            try {
+                RevenueController.getInstance().recordSettledBills(paidBill.getBills(), rooms);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return releasedRooms;
+        });
+    }
+
     /**
      * Generate a payment.
      *
      * @param totalAmount Total amount needed to be paid.
      * @return An object of a Payable-implementing class, accepted as a payment.
      */
-    public Payable generatePayment(double totalAmount) {
+    public Payable generatePayment(Money totalAmount) {
         return new CashPayment(totalAmount);
     }
 
@@ -86,7 +308,7 @@ public class CheckOutController {
      * @param creditCard  The credit card used to pay.
      * @return An object of a Payable-implementing class, accepted as a payment.
      */
-    public Payable generatePayment(double totalAmount, CreditCard creditCard) {
+    public Payable generatePayment(Money totalAmount, CreditCard creditCard) {
         return new CreditCardPayment(creditCard, totalAmount);
     }
 }
@@ -0,0 +1,388 @@
+package hrps.control;
+
+import hrps.exception.HRPSException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The engine that applies mutations of the controllers' state on one writer thread. Commands are submitted to a
+ * pre-allocated ring buffer and applied strictly in the order of their sequence numbers. The writer takes every
+ * command waiting in the buffer as one batch, applies them while holding the reservation controller's lock once,
+ * and persists the whole batch with a single SerializeDB commit before completing the commands' futures.
+ * <p>
+ * The batch is applied as a {@link Transaction} and each command as a transaction nested in it, so a command that
+ * fails leaves none of its changes behind while the other commands of the batch are still persisted. If the commit
+ * fails, the whole batch is rolled back in memory and every command of it fails.
+ * <p>
+ * The engine is optional: it only runs after {@link #start()}, and callers that do not use it keep locking the
+ * reservation controller themselves.
+ * <p>
+ * A command may use the result of a command submitted before it through {@link #resultOf(CompletableFuture)}, which
+ * does not wait for the earlier command to be persisted. This lets callers pipeline dependent operations.
+ *
+ * @author Peng Wenxuan
+ */
+public class CommandEngine {
+    /**
+     * Number of slots in the ring buffer, which is also the largest number of commands applied in one batch.
+     */
+    public static final int CAPACITY = 1024;
+    /**
+     * Bit of the claim counter set while the engine does not accept commands.
+     */
+    private static final long CLOSED = 1L << 62;
+    /**
+     * The only one instance, this is to avoid multiple instantiations.
+     */
+    private static CommandEngine instance = null;
+    /**
+     * Its lock guards the controllers' state, the writer holds it while applying a batch.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+    /**
+     * The ring buffer.
+     */
+    private final Slot[] slots = new Slot[CAPACITY];
+    /**
+     * Results of the batch being applied, indexed by position in the batch.
+     */
+    private final Object[] results = new Object[CAPACITY];
+    /**
+     * Failures of the batch being applied, indexed by position in the batch.
+     */
+    private final Throwable[] failures = new Throwable[CAPACITY];
+    /**
+     * Next sequence number to be claimed by a submitter, with the CLOSED bit set while the engine does not accept
+     * commands. Submitters claim sequence numbers by compare-and-set, so a claim never races with a stop.
+     */
+    private final AtomicLong nextClaim = new AtomicLong(CLOSED);
+    /**
+     * Sequence number of the next command to be applied, only used by the writer.
+     */
+    private long nextApply = 0;
+    /**
+     * The writer thread, or null if the engine is not running.
+     */
+    private volatile Thread writerThread;
+
+    /**
+     * A mutation to be applied by the writer thread.
+     *
+     * @param <T> Type of the command's result.
+     */
+    @FunctionalInterface
+    public interface Command<T> {
+        /**
+         * Apply the mutation. Called on the writer thread while holding the reservation controller's lock.
+         *
+         * @return The result of the command.
+         * @throws HRPSException If the command breaks a business rule.
+         */
+        T execute() throws HRPSException;
+    }
+
+    /**
+     * Future of a submitted command. Besides completing once the command is persisted, it keeps the command's result
+     * as soon as the writer has applied the command.
+     *
+     * @param <T> Type of the command's result.
+     */
+    public static class CommandFuture<T> extends CompletableFuture<T> {
+        /**
+         * Whether the command has been applied, only used by the writer.
+         */
+        private boolean isApplied;
+        /**
+         * Result of the applied command, only used by the writer.
+         */
+        private T appliedResult;
+        /**
+         * Failure of the applied command, only used by the writer.
+         */
+        private Throwable appliedFailure;
+    }
+
+    /**
+     * One slot of the ring buffer. A slot is free for the command with sequence number s when its sequence is s, and
+     * holds that command, ready to be applied, when its sequence is s + 1.
+     */
+    private static class Slot {
+        /**
+         * State of the slot as described above.
+         */
+        private volatile long sequence;
+        /**
+         * The command held by the slot.
+         */
+        private Command<?> command;
+        /**
+         * The future of the command held by the slot.
+         */
+        private CommandFuture<Object> future;
+
+        /**
+         * Create a slot that is free for the specified sequence number.
+         *
+         * @param sequence The first sequence number that may use the slot.
+         */
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation from other classes.
+     */
+    private CommandEngine() {
+        for (int i = 0; i < CAPACITY; i++) {
+            slots[i] = new Slot(i);
+        }
+    }
+
+    /**
+     * Get the CommandEngine instance, or create new one if no engine was instantiated.
+     *
+     * @return The singleton CommandEngine instance.
+     */
+    public static CommandEngine getInstance() {
+        if (Objects.isNull(instance)) {
+            instance = new CommandEngine();
+        }
+        return instance;
+    }
+
+    /**
+     * Start the writer thread.
+     */
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        writerThread = new Thread(this::runWriterLoop, "command-engine");
+        writerThread.setDaemon(true);
+        nextClaim.getAndUpdate(claim -> claim & ~CLOSED);
+        writerThread.start();
+    }
+
+    /**
+     * Stop accepting commands, and wait until every submitted command is applied. Commands submitted from then on are
+     * rejected.
+     */
+    public synchronized void stop() {
+        if (!isRunning()) {
+            return;
+        }
+        nextClaim.getAndUpdate(claim -> claim | CLOSED);
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+    }
+
+    /**
+     * Check if the engine accepts commands.
+     *
+     * @return true if the engine is running.
+     */
+    public boolean isRunning() {
+        return (nextClaim.get() & CLOSED) == 0;
+    }
+
+    /**
+     * Submit a command to be applied by the writer thread. The command's sequence number is claimed by
+     * compare-and-set, which fails once {@link #stop()} has closed the engine, so every command claimed is drained by
+     * the writer. Waits, without holding any lock, while the command's slot is still used by the command one lap
+     * before it.
+     *
+     * @param command The command.
+     * @param <T>     Type of the command's result.
+     * @return A future completed with the command's result once the batch containing it is persisted, or
+     * exceptionally with the command's exception, or an UncheckedIOException if the batch cannot be persisted.
+     * @throws IllegalStateException If the engine is not running.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CommandFuture<T> submit(Command<T> command) {
+        long sequence;
+        do {
+            sequence = nextClaim.get();
+            if ((sequence & CLOSED) != 0) {
+                throw new IllegalStateException("The command engine is not running");
+            }
+        } while (!nextClaim.compareAndSet(sequence, sequence + 1));
+        CommandFuture<T> future = new CommandFuture<>();
+        Slot slot = slots[(int) (sequence % CAPACITY)];
+        while (slot.sequence != sequence) {
+            LockSupport.parkNanos(1000);
+        }
+        slot.command = command;
+        slot.future = (CommandFuture<Object>) future;
+        slot.sequence = sequence + 1;
+        LockSupport.unpark(writerThread);
+        return future;
+    }
+
+    /**
+     * Submit a command and wait until it is applied and persisted.
+     *
+     * @param command The command.
+     * @param <T>     Type of the command's result.
+     * @return The command's result.
+     * @throws HRPSException If the command breaks a business rule.
+     */
+    public <T> T call(Command<T> command) throws HRPSException {
+        try {
+            return submit(command).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof HRPSException) {
+                throw (HRPSException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Get the result of a command submitted before the calling command, without waiting for it to be persisted. Only
+     * to be called by a command while it is executed, or with a future that is already completed.
+     *
+     * @param future The future returned when the earlier command was submitted, or any completed future.
+     * @param <T>    Type of the result.
+     * @return The result.
+     * @throws HRPSException            If the earlier command broke a business rule.
+     * @throws IllegalArgumentException If the result is not available yet.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T resultOf(CompletableFuture<T> future) throws HRPSException {
+        if (future.isDone()) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof HRPSException) {
+                    throw (HRPSException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+        if (!(future instanceof CommandFuture) || !((CommandFuture<T>) future).isApplied) {
+            throw new IllegalArgumentException("The result is not available yet");
+        }
+        CommandFuture<T> commandFuture = (CommandFuture<T>) future;
+        if (commandFuture.appliedFailure instanceof HRPSException) {
+            throw (HRPSException) commandFuture.appliedFailure;
+        }
+        if (commandFuture.appliedFailure instanceof Error) {
+            throw (Error) commandFuture.appliedFailure;
+        }
+        if (commandFuture.appliedFailure != null) {
+            throw (RuntimeException) commandFuture.appliedFailure;
+        }
+        return commandFuture.appliedResult;
+    }
+
+    /**
+     * Apply batches of commands until the engine is stopped and every command claimed is applied. A command claimed
+     * but not yet published is waited for.
+     */
+    private void runWriterLoop() {
+        while (true) {
+            long claim = nextClaim.get();
+            if (slots[(int) (nextApply % CAPACITY)].sequence == nextApply + 1) {
+                applyBatch();
+            } else if ((claim & CLOSED) == 0) {
+                LockSupport.park(this);
+            } else if (nextApply < (claim & ~CLOSED)) {
+                Thread.onSpinWait();
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Apply every command ready in the ring buffer, persist them in one commit, then complete their futures and free
+     * their slots. A command that fails is rolled back on its own; if the commit fails, the whole batch is.
+     */
+    private void applyBatch() {
+        int count = 0;
+        RuntimeException commitFailure = null;
+        synchronized (reservationController) {
+            try (Transaction batch = Transaction.begin()) {
+                while (count < CAPACITY) {
+                    Slot slot = slots[(int) ((nextApply + count) % CAPACITY)];
+                    if (slot.sequence != nextApply + count + 1) {
+                        break;
+                    }
+                    apply(slot.command, count);
+                    slot.future.isApplied = true;
+                    slot.future.appliedResult = results[count];
+                    slot.future.appliedFailure = failures[count];
+                    count++;
+                }
+                try {
+                    batch.commit();
+                } catch (IOException e) {
+                    commitFailure = new UncheckedIOException(e);
+                } catch (RuntimeException e) {
+                    commitFailure = e;
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            Slot slot = slots[(int) ((nextApply + i) % CAPACITY)];
+            CommandFuture<Object> future = slot.future;
+            slot.command = null;
+            slot.future = null;
+            slot.sequence = nextApply + i + CAPACITY;
+            if (failures[i] != null) {
+                future.completeExceptionally(failures[i]);
+            } else if (commitFailure != null) {
+                future.completeExceptionally(commitFailure);
+            } else {
+                future.complete(results[i]);
+            }
+            results[i] = null;
+            failures[i] = null;
+        }
+        nextApply += count;
+    }
+
+    /**
+     * Apply a command of the batch as a transaction nested in the batch's, and keep its result or failure. The
+     * changes of a command that fails are rolled back, whatever it throws, and only its future fails.
+     *
+     * @param command  The command.
+     * @param position Position of the command in the batch.
+     */
+    private void apply(Command<?> command, int position) {
+        try (Transaction transaction = Transaction.begin()) {
+            results[position] = command.execute();
+            transaction.commit();
+        } catch (HRPSException | RuntimeException e) {
+            results[position] = null;
+            failures[position] = e;
+        } catch (IOException e) {
+            results[position] = null;
+            failures[position] = new UncheckedIOException(e);
+        } catch (Throwable e) {
+            results[position] = null;
+            failures[position] = e;
+        }
+    }
+}
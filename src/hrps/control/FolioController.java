@@ -0,0 +1,212 @@
+package hrps.control;
+
+import hrps.entity.*;
+import hrps.entity.enums.PostingType;
+import tool.SerializeDB;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The controller that keeps the folios of the stays in house. Room service orders, the night audit's room charges
+ * and manual adjustments are posted to the folio of the stay they belong to, and a folio is closed when its stay is
+ * checked out. Every change is written to the data file, as part of the caller's batch if one is open.
+ *
+ * @author Peng Wenxuan
+ */
+public class FolioController {
+    /**
+     * File path of the folios' data file.
+     */
+    static final String FOLIO_DATA_DIR = "src/data/folios.dat";
+    /**
+     * The static controller instance to avoid multiple instantiations.
+     */
+    private static FolioController instance = null;
+    /**
+     * Its lock guards the folios.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+    /**
+     * The open folios, by reservation code.
+     */
+    private final HashMap<UUID, Folio> folios;
+
+    /**
+     * Initialize the controller by reading the folios' data file, starting with no folio if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    private FolioController() {
+        HashMap<UUID, Folio> savedFolios = null;
+        if (new File(FOLIO_DATA_DIR).exists()) {
+            savedFolios = (HashMap<UUID, Folio>) SerializeDB.readSerializedObject(FOLIO_DATA_DIR);
+        }
+        folios = Objects.isNull(savedFolios) ? new HashMap<>() : savedFolios;
+    }
+
+    /**
+     * Get the controller instance. This is to avoid multiple instantiation of controller.
+     *
+     * @return The singleton FolioController instance.
+     */
+    public static FolioController getInstance() {
+        if (Objects.isNull(instance)) {
+            instance = new FolioController();
+        }
+        return instance;
+    }
+
+    /**
+     * Get the folio of a stay, opening it if nothing was posted to it yet. A folio opened for a stay that was checked
+     * in before folios were kept starts with the room service orders already made to its room.
+     *
+     * @param reservation The stay's reservation.
+     * @return The folio.
+     */
+    public Folio getFolio(Reservation reservation) {
+        synchronized (reservationController) {
+            Folio folio = folios.get(reservation.getReservationCode());
+            if (Objects.isNull(folio)) {
+                folio = new Folio(reservation.getReservationCode(), reservation.getRoomNum());
+                for (OrderedRoomService order : OrderController.getInstance().getAllOrders()) {
+                    if (order.getRoom().getRoomNumber().equals(reservation.getRoomNum())) {
+                        postRoomService(folio, order);
+                    }
+                }
+                folios.put(reservation.getReservationCode(), folio);
+                Transaction.record(() -> folios.remove(reservation.getReservationCode()));
+            }
+            return folio;
+        }
+    }
+
+    /**
+     * Post a room service order to the folio of the stay in its room, if the room has a checked-in stay. To be called
+     * before the order is added to the room's orders.
+     *
+     * @param order The order.
+     */
+    public void postRoomService(OrderedRoomService order) {
+        synchronized (reservationController) {
+            CheckedInReservation reservation = reservationController.findCheckedInReservationByRoom(order.getRoom());
+            if (Objects.isNull(reservation)) {
+                return;
+            }
+            Folio folio = getFolio(reservation);
+            recordPosting(folio);
+            postRoomService(folio, order);
+            saveFolios();
+        }
+    }
+
+    /**
+     * Post a room service order to a folio.
+     *
+     * @param folio The folio.
+     * @param order The order.
+     */
+    private static void postRoomService(Folio folio, OrderedRoomService order) {
+        folio.post(order.getOrderTime(), PostingType.ROOM_SERVICE,
+                "Room service " + order.getOrderID().toString().substring(0, 8), order.getTotalPrice());
+    }
+
+    /**
+     * Post a night's room charge to the folio of a stay, unless the night was posted already.
+     *
+     * @param reservation The stay's reservation.
+     * @param night       Date of the night.
+     * @param roomCharge  The room charge of the night.
+     * @return true if the room charge is posted, false if the night was posted already.
+     */
+    public boolean postRoomCharge(Reservation reservation, LocalDate night, Money roomCharge) {
+        synchronized (reservationController) {
+            Folio folio = getFolio(reservation);
+            recordPosting(folio);
+            if (!folio.postRoomCharge(night.plusDays(1).atStartOfDay(), night, roomCharge)) {
+                return false;
+            }
+            saveFolios();
+            return true;
+        }
+    }
+
+    /**
+     * Post a manual adjustment to the folio of a stay.
+     *
+     * @param reservation The stay's reservation.
+     * @param description Description of the adjustment.
+     * @param amount      Amount posted, negative for a credit.
+     * @return The posting.
+     */
+    public FolioPosting postAdjustment(Reservation reservation, String description, Money amount) {
+        synchronized (reservationController) {
+            Folio folio = getFolio(reservation);
+            recordPosting(folio);
+            FolioPosting posting = folio.post(LocalDateTime.now(), PostingType.ADJUSTMENT, description, amount);
+            saveFolios();
+            return posting;
+        }
+    }
+
+    /**
+     * Close the folio of a stay that is checked out.
+     *
+     * @param reservationCode Code of the stay's reservation.
+     * @return The closed folio, null if nothing was posted to it.
+     */
+    public Folio closeFolio(UUID reservationCode) {
+        synchronized (reservationController) {
+            Folio folio = folios.remove(reservationCode);
+            if (Objects.nonNull(folio)) {
+                Transaction.record(() -> folios.put(reservationCode, folio));
+                saveFolios();
+            }
+            return folio;
+        }
+    }
+
+    /**
+     * Close the folios of several stays that are checked out together, and write the folios to the data file once.
+     *
+     * @param reservationCodes Codes of the stays' reservations.
+     */
+    public void closeFolios(Collection<UUID> reservationCodes) {
+        synchronized (reservationController) {
+            boolean isClosed = false;
+            for (UUID reservationCode : reservationCodes) {
+                Folio folio = folios.remove(reservationCode);
+                if (Objects.nonNull(folio)) {
+                    Transaction.record(() -> folios.put(reservationCode, folio));
+                    isClosed = true;
+                }
+            }
+            if (isClosed) {
+                saveFolios();
+            }
+        }
+    }
+
+    /**
+     * Record how to take back the postings about to be made to a folio, for a transaction to undo them. Postings are
+     * only appended, so the folio is put back to the number of postings it has.
+     *
+     * @param folio The folio about to be posted to.
+     */
+    private void recordPosting(Folio folio) {
+        int numberOfPostings = folio.getPostings().size();
+        LocalDate lastRoomChargeNight = folio.getLastRoomChargeNight();
+        Transaction.record(() -> folio.truncate(numberOfPostings, lastRoomChargeNight));
+    }
+
+    /**
+     * Write all open folios to the data file.
+     */
+    private void saveFolios() {
+        SerializeDB.writeSerializedObject(FOLIO_DATA_DIR, folios);
+    }
+}
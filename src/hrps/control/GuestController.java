@@ -115,6 +115,7 @@ public class GuestController {
                              String country, String gender, String IDNumber, IDType IDType, String nationality, String contact) {
         Guest guest = new Guest(guestName, creditCardNo, creditBillingAddress, address, country, gender, IDNumber, IDType, nationality, contact);
         this.guestList.add(guest);
+        Transaction.record(() -> guestList.remove(guest));
         SerializeDB.writeSerializedObject(GUEST_DATA_DIR, guestList);
         return guest;
     }
@@ -126,6 +127,7 @@ public class GuestController {
      * @param guestName New name
      */
     public void updateGuestName(Guest guest, String guestName) {
+        recordChange(guest);
         guest.setGuestName(guestName);
         SerializeDB.writeSerializedObject(GUEST_DATA_DIR, guestList);
     }
@@ -138,6 +140,7 @@ public class GuestController {
      * @param updatedBillingAddress New billing address
      */
     public void updateCreditCard(Guest guest, String updatedCreditCardNum, String updatedBillingAddress) {
+        recordChange(guest);
         guest.setCreditCardDetails(updatedCreditCardNum, updatedBillingAddress);
         SerializeDB.writeSerializedObject(GUEST_DATA_DIR, guestList);
     }
@@ -149,6 +152,7 @@ public class GuestController {
      * @param updatedAddress New address
      */
     public void updateAddress(Guest guest, String updatedAddress) {
+        recordChange(guest);
         guest.setAddress(updatedAddress);
         SerializeDB.writeSerializedObject(GUEST_DATA_DIR, guestList);
     }
@@ -160,6 +164,7 @@ public class GuestController {
      * @param updatedGender New gender
      */
     public void updateGender(Guest guest, String updatedGender) {
+        recordChange(guest);
         guest.setGender(updatedGender);
         SerializeDB.writeSerializedObject(GUEST_DATA_DIR, guestList);
     }
@@ -171,6 +176,7 @@ public class GuestController {
      * @param updatedCountry New country
      */
     public void updateCountry(Guest guest, String updatedCountry) {
+        recordChange(guest);
         guest.setCountry(updatedCountry);
         SerializeDB.writeSerializedObject(GUEST_DATA_DIR, guestList);
     }
@@ -182,6 +188,7 @@ public class GuestController {
      * @param newId The specified ID.
      */
     public void updateId(Guest guest, ID newId) {
+        recordChange(guest);
         guest.setId(newId);
         SerializeDB.writeSerializedObject(GUEST_DATA_DIR, guestList);
     }
@@ -193,6 +200,7 @@ public class GuestController {
      * @param updatedNationality New nationality
      */
     public void updateNationality(Guest guest, String updatedNationality) {
+        recordChange(guest);
         guest.setNationality(updatedNationality);
         SerializeDB.writeSerializedObject(GUEST_DATA_DIR, guestList);
     }
@@ -204,10 +212,21 @@ public class GuestController {
      * @param updatedContact New contact information
      */
     public void updateContact(Guest guest, String updatedContact) {
+        recordChange(guest);
         guest.setContact(updatedContact);
         SerializeDB.writeSerializedObject(GUEST_DATA_DIR, guestList);
     }
 
+    /**
+     * Record how to put back the details of a guest before it is changed, for a transaction to undo the change.
+     *
+     * @param guest The guest about to be changed.
+     */
+    private void recordChange(Guest guest) {
+        Guest copy = guest.copy();
+        Transaction.record(() -> guest.restore(copy));
+    }
+
     /**
      * Check if a credit card number is in valid standard.
      * Here, we assume that any credit card number with 16 digits are valid credit card.
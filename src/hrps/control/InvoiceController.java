@@ -0,0 +1,297 @@
+package hrps.control;
+
+import hrps.entity.Bill;
+import hrps.entity.CheckedOutReservation;
+import hrps.entity.Invoice;
+import hrps.entity.Money;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The controller that issues the invoices of paid bills and keeps the invoice archive. Issuing an invoice only
+ * numbers it and queues the bill; a background thread renders the invoice, appends it to the archive file and
+ * indexes it by number, reservation code and guest contact, so a check-out never waits on rendering or disk writes.
+ * A lookup first waits for the invoices queued before it, so an invoice can be looked up as soon as it is issued.
+ *
+ * @author Peng Wenxuan
+ */
+public class InvoiceController {
+    /**
+     * File path of the invoice archive, appended to one invoice at a time.
+     */
+    static final String INVOICE_DATA_DIR = "src/data/invoices.dat";
+    /**
+     * Format of the times on an invoice.
+     */
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    /**
+     * Longest time the queued invoices are waited for when stopping, in seconds.
+     */
+    private static final long STOP_TIMEOUT_SECONDS = 10;
+    /**
+     * The static controller instance to avoid multiple instantiations.
+     */
+    private static InvoiceController instance = null;
+    /**
+     * The archived invoices, by invoice number.
+     */
+    private final Map<Long, Invoice> invoicesByNumber = new HashMap<>();
+    /**
+     * The archived invoices of each reservation, in the order they were issued.
+     */
+    private final Map<UUID, List<Invoice>> invoicesByReservation = new HashMap<>();
+    /**
+     * The archived invoices of each guest contact, in the order they were issued.
+     */
+    private final Map<String, List<Invoice>> invoicesByGuest = new HashMap<>();
+    /**
+     * Renders and archives the queued invoices one at a time, in the order they were issued.
+     */
+    private final ExecutorService pipeline = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "invoice-pipeline");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Number of the next invoice issued.
+     */
+    private long nextInvoiceNumber = 1;
+    /**
+     * The last invoice queued, completed once it and every invoice before it are archived, or exceptionally if it
+     * cannot be archived.
+     */
+    private CompletableFuture<Invoice> lastQueued = CompletableFuture.completedFuture(null);
+
+    /**
+     * Initialize the controller by reading the invoice archive.
+     */
+    private InvoiceController() {
+        readArchive();
+    }
+
+    /**
+     * Get the controller instance. This is to avoid multiple instantiation of controller.
+     *
+     * @return The singleton InvoiceController instance.
+     */
+    public static InvoiceController getInstance() {
+        if (Objects.isNull(instance)) {
+            instance = new InvoiceController();
+        }
+        return instance;
+    }
+
+    /**
+     * Issue the invoice of a paid bill. The invoice is numbered at once, and rendered and archived in the background.
+     * An invoice that cannot be appended to the archive file is never indexed, so its number is not found.
+     *
+     * @param paidBill The bill that is paid.
+     * @param receipt  The receipt of the payment.
+     * @return The number of the invoice.
+     */
+    public synchronized long issueInvoice(Bill paidBill, String receipt) {
+        long invoiceNumber = nextInvoiceNumber++;
+        LocalDateTime issueTime = LocalDateTime.now();
+        lastQueued = CompletableFuture.supplyAsync(() -> archive(render(invoiceNumber, issueTime, paidBill, receipt)),
+                pipeline);
+        lastQueued.exceptionally(e -> {
+            e.printStackTrace();
+            return null;
+        });
+        return invoiceNumber;
+    }
+
+    /**
+     * Get an invoice, waiting for it to be archived if it is still queued.
+     *
+     * @param invoiceNumber Number of the invoice.
+     * @return The invoice, null if no invoice has this number.
+     */
+    public Invoice getInvoice(long invoiceNumber) {
+        awaitQueued();
+        synchronized (this) {
+            return invoicesByNumber.get(invoiceNumber);
+        }
+    }
+
+    /**
+     * Find the invoices of a reservation, waiting for the queued invoices to be archived.
+     *
+     * @param reservationCode Code of the reservation.
+     * @return The invoices of the reservation, in the order they were issued.
+     */
+    public List<Invoice> findInvoicesByReservation(UUID reservationCode) {
+        awaitQueued();
+        synchronized (this) {
+            return new ArrayList<>(invoicesByReservation.getOrDefault(reservationCode, List.of()));
+        }
+    }
+
+    /**
+     * Find the invoices of a guest, waiting for the queued invoices to be archived.
+     *
+     * @param guestContact Contact of the guest.
+     * @return The invoices of the guest, in the order they were issued.
+     */
+    public List<Invoice> findInvoicesByGuest(String guestContact) {
+        awaitQueued();
+        synchronized (this) {
+            return new ArrayList<>(invoicesByGuest.getOrDefault(guestContact, List.of()));
+        }
+    }
+
+    /**
+     * Stop the pipeline once the queued invoices are archived. No invoice can be issued afterwards.
+     */
+    public void stop() {
+        pipeline.shutdown();
+        try {
+            pipeline.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wait for the invoices queued so far to be archived, or to fail to be.
+     */
+    private void awaitQueued() {
+        CompletableFuture<Invoice> queued;
+        synchronized (this) {
+            queued = lastQueued;
+        }
+        queued.handle((invoice, e) -> invoice).join();
+    }
+
+    /**
+     * Render the invoice of a paid bill: its number, issue time, guest and stay, then the bill and the receipt.
+     *
+     * @param invoiceNumber Number of the invoice.
+     * @param issueTime     Time the invoice is issued.
+     * @param paidBill      The bill that is paid.
+     * @param receipt       The receipt of the payment.
+     * @return The invoice.
+     */
+    private static Invoice render(long invoiceNumber, LocalDateTime issueTime, Bill paidBill, String receipt) {
+        CheckedOutReservation reservation = paidBill.getCheckedOutReservation();
+        String guestName = reservation.getGuest().getGuestName();
+        String guestContact = reservation.getGuest().getContact();
+        String text = String.format("INVOICE No. %06d%n", invoiceNumber)
+                + String.format("Issued: %s%n", issueTime.format(TIME_FORMAT))
+                + String.format("Guest: %s (%s)%n", guestName, guestContact)
+                + String.format("Room %s, reservation %s%n", reservation.getRoomNum(),
+                reservation.getReservationCode())
+                + String.format("Stay: %s to %s%n", reservation.getCheckInTime().format(TIME_FORMAT),
+                reservation.getCheckOutTime().format(TIME_FORMAT))
+                + paidBill
+                + String.format("%s%n", receipt);
+        return new Invoice(invoiceNumber, reservation.getReservationCode(), reservation.getRoomNum(), guestName,
+                guestContact, issueTime, paidBill.getTotalPrice(), text);
+    }
+
+    /**
+     * Append an invoice to the archive file, then index it.
+     *
+     * @param invoice The invoice.
+     * @return The invoice.
+     * @throws UncheckedIOException If the invoice cannot be appended, in which case it is not indexed.
+     */
+    private Invoice archive(Invoice invoice) {
+        long previousLength = new File(INVOICE_DATA_DIR).length();
+        try {
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(record)) {
+                out.writeLong(invoice.getInvoiceNumber());
+                out.writeLong(invoice.getReservationCode().getMostSignificantBits());
+                out.writeLong(invoice.getReservationCode().getLeastSignificantBits());
+                out.writeUTF(invoice.getRoomNumber());
+                out.writeUTF(invoice.getGuestName());
+                out.writeUTF(invoice.getGuestContact());
+                out.writeUTF(invoice.getIssueTime().toString());
+                out.writeLong(invoice.getTotalPrice().getCents());
+                out.write(invoice.getText().getBytes(StandardCharsets.UTF_8));
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(INVOICE_DATA_DIR, true)))) {
+                out.writeInt(record.size());
+                record.writeTo(out);
+            }
+        } catch (IOException e) {
+            truncateArchive(previousLength);
+            throw new UncheckedIOException(e);
+        }
+        synchronized (this) {
+            index(invoice);
+        }
+        return invoice;
+    }
+
+    /**
+     * Index an archived invoice by number, reservation code and guest contact.
+     *
+     * @param invoice The invoice.
+     */
+    private void index(Invoice invoice) {
+        invoicesByNumber.put(invoice.getInvoiceNumber(), invoice);
+        invoicesByReservation.computeIfAbsent(invoice.getReservationCode(), code -> new ArrayList<>()).add(invoice);
+        invoicesByGuest.computeIfAbsent(invoice.getGuestContact(), contact -> new ArrayList<>()).add(invoice);
+    }
+
+    /**
+     * Read the invoices of the archive file. An incomplete last invoice, left by an interrupted append, is cut off the
+     * file so that later invoices are appended at an invoice boundary.
+     */
+    private void readArchive() {
+        File file = new File(INVOICE_DATA_DIR);
+        if (!file.exists()) {
+            return;
+        }
+        long completeLength = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                byte[] record = new byte[in.readInt()];
+                in.readFully(record);
+                DataInputStream fields = new DataInputStream(new ByteArrayInputStream(record));
+                long invoiceNumber = fields.readLong();
+                UUID reservationCode = new UUID(fields.readLong(), fields.readLong());
+                String roomNumber = fields.readUTF();
+                String guestName = fields.readUTF();
+                String guestContact = fields.readUTF();
+                LocalDateTime issueTime = LocalDateTime.parse(fields.readUTF());
+                Money totalPrice = Money.ofCents(fields.readLong());
+                String text = new String(fields.readAllBytes(), StandardCharsets.UTF_8);
+                index(new Invoice(invoiceNumber, reservationCode, roomNumber, guestName, guestContact, issueTime,
+                        totalPrice, text));
+                nextInvoiceNumber = Math.max(nextInvoiceNumber, invoiceNumber + 1);
+                completeLength += Integer.BYTES + record.length;
+            }
+        } catch (EOFException e) {
+            if (file.length() > completeLength) {
+                truncateArchive(completeLength);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Cut the archive file to a length, removing the invoices after it.
+     *
+     * @param length The length.
+     */
+    private static void truncateArchive(long length) {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(INVOICE_DATA_DIR, "rw")) {
+            randomAccessFile.setLength(length);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package hrps.control;
+
+import hrps.entity.OrderedRoomService;
+import hrps.entity.enums.OrderStatus;
+import tool.SerializeDB;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The controller that schedules the kitchen's room service orders. Confirmed orders wait in a queue in the order they
+ * were made, and each of the kitchen's stations takes the next order as soon as it is free. An order is preparing
+ * from the time a station takes it until it is delivered: the station is busy for the preparing time, and the order
+ * is delivered the delivery time after the station took it.
+ * <p>
+ * Statuses are moved on by a timer once a minute, and all the orders changed by one tick are persisted with one
+ * write. A station takes an order at the time it actually became free rather than at the tick, so the estimated
+ * delivery times do not depend on when the timer runs.
+ *
+ * @author Peng Wenxuan
+ */
+public class KitchenController {
+    /**
+     * Number of orders the kitchen prepares at the same time, unless configured otherwise.
+     */
+    public static final int DEFAULT_CAPACITY = 3;
+    /**
+     * Time a station takes to prepare an order.
+     */
+    private static final Duration PREPARING_TIME = Duration.ofMinutes(OrderController.PREPARING_TIME);
+    /**
+     * Time from a station taking an order until the order is delivered.
+     */
+    private static final Duration DELIVERY_TIME = Duration.ofMinutes(OrderController.DELIVERY_TIME);
+    /**
+     * The static controller instance to avoid multiple instantiations.
+     */
+    private static KitchenController instance = null;
+    /**
+     * Its lock guards the orders and the kitchen's schedule.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+    /**
+     * To read and persist the orders.
+     */
+    private final OrderController orderController = OrderController.getInstance();
+    /**
+     * Time each station becomes free, one per station, the earliest first.
+     */
+    private final PriorityQueue<LocalDateTime> stationFreeTimes = new PriorityQueue<>();
+    /**
+     * Time a station took each preparing order, by order ID.
+     */
+    private final Map<UUID, LocalDateTime> startTimes = new HashMap<>();
+    /**
+     * Runs the periodic ticks, null if it is not running.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Initialize the kitchen with the default number of stations, all free.
+     */
+    private KitchenController() {
+        for (int i = 0; i < DEFAULT_CAPACITY; i++) {
+            stationFreeTimes.add(LocalDateTime.MIN);
+        }
+    }
+
+    /**
+     * Get the controller instance. This is to avoid multiple instantiation of controller.
+     *
+     * @return The singleton KitchenController instance.
+     */
+    public static KitchenController getInstance() {
+        if (Objects.isNull(instance)) {
+            instance = new KitchenController();
+        }
+        return instance;
+    }
+
+    /**
+     * Start moving the orders on once a minute, catching up on the orders already due.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kitchen");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                advance(LocalDateTime.now());
+            } catch (UncheckedIOException e) {
+                e.printStackTrace();    // retried at the next tick
+            }
+        }, 0, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stop moving the orders on.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Set the number of orders the kitchen prepares at the same time. New stations are free from now on; when
+     * stations are removed, those that are free the soonest go first and the orders they are preparing are finished.
+     *
+     * @param capacity The number of stations.
+     * @throws IllegalArgumentException If the capacity is less than 1.
+     */
+    public void setCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The kitchen needs at least one station.");
+        }
+        synchronized (reservationController) {
+            LocalDateTime now = LocalDateTime.now();
+            while (stationFreeTimes.size() < capacity) {
+                stationFreeTimes.add(now);
+            }
+            while (stationFreeTimes.size() > capacity) {
+                stationFreeTimes.poll();
+            }
+        }
+    }
+
+    /**
+     * Get the number of orders the kitchen prepares at the same time.
+     *
+     * @return The number of stations.
+     */
+    public int getCapacity() {
+        synchronized (reservationController) {
+            return stationFreeTimes.size();
+        }
+    }
+
+    /**
+     * Move the orders on to a time: the stations take the queued orders they are free for by then, and the orders
+     * whose delivery time has come are delivered. An order found preparing without a station having taken it, after
+     * a restart or a manual status change, is taken by the next free station no later than that time. The changed
+     * orders are persisted with one commit, or with the caller's batch if one is open, and are put back as they were
+     * if the commit fails or the caller's transaction rolls back.
+     *
+     * @param now The time to move the orders on to.
+     * @return The number of orders whose status changed.
+     * @throws UncheckedIOException If the changes cannot be persisted.
+     */
+    public int advance(LocalDateTime now) {
+        synchronized (reservationController) {
+            List<OrderedRoomService> queue = new ArrayList<>();
+            List<OrderedRoomService> preparing = new ArrayList<>();
+            scan(queue, preparing);
+            List<LocalDateTime> savedStationFreeTimes = new ArrayList<>(stationFreeTimes);
+            Map<UUID, LocalDateTime> savedStartTimes = new HashMap<>(startTimes);
+            Map<OrderedRoomService, OrderStatus> changed = new LinkedHashMap<>();
+            for (OrderedRoomService order : preparing) {
+                if (!startTimes.containsKey(order.getOrderID())) {
+                    startTimes.put(order.getOrderID(), take(stationFreeTimes, order, now));
+                }
+            }
+            for (OrderedRoomService order : queue) {
+                if (start(stationFreeTimes.peek(), order).isAfter(now)) {
+                    break;      // later orders cannot be taken earlier
+                }
+                startTimes.put(order.getOrderID(), take(stationFreeTimes, order, LocalDateTime.MAX));
+                changed.put(order, order.getOrderStatus());
+                order.setOrderStatus(OrderStatus.PREPARING);
+                preparing.add(order);
+            }
+            for (OrderedRoomService order : preparing) {
+                if (!startTimes.get(order.getOrderID()).plus(DELIVERY_TIME).isAfter(now)) {
+                    startTimes.remove(order.getOrderID());
+                    changed.putIfAbsent(order, order.getOrderStatus());
+                    order.setOrderStatus(OrderStatus.DELIVERED);
+                }
+            }
+            if (!changed.isEmpty()) {
+                persist(changed, savedStationFreeTimes, savedStartTimes);
+            }
+            return changed.size();
+        }
+    }
+
+    /**
+     * Estimate when each order that is not delivered yet will be delivered, if the kitchen keeps its current
+     * capacity.
+     *
+     * @param now The current time.
+     * @return The estimated delivery time of each order not delivered yet, by order ID.
+     */
+    public Map<UUID, LocalDateTime> getEstimatedDeliveryTimes(LocalDateTime now) {
+        synchronized (reservationController) {
+            List<OrderedRoomService> queue = new ArrayList<>();
+            List<OrderedRoomService> preparing = new ArrayList<>();
+            scan(queue, preparing);
+            PriorityQueue<LocalDateTime> stations = new PriorityQueue<>(stationFreeTimes);
+            Map<UUID, LocalDateTime> estimates = new HashMap<>();
+            for (OrderedRoomService order : preparing) {
+                LocalDateTime startTime = startTimes.get(order.getOrderID());
+                if (Objects.isNull(startTime)) {
+                    startTime = take(stations, order, now);
+                }
+                estimates.put(order.getOrderID(), startTime.plus(DELIVERY_TIME));
+            }
+            for (OrderedRoomService order : queue) {
+                estimates.put(order.getOrderID(), take(stations, order, LocalDateTime.MAX).plus(DELIVERY_TIME));
+            }
+            return estimates;
+        }
+    }
+
+    /**
+     * Estimate when an order will be delivered, if the kitchen keeps its current capacity.
+     *
+     * @param order The order.
+     * @return The estimated delivery time, null if the order is delivered or no longer handled.
+     */
+    public LocalDateTime getEstimatedDeliveryTime(OrderedRoomService order) {
+        return getEstimatedDeliveryTimes(LocalDateTime.now()).get(order.getOrderID());
+    }
+
+    /**
+     * Sort the orders being handled into the queue of confirmed orders, in the order they were made, and the
+     * preparing orders, and forget the start of the orders no longer preparing.
+     *
+     * @param queue     To add the confirmed orders to.
+     * @param preparing To add the preparing orders to.
+     */
+    private void scan(List<OrderedRoomService> queue, List<OrderedRoomService> preparing) {
+        for (OrderedRoomService order : orderController.getAllOrders()) {
+            if (order.getOrderStatus() == OrderStatus.CONFIRMED) {
+                queue.add(order);
+            } else if (order.getOrderStatus() == OrderStatus.PREPARING) {
+                preparing.add(order);
+            }
+        }
+        queue.sort(Comparator.comparing(OrderedRoomService::getOrderTime));
+        Set<UUID> preparingIDs = new HashSet<>();
+        for (OrderedRoomService order : preparing) {
+            preparingIDs.add(order.getOrderID());
+        }
+        startTimes.keySet().retainAll(preparingIDs);
+    }
+
+    /**
+     * Let the station that is free the soonest take an order.
+     *
+     * @param stations Time each station becomes free.
+     * @param order    The order.
+     * @param latest   Latest time the station takes the order.
+     * @return The time the station takes the order.
+     */
+    private static LocalDateTime take(PriorityQueue<LocalDateTime> stations, OrderedRoomService order,
+                                      LocalDateTime latest) {
+        LocalDateTime startTime = start(stations.poll(), order);
+        if (startTime.isAfter(latest)) {
+            startTime = latest;
+        }
+        stations.add(startTime.plus(PREPARING_TIME));
+        return startTime;
+    }
+
+    /**
+     * Get the time a station takes an order.
+     *
+     * @param stationFreeTime Time the station becomes free.
+     * @param order           The order.
+     * @return The later of the time the station becomes free and the time the order was made.
+     */
+    private static LocalDateTime start(LocalDateTime stationFreeTime, OrderedRoomService order) {
+        return stationFreeTime.isAfter(order.getOrderTime()) ? stationFreeTime : order.getOrderTime();
+    }
+
+    /**
+     * Persist the orders whose status changed, with one commit unless a batch is open. If the commit fails, or the
+     * transaction open on the thread rolls back, the orders and the schedule are put back as they were.
+     *
+     * @param changed               The orders changed, with their status before the change.
+     * @param savedStationFreeTimes Time each station became free before the change.
+     * @param savedStartTimes       Time a station took each preparing order before the change.
+     * @throws UncheckedIOException If the changes cannot be persisted.
+     */
+    private void persist(Map<OrderedRoomService, OrderStatus> changed, List<LocalDateTime> savedStationFreeTimes,
+                         Map<UUID, LocalDateTime> savedStartTimes) {
+        Runnable undo = () -> {
+            changed.forEach(OrderedRoomService::setOrderStatus);
+            stationFreeTimes.clear();
+            stationFreeTimes.addAll(savedStationFreeTimes);
+            startTimes.clear();
+            startTimes.putAll(savedStartTimes);
+        };
+        Transaction.record(undo);
+        boolean isOwnBatch = !SerializeDB.isInBatch();
+        if (isOwnBatch) {
+            SerializeDB.beginBatch();
+        }
+        try {
+            orderController.updateOrder();
+            if (isOwnBatch) {
+                SerializeDB.commitBatch();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (isOwnBatch) {
+                SerializeDB.abortBatch();
+            }
+            undo.run();
+            throw e instanceof IOException ? new UncheckedIOException((IOException) e) : (RuntimeException) e;
+        }
+    }
+}
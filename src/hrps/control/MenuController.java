@@ -2,6 +2,7 @@ package hrps.control;
 
 import hrps.entity.Menu;
 import hrps.entity.MenuItem;
+import hrps.entity.Money;
 import hrps.exception.DuplicateMenuItemException;
 import hrps.exception.HRPSException;
 import hrps.exception.MenuItemNotExistException;
@@ -96,7 +97,7 @@ public class MenuController {
      * @param price       Price of new menu item.
      * @throws DuplicateMenuItemException When there exists a menu item with exactly the same name in the menu.
      */
-    public void createMenuItem(String name, String description, double price) throws HRPSException {
+    public void createMenuItem(String name, String description, Money price) throws HRPSException {
         if (Objects.isNull(searchMenuItem(name))) {
             MenuItem item = new MenuItem(name, description, price);
             menu.addItem(item);
@@ -133,7 +134,7 @@ public class MenuController {
      * @throws HRPSException When a menu item with the new name is already existed in the menu.
      */
     public void updateMenuItem(String oldName, String newName, String newDescription,
-                               double newPrice) throws HRPSException {
+                               Money newPrice) throws HRPSException {
         MenuItem target;
         if (!Objects.isNull((target = searchMenuItem(oldName)))) {
             target.setName(newName);
@@ -0,0 +1,167 @@
+package hrps.control;
+
+import hrps.entity.*;
+import hrps.entity.enums.RoomStatus;
+import hrps.exception.InvalidStatusChangeException;
+import tool.SerializeDB;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * The controller that runs the night audit, the end-of-day batch over all state. Auditing a business date expires
+ * the confirmed reservations whose guests did not check in within 24 hours, posts the night's room charge to every
+ * checked-in stay and its folio, captures the day's occupancy counts and rolls the business date to the next day.
+ * The reservations are read in a single pass, and every change is persisted in one commit.
+ *
+ * @author Peng Wenxuan
+ */
+public class NightAuditController {
+    /**
+     * File path of the night audit ledger's data file.
+     */
+    static final String NIGHT_AUDIT_DATA_DIR = "src/data/nightAudit.dat";
+    /**
+     * The static controller instance to avoid multiple instantiations.
+     */
+    private static NightAuditController instance = null;
+    /**
+     * Its lock guards the controllers' state, held during the whole audit.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+    /**
+     * To look up rooms and count them.
+     */
+    private final RoomController roomController = RoomController.getInstance();
+    /**
+     * To capture the day's occupancy counts.
+     */
+    private final OccupancyHistoryController occupancyHistoryController = OccupancyHistoryController.getInstance();
+    /**
+     * To post the room charges to the stays' folios.
+     */
+    private final FolioController folioController = FolioController.getInstance();
+    /**
+     * The business date and the room charges posted so far.
+     */
+    private NightAuditLedger ledger;
+
+    /**
+     * Initialize the controller by reading the ledger's data file, starting from today's business date if there is
+     * none.
+     */
+    private NightAuditController() {
+        if (new File(NIGHT_AUDIT_DATA_DIR).exists()) {
+            ledger = (NightAuditLedger) SerializeDB.readSerializedObject(NIGHT_AUDIT_DATA_DIR);
+        }
+        if (Objects.isNull(ledger)) {
+            ledger = new NightAuditLedger(LocalDate.now());
+        }
+    }
+
+    /**
+     * Get the controller instance. This is to avoid multiple instantiation of controller.
+     *
+     * @return The singleton NightAuditController instance.
+     */
+    public static NightAuditController getInstance() {
+        if (Objects.isNull(instance)) {
+            instance = new NightAuditController();
+        }
+        return instance;
+    }
+
+    /**
+     * Get the business date.
+     *
+     * @return The date of the night to be audited next.
+     */
+    public LocalDate getBusinessDate() {
+        synchronized (reservationController) {
+            return ledger.getBusinessDate();
+        }
+    }
+
+    /**
+     * Get the room charges posted to a checked-in stay by the night audits so far.
+     *
+     * @param reservationCode Code of the stay's reservation.
+     * @return The total room charges posted, 0 if none.
+     */
+    public Money getPostedRoomCharge(UUID reservationCode) {
+        synchronized (reservationController) {
+            return ledger.getPostedRoomCharge(reservationCode);
+        }
+    }
+
+    /**
+     * Audit the current business date and roll it to the next day, as one {@link Transaction}. The changes are
+     * persisted in one commit, or as part of the caller's batch if one is open. If the audit or the commit fails, the
+     * expired reservations, the posted room charges and the business date are put back as they were in memory and
+     * nothing is persisted, so the audit can be run again.
+     *
+     * @return The report of the audit.
+     * @throws UncheckedIOException If the changes cannot be persisted.
+     */
+    public NightAuditReport runNightAudit() {
+        synchronized (reservationController) {
+            LocalDate night = ledger.getBusinessDate();
+            LocalDateTime auditTime = night.plusDays(1).atStartOfDay();
+            Map<String, Room> roomsByNumber = new HashMap<>();
+            for (Room room : roomController.getAllRooms()) {
+                roomsByNumber.put(room.getRoomNumber(), room);
+            }
+            NightAuditLedger newLedger = new NightAuditLedger(ledger);
+            List<Reservation> noShows = new ArrayList<>();
+            Map<Reservation, Money> roomCharges = new LinkedHashMap<>();
+            Set<UUID> checkedInReservationCodes = new HashSet<>();
+            int numberOfPostedStays = 0;
+            long postedRoomCharges = 0;
+            for (Reservation reservation : reservationController.getAllReservations()) {
+                if (reservation instanceof ConfirmedReservation
+                        && reservation.getCheckInTime().plusHours(24).isBefore(auditTime)) {
+                    noShows.add(reservation);
+                } else if (reservation instanceof CheckedInReservation) {
+                    checkedInReservationCodes.add(reservation.getReservationCode());
+                    Room room = roomsByNumber.get(reservation.getRoomNum());
+                    if (Objects.nonNull(room) && !reservation.getCheckInTime().toLocalDate().isAfter(night)) {
+                        Money roomCharge = roomController.getRateCalendar().getNightRate(room, night);
+                        if (newLedger.postRoomCharge(reservation.getReservationCode(), night, roomCharge)) {
+                            roomCharges.put(reservation, roomCharge);
+                            numberOfPostedStays++;
+                            postedRoomCharges += roomCharge.getCents();
+                        }
+                    }
+                }
+            }
+            newLedger.retainStays(checkedInReservationCodes);
+            newLedger.rollBusinessDate();
+
+            try (Transaction transaction = Transaction.begin()) {
+                for (Reservation noShow : noShows) {
+                    reservationController.expireReservation(noShow);
+                }
+                for (Map.Entry<Reservation, Money> roomCharge : roomCharges.entrySet()) {
+                    folioController.postRoomCharge(roomCharge.getKey(), night, roomCharge.getValue());
+                }
+                NightAuditLedger oldLedger = ledger;
+                ledger = newLedger;
+                Transaction.record(() -> ledger = oldLedger);
+                SerializeDB.writeSerializedObject(NIGHT_AUDIT_DATA_DIR, newLedger);
+                transaction.commit();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InvalidStatusChangeException e) {
+                throw new IllegalStateException(e);   // only confirmed reservations are expired
+            }
+            occupancyHistoryController.captureThrough(night);
+            RoomOccupancyIndex occupancyIndex = roomController.getOccupancyIndex();
+            return new NightAuditReport(night, noShows.size(), numberOfPostedStays, Money.ofCents(postedRoomCharges),
+                    occupancyIndex.count(RoomStatus.OCCUPIED), roomsByNumber.size());
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package hrps.control;
+
+import hrps.entity.RoomOccupancyIndex;
+import hrps.entity.enums.RoomStatus;
+import hrps.entity.enums.RoomType;
+
+import java.io.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The controller that keeps the daily history of occupancy. Once a day, at a configurable cut-off time, it captures
+ * the number of rooms of each room type in each room status. Days are kept as rows of one primitive array, next to a
+ * second array of running totals, so that the room-nights of any status over any range of days are answered in
+ * constant time. Rows are persisted by appending them to segment files, a new segment being started every
+ * {@value #SEGMENT_DAYS} days.
+ * <p>
+ * Days that pass while the system is not running get the counts captured when it runs again.
+ *
+ * @author Peng Wenxuan
+ */
+public class OccupancyHistoryController {
+    /**
+     * Directory of the history's segment files.
+     */
+    static final String HISTORY_DATA_DIR = "src/data/occupancy";
+    /**
+     * Cut-off time used until another one is set.
+     */
+    public static final LocalTime DEFAULT_CUT_OFF = LocalTime.of(23, 59);
+    /**
+     * Number of days in each segment file.
+     */
+    private static final int SEGMENT_DAYS = 128;
+    /**
+     * Room types in the order of the columns of a row.
+     */
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+    /**
+     * Room statuses in the order of the columns of a room type.
+     */
+    private static final RoomStatus[] ROOM_STATUSES = RoomStatus.values();
+    /**
+     * Number of columns of a row, one per room type and status.
+     */
+    private static final int ROW_WIDTH = ROOM_TYPES.length * ROOM_STATUSES.length;
+    /**
+     * The static controller instance to avoid multiple instantiations.
+     */
+    private static OccupancyHistoryController instance = null;
+    /**
+     * To read the current room counts.
+     */
+    private final RoomController roomController = RoomController.getInstance();
+    /**
+     * Room counts, row d holding the day firstDay + d.
+     */
+    private int[] counts = new int[ROW_WIDTH * SEGMENT_DAYS];
+    /**
+     * Running totals of the counts, row d holding the totals of rows before row d.
+     */
+    private long[] prefixSums = new long[ROW_WIDTH * (SEGMENT_DAYS + 1)];
+    /**
+     * Epoch day of the first row.
+     */
+    private long firstDay;
+    /**
+     * Number of rows.
+     */
+    private int numDays = 0;
+    /**
+     * The segment file being appended to, null until the first row is appended.
+     */
+    private File currentSegment;
+    /**
+     * Number of rows in the current segment file.
+     */
+    private int currentSegmentDays = 0;
+    /**
+     * Time of day at which a day's counts are captured.
+     */
+    private LocalTime cutOff = DEFAULT_CUT_OFF;
+    /**
+     * Runs the periodic capture, null if it is not running.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Initialize the controller by reading all segment files.
+     */
+    private OccupancyHistoryController() {
+        File directory = new File(HISTORY_DATA_DIR);
+        File[] segments = directory.listFiles((dir, name) -> name.matches("segment-\\d+\\.dat"));
+        if (segments == null) {
+            return;
+        }
+        Arrays.sort(segments, Comparator.comparingLong(OccupancyHistoryController::segmentFirstDay));
+        for (File segment : segments) {
+            readSegment(segment);
+        }
+    }
+
+    /**
+     * Get the controller instance. This is to avoid multiple instantiation of controller.
+     *
+     * @return The singleton OccupancyHistoryController instance.
+     */
+    public static OccupancyHistoryController getInstance() {
+        if (Objects.isNull(instance)) {
+            instance = new OccupancyHistoryController();
+        }
+        return instance;
+    }
+
+    /**
+     * Start capturing the counts of every day at the cut-off time, catching up on days already due.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "occupancy-history");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> captureIfDue(LocalDateTime.now()), 0, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stop capturing.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Set the time of day at which a day's counts are captured.
+     *
+     * @param cutOff The cut-off time.
+     */
+    public synchronized void setCutOff(LocalTime cutOff) {
+        this.cutOff = cutOff;
+    }
+
+    /**
+     * Get the time of day at which a day's counts are captured.
+     *
+     * @return The cut-off time.
+     */
+    public synchronized LocalTime getCutOff() {
+        return cutOff;
+    }
+
+    /**
+     * Capture the current counts for every day whose cut-off time has passed and that is not captured yet.
+     *
+     * @param now The current time.
+     * @return The number of days captured.
+     */
+    public synchronized int captureIfDue(LocalDateTime now) {
+        return captureThrough(now.toLocalTime().isBefore(cutOff) ? now.toLocalDate().minusDays(1) :
+                now.toLocalDate());
+    }
+
+    /**
+     * Capture the current counts for every day up to a day that is not captured yet, regardless of the cut-off time.
+     *
+     * @param dueDay The last day to be captured.
+     * @return The number of days captured.
+     */
+    public synchronized int captureThrough(LocalDate dueDay) {
+        long nextDay = numDays == 0 ? dueDay.toEpochDay() : firstDay + numDays;
+        if (nextDay > dueDay.toEpochDay()) {
+            return 0;
+        }
+        RoomOccupancyIndex index = roomController.getOccupancyIndex();
+        int[] row = new int[ROW_WIDTH];
+        for (int t = 0; t < ROOM_TYPES.length; t++) {
+            for (int s = 0; s < ROOM_STATUSES.length; s++) {
+                row[t * ROOM_STATUSES.length + s] = index.count(ROOM_TYPES[t], ROOM_STATUSES[s]);
+            }
+        }
+        int captured = 0;
+        for (long day = nextDay; day <= dueDay.toEpochDay(); day++) {
+            addRow(day, row);
+            appendToSegment(day, row);
+            captured++;
+        }
+        return captured;
+    }
+
+    /**
+     * Get the first day of the history.
+     *
+     * @return The first captured day, or null if nothing is captured yet.
+     */
+    public synchronized LocalDate getFirstDay() {
+        return numDays == 0 ? null : LocalDate.ofEpochDay(firstDay);
+    }
+
+    /**
+     * Get the last day of the history.
+     *
+     * @return The last captured day, or null if nothing is captured yet.
+     */
+    public synchronized LocalDate getLastDay() {
+        return numDays == 0 ? null : LocalDate.ofEpochDay(firstDay + numDays - 1);
+    }
+
+    /**
+     * Get the number of room-nights rooms of a type spent in a status over a range of days. Days outside the history
+     * are not counted.
+     *
+     * @param roomType   The room type, null for all room types.
+     * @param roomStatus The room status.
+     * @param from       First day of the range.
+     * @param to         Last day of the range, inclusive.
+     * @return The number of room-nights.
+     */
+    public synchronized long getRoomNights(RoomType roomType, RoomStatus roomStatus, LocalDate from, LocalDate to) {
+        int fromRow = (int) Math.max(0, Math.min(numDays, from.toEpochDay() - firstDay));
+        int toRow = (int) Math.max(0, Math.min(numDays, to.toEpochDay() - firstDay + 1));
+        if (numDays == 0 || fromRow >= toRow) {
+            return 0;
+        }
+        long total = 0;
+        for (int t = 0; t < ROOM_TYPES.length; t++) {
+            if (roomType == null || ROOM_TYPES[t] == roomType) {
+                int column = t * ROOM_STATUSES.length + roomStatus.ordinal();
+                total += prefixSums[toRow * ROW_WIDTH + column] - prefixSums[fromRow * ROW_WIDTH + column];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Get the share of room-nights in which rooms of a type were occupied over a range of days.
+     *
+     * @param roomType The room type, null for all room types.
+     * @param from     First day of the range.
+     * @param to       Last day of the range, inclusive.
+     * @return The occupancy rate between 0 and 1, or 0 if the history has no day in the range.
+     */
+    public synchronized double getOccupancyRate(RoomType roomType, LocalDate from, LocalDate to) {
+        long total = 0;
+        for (RoomStatus status : ROOM_STATUSES) {
+            total += getRoomNights(roomType, status, from, to);
+        }
+        return total == 0 ? 0 : (double) getRoomNights(roomType, RoomStatus.OCCUPIED, from, to) / total;
+    }
+
+    /**
+     * Get the occupancy report of each room type over a month.
+     *
+     * @param month The month.
+     * @return A String representing the report.
+     */
+    public String getMonthlyOccupancyReport(YearMonth month) {
+        return getOccupancyReport("Occupancy Report For " + month + ":\n", month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * Get the occupancy report of each room type over a year.
+     *
+     * @param year The year.
+     * @return A String representing the report.
+     */
+    public String getYearlyOccupancyReport(Year year) {
+        return getOccupancyReport("Occupancy Report For " + year + ":\n", year.atDay(1),
+                year.atMonth(Month.DECEMBER).atEndOfMonth());
+    }
+
+    /**
+     * Get the occupancy report of each room type over a range of days.
+     *
+     * @param title Title of the report.
+     * @param from  First day of the range.
+     * @param to    Last day of the range, inclusive.
+     * @return A String representing the report.
+     */
+    private synchronized String getOccupancyReport(String title, LocalDate from, LocalDate to) {
+        StringBuilder report = new StringBuilder(title);
+        if (numDays == 0 || to.toEpochDay() < firstDay || from.toEpochDay() >= firstDay + numDays) {
+            return report.append("No occupancy history for this period.\n").toString();
+        }
+        for (RoomType roomType : ROOM_TYPES) {
+            report.append(roomType.toString()).append(" : ")
+                    .append(String.format("%.1f%% occupied", getOccupancyRate(roomType, from, to) * 100))
+                    .append(" (room-nights");
+            for (RoomStatus status : ROOM_STATUSES) {
+                report.append(", ").append(status.toString().toLowerCase()).append(' ')
+                        .append(getRoomNights(roomType, status, from, to));
+            }
+            report.append(")\n");
+        }
+        report.append(String.format("ALL : %.1f%% occupied%n", getOccupancyRate(null, from, to) * 100));
+        return report.toString();
+    }
+
+    /**
+     * Add a row to the arrays, growing them when full.
+     *
+     * @param day The row's epoch day, the day after the last row.
+     * @param row The counts of the day.
+     */
+    private void addRow(long day, int[] row) {
+        if (numDays == 0) {
+            firstDay = day;
+        }
+        if ((numDays + 1) * ROW_WIDTH > counts.length) {
+            counts = Arrays.copyOf(counts, counts.length * 2);
+            prefixSums = Arrays.copyOf(prefixSums, counts.length + ROW_WIDTH);
+        }
+        System.arraycopy(row, 0, counts, numDays * ROW_WIDTH, ROW_WIDTH);
+        for (int column = 0; column < ROW_WIDTH; column++) {
+            prefixSums[(numDays + 1) * ROW_WIDTH + column] = prefixSums[numDays * ROW_WIDTH + column]
+                    + row[column];
+        }
+        numDays++;
+    }
+
+    /**
+     * Append a row to the current segment file, starting a new segment when the current one is full.
+     *
+     * @param day The row's epoch day.
+     * @param row The counts of the day.
+     */
+    private void appendToSegment(long day, int[] row) {
+        try {
+            if (currentSegment == null || currentSegmentDays >= SEGMENT_DAYS) {
+                new File(HISTORY_DATA_DIR).mkdirs();
+                currentSegment = new File(HISTORY_DATA_DIR, "segment-" + day + ".dat");
+                currentSegmentDays = 0;
+                try (DataOutputStream out = new DataOutputStream(new FileOutputStream(currentSegment))) {
+                    out.writeInt(ROOM_TYPES.length);
+                    out.writeInt(ROOM_STATUSES.length);
+                }
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(currentSegment, true)))) {
+                out.writeLong(day);
+                for (int count : row) {
+                    out.writeInt(count);
+                }
+            }
+            currentSegmentDays++;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Read the rows of a segment file. A segment written with other room types or statuses is skipped, and an
+     * incomplete last row is discarded. Days missing between rows are filled with the counts of the previous row.
+     *
+     * @param segment The segment file.
+     */
+    private void readSegment(File segment) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+            if (in.readInt() != ROOM_TYPES.length || in.readInt() != ROOM_STATUSES.length) {
+                return;
+            }
+            currentSegment = segment;
+            currentSegmentDays = 0;
+            int[] row = new int[ROW_WIDTH];
+            while (true) {
+                long day = in.readLong();
+                for (int column = 0; column < ROW_WIDTH; column++) {
+                    row[column] = in.readInt();
+                }
+                currentSegmentDays++;
+                while (numDays > 0 && firstDay + numDays < day) {
+                    addRow(firstDay + numDays, Arrays.copyOfRange(counts, (numDays - 1) * ROW_WIDTH,
+                            numDays * ROW_WIDTH));
+                }
+                if (numDays == 0 || firstDay + numDays == day) {
+                    addRow(day, row);
+                }
+            }
+        } catch (EOFException e) {
+            truncateIncompleteRow(segment);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Cut an incomplete last row, left by an interrupted append, off the current segment file so that later rows
+     * are appended at a row boundary.
+     *
+     * @param segment The segment file.
+     */
+    private void truncateIncompleteRow(File segment) {
+        if (segment != currentSegment) {
+            return;
+        }
+        long length = 2L * Integer.BYTES + (long) currentSegmentDays * (Long.BYTES + ROW_WIDTH * Integer.BYTES);
+        if (segment.length() > length) {
+            try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+                file.setLength(length);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Get the epoch day of the first row of a segment file from its name.
+     *
+     * @param segment The segment file.
+     * @return The epoch day.
+     */
+    private static long segmentFirstDay(File segment) {
+        String name = segment.getName();
+        return Long.parseLong(name.substring("segment-".length(), name.length() - ".dat".length()));
+    }
+}
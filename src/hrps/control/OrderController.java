@@ -1,5 +1,6 @@
 package hrps.control;
 
+import hrps.entity.Money;
 import hrps.entity.OrderedMenuItem;
 import hrps.entity.OrderedRoomService;
 import hrps.entity.Room;
@@ -10,8 +11,11 @@ import java.io.File;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * This class represents the controller for room service orders, includes create, update, search for orders and
@@ -23,15 +27,15 @@ public class OrderController {
     /**
      * Orders data file's path.
      */
-    private static final String ORDER_DATA_DIR = "src/data/order.dat";
+    static final String ORDER_DATA_DIR = "src/data/order.dat";
     /**
-     * Delivery time of an order.
+     * Delivery time of an order, in minutes from the kitchen taking it until it is delivered to the room.
      */
-    private static final int DELIVERY_TIME = 60;
+    static final int DELIVERY_TIME = 60;
     /**
-     * Preparing time of an order.
+     * Preparing time of an order, in minutes the kitchen station taking it is busy.
      */
-    private static final int PREPARING_TIME = 30;
+    static final int PREPARING_TIME = 30;
     /**
      * List of orders that are being handled.
      */
@@ -40,6 +44,10 @@ public class OrderController {
      * The static controller instance to avoid multiple instantiations.
      */
     private static OrderController instance = null;
+    /**
+     * Its lock guards the orders, which the kitchen moves on from its own thread.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
 
     /**
      * Get the controller instance. This is to avoid multiple instantiation of controller.
@@ -75,11 +83,18 @@ public class OrderController {
      * @param room    To-be-delivered-to room.
      * @param remarks Guest's remark.
      * @param items   The specified list of item's orders
+     * @return The order just created.
      */
-    public void makeOrder(Room room, String remarks, List<OrderedMenuItem> items) {
+    public OrderedRoomService makeOrder(Room room, String remarks, List<OrderedMenuItem> items) {
         OrderedRoomService order = new OrderedRoomService(room, LocalDateTime.now(), remarks, OrderStatus.CONFIRMED, items);
-        orderList.add(order);
-        SerializeDB.writeSerializedObject(ORDER_DATA_DIR, orderList);
+        synchronized (reservationController) {
+            // post before adding it, as a folio opened now starts with the room's orders
+            FolioController.getInstance().postRoomService(order);
+            orderList.add(order);
+            Transaction.record(() -> orderList.remove(order));
+            SerializeDB.writeSerializedObject(ORDER_DATA_DIR, orderList);
+        }
+        return order;
     }
 
     /**
@@ -89,8 +104,12 @@ public class OrderController {
      * @param status The new status of the order
      */
     public void changeOrderStatus(OrderedRoomService order, OrderStatus status) {
-        order.setOrderStatus(status);
-        updateOrder();
+        synchronized (reservationController) {
+            OrderStatus previousStatus = order.getOrderStatus();
+            order.setOrderStatus(status);
+            Transaction.record(() -> order.setOrderStatus(previousStatus));
+            updateOrder();
+        }
     }
 
     /**
@@ -101,6 +120,15 @@ public class OrderController {
         SerializeDB.writeSerializedObject(ORDER_DATA_DIR, orderList);
     }
 
+    /**
+     * Get all orders being handled.
+     *
+     * @return A List of all orders.
+     */
+    public List<OrderedRoomService> getAllOrders() {
+        return orderList;
+    }
+
     /**
      * Get orders of a specific room.
      *
@@ -124,10 +152,10 @@ public class OrderController {
      * @param room         The specified room.
      * @param checkinTime  The checked-in time of the guest in the specified room.
      * @param checkoutTime The checked-out time of the guest in the specified room.
-     * @return A double representing total price of all orders of the specified room.
+     * @return The total price of all orders of the specified room.
      */
-    public double getTotalPrice(Room room, LocalDateTime checkinTime, LocalDateTime checkoutTime) {
-        double totalPrice = 0;
+    public Money getTotalPrice(Room room, LocalDateTime checkinTime, LocalDateTime checkoutTime) {
+        Money totalPrice = Money.ZERO;
         for (OrderedRoomService order : orderList) {
             if (order.getRoom().equals(room)) {
                 if (Duration.between(checkinTime, order.getOrderTime()).toSeconds() > 0 &&
@@ -145,7 +173,7 @@ public class OrderController {
      * @param targetRoom The specified room.
      * @return An OrderRoomService of the specified room and return null if there is no order.
      */
-    public double findOrderedRoomServiceTotalPriceByRoom(Room targetRoom) {
+    public Money findOrderedRoomServiceTotalPriceByRoom(Room targetRoom) {
         OrderedRoomService orders = null;
         for (OrderedRoomService orderedRoomService : orderList) {
             if (orderedRoomService.getRoom().getRoomNumber().equals(targetRoom.getRoomNumber())) {
@@ -153,7 +181,7 @@ public class OrderController {
             }
         }
         if (orders == null) {
-            return 0;
+            return Money.ZERO;
         } else {
             return orders.getTotalPrice();
         }
@@ -165,15 +193,25 @@ public class OrderController {
      * @param roomToCheckOut the room to check out
      */
     public void flushRoomOrderAfterCheckOut(Room roomToCheckOut) {
-        // fix concurrentmodification
-        List<OrderedRoomService> toRemove = new ArrayList<>();
-        for (OrderedRoomService roomOrder : orderList) {
-            if (roomOrder.getRoom().getRoomNumber().equals(roomToCheckOut.getRoomNumber())) {
-                toRemove.add(roomOrder);
-            }
+        flushRoomOrdersAfterCheckOut(List.of(roomToCheckOut));
+    }
+
+    /**
+     * Remove all room orders of several rooms being checked out together, in one pass over the orders.
+     *
+     * @param roomsToCheckOut the rooms to check out
+     */
+    public void flushRoomOrdersAfterCheckOut(Collection<Room> roomsToCheckOut) {
+        Set<String> roomNumbers = new HashSet<>();
+        for (Room room : roomsToCheckOut) {
+            roomNumbers.add(room.getRoomNumber());
         }
-        for (OrderedRoomService ors : toRemove) {
-            orderList.remove(ors);
+        for (int i = orderList.size() - 1; i >= 0; i--) {
+            if (roomNumbers.contains(orderList.get(i).getRoom().getRoomNumber())) {
+                int index = i;
+                OrderedRoomService order = orderList.remove(index);
+                Transaction.record(() -> orderList.add(index, order));
+            }
         }
         SerializeDB.writeSerializedObject(ORDER_DATA_DIR, orderList);
     }
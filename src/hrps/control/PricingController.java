@@ -0,0 +1,130 @@
+package hrps.control;
+
+import hrps.entity.PricingPipeline;
+import hrps.entity.PricingRule;
+import tool.SerializeDB;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The controller that manages the pricing rules applied to bills and quotes. The active rules are compiled into a
+ * pipeline whenever they change, and the compiled pipeline is read without any lock, so pricing a bill never compiles
+ * or searches the rules.
+ *
+ * @author Peng Wenxuan
+ */
+public class PricingController {
+    /**
+     * File path of the pricing rules' data file.
+     */
+    static final String PRICING_RULES_DATA_DIR = "src/data/pricingRules.dat";
+    /**
+     * Promotion code of the promotion applied to bills before promotion codes were introduced.
+     */
+    public static final String DEFAULT_PROMO_CODE = "PROMOTION";
+    /**
+     * The static controller instance to avoid multiple instantiations.
+     */
+    private static PricingController instance = null;
+    /**
+     * The active rules, in the order they were added.
+     */
+    private final ArrayList<PricingRule> rules;
+    /**
+     * The active rules compiled, read without any lock.
+     */
+    private volatile PricingPipeline pipeline;
+
+    /**
+     * Initialize the controller by reading the rules' data file, starting from a 10% promotion and a 7% tax if there
+     * is none.
+     */
+    @SuppressWarnings("unchecked")
+    private PricingController() {
+        ArrayList<PricingRule> savedRules = null;
+        if (new File(PRICING_RULES_DATA_DIR).exists()) {
+            savedRules = (ArrayList<PricingRule>) SerializeDB.readSerializedObject(PRICING_RULES_DATA_DIR);
+        }
+        if (Objects.isNull(savedRules)) {
+            savedRules = new ArrayList<>();
+            savedRules.add(PricingRule.promoCode("Promotion discount:", DEFAULT_PROMO_CODE, 10));
+            savedRules.add(PricingRule.tax("Tax payable: ", 7));
+        }
+        rules = savedRules;
+        pipeline = new PricingPipeline(rules);
+    }
+
+    /**
+     * Get the controller instance. This is to avoid multiple instantiation of controller.
+     *
+     * @return The singleton PricingController instance.
+     */
+    public static PricingController getInstance() {
+        if (Objects.isNull(instance)) {
+            instance = new PricingController();
+        }
+        return instance;
+    }
+
+    /**
+     * Get the active rules compiled. Never blocks.
+     *
+     * @return The pricing pipeline.
+     */
+    public PricingPipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * Get the active rules.
+     *
+     * @return A copy of the rules, in the order they were added.
+     */
+    public synchronized List<PricingRule> getRules() {
+        return new ArrayList<>(rules);
+    }
+
+    /**
+     * Check if a promotion code is given by an active rule. Never blocks.
+     *
+     * @param promoCode The promotion code.
+     * @return true if the code is valid, false otherwise.
+     */
+    public boolean isValidPromoCode(String promoCode) {
+        return pipeline.isValidPromoCode(promoCode);
+    }
+
+    /**
+     * Add an active rule, and write the rules to the data file.
+     *
+     * @param rule The rule.
+     */
+    public synchronized void addRule(PricingRule rule) {
+        rules.add(rule);
+        saveRules();
+    }
+
+    /**
+     * Remove an active rule, and write the rules to the data file.
+     *
+     * @param index Index of the rule, in the order they were added.
+     * @return The removed rule.
+     * @throws IndexOutOfBoundsException If there is no rule at the index.
+     */
+    public synchronized PricingRule removeRule(int index) {
+        PricingRule rule = rules.remove(index);
+        saveRules();
+        return rule;
+    }
+
+    /**
+     * Compile the rules, and write them to the data file.
+     */
+    private void saveRules() {
+        pipeline = new PricingPipeline(rules);
+        SerializeDB.writeSerializedObject(PRICING_RULES_DATA_DIR, rules);
+    }
+}
@@ -1,10 +1,14 @@
 package hrps.control;
 
 import hrps.entity.*;
+import hrps.entity.enums.ForecastCategory;
+import hrps.entity.enums.RoomStatus;
 import hrps.exception.*;
 import tool.SerializeDB;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -20,11 +24,11 @@ public class ReservationController {
     /**
      * Confirmed/Checked-in/Checked-out/Expired reservations data file's path.
      */
-    private static final String RESERVATION_DATA_DIR = "src/data/reservations.dat";
+    static final String RESERVATION_DATA_DIR = "src/data/reservations.dat";
     /**
      * Waitlisted reservations data file's path.
      */
-    private static final String WAITING_RESERVATION_DATA_DIR = "src/data/waitListReservations.dat";
+    static final String WAITING_RESERVATION_DATA_DIR = "src/data/waitListReservations.dat";
     /**
      * ArrayList of Confirmed/Checked-in/Checked-out/Expired reservations.
      */
@@ -33,6 +37,19 @@ public class ReservationController {
      * ArrayList of Waitlisted reservations.
      */
     private final ArrayList<WaitListReservation> waitListReservations;
+    /**
+     * Unexpired room holds by hold ID, kept in memory only.
+     */
+    private final Map<UUID, RoomHold> roomHolds = new HashMap<>();
+    /**
+     * Forecast of the room-nights of the confirmed, checked-in and waitlisted reservations, kept up to date as they
+     * change.
+     */
+    private final OccupancyForecast occupancyForecast = new OccupancyForecast();
+    /**
+     * The front desk's lists of arrivals, departures and guests in house, kept up to date as reservations change.
+     */
+    private final FrontDeskView frontDeskView = new FrontDeskView();
     /**
      * The static controller instance to avoid multiple instantiations.
      */
@@ -60,6 +77,8 @@ public class ReservationController {
     private ReservationController() {
         reservationList = getReservationList(RESERVATION_DATA_DIR);
         waitListReservations = getWaitListReservations(WAITING_RESERVATION_DATA_DIR);
+        reservationList.forEach(this::updateViews);
+        waitListReservations.forEach(this::updateViews);
     }
 
     /**
@@ -117,15 +136,229 @@ public class ReservationController {
      * @param roomNum               Room no wished to be booked.
      * @return A Reservation that is in pending state and needed to be confirmed.
      */
-    public ConfirmedReservation createConfirmedReservation(Guest guest,
+    public synchronized ConfirmedReservation createConfirmedReservation(Guest guest,
                                                            LocalDateTime confirmedCheckInTime,
                                                            LocalDateTime confirmedCheckOutTime, int numOfAdult, int numOfChild, String roomNum) {
         ConfirmedReservation reservation = new ConfirmedReservation(numOfAdult, numOfChild, guest, confirmedCheckInTime, confirmedCheckOutTime, roomNum);   // random UUID already created in reservation superclass constructor
         this.reservationList.add(reservation);
+        recordAdd(reservationList, reservation);
+        updateViews(reservation);
         SerializeDB.writeSerializedObject(RESERVATION_DATA_DIR, reservationList);
         return reservation;
     }
 
+    /**
+     * Book the specified room for a period of stay: check that the room is available for that period, create a
+     * confirmed reservation and reserve the room, all while holding this controller's lock so that no other booking
+     * can take the room in between.
+     *
+     * @param guest        Guest who made the reservation.
+     * @param checkInTime  Confirmed check-in time.
+     * @param checkOutTime Confirmed check-out time.
+     * @param numOfAdult   Number of adults.
+     * @param numOfChild   Number of children.
+     * @param roomNum      Room no to be booked.
+     * @return The ConfirmedReservation of the booked room.
+     * @throws RoomNumberNotExistException When no room has the specified room number.
+     * @throws RoomNotAvailableException   When the room is not available for the period of stay.
+     * @throws InvalidDatePairException    When the check-in time is not before the check-out time.
+     */
+    public synchronized ConfirmedReservation bookRoom(Guest guest, LocalDateTime checkInTime,
+                                                      LocalDateTime checkOutTime, int numOfAdult, int numOfChild,
+                                                      String roomNum)
+            throws RoomNumberNotExistException, RoomNotAvailableException, InvalidDatePairException {
+        checkDatePair(checkInTime, checkOutTime);
+        Room room = roomController.findRoomByRoomNumber(roomNum);
+        if (Objects.isNull(room)) {
+            throw new RoomNumberNotExistException();
+        }
+        if (roomController.checkAvailableRooms(List.of(room), checkInTime, checkOutTime).isEmpty()) {
+            throw new RoomNotAvailableException();
+        }
+        ConfirmedReservation reservation = createConfirmedReservation(guest, checkInTime, checkOutTime, numOfAdult,
+                numOfChild, roomNum);
+        roomController.reserve(roomNum);
+        return reservation;
+    }
+
+    /**
+     * Book a block of rooms for a group: select the specified number of rooms matching the criteria that are
+     * available for the period of stay, and book all of them or none. All the reservations and room statuses are
+     * persisted in a single commit, or as part of the caller's batch if one is open.
+     *
+     * @param guest        Guest who made the group reservation.
+     * @param roomType     Type of the rooms, null for any type.
+     * @param bedType      Bed type of the rooms, null for any bed type.
+     * @param facing       Facing direction of the rooms, null for any direction.
+     * @param checkInTime  Confirmed check-in time.
+     * @param checkOutTime Confirmed check-out time.
+     * @param numOfRooms   Number of rooms to be booked.
+     * @param numOfAdult   Number of adults per room.
+     * @param numOfChild   Number of children per room.
+     * @return The ConfirmedReservations of the booked rooms, one per room.
+     * @throws RoomNotAvailableException When fewer rooms than requested are available for the period of stay.
+     * @throws InvalidDatePairException  When the check-in time is not before the check-out time.
+     */
+    public synchronized List<ConfirmedReservation> bookRooms(Guest guest, String roomType, String bedType,
+                                                             String facing, LocalDateTime checkInTime,
+                                                             LocalDateTime checkOutTime, int numOfRooms,
+                                                             int numOfAdult, int numOfChild)
+            throws RoomNotAvailableException, InvalidDatePairException {
+        checkDatePair(checkInTime, checkOutTime);
+        List<Room> rooms = Objects.isNull(roomType) ? roomController.getAllRooms() :
+                roomController.findRoomByType(roomType);
+        if (Objects.nonNull(bedType)) {
+            rooms = roomController.findRoomByBedType(rooms, bedType);
+        }
+        if (Objects.nonNull(facing)) {
+            rooms = roomController.findRoomByFacing(rooms, facing);
+        }
+        List<Room> availableRooms = roomController.checkAvailableRooms(rooms, checkInTime, checkOutTime);
+        if (numOfRooms < 1 || availableRooms.size() < numOfRooms) {
+            throw new RoomNotAvailableException();
+        }
+        boolean isOwnBatch = !SerializeDB.isInBatch();
+        if (isOwnBatch) {
+            SerializeDB.beginBatch();
+        }
+        List<ConfirmedReservation> reservations = new ArrayList<>(numOfRooms);
+        List<RoomStatus> previousStatuses = new ArrayList<>(numOfRooms);
+        try {
+            for (Room room : availableRooms.subList(0, numOfRooms)) {
+                previousStatuses.add(room.getRoomStatus());
+                reservations.add(createConfirmedReservation(guest, checkInTime, checkOutTime, numOfAdult,
+                        numOfChild, room.getRoomNumber()));
+                roomController.reserve(room.getRoomNumber());
+            }
+            if (isOwnBatch) {
+                SerializeDB.commitBatch();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (isOwnBatch) {
+                SerializeDB.abortBatch();
+            }
+            reservationList.removeAll(reservations);
+            reservations.forEach(reservation -> removeFromViews(reservation.getReservationCode()));
+            for (int i = 0; i < previousStatuses.size(); i++) {
+                roomController.restoreRoomStatus(availableRooms.get(i), previousStatuses.get(i));
+            }
+            if (isOwnBatch) {
+                SerializeDB.writeSerializedObject(RESERVATION_DATA_DIR, reservationList);
+                roomController.saveRooms();
+            }
+            throw e instanceof IOException ? new UncheckedIOException((IOException) e) : (RuntimeException) e;
+        }
+        return reservations;
+    }
+
+    /**
+     * Hold the specified room for a period of stay so that no other booking can take it until the hold expires or is
+     * released.
+     *
+     * @param roomNum      Room no to be held.
+     * @param checkInTime  Check-in time of the period.
+     * @param checkOutTime Check-out time of the period.
+     * @param timeToLive   How long the hold lasts.
+     * @return The RoomHold placed on the room.
+     * @throws RoomNumberNotExistException When no room has the specified room number.
+     * @throws RoomNotAvailableException   When the room is not available (or held) for the period of stay.
+     * @throws InvalidDatePairException    When the check-in time is not before the check-out time.
+     */
+    public synchronized RoomHold holdRoom(String roomNum, LocalDateTime checkInTime, LocalDateTime checkOutTime,
+                                          Duration timeToLive)
+            throws RoomNumberNotExistException, RoomNotAvailableException, InvalidDatePairException {
+        checkDatePair(checkInTime, checkOutTime);
+        Room room = roomController.findRoomByRoomNumber(roomNum);
+        if (Objects.isNull(room)) {
+            throw new RoomNumberNotExistException();
+        }
+        if (roomController.checkAvailableRooms(List.of(room), checkInTime, checkOutTime).isEmpty()) {
+            throw new RoomNotAvailableException();
+        }
+        RoomHold hold = new RoomHold(roomNum, checkInTime, checkOutTime, LocalDateTime.now().plus(timeToLive));
+        roomHolds.put(hold.getHoldId(), hold);
+        Transaction.record(() -> roomHolds.remove(hold.getHoldId()));
+        return hold;
+    }
+
+    /**
+     * Release a room hold so that the room becomes available to other bookings.
+     *
+     * @param holdId ID of the hold.
+     * @throws RoomHoldNotFoundException When there is no unexpired hold with the ID.
+     */
+    public synchronized void releaseHold(UUID holdId) throws RoomHoldNotFoundException {
+        RoomHold hold = roomHolds.remove(holdId);
+        if (hold == null || hold.isExpired(LocalDateTime.now())) {
+            throw new RoomHoldNotFoundException();
+        }
+        Transaction.record(() -> roomHolds.put(holdId, hold));
+    }
+
+    /**
+     * Turn a room hold into a confirmed reservation of the held room and period.
+     *
+     * @param holdId     ID of the hold.
+     * @param guest      Guest who made the reservation.
+     * @param numOfAdult Number of adults.
+     * @param numOfChild Number of children.
+     * @return The ConfirmedReservation of the held room.
+     * @throws RoomHoldNotFoundException When there is no unexpired hold with the ID.
+     * @throws HRPSException             When the room can no longer be booked.
+     */
+    public synchronized ConfirmedReservation bookHeldRoom(UUID holdId, Guest guest, int numOfAdult, int numOfChild)
+            throws HRPSException {
+        RoomHold hold = roomHolds.remove(holdId);
+        if (hold == null || hold.isExpired(LocalDateTime.now())) {
+            throw new RoomHoldNotFoundException();
+        }
+        Transaction.record(() -> roomHolds.put(holdId, hold));
+        return bookRoom(guest, hold.getCheckInTime(), hold.getCheckOutTime(), numOfAdult, numOfChild,
+                hold.getRoomNum());
+    }
+
+    /**
+     * Check if an unexpired hold blocks the specified room for any part of a period of stay. Expired holds are
+     * dropped along the way.
+     *
+     * @param room         The room to be checked.
+     * @param checkInTime  Check-in time of the period.
+     * @param checkOutTime Check-out time of the period.
+     * @return true if the room is held for part of the period.
+     */
+    public synchronized boolean isHeld(Room room, LocalDateTime checkInTime, LocalDateTime checkOutTime) {
+        if (roomHolds.isEmpty()) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        roomHolds.values().removeIf(hold -> hold.isExpired(now));
+        for (RoomHold hold : roomHolds.values()) {
+            if (hold.overlaps(room.getRoomNumber(), checkInTime, checkOutTime)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cancel a confirmed reservation before it is checked in. The released room is automatically assigned to a
+     * future-reserved reservation or a waitlisted reservation, and the cancelled reservation is removed from the
+     * reservations' container.
+     *
+     * @param reservation The reservation to be cancelled.
+     * @return true if the released room is set to vacant, false if it is reserved for another reservation.
+     * @throws CancelCheckInReservationException When the reservation is not a confirmed reservation.
+     */
+    public synchronized boolean cancelReservation(Reservation reservation) throws CancelCheckInReservationException {
+        if (!(reservation instanceof ConfirmedReservation)) {
+            throw new CancelCheckInReservationException();
+        }
+        Room releasedRoom = roomController.findRoomByRoomNumber(reservation.getRoomNum());
+        boolean isVacant = roomController.checkOutRoom(releasedRoom, reservation.getCheckInTime());
+        removeReservation(reservation);
+        return isVacant;
+    }
+
     /**
      * Create a waitlisted reservation.
      *
@@ -138,11 +371,13 @@ public class ReservationController {
      * @param roomNum             Room number wished to be booked.
      * @return the reservation created in the waitlist
      */
-    public WaitListReservation createWaitListReservation(Guest guest, String guestContact,
+    public synchronized WaitListReservation createWaitListReservation(Guest guest, String guestContact,
                                                          LocalDateTime desiredCheckInTime,
                                                          LocalDateTime desiredCheckOutTime, int numOfAdult, int numOfChild, String roomNum) {
         WaitListReservation reservation = new WaitListReservation(numOfAdult, numOfChild, guest, desiredCheckInTime, desiredCheckOutTime, roomNum);
         this.waitListReservations.add(reservation);
+        recordAdd(waitListReservations, reservation);
+        updateViews(reservation);
         SerializeDB.writeSerializedObject(WAITING_RESERVATION_DATA_DIR, waitListReservations);
         return reservation;
     }
@@ -159,13 +394,15 @@ public class ReservationController {
      * @param roomNum              Booked room no.
      * @return the checked in reservation from the walk-in
      */
-    public CheckedInReservation createWalkInReservation(Guest guest, String guestContact,
+    public synchronized CheckedInReservation createWalkInReservation(Guest guest, String guestContact,
                                                         LocalDateTime checkInTime, LocalDateTime expectedCheckOutTime,
                                                         int numOfAdult, int numOfChild, String roomNum) {
         UUID reservationCode = UUID.randomUUID();
         CheckedInReservation reservation = new CheckedInReservation(numOfAdult, numOfChild, guest,
                 reservationCode, checkInTime, expectedCheckOutTime, roomNum);
         this.reservationList.add(reservation);
+        recordAdd(reservationList, reservation);
+        updateViews(reservation);
         SerializeDB.writeSerializedObject(RESERVATION_DATA_DIR, reservationList);
         return reservation;
     }
@@ -177,13 +414,13 @@ public class ReservationController {
      * @param updatedContact New contact.
      * @return The reservation after updated.
      */
-    public Reservation updateContact(Reservation reservation, String updatedContact) {
+    public synchronized Reservation updateContact(Reservation reservation, String updatedContact) {
         GuestController gc = GuestController.getInstance();
         gc.updateContact(reservation.getGuest(), updatedContact);
-        if(reservation instanceof WaitListReservation)
-            SerializeDB.writeSerializedObject(WAITING_RESERVATION_DATA_DIR, waitListReservations);
-        else
-            SerializeDB.writeSerializedObject(RESERVATION_DATA_DIR, reservationList);
+        recordChange(reservation);
+        reservation.incrementVersion();
+        updateViews(reservation);
+        writeReservations(reservation);
         return reservation;
     }
 
@@ -195,85 +432,318 @@ public class ReservationController {
      * @param updatedChild New number of children.
      * @return The reservation after updated.
      */
-    public Reservation updateNumberOfGuests(Reservation reservation, int updatedAdult, int updatedChild) {
+    public synchronized Reservation updateNumberOfGuests(Reservation reservation, int updatedAdult, int updatedChild) {
+        recordChange(reservation);
         reservation.setNumAdult(updatedAdult);
         reservation.setNumChild(updatedChild);
-        if(reservation instanceof WaitListReservation)
-            SerializeDB.writeSerializedObject(WAITING_RESERVATION_DATA_DIR, waitListReservations);
-        else
-            SerializeDB.writeSerializedObject(RESERVATION_DATA_DIR, reservationList);
+        reservation.incrementVersion();
+        updateViews(reservation);
+        writeReservations(reservation);
         return reservation;
     }
 
     /**
      * Update desired check-in time of the specified pending/confirmed reservation if there are valid rooms for the
      * new check-in time, might have to change room number of this reservation if current room does not satisfied new
-     * check-in time.
+     * check-in time. The reservation is expected to be at the version it currently has.
      *
      * @param reservation        The pending/confirm reservation.
      * @param updatedCheckInTime Newly desired check-in time.
      * @return The reservation after updated.
      * @throws IllegalChangeOfDateException When the specified reservation is not a pending or confirmed reservation.
      * @throws InvalidDatePairException when the keyed in check in time is later than the expected check out time.
+     * @throws ReservationVersionConflictException When the reservation is no longer held by this controller.
      */
-    public Reservation updateCheckInTime(Reservation reservation, LocalDateTime updatedCheckInTime) throws IllegalChangeOfDateException, InvalidDatePairException {
-        Room currentRoom = roomController.findRoomByRoomNumber(reservation.getRoomNum());
-        List<Room> similarRooms =
-                roomController.findRoomByFacing(roomController.findRoomByBedType(roomController.findRoomByType(currentRoom.getRoomType().toString()),
-                        currentRoom.getRoomBedType().toString()), currentRoom.getRoomFacing().toString());
-        List<Room> validSimilarRooms = roomController.checkAvailableRooms(similarRooms, updatedCheckInTime,
-                reservation.getCheckOutTime());
-        if (validSimilarRooms.size() == 0) {
-            return reservation;
-        } else if (validSimilarRooms.contains(currentRoom)) {
-            reservation.setCheckInTime(updatedCheckInTime);
-            return reservation;
-        } else {
-            Room newRoom = validSimilarRooms.get(0); // assign first valid similar rooms due to change of check-in
-            // time.
+    public Reservation updateCheckInTime(Reservation reservation, LocalDateTime updatedCheckInTime)
+            throws IllegalChangeOfDateException, InvalidDatePairException, ReservationVersionConflictException {
+        return updateCheckInTime(reservation, updatedCheckInTime, reservation.getVersion());
+    }
 
-            reservation.setCheckInTime(updatedCheckInTime);
-            reservation.setRoomNum(newRoom.getRoomNumber());
-            roomController.reserve(newRoom.getRoomNumber());
+    /**
+     * Update desired check-in time of the specified pending/confirmed reservation if there are valid rooms for the
+     * new check-in time, might have to change room number of this reservation if current room does not satisfied new
+     * check-in time. Validating the availability and committing the change happen atomically, and the change is only
+     * applied if the reservation is still at the version the caller read.
+     *
+     * @param reservation        The pending/confirm reservation.
+     * @param updatedCheckInTime Newly desired check-in time.
+     * @param expectedVersion    The version of the reservation when the caller read it.
+     * @return The reservation after updated.
+     * @throws IllegalChangeOfDateException When the specified reservation is not a pending or confirmed reservation.
+     * @throws InvalidDatePairException when the keyed in check in time is later than the expected check out time.
+     * @throws ReservationVersionConflictException When the reservation has been modified or replaced since the caller
+     * read it.
+     */
+    public synchronized Reservation updateCheckInTime(Reservation reservation, LocalDateTime updatedCheckInTime,
+                                                      long expectedVersion)
+            throws IllegalChangeOfDateException, InvalidDatePairException, ReservationVersionConflictException {
+        checkVersion(reservation, expectedVersion);
+        return updateStayPeriod(reservation, updatedCheckInTime, reservation.getCheckOutTime());
+    }
 
-            return reservation;
-        }
+    /**
+     * Update desired check-out time of the specified pending/confirmed reservation if there are valid rooms for the
+     * new check-out time, might have to change room number of this reservation if current room does not satisfied new
+     * check-out time. The reservation is expected to be at the version it currently has.
+     *
+     * @param reservation         The pending/confirm reservation.
+     * @param updatedCheckOutTime Newly desired check-out time.
+     * @return The reservation after updated.
+     * @throws IllegalChangeOfDateException When the specified reservation is not a pending or confirmed reservation.
+     * @throws InvalidDatePairException when the keyed in check out time is earlier than the expected check in time.
+     * @throws ReservationVersionConflictException When the reservation is no longer held by this controller.
+     */
+    public Reservation updateCheckOutTime(Reservation reservation, LocalDateTime updatedCheckOutTime)
+            throws IllegalChangeOfDateException, InvalidDatePairException, ReservationVersionConflictException {
+        return updateCheckOutTime(reservation, updatedCheckOutTime, reservation.getVersion());
     }
 
     /**
      * Update desired check-out time of the specified pending/confirmed reservation if there are valid rooms for the
      * new check-out time, might have to change room number of this reservation if current room does not satisfied new
-     * check-out time.
+     * check-out time. Validating the availability and committing the change happen atomically, and the change is only
+     * applied if the reservation is still at the version the caller read.
      *
      * @param reservation         The pending/confirm reservation.
      * @param updatedCheckOutTime Newly desired check-out time.
+     * @param expectedVersion     The version of the reservation when the caller read it.
      * @return The reservation after updated.
      * @throws IllegalChangeOfDateException When the specified reservation is not a pending or confirmed reservation.
      * @throws InvalidDatePairException when the keyed in check out time is earlier than the expected check in time.
+     * @throws ReservationVersionConflictException When the reservation has been modified or replaced since the caller
+     * read it.
      */
-    public Reservation updateCheckOutTime(Reservation reservation, LocalDateTime updatedCheckOutTime) throws IllegalChangeOfDateException, InvalidDatePairException {
+    public synchronized Reservation updateCheckOutTime(Reservation reservation, LocalDateTime updatedCheckOutTime,
+                                                       long expectedVersion)
+            throws IllegalChangeOfDateException, InvalidDatePairException, ReservationVersionConflictException {
+        checkVersion(reservation, expectedVersion);
+        return updateStayPeriod(reservation, reservation.getCheckInTime(), updatedCheckOutTime);
+    }
+
+    /**
+     * Update both the check-in and the check-out time of the specified pending/confirmed reservation with one write,
+     * if its room, or a room with the same type, bed type and facing, is available for the new period. Validating
+     * the availability and committing the change happen atomically, and the change is only applied if the
+     * reservation is still at the version the caller read.
+     *
+     * @param reservation     The pending/confirm reservation.
+     * @param checkInTime     New check-in time.
+     * @param checkOutTime    New check-out time.
+     * @param expectedVersion The version of the reservation when the caller read it.
+     * @return The reservation, unchanged if no room is available for the new period.
+     * @throws IllegalChangeOfDateException When the specified reservation is not a pending or confirmed reservation.
+     * @throws InvalidDatePairException When the check-in time is not before the check-out time.
+     * @throws ReservationVersionConflictException When the reservation has been modified or replaced since the caller
+     * read it.
+     */
+    public synchronized Reservation updateStayPeriod(Reservation reservation, LocalDateTime checkInTime,
+                                                     LocalDateTime checkOutTime, long expectedVersion)
+            throws IllegalChangeOfDateException, InvalidDatePairException, ReservationVersionConflictException {
+        checkVersion(reservation, expectedVersion);
+        return updateStayPeriod(reservation, checkInTime, checkOutTime);
+    }
+
+    /**
+     * Move the stay period of a reservation to the specified check-in/check-out time if its room, or a room with the
+     * same type, bed type and facing, is available for that period, then commit the change and increase the
+     * reservation's version. Must be called while holding this controller's lock.
+     *
+     * @param reservation  The pending/confirm reservation.
+     * @param checkInTime  New check-in time.
+     * @param checkOutTime New check-out time.
+     * @return The reservation, unchanged if no room is available for the new period.
+     * @throws IllegalChangeOfDateException When the specified reservation is not a pending or confirmed reservation.
+     * @throws InvalidDatePairException When the check-in time is not before the check-out time.
+     */
+    private Reservation updateStayPeriod(Reservation reservation, LocalDateTime checkInTime,
+                                         LocalDateTime checkOutTime)
+            throws IllegalChangeOfDateException, InvalidDatePairException {
+        checkDatePair(checkInTime, checkOutTime);
         Room currentRoom = roomController.findRoomByRoomNumber(reservation.getRoomNum());
         List<Room> similarRooms =
                 roomController.findRoomByFacing(roomController.findRoomByBedType(roomController.findRoomByType(currentRoom.getRoomType().toString()),
                         currentRoom.getRoomBedType().toString()), currentRoom.getRoomFacing().toString());
-        List<Room> validSimilarRooms = roomController.checkAvailableRooms(similarRooms, reservation.getCheckInTime(),
-                updatedCheckOutTime);
+        List<Room> validSimilarRooms = roomController.checkAvailableRooms(similarRooms, checkInTime, checkOutTime);
         if (validSimilarRooms.size() == 0) {
             return reservation;
-        } else if (validSimilarRooms.contains(currentRoom)) {
-            reservation.setCheckOutTime(updatedCheckOutTime);
-            return reservation;
-        } else {
-            Room newRoom = validSimilarRooms.get(0); // assign first valid similar rooms due to change of check-out
-            // time.
-            reservation.setCheckOutTime(updatedCheckOutTime);
+        }
+        recordChange(reservation);
+        if (!checkInTime.equals(reservation.getCheckInTime())) {
+            reservation.setCheckInTime(checkInTime);
+        }
+        if (!checkOutTime.equals(reservation.getCheckOutTime())) {
+            reservation.setCheckOutTime(checkOutTime);
+        }
+        if (!validSimilarRooms.contains(currentRoom)) {
+            Room newRoom = validSimilarRooms.get(0); // assign first valid similar rooms due to change of stay period.
             reservation.setRoomNum(newRoom.getRoomNumber());
             roomController.reserve(newRoom.getRoomNumber());
+        }
+        reservation.incrementVersion();
+        updateViews(reservation);
+        writeReservations(reservation);
+        return reservation;
+    }
 
-            return reservation;
+    /**
+     * Record how to undo adding a reservation to a reservations' container, for a transaction to undo the change.
+     *
+     * @param reservations The container.
+     * @param reservation  The reservation just added.
+     */
+    private void recordAdd(List<? extends Reservation> reservations, Reservation reservation) {
+        Transaction.record(() -> {
+            reservations.remove(reservation);
+            removeFromViews(reservation.getReservationCode());
+        });
+    }
+
+    /**
+     * Record how to undo removing a reservation from a reservations' container, for a transaction to undo the change.
+     *
+     * @param reservations The container.
+     * @param index        The position the reservation was removed from.
+     * @param reservation  The reservation just removed.
+     * @param <T>          Type of the reservations in the container.
+     */
+    private <T extends Reservation> void recordRemove(List<T> reservations, int index, T reservation) {
+        Transaction.record(() -> {
+            reservations.add(index, reservation);
+            updateViews(reservation);
+        });
+    }
+
+    /**
+     * Record how to put back the details of a reservation before it is changed in place, for a transaction to undo
+     * the change.
+     *
+     * @param reservation The reservation about to be changed.
+     */
+    private void recordChange(Reservation reservation) {
+        int numAdult = reservation.getNumAdult();
+        int numChild = reservation.getNumChild();
+        String roomNum = reservation.getRoomNum();
+        LocalDateTime checkInTime = reservation.getCheckInTime();
+        LocalDateTime checkOutTime = reservation.getCheckOutTime();
+        long version = reservation.getVersion();
+        Transaction.record(() -> {
+            reservation.setNumAdult(numAdult);
+            reservation.setNumChild(numChild);
+            reservation.setRoomNum(roomNum);
+            try {
+                if (!Objects.equals(checkInTime, reservation.getCheckInTime())) {
+                    reservation.setCheckInTime(checkInTime);
+                }
+                if (!Objects.equals(checkOutTime, reservation.getCheckOutTime())) {
+                    reservation.setCheckOutTime(checkOutTime);
+                }
+            } catch (IllegalChangeOfDateException e) {
+                throw new IllegalStateException(e);     // the times only change where they can be set
+            }
+            reservation.restoreVersion(version);
+            updateViews(reservation);
+        });
+    }
+
+    /**
+     * Check that a period of stay lasts at least until some time after it starts.
+     *
+     * @param checkInTime  Check-in time of the period.
+     * @param checkOutTime Check-out time of the period.
+     * @throws InvalidDatePairException When the check-in time is not before the check-out time.
+     */
+    private static void checkDatePair(LocalDateTime checkInTime, LocalDateTime checkOutTime)
+            throws InvalidDatePairException {
+        if (!checkInTime.isBefore(checkOutTime)) {
+            throw new InvalidDatePairException();
         }
     }
 
+    /**
+     * Check that a reservation is still held by this controller and is at the expected version.
+     *
+     * @param reservation     The reservation to be checked.
+     * @param expectedVersion The version of the reservation when the caller read it.
+     * @throws ReservationVersionConflictException When the reservation has been replaced (eg. checked in or removed)
+     * or modified since the caller read it.
+     */
+    private void checkVersion(Reservation reservation, long expectedVersion) throws ReservationVersionConflictException {
+        boolean isHeld = reservation instanceof WaitListReservation ? waitListReservations.contains(reservation)
+                : reservationList.contains(reservation);
+        if (!isHeld || reservation.getVersion() != expectedVersion) {
+            throw new ReservationVersionConflictException();
+        }
+    }
+
+    /**
+     * Write the reservations' container holding the specified reservation to its data file.
+     *
+     * @param reservation The reservation that was changed.
+     */
+    private void writeReservations(Reservation reservation) {
+        if (reservation instanceof WaitListReservation)
+            SerializeDB.writeSerializedObject(WAITING_RESERVATION_DATA_DIR, waitListReservations);
+        else
+            SerializeDB.writeSerializedObject(RESERVATION_DATA_DIR, reservationList);
+    }
+
+    /**
+     * Get the forecast of the room-nights of the confirmed, checked-in and waitlisted reservations.
+     *
+     * @return The occupancy forecast, which may be read without holding this controller's lock.
+     */
+    public OccupancyForecast getOccupancyForecast() {
+        return occupancyForecast;
+    }
+
+    /**
+     * Get the front desk's lists of arrivals, departures and guests in house.
+     *
+     * @return The front desk view, which may be read without holding this controller's lock.
+     */
+    public FrontDeskView getFrontDeskView() {
+        return frontDeskView;
+    }
+
+    /**
+     * Count the stay of a reservation in the occupancy forecast and list it in the front desk view according to its
+     * current status, period and room, or remove it from both if it is neither confirmed, checked in nor waitlisted.
+     *
+     * @param reservation The reservation.
+     */
+    private void updateViews(Reservation reservation) {
+        ForecastCategory category;
+        if (reservation instanceof ConfirmedReservation) {
+            category = ForecastCategory.CONFIRMED;
+        } else if (reservation instanceof CheckedInReservation) {
+            category = ForecastCategory.CHECKED_IN;
+        } else if (reservation instanceof WaitListReservation) {
+            category = ForecastCategory.WAITLISTED;
+        } else {
+            removeFromViews(reservation.getReservationCode());
+            return;
+        }
+        frontDeskView.put(reservation);
+        // not the static field, which is still null while the views are built in the constructor
+        Room room = RoomController.getInstance().findRoomByRoomNumber(reservation.getRoomNum());
+        if (Objects.isNull(room)) {
+            occupancyForecast.remove(reservation.getReservationCode());
+            return;
+        }
+        occupancyForecast.put(reservation.getReservationCode(), category, room.getRoomType(),
+                reservation.getCheckInTime().toLocalDate(), reservation.getCheckOutTime().toLocalDate());
+    }
+
+    /**
+     * Remove a reservation from the occupancy forecast and the front desk view.
+     *
+     * @param reservationCode Code of the reservation.
+     */
+    private void removeFromViews(UUID reservationCode) {
+        occupancyForecast.remove(reservationCode);
+        frontDeskView.remove(reservationCode);
+    }
+
     /**
      * Search for reservations with the specified contact number.
      *
@@ -306,28 +776,23 @@ public class ReservationController {
         return reservations;
     }
 
-    /**
-     * Replace a specified reservation with another reservation in the reservations' container and update the database.
-     *
-     * @param oldReservation Reservation to be removed from the reservations' container.
-     * @param newReservation Reservation to be added to the reservations' container.
-     */
-    private void updateReservation(Reservation oldReservation, Reservation newReservation) {
-        reservationList.remove(oldReservation);
-        reservationList.add(newReservation);
-        SerializeDB.writeSerializedObject(RESERVATION_DATA_DIR, reservationList);
-    }
-
     /**
      * Move a reservation from the wait list to the confirmed list and update the database.
      *
      * @param candidateReservation The WaitListReservation to be moved.
      * @return The ConfirmedReservation.
      */
-    public ConfirmedReservation confirmWaitListReservation(WaitListReservation candidateReservation) {
+    public synchronized ConfirmedReservation confirmWaitListReservation(WaitListReservation candidateReservation) {
         ConfirmedReservation confirmedReservation = candidateReservation.confirm(candidateReservation.getRoomNum());
+        int index = waitListReservations.indexOf(candidateReservation);
         waitListReservations.remove(candidateReservation);
+        if (index >= 0) {
+            recordRemove(waitListReservations, index, candidateReservation);
+        }
         reservationList.add(confirmedReservation);
+        recordAdd(reservationList, confirmedReservation);
+        removeFromViews(candidateReservation.getReservationCode());
+        updateViews(confirmedReservation);
         SerializeDB.writeSerializedObject(RESERVATION_DATA_DIR, reservationList);
         SerializeDB.writeSerializedObject(WAITING_RESERVATION_DATA_DIR, waitListReservations);
         return confirmedReservation;
@@ -372,12 +837,36 @@ public class ReservationController {
      *
      * @param reservation The reservation to be removed.
      */
-    public void removeReservation(Reservation reservation) {
-        reservationList.remove(reservation);
+    public synchronized void removeReservation(Reservation reservation) {
+        int index = reservationList.indexOf(reservation);
+        if (index >= 0) {
+            reservationList.remove(index);
+            recordRemove(reservationList, index, reservation);
+        }
+        removeFromViews(reservation.getReservationCode());
         SerializeDB.writeSerializedObject(RESERVATION_DATA_DIR, reservationList);
     }
 
-    public void deleteReservationAfterCheckingOutByRoom(Room room) throws IllegalRoomInSerializableBinaryFileException {
+    /**
+     * Remove several reservations in one pass over the reservations, and update the database once.
+     *
+     * @param reservations The reservations to be removed.
+     */
+    public synchronized void removeReservations(Collection<? extends Reservation> reservations) {
+        Set<UUID> reservationCodes = new HashSet<>();
+        for (Reservation reservation : reservations) {
+            reservationCodes.add(reservation.getReservationCode());
+            removeFromViews(reservation.getReservationCode());
+        }
+        for (int i = reservationList.size() - 1; i >= 0; i--) {
+            if (reservationCodes.contains(reservationList.get(i).getReservationCode())) {
+                recordRemove(reservationList, i, reservationList.remove(i));
+            }
+        }
+        SerializeDB.writeSerializedObject(RESERVATION_DATA_DIR, reservationList);
+    }
+
+    public synchronized void deleteReservationAfterCheckingOutByRoom(Room room) throws IllegalRoomInSerializableBinaryFileException {
         CheckedInReservation targetCheckedInReservation = findCheckedInReservationByRoom(room);
         if (targetCheckedInReservation != null) {
             reservationController.removeReservation(targetCheckedInReservation);
@@ -402,6 +891,26 @@ public class ReservationController {
         return null;
     }
 
+    /**
+     * Find the checked-in reservations of several rooms in one pass over the reservations.
+     *
+     * @param rooms Rooms to be searched.
+     * @return The CheckedInReservation of each room whose guests have checked in, by room number.
+     */
+    public Map<String, CheckedInReservation> findCheckedInReservationsByRooms(Collection<Room> rooms) {
+        Set<String> roomNumbers = new HashSet<>();
+        for (Room room : rooms) {
+            roomNumbers.add(room.getRoomNumber());
+        }
+        Map<String, CheckedInReservation> checkedInReservations = new HashMap<>();
+        for (Reservation reservation : reservationList) {
+            if (reservation instanceof CheckedInReservation && roomNumbers.contains(reservation.getRoomNum())) {
+                checkedInReservations.put(reservation.getRoomNum(), (CheckedInReservation) reservation);
+            }
+        }
+        return checkedInReservations;
+    }
+
     /**
      * Find confirmed reservation of a specified room.
      *
@@ -445,24 +954,117 @@ public class ReservationController {
      * @throws InvalidStatusChangeException when the checking in this reservation is not from a
      * legal status change. (for instance, checking in a waiting reservation is not allowed)
      */
-    public void validateCheckIn(Reservation reservation, LocalDateTime actualCheckInDateTime) throws InvalidStatusChangeException {
+    public synchronized void validateCheckIn(Reservation reservation, LocalDateTime actualCheckInDateTime) throws InvalidStatusChangeException {
         RoomController roomController = RoomController.getInstance();
         LocalDateTime expectedCheckInDateTime = reservation.getCheckInTime();
         if (actualCheckInDateTime.isAfter(expectedCheckInDateTime.plus(Duration.ofHours(24)))) {
-            ExpiredReservation expiredReservation = reservation.cancel();
-            System.out.println(expiredReservation.toString());
-            roomController.checkOutRoom(roomController.findRoomByRoomNumber(reservation.getRoomNum()), expectedCheckInDateTime.plus(Duration.ofHours(24)));
-            // if the actual check in time is 24 hours later than the expected check in time, it
-            // will be expired via the logic modelling of checkOutRoom(expectedCheckInTime + 24
-            // hours))
-            removeReservation(reservation);
+            System.out.println(expireReservation(reservation).toString());
         } else {
-            CheckedInReservation checkedInReservation = reservation.checkIn(actualCheckInDateTime);
-            roomController.checkIn(reservation.getRoomNum(), reservation.getGuest());
-            updateReservation(reservation, checkedInReservation);
+            checkIn(reservation, actualCheckInDateTime);
             System.out.println("Check in successfully for this reservation!");
         }
     }
-}
 
+    /**
+     * Check in a confirmed reservation as one transaction: the reservation is replaced by its checked-in successor in
+     * place, its room is occupied by its guest and the views are updated in memory, then the reservations and rooms
+     * are persisted with one commit, or with the caller's batch if one is open. If the commit fails, the reservation,
+     * the room and the views are put back as they were.
+     *
+     * @param reservation           The reservation to check in.
+     * @param actualCheckInDateTime Actual check-in date time.
+     * @return The checked-in reservation.
+     * @throws InvalidStatusChangeException When the reservation is not a confirmed reservation.
+     * @throws UncheckedIOException         If the check-in cannot be persisted.
+     */
+    public synchronized CheckedInReservation checkIn(Reservation reservation, LocalDateTime actualCheckInDateTime)
+            throws InvalidStatusChangeException {
+        CheckedInReservation checkedInReservation = reservation.checkIn(actualCheckInDateTime);
+        Room room = roomController.findRoomByRoomNumber(reservation.getRoomNum());
+        RoomStatus previousStatus = room.getRoomStatus();
+        Guest previousGuest = room.getCurrentGuest();
+        int index = indexOfReservation(reservation.getReservationCode());
+        boolean isOwnBatch = !SerializeDB.isInBatch();
+        if (isOwnBatch) {
+            SerializeDB.beginBatch();
+        }
+        try {
+            if (index < 0) {
+                reservationList.add(checkedInReservation);
+                recordAdd(reservationList, checkedInReservation);
+            } else {
+                reservationList.set(index, checkedInReservation);
+                recordReplace(index, reservation);
+            }
+            updateViews(checkedInReservation);
+            roomController.occupy(room, reservation.getGuest());
+            SerializeDB.writeSerializedObject(RESERVATION_DATA_DIR, reservationList);
+            roomController.saveRooms();
+            if (isOwnBatch) {
+                SerializeDB.commitBatch();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (isOwnBatch) {
+                SerializeDB.abortBatch();
+            }
+            if (index < 0) {
+                reservationList.remove(checkedInReservation);
+                removeFromViews(reservation.getReservationCode());
+            } else {
+                reservationList.set(index, reservation);
+                updateViews(reservation);
+            }
+            roomController.restoreRoomStatus(room, previousStatus);
+            room.setCurrentGuest(previousGuest);
+            throw e instanceof IOException ? new UncheckedIOException((IOException) e) : (RuntimeException) e;
+        }
+        return checkedInReservation;
+    }
 
+    /**
+     * Record how to undo replacing a reservation in the reservations' container by its successor after a status
+     * change, for a transaction to undo the change.
+     *
+     * @param index       The position of the reservation.
+     * @param reservation The reservation just replaced.
+     */
+    private void recordReplace(int index, Reservation reservation) {
+        Transaction.record(() -> {
+            reservationList.set(index, reservation);
+            updateViews(reservation);
+        });
+    }
+
+    /**
+     * Find the position of a reservation in the reservations' container.
+     *
+     * @param reservationCode Code of the reservation.
+     * @return The index of the reservation, -1 if there is no reservation with this code.
+     */
+    private int indexOfReservation(UUID reservationCode) {
+        for (int i = 0; i < reservationList.size(); i++) {
+            if (reservationList.get(i).getReservationCode().equals(reservationCode)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Expire a reservation whose guest did not check in within 24 hours after the expected check-in time: release
+     * its room as of the end of that window and remove the reservation.
+     *
+     * @param reservation The confirmed reservation to expire.
+     * @return The expired reservation.
+     * @throws InvalidStatusChangeException When the reservation is not a confirmed reservation.
+     */
+    public synchronized ExpiredReservation expireReservation(Reservation reservation)
+            throws InvalidStatusChangeException {
+        ExpiredReservation expiredReservation = reservation.cancel();
+        // the room is released via the logic modelling of checkOutRoom(expectedCheckInTime + 24 hours)
+        roomController.checkOutRoom(roomController.findRoomByRoomNumber(reservation.getRoomNum()),
+                reservation.getCheckInTime().plus(Duration.ofHours(24)));
+        removeReservation(reservation);
+        return expiredReservation;
+    }
+}
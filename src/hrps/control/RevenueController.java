@@ -0,0 +1,617 @@
+package hrps.control;
+
+import hrps.entity.Bill;
+import hrps.entity.BillBreakdown;
+import hrps.entity.CheckedOutReservation;
+import hrps.entity.Money;
+import hrps.entity.RevenueSummary;
+import hrps.entity.Room;
+import hrps.entity.RoomOccupancyIndex;
+import hrps.entity.enums.RoomStatus;
+import hrps.entity.enums.RoomType;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * The controller that records the revenue of every settled stay and computes revenue analytics. Each stay is a row
+ * of a columnar store, one primitive array per field, so an aggregation only reads the fields it needs. Aggregations
+ * split the rows into chunks that are summed in parallel on the fork/join pool. Amounts are stored and summed as
+ * whole cents in primitive longs, so the sums are exact whatever the number of rows. Rows are persisted by appending
+ * them to a data file.
+ * <p>
+ * A stay's revenue belongs to the day it is checked out. Available room-nights are taken from the occupancy history,
+ * or from the current number of rooms over days the history does not cover.
+ *
+ * @author Peng Wenxuan
+ */
+public class RevenueController {
+    /**
+     * File path of the revenue data file.
+     */
+    static final String REVENUE_DATA_DIR = "src/data/revenueCents.dat";
+    /**
+     * Number of rows in each chunk summed by one task of the fork/join pool.
+     */
+    private static final int CHUNK_SIZE = 1 << 14;
+    /**
+     * Number of sums kept for each group by an aggregation.
+     */
+    private static final int NUMBER_OF_SUMS = 7;
+    /**
+     * The static controller instance to avoid multiple instantiations.
+     */
+    private static RevenueController instance = null;
+    /**
+     * To read the available room-nights of past days.
+     */
+    private final OccupancyHistoryController occupancyHistoryController = OccupancyHistoryController.getInstance();
+    /**
+     * To read the current number of rooms.
+     */
+    private final RoomController roomController = RoomController.getInstance();
+    /**
+     * Code of each nationality, the nationality's position in the columns' nationality names.
+     */
+    private final Map<String, Integer> nationalityCodes = new HashMap<>();
+    /**
+     * The rows recorded so far. Rows are only ever added, except when the transaction that recorded them rolls
+     * back, so aggregations read this without any lock.
+     */
+    private volatile Columns columns = new Columns(1024);
+
+    /**
+     * The columns of the revenue store. An instance is never changed below its size, and a new instance is published
+     * after every row added.
+     */
+    private static class Columns {
+        /**
+         * Epoch day of the check-out of each stay.
+         */
+        private final long[] checkOutDays;
+        /**
+         * Month of the check-out of each stay, counted from year 0.
+         */
+        private final int[] checkOutMonths;
+        /**
+         * Room type ordinal of each stay.
+         */
+        private final byte[] roomTypes;
+        /**
+         * Nationality code of the guest of each stay.
+         */
+        private final int[] nationalities;
+        /**
+         * Number of weekday nights of each stay.
+         */
+        private final int[] weekdayNights;
+        /**
+         * Number of weekend nights of each stay.
+         */
+        private final int[] weekendNights;
+        /**
+         * Room revenue of each stay, in cents.
+         */
+        private final long[] roomRevenues;
+        /**
+         * Room service revenue of each stay, in cents.
+         */
+        private final long[] serviceRevenues;
+        /**
+         * Promotion discount of each stay, in cents.
+         */
+        private final long[] promotionDiscounts;
+        /**
+         * Tax of each stay, in cents.
+         */
+        private final long[] taxes;
+        /**
+         * Nationality of each nationality code.
+         */
+        private final String[] nationalityNames;
+        /**
+         * Number of rows.
+         */
+        private final int size;
+
+        /**
+         * Create empty columns.
+         *
+         * @param capacity Number of rows the arrays can hold.
+         */
+        Columns(int capacity) {
+            checkOutDays = new long[capacity];
+            checkOutMonths = new int[capacity];
+            roomTypes = new byte[capacity];
+            nationalities = new int[capacity];
+            weekdayNights = new int[capacity];
+            weekendNights = new int[capacity];
+            roomRevenues = new long[capacity];
+            serviceRevenues = new long[capacity];
+            promotionDiscounts = new long[capacity];
+            taxes = new long[capacity];
+            nationalityNames = new String[0];
+            size = 0;
+        }
+
+        /**
+         * Create columns sharing or copying the arrays of other columns.
+         *
+         * @param columns          The other columns.
+         * @param capacity         Number of rows the arrays can hold if they are copied.
+         * @param isShared         true if the arrays are shared rather than copied.
+         * @param nationalityNames Nationality of each nationality code.
+         * @param size             Number of rows.
+         */
+        Columns(Columns columns, int capacity, boolean isShared, String[] nationalityNames, int size) {
+            checkOutDays = isShared ? columns.checkOutDays : Arrays.copyOf(columns.checkOutDays, capacity);
+            checkOutMonths = isShared ? columns.checkOutMonths : Arrays.copyOf(columns.checkOutMonths, capacity);
+            roomTypes = isShared ? columns.roomTypes : Arrays.copyOf(columns.roomTypes, capacity);
+            nationalities = isShared ? columns.nationalities : Arrays.copyOf(columns.nationalities, capacity);
+            weekdayNights = isShared ? columns.weekdayNights : Arrays.copyOf(columns.weekdayNights, capacity);
+            weekendNights = isShared ? columns.weekendNights : Arrays.copyOf(columns.weekendNights, capacity);
+            roomRevenues = isShared ? columns.roomRevenues : Arrays.copyOf(columns.roomRevenues, capacity);
+            serviceRevenues = isShared ? columns.serviceRevenues : Arrays.copyOf(columns.serviceRevenues, capacity);
+            promotionDiscounts = isShared ? columns.promotionDiscounts :
+                    Arrays.copyOf(columns.promotionDiscounts, capacity);
+            taxes = isShared ? columns.taxes : Arrays.copyOf(columns.taxes, capacity);
+            this.nationalityNames = nationalityNames;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Initialize the controller by reading the revenue data file.
+     */
+    private RevenueController() {
+        readRevenueFile();
+    }
+
+    /**
+     * Get the controller instance. This is to avoid multiple instantiation of controller.
+     *
+     * @return The singleton RevenueController instance.
+     */
+    public static RevenueController getInstance() {
+        if (Objects.isNull(instance)) {
+            instance = new RevenueController();
+        }
+        return instance;
+    }
+
+    /**
+     * Record the revenue of a settled stay, see {@link #recordSettledBills}.
+     *
+     * @param bill The paid bill of the stay.
+     * @param room The room of the stay.
+     * @throws IOException If the stay cannot be appended to the data file.
+     */
+    public synchronized void recordSettledBill(Bill bill, Room room) throws IOException {
+        recordSettledBills(List.of(bill), List.of(room));
+    }
+
+    /**
+     * Record the revenue of several stays settled together. The stays are appended to the data file at once, and
+     * only then added to the rows read by the aggregations. Within a transaction, the stays are removed from the
+     * data file and the rows again if it rolls back, so they are recorded if and only if it commits.
+     *
+     * @param bills The paid bills of the stays.
+     * @param rooms The room of each stay, in the order of the bills.
+     * @throws IOException If the stays cannot be appended to the data file, in which case none is recorded.
+     */
+    public synchronized void recordSettledBills(List<Bill> bills, List<Room> rooms) throws IOException {
+        ByteArrayOutputStream rows = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(rows)) {
+            for (int i = 0; i < bills.size(); i++) {
+                CheckedOutReservation reservation = bills.get(i).getCheckedOutReservation();
+                BillBreakdown breakdown = bills.get(i).getBreakdown();
+                out.writeLong(reservation.getCheckOutTime().toLocalDate().toEpochDay());
+                out.writeByte(rooms.get(i).getRoomType().ordinal());
+                out.writeUTF(normalizeNationality(reservation.getGuest().getNationality()));
+                out.writeInt(breakdown.getWeekdayNights());
+                out.writeInt(breakdown.getWeekendNights());
+                out.writeLong(breakdown.getRoomPrice().plus(breakdown.getChildCharge()).getCents()); // room revenue
+                out.writeLong(breakdown.getServicePrice().getCents());
+                out.writeLong(breakdown.getPromotionDiscount().getCents());
+                out.writeLong(breakdown.getTaxPayable().getCents());
+            }
+        }
+        long previousLength = new File(REVENUE_DATA_DIR).length();
+        try (FileOutputStream out = new FileOutputStream(REVENUE_DATA_DIR, true)) {
+            rows.writeTo(out);
+        } catch (IOException e) {
+            truncateRevenueFile(previousLength);
+            throw e;
+        }
+        Columns previousColumns = columns;
+        for (int i = 0; i < bills.size(); i++) {
+            CheckedOutReservation reservation = bills.get(i).getCheckedOutReservation();
+            BillBreakdown breakdown = bills.get(i).getBreakdown();
+            addRow(reservation.getCheckOutTime().toLocalDate().toEpochDay(), rooms.get(i).getRoomType(),
+                    reservation.getGuest().getNationality(), breakdown.getWeekdayNights(),
+                    breakdown.getWeekendNights(), breakdown.getRoomPrice().plus(breakdown.getChildCharge()).getCents(),
+                    breakdown.getServicePrice().getCents(), breakdown.getPromotionDiscount().getCents(),
+                    breakdown.getTaxPayable().getCents());
+        }
+        Transaction.record(() -> removeRows(previousColumns, previousLength));
+    }
+
+    /**
+     * Get the number of settled stays recorded.
+     *
+     * @return The number of stays.
+     */
+    public int getNumberOfStays() {
+        return columns.size;
+    }
+
+    /**
+     * Get the revenue of the stays checked out within a period.
+     *
+     * @param from First day of the period.
+     * @param to   Last day of the period, inclusive.
+     * @return The revenue summary.
+     */
+    public RevenueSummary getRevenue(LocalDate from, LocalDate to) {
+        long[] sums = aggregate(columns, from, to, row -> 0, 1);
+        return toSummary(sums, 0, getAvailableRoomNights(null, from, to));
+    }
+
+    /**
+     * Get the revenue of the stays checked out within a period, by room type.
+     *
+     * @param from First day of the period.
+     * @param to   Last day of the period, inclusive.
+     * @return The revenue summary of each room type.
+     */
+    public Map<RoomType, RevenueSummary> getRevenueByRoomType(LocalDate from, LocalDate to) {
+        Columns columns = this.columns;
+        RoomType[] roomTypes = RoomType.values();
+        long[] sums = aggregate(columns, from, to, row -> columns.roomTypes[row], roomTypes.length);
+        Map<RoomType, RevenueSummary> revenue = new EnumMap<>(RoomType.class);
+        for (RoomType roomType : roomTypes) {
+            revenue.put(roomType, toSummary(sums, roomType.ordinal(), getAvailableRoomNights(roomType, from, to)));
+        }
+        return revenue;
+    }
+
+    /**
+     * Get the revenue of the stays checked out within a period, by month of check-out. The available room-nights of
+     * a month only count its days within the period.
+     *
+     * @param from First day of the period.
+     * @param to   Last day of the period, inclusive.
+     * @return The revenue summary of each month, in order.
+     */
+    public Map<YearMonth, RevenueSummary> getRevenueByMonth(LocalDate from, LocalDate to) {
+        Columns columns = this.columns;
+        YearMonth firstMonth = YearMonth.from(from);
+        int firstMonthIndex = monthIndex(from);
+        int numberOfMonths = Math.max(0, monthIndex(to) - firstMonthIndex + 1);
+        long[] sums = aggregate(columns, from, to, row -> columns.checkOutMonths[row] - firstMonthIndex,
+                numberOfMonths);
+        Map<YearMonth, RevenueSummary> revenue = new LinkedHashMap<>();
+        for (int i = 0; i < numberOfMonths; i++) {
+            YearMonth month = firstMonth.plusMonths(i);
+            LocalDate monthFrom = i == 0 ? from : month.atDay(1);
+            LocalDate monthTo = i == numberOfMonths - 1 ? to : month.atEndOfMonth();
+            revenue.put(month, toSummary(sums, i, getAvailableRoomNights(null, monthFrom, monthTo)));
+        }
+        return revenue;
+    }
+
+    /**
+     * Get the revenue of the stays checked out within a period, by nationality of the guest. The RevPAR of a
+     * nationality is its share of the hotel's RevPAR.
+     *
+     * @param from First day of the period.
+     * @param to   Last day of the period, inclusive.
+     * @return The revenue summary of each nationality with at least one stay, by nationality in upper case.
+     */
+    public Map<String, RevenueSummary> getRevenueByNationality(LocalDate from, LocalDate to) {
+        Columns columns = this.columns;
+        long[] sums = aggregate(columns, from, to, row -> columns.nationalities[row],
+                columns.nationalityNames.length);
+        long availableRoomNights = getAvailableRoomNights(null, from, to);
+        Map<String, RevenueSummary> revenue = new TreeMap<>();
+        for (int code = 0; code < columns.nationalityNames.length; code++) {
+            if (sums[code * NUMBER_OF_SUMS] > 0) {
+                revenue.put(columns.nationalityNames[code], toSummary(sums, code, availableRoomNights));
+            }
+        }
+        return revenue;
+    }
+
+    /**
+     * Get the revenue report of a period, by room type, month and nationality.
+     *
+     * @param from First day of the period.
+     * @param to   Last day of the period, inclusive.
+     * @return A String representing the report.
+     */
+    public String getRevenueReport(LocalDate from, LocalDate to) {
+        StringBuilder report = new StringBuilder("Revenue Report From " + from + " To " + to + ":\n");
+        report.append("ALL : ").append(getRevenue(from, to)).append('\n');
+        report.append("By room type:\n");
+        getRevenueByRoomType(from, to).forEach((roomType, summary) ->
+                report.append(roomType).append(" : ").append(summary).append('\n'));
+        report.append("By month:\n");
+        getRevenueByMonth(from, to).forEach((month, summary) ->
+                report.append(month).append(" : ").append(summary).append('\n'));
+        report.append("By nationality:\n");
+        getRevenueByNationality(from, to).forEach((nationality, summary) ->
+                report.append(nationality).append(" : ").append(summary).append('\n'));
+        return report.toString();
+    }
+
+    /**
+     * Sum the rows checked out within a period by group. The rows are partitioned into chunks of CHUNK_SIZE rows,
+     * which are summed in parallel, then the sums of the chunks are added up.
+     *
+     * @param columns        The columns to read.
+     * @param from           First day of the period.
+     * @param to             Last day of the period, inclusive.
+     * @param groupOf        Group of a row, or a negative number if the row is not counted.
+     * @param numberOfGroups Number of groups.
+     * @return The sums of each group, the sums of group g starting at g * NUMBER_OF_SUMS.
+     */
+    private static long[] aggregate(Columns columns, LocalDate from, LocalDate to, IntUnaryOperator groupOf,
+                                      int numberOfGroups) {
+        IntUnaryOperator boundedGroupOf = row -> {
+            int group = groupOf.applyAsInt(row);
+            return group < numberOfGroups ? group : -1;
+        };
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        int numberOfChunks = (columns.size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, numberOfChunks).parallel()
+                .mapToObj(chunk -> sumRows(columns, chunk * CHUNK_SIZE,
+                        Math.min(columns.size, (chunk + 1) * CHUNK_SIZE), fromDay, toDay, boundedGroupOf,
+                        numberOfGroups))
+                .reduce((sums, chunkSums) -> {
+                    for (int i = 0; i < sums.length; i++) {
+                        sums[i] += chunkSums[i];
+                    }
+                    return sums;
+                })
+                .orElseGet(() -> new long[numberOfGroups * NUMBER_OF_SUMS]);
+    }
+
+    /**
+     * Sum the rows of a range that are checked out within a period, by group. For each group it sums the number of
+     * stays, weekday nights, weekend nights, room revenue, service revenue, promotion discount and tax, in this
+     * order, the amounts in cents.
+     *
+     * @param columns        The columns to read.
+     * @param fromRow        First row of the range.
+     * @param toRow          Row after the last row of the range.
+     * @param fromDay        Epoch day of the first day of the period.
+     * @param toDay          Epoch day of the last day of the period.
+     * @param groupOf        Group of a row, or a negative number if the row is not counted.
+     * @param numberOfGroups Number of groups.
+     * @return The sums of each group, the sums of group g starting at g * NUMBER_OF_SUMS.
+     */
+    private static long[] sumRows(Columns columns, int fromRow, int toRow, long fromDay, long toDay,
+                                  IntUnaryOperator groupOf, int numberOfGroups) {
+        long[] sums = new long[numberOfGroups * NUMBER_OF_SUMS];
+        for (int row = fromRow; row < toRow; row++) {
+            long day = columns.checkOutDays[row];
+            if (day < fromDay || day > toDay) {
+                continue;
+            }
+            int group = groupOf.applyAsInt(row);
+            if (group < 0) {
+                continue;
+            }
+            int offset = group * NUMBER_OF_SUMS;
+            sums[offset]++;
+            sums[offset + 1] += columns.weekdayNights[row];
+            sums[offset + 2] += columns.weekendNights[row];
+            sums[offset + 3] += columns.roomRevenues[row];
+            sums[offset + 4] += columns.serviceRevenues[row];
+            sums[offset + 5] += columns.promotionDiscounts[row];
+            sums[offset + 6] += columns.taxes[row];
+        }
+        return sums;
+    }
+
+    /**
+     * Make the revenue summary of a group from its sums.
+     *
+     * @param sums                The sums of each group.
+     * @param group               The group.
+     * @param availableRoomNights Number of room-nights available to the group.
+     * @return The revenue summary.
+     */
+    private static RevenueSummary toSummary(long[] sums, int group, long availableRoomNights) {
+        int offset = group * NUMBER_OF_SUMS;
+        return new RevenueSummary(sums[offset], sums[offset + 1], sums[offset + 2], Money.ofCents(sums[offset + 3]),
+                Money.ofCents(sums[offset + 4]), Money.ofCents(sums[offset + 5]), Money.ofCents(sums[offset + 6]),
+                availableRoomNights);
+    }
+
+    /**
+     * Get the number of room-nights available over a period. Days in the occupancy history count the rooms it
+     * captured, other days count the current rooms.
+     *
+     * @param roomType The room type, null for all room types.
+     * @param from     First day of the period.
+     * @param to       Last day of the period, inclusive.
+     * @return The number of room-nights.
+     */
+    private long getAvailableRoomNights(RoomType roomType, LocalDate from, LocalDate to) {
+        long days = Math.max(0, ChronoUnit.DAYS.between(from, to) + 1);
+        long historyDays = 0;
+        long historyRoomNights = 0;
+        LocalDate firstDay = occupancyHistoryController.getFirstDay();
+        LocalDate lastDay = occupancyHistoryController.getLastDay();
+        if (firstDay != null && !to.isBefore(firstDay) && !from.isAfter(lastDay)) {
+            LocalDate historyFrom = from.isBefore(firstDay) ? firstDay : from;
+            LocalDate historyTo = to.isAfter(lastDay) ? lastDay : to;
+            historyDays = ChronoUnit.DAYS.between(historyFrom, historyTo) + 1;
+            for (RoomStatus roomStatus : RoomStatus.values()) {
+                historyRoomNights += occupancyHistoryController.getRoomNights(roomType, roomStatus, historyFrom,
+                        historyTo);
+            }
+        }
+        RoomOccupancyIndex occupancyIndex = roomController.getOccupancyIndex();
+        int numberOfRooms = 0;
+        for (RoomType type : RoomType.values()) {
+            if (roomType == null || type == roomType) {
+                numberOfRooms += occupancyIndex.count(type);
+            }
+        }
+        return historyRoomNights + (days - historyDays) * numberOfRooms;
+    }
+
+    /**
+     * Add a row to the columns, growing them when full, and publish the new columns.
+     *
+     * @param checkOutDay       Epoch day of the check-out.
+     * @param roomType          Room type of the stay.
+     * @param nationality       Nationality of the guest.
+     * @param weekdayNights     Number of weekday nights.
+     * @param weekendNights     Number of weekend nights.
+     * @param roomRevenue       Room revenue in cents.
+     * @param serviceRevenue    Room service revenue in cents.
+     * @param promotionDiscount Promotion discount in cents.
+     * @param tax               Tax in cents.
+     */
+    private void addRow(long checkOutDay, RoomType roomType, String nationality, int weekdayNights,
+                        int weekendNights, long roomRevenue, long serviceRevenue, long promotionDiscount,
+                        long tax) {
+        Columns columns = this.columns;
+        String[] nationalityNames = columns.nationalityNames;
+        String normalizedNationality = normalizeNationality(nationality);
+        Integer nationalityCode = nationalityCodes.get(normalizedNationality);
+        if (nationalityCode == null) {
+            nationalityCode = nationalityNames.length;
+            nationalityNames = Arrays.copyOf(nationalityNames, nationalityNames.length + 1);
+            nationalityNames[nationalityCode] = normalizedNationality;
+            nationalityCodes.put(normalizedNationality, nationalityCode);
+        }
+        int capacity = columns.checkOutDays.length;
+        boolean isFull = columns.size == capacity;
+        columns = new Columns(columns, isFull ? capacity * 2 : capacity, !isFull, nationalityNames,
+                columns.size + 1);
+        int row = columns.size - 1;
+        columns.checkOutDays[row] = checkOutDay;
+        columns.checkOutMonths[row] = monthIndex(LocalDate.ofEpochDay(checkOutDay));
+        columns.roomTypes[row] = (byte) roomType.ordinal();
+        columns.nationalities[row] = nationalityCode;
+        columns.weekdayNights[row] = weekdayNights;
+        columns.weekendNights[row] = weekendNights;
+        columns.roomRevenues[row] = roomRevenue;
+        columns.serviceRevenues[row] = serviceRevenue;
+        columns.promotionDiscounts[row] = promotionDiscount;
+        columns.taxes[row] = tax;
+        this.columns = columns;
+    }
+
+    /**
+     * Remove the rows recorded by a transaction that rolls back, from the columns and the data file. The columns
+     * before the rows were added are copied rather than published again, as their arrays are shared with the removed
+     * columns, which may still be read.
+     *
+     * @param previousColumns The columns before the rows were added.
+     * @param previousLength  Length of the data file before the rows were appended.
+     */
+    private synchronized void removeRows(Columns previousColumns, long previousLength) {
+        String[] nationalityNames = columns.nationalityNames;
+        for (int code = previousColumns.nationalityNames.length; code < nationalityNames.length; code++) {
+            nationalityCodes.remove(nationalityNames[code]);
+        }
+        columns = new Columns(previousColumns, previousColumns.checkOutDays.length, false,
+                previousColumns.nationalityNames, previousColumns.size);
+        truncateRevenueFile(previousLength);
+    }
+
+    /**
+     * Cut the revenue data file to a length, removing the rows after it.
+     *
+     * @param length The length.
+     */
+    private static void truncateRevenueFile(long length) {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(REVENUE_DATA_DIR, "rw")) {
+            randomAccessFile.setLength(length);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Read the rows of the revenue data file. An incomplete last row, left by an interrupted append, is cut off the
+     * file so that later rows are appended at a row boundary.
+     */
+    private void readRevenueFile() {
+        File file = new File(REVENUE_DATA_DIR);
+        if (!file.exists()) {
+            return;
+        }
+        long completeLength = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            RoomType[] roomTypes = RoomType.values();
+            while (true) {
+                long checkOutDay = in.readLong();
+                int roomType = in.readByte();
+                String nationality = in.readUTF();
+                int weekdayNights = in.readInt();
+                int weekendNights = in.readInt();
+                long roomRevenue = in.readLong();
+                long serviceRevenue = in.readLong();
+                long promotionDiscount = in.readLong();
+                long tax = in.readLong();
+                addRow(checkOutDay, roomTypes[roomType], nationality, weekdayNights, weekendNights, roomRevenue,
+                        serviceRevenue, promotionDiscount, tax);
+                completeLength += Long.BYTES + Byte.BYTES + Short.BYTES + utfLength(nationality)
+                        + 2 * Integer.BYTES + 4 * Long.BYTES;
+            }
+        } catch (EOFException e) {
+            if (file.length() > completeLength) {
+                truncateRevenueFile(completeLength);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Get the number of bytes of a string in the modified UTF-8 encoding of DataOutput.writeUTF.
+     *
+     * @param string The string.
+     * @return The number of bytes, not counting the length prefix.
+     */
+    private static int utfLength(String string) {
+        int length = 0;
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            length += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+        }
+        return length;
+    }
+
+    /**
+     * Normalize a nationality so that the same nationality written differently is grouped together.
+     *
+     * @param nationality The nationality.
+     * @return The nationality trimmed and in upper case.
+     */
+    private static String normalizeNationality(String nationality) {
+        return Objects.requireNonNullElse(nationality, "").trim().toUpperCase();
+    }
+
+    /**
+     * Get the index of the month of a date, counted from year 0.
+     *
+     * @param date The date.
+     * @return The month index.
+     */
+    private static int monthIndex(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+}
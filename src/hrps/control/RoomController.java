@@ -9,6 +9,7 @@ import hrps.exception.HRPSException;
 import hrps.exception.InvalidDatePairException;
 import hrps.exception.InvalidRoomNumberFormatException;
 import hrps.exception.RoomNumberNotExistException;
+import tool.ReportWriter;
 import tool.SerializeDB;
 
 import java.io.File;
@@ -16,12 +17,15 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 /**
  * This class represents controller for rooms, includes creating new rooms or initializing rooms from database,
- * searching, updating and checking-in guests to rooms. Each room is assign a unique room number.
+ * searching, updating and checking-in guests to rooms. Each room is assign a unique room number. The rooms are
+ * changed only while holding the lock of the ReservationController, which the mutators take themselves.
  *
  * @author Peng Wenxuan, An Ruyi
  */
@@ -37,11 +41,11 @@ public class RoomController {
     /**
      * Rooms status data file's path.
      */
-    private static final String ROOM_STATUS_DATA_DIR = "src/data/room_status.dat";
+    static final String ROOM_STATUS_DATA_DIR = "src/data/room_status.dat";
     /**
      * Rooms data file's path.
      */
-    private static final String ROOM_LIST_DATA_DIR = "src/data/room_list.dat";
+    static final String ROOM_LIST_DATA_DIR = "src/data/room_list.dat";
     /**
      * The static controller instance to avoid multiple instantiations.
      */
@@ -54,6 +58,19 @@ public class RoomController {
      * ArrayList contains statuses of all rooms, with same indexes as indexes of rooms in roomList.
      */
     private final ArrayList<RoomStatus> roomStatusList;   // a dat file only to save all room status
+    /**
+     * Index of room numbers by room type and status, replaced at every status change so that reports can read it
+     * without any lock.
+     */
+    private volatile RoomOccupancyIndex occupancyIndex;
+    /**
+     * File path of the rate calendar's data file.
+     */
+    static final String RATE_CALENDAR_DATA_DIR = "src/data/rateCalendar.dat";
+    /**
+     * Nightly rates of the rooms, read without any lock.
+     */
+    private RateCalendar rateCalendar;
     /**
      * Room controller works closely with Reservation controller.
      */
@@ -88,6 +105,19 @@ public class RoomController {
             file.getParentFile().mkdir();
             SerializeDB.writeSerializedObject(ROOM_LIST_DATA_DIR, roomList);
         }
+        occupancyIndex = RoomOccupancyIndex.of(roomList);
+
+        if (new File(RATE_CALENDAR_DATA_DIR).exists()) {
+            rateCalendar = (RateCalendar) SerializeDB.readSerializedObject(RATE_CALENDAR_DATA_DIR);
+        }
+        if (Objects.isNull(rateCalendar)) {
+            rateCalendar = new RateCalendar(LocalDate.now());
+        } else if (rateCalendar.getFirstNight().getYear() < LocalDate.now().getYear()) {
+            rateCalendar = new RateCalendar(LocalDate.now(), rateCalendar);     // roll the horizon forward
+        }
+        for (Room room : roomList) {
+            rateCalendar.putRoom(room);
+        }
     }
 
     /**
@@ -122,7 +152,7 @@ public class RoomController {
         RoomFacing roomFace = RoomFacing.valueOf(roomFacing.toUpperCase());
         boolean targetRoomHasWifi = false;
         boolean targetRoomIsSmokingFree = false;
-        double rateValue = Double.parseDouble(rate);
+        Money rateValue = Money.of(Double.parseDouble(rate));
         if (hasWifi.equals("1") || hasWifi.toLowerCase().equals("true") || hasWifi.toLowerCase().equals("yes")) {
             targetRoomHasWifi = true;
         }
@@ -154,11 +184,22 @@ public class RoomController {
             Room room = newRoom(description[0], description[1], description[2], description[3],
                     status, description[4], description[5], description[6]);
             roomList.add(room);
+            rateCalendar.putRoom(room);
         }
+        occupancyIndex = RoomOccupancyIndex.of(roomList);
         SerializeDB.writeSerializedObject(ROOM_LIST_DATA_DIR, roomList);
         return roomList;
     }
 
+    /**
+     * Get all rooms of the system.
+     *
+     * @return A List of all rooms.
+     */
+    public List<Room> getAllRooms() {
+        return roomList;
+    }
+
     /**
      * Find the room with the specified room number.
      *
@@ -199,11 +240,13 @@ public class RoomController {
      * @param roomNumber The specified room number.
      */
     public void reserve(String roomNumber) {
-        Room room = findRoomByRoomNumber(roomNumber);
-        room.setRoomStatus(RoomStatus.RESERVED);
-        int roomIndex = roomList.indexOf(room);
-        roomStatusList.set(roomIndex, RoomStatus.RESERVED);
-        SerializeDB.writeSerializedObject(ROOM_STATUS_DATA_DIR, roomStatusList);
+        synchronized (reservationController) {
+            Room room = findRoomByRoomNumber(roomNumber);
+            setRoomStatus(room, RoomStatus.RESERVED);
+            int roomIndex = roomList.indexOf(room);
+            roomStatusList.set(roomIndex, RoomStatus.RESERVED);
+            SerializeDB.writeSerializedObject(ROOM_STATUS_DATA_DIR, roomStatusList);
+        }
     }
 
     /**
@@ -258,14 +301,25 @@ public class RoomController {
      */
     //check in/out
     public Room checkIn(String roomNumber, Guest guest) {
-        Room room = findRoomByRoomNumber(roomNumber);
-        room.setRoomStatus(RoomStatus.OCCUPIED);
+        synchronized (reservationController) {
+            Room room = findRoomByRoomNumber(roomNumber);
+            occupy(room, guest);
+            saveRooms();
+            return room;
+        }
+    }
+
+    /**
+     * Occupy a room with a guest in memory only, for a caller that persists the rooms with its other changes.
+     *
+     * @param room  The room.
+     * @param guest The guest checked in.
+     */
+    void occupy(Room room, Guest guest) {
+        setRoomStatus(room, RoomStatus.OCCUPIED);
+        Guest previousGuest = room.getCurrentGuest();
         room.setCurrentGuest(guest);
-        int roomIndex = findRoomIndexInRoomList(room);
-        roomStatusList.set(roomIndex, RoomStatus.OCCUPIED);  // update serializable
-        SerializeDB.writeSerializedObject(ROOM_STATUS_DATA_DIR, roomStatusList);
-        SerializeDB.writeSerializedObject(ROOM_LIST_DATA_DIR, roomList);
-        return room;
+        Transaction.record(() -> room.setCurrentGuest(previousGuest));
     }
 
     /**
@@ -275,14 +329,17 @@ public class RoomController {
      * @return The Room with the above room number, after being accessed for maintenance.
      */
     public Room maintain(String roomNumber) {
-        Room targetRoom = findRoomByRoomNumber(roomNumber);
-        if (targetRoom.getRoomStatus().equals(RoomStatus.OCCUPIED) ||
-                targetRoom.getRoomStatus().equals(RoomStatus.RESERVED) ||
-                targetRoom.getRoomStatus().equals(RoomStatus.MAINTENANCE)) {
+        synchronized (reservationController) {
+            Room targetRoom = findRoomByRoomNumber(roomNumber);
+            if (targetRoom.getRoomStatus().equals(RoomStatus.OCCUPIED) ||
+                    targetRoom.getRoomStatus().equals(RoomStatus.RESERVED) ||
+                    targetRoom.getRoomStatus().equals(RoomStatus.MAINTENANCE)) {
+                return targetRoom;
+            }
+            setRoomStatus(targetRoom, RoomStatus.MAINTENANCE);
+            saveRooms();
             return targetRoom;
         }
-        targetRoom.setRoomStatus(RoomStatus.MAINTENANCE);
-        return targetRoom;
     }
 
     /**
@@ -292,9 +349,12 @@ public class RoomController {
      * @return The room with the above room number, after finish maintaining.
      */
     public Room finishMaintain(String roomNumber) {
-        Room targetRoom = findRoomByRoomNumber(roomNumber);
-        targetRoom.setRoomStatus(RoomStatus.VACANT);
-        return targetRoom;
+        synchronized (reservationController) {
+            Room targetRoom = findRoomByRoomNumber(roomNumber);
+            setRoomStatus(targetRoom, RoomStatus.VACANT);
+            saveRooms();
+            return targetRoom;
+        }
     }
 
     /**
@@ -332,7 +392,7 @@ public class RoomController {
      * Finds all rooms that are available for a period of stay between a check-in date and a check-out date, from a
      * given List of rooms. VACANT rooms are automatically qualified as they do not have any booking, for each
      * RESERVED or OCCUPIED room, this method checks if the above staying period could fit in the VACANT period of
-     * the room.
+     * the room. Rooms held for part of the period (see ReservationController.holdRoom) are not qualified.
      *
      * @param rooms                List of rooms to be searched.
      * @param expectedCheckInDate  The expected check in date.
@@ -349,6 +409,9 @@ public class RoomController {
         List<Room> availableRooms = new ArrayList<>();
         ReservationController reservationController = ReservationController.getInstance();
         for (Room room : rooms) {
+            if (reservationController.isHeld(room, expectedCheckInDate, expectedCheckOutDate)) {
+                continue;
+            }
             if (room.getRoomStatus() == RoomStatus.VACANT) {
                 availableRooms.add(room);
             } else if (room.getRoomStatus() == RoomStatus.RESERVED || room.getRoomStatus() == RoomStatus.OCCUPIED) {
@@ -367,8 +430,9 @@ public class RoomController {
                 // fix an error where can confirm a reservation whose check-in time in overlaps with occupied period
                 // of a room
                 if (room.getRoomStatus() == RoomStatus.OCCUPIED) {
+                    // an occupied room without an in-house stay on record is occupied for as long as anyone knows
                     CheckedInReservation cur = reservationController.findCheckedInReservationByRoom(room);
-                    if (!(expectedCheckInDate.isAfter(cur.getCheckOutTime())))
+                    if (Objects.isNull(cur) || !(expectedCheckInDate.isAfter(cur.getCheckOutTime())))
                         hasNoConflictWithCurrentReservation = false;
                 }
                 if (hasNoConflictWithCurrentReservation) {
@@ -397,7 +461,7 @@ public class RoomController {
         for (ConfirmedReservation reservation : reservationsOfTheRoom) {
             if (reservation.getCheckInTime().isAfter(actualCheckOutDate)) {
                 // out date
-                room.setRoomStatus(RoomStatus.RESERVED);
+                setRoomStatus(room, RoomStatus.RESERVED);
                 isVacant = false;
                 isReserved = true;
                 currentlyReservedReservation = reservation;
@@ -411,7 +475,7 @@ public class RoomController {
             if (isReserved) { // see if the waitlist is at the gap of current time and the current reservation
                 if (reservation.getCheckOutTime().isBefore(currentlyReservedReservation.getCheckInTime()) &&
                         reservation.getCheckInTime().isAfter(actualCheckOutDate)) {
-                    room.setRoomStatus(RoomStatus.RESERVED);
+                    setRoomStatus(room, RoomStatus.RESERVED);
                     currentlyReservedReservation = reservationController.confirmWaitListReservation(reservation);
                     isVacant = false;
                 }
@@ -419,15 +483,16 @@ public class RoomController {
                 // no future reservation from confirmedReservation, but see if we can turn
                 // anything waitListReservation to confirmedReservation
                 if (reservation.getCheckInTime().isAfter(actualCheckOutDate)) {
-                    room.setRoomStatus(RoomStatus.RESERVED);
+                    setRoomStatus(room, RoomStatus.RESERVED);
                     currentlyReservedReservation = reservationController.confirmWaitListReservation(reservation);
                     isVacant = false;
                 }
             }
         }
         if (isVacant) {
-            room.setRoomStatus(RoomStatus.VACANT);
+            setRoomStatus(room, RoomStatus.VACANT);
         }
+        saveRooms();
         return isVacant;
     }
 
@@ -505,8 +570,65 @@ public class RoomController {
      * @param room            The specified room.
      * @param updatedRoomRate New rate.
      */
-    public void updateRoomRate(Room room, double updatedRoomRate) {
-        room.setRate(updatedRoomRate);
+    public void updateRoomRate(Room room, Money updatedRoomRate) {
+        synchronized (reservationController) {
+            room.setRate(updatedRoomRate);
+            rateCalendar.putRoom(room);
+            saveRooms();
+        }
+    }
+
+    /**
+     * Get the nightly rates of the rooms. Never blocks.
+     *
+     * @return The rate calendar.
+     */
+    public RateCalendar getRateCalendar() {
+        return rateCalendar;
+    }
+
+    /**
+     * Get the room price of a stay, before promotion and tax. A stay is charged for each full day between its
+     * check-in and check-out times, the first night being the check-in date. Never blocks.
+     *
+     * @param room         The room.
+     * @param checkInTime  The check-in time.
+     * @param checkOutTime The check-out time.
+     * @return The room price of the stay.
+     */
+    public Money quoteStay(Room room, LocalDateTime checkInTime, LocalDateTime checkOutTime) {
+        LocalDate firstNight = checkInTime.toLocalDate();
+        long numberOfNights = Math.max(0, checkInTime.until(checkOutTime, ChronoUnit.DAYS));
+        return rateCalendar.getStayPrice(room, firstNight, firstNight.plusDays(numberOfNights));
+    }
+
+    /**
+     * Set the nightly rate of all rooms of a type over a period, and write the rate calendar to its data file.
+     *
+     * @param roomType   The room type.
+     * @param firstNight Date of the first night.
+     * @param endNight   Date of the night after the last night.
+     * @param rate       The nightly rate, null to fall back to each room's flat rate.
+     * @throws IllegalArgumentException If the period is empty or not covered, or the rate is negative.
+     */
+    public void setRoomTypeRate(RoomType roomType, LocalDate firstNight, LocalDate endNight, Money rate) {
+        rateCalendar.setRoomTypeRate(roomType, firstNight, endNight, rate);
+        SerializeDB.writeSerializedObject(RATE_CALENDAR_DATA_DIR, rateCalendar);
+    }
+
+    /**
+     * Set the nightly rate of a single room over a period, overriding the rate of its type, and write the rate
+     * calendar to its data file.
+     *
+     * @param room       The room.
+     * @param firstNight Date of the first night.
+     * @param endNight   Date of the night after the last night.
+     * @param rate       The nightly rate, null to fall back to the rate of its room type.
+     * @throws IllegalArgumentException If the period is empty or not covered, or the rate is negative.
+     */
+    public void setRoomRate(Room room, LocalDate firstNight, LocalDate endNight, Money rate) {
+        rateCalendar.setRoomRate(room, firstNight, endNight, rate);
+        SerializeDB.writeSerializedObject(RATE_CALENDAR_DATA_DIR, rateCalendar);
     }
 
 
@@ -517,8 +639,64 @@ public class RoomController {
      * @param updatedRoomStatus New status.
      */
     public void updateRoomStatus(Room room, String updatedRoomStatus) {
-        RoomStatus status = RoomStatus.valueOf(updatedRoomStatus);
+        synchronized (reservationController) {
+            RoomStatus status = RoomStatus.valueOf(updatedRoomStatus);
+            setRoomStatus(room, status);
+            saveRooms();
+        }
+    }
+
+    /**
+     * Set a room's status and update the occupancy index, recording how to put the status back for a transaction.
+     * The calling thread must hold the lock of the ReservationController, which guards the rooms as it guards the
+     * reservations.
+     *
+     * @param room   The room.
+     * @param status The new status.
+     * @throws IllegalStateException If the calling thread does not hold the lock of the ReservationController.
+     */
+    private void setRoomStatus(Room room, RoomStatus status) {
+        if (!Thread.holdsLock(reservationController)) {
+            throw new IllegalStateException("A room's status is changed without the lock of the ReservationController");
+        }
+        RoomStatus oldStatus = room.getRoomStatus();
         room.setRoomStatus(status);
+        occupancyIndex = occupancyIndex.withStatusChange(room.getRoomType(), room.getRoomNumber(), oldStatus, status);
+        Transaction.record(() -> restoreRoomStatus(room, oldStatus));
+    }
+
+    /**
+     * Get the index of room numbers by room type and status. Never blocks.
+     *
+     * @return The current occupancy index.
+     */
+    public RoomOccupancyIndex getOccupancyIndex() {
+        return occupancyIndex;
+    }
+
+    /**
+     * Put a room back to a previous status in memory only, to undo a change that could not be persisted.
+     *
+     * @param room   The room.
+     * @param status The previous status.
+     */
+    void restoreRoomStatus(Room room, RoomStatus status) {
+        setRoomStatus(room, status);
+        int roomIndex = roomList.indexOf(room);
+        if (roomIndex >= 0 && roomIndex < roomStatusList.size()) {
+            roomStatusList.set(roomIndex, status);
+        }
+    }
+
+    /**
+     * Write all rooms, and their statuses, to the data files.
+     */
+    void saveRooms() {
+        for (int i = 0; i < Math.min(roomList.size(), roomStatusList.size()); i++) {
+            roomStatusList.set(i, roomList.get(i).getRoomStatus());
+        }
+        SerializeDB.writeSerializedObject(ROOM_STATUS_DATA_DIR, roomStatusList);
+        SerializeDB.writeSerializedObject(ROOM_LIST_DATA_DIR, roomList);
     }
 
     /**
@@ -540,62 +718,39 @@ public class RoomController {
     }
 
     /**
-     * Get the occupancy report of each room type.
+     * Get the occupancy report of each room type, from the occupancy index.
      *
      * @return A String representing the occupancy report of each room type.
      */
     public String getRoomOccupancyReport() {
+        RoomOccupancyIndex index = occupancyIndex;
         StringBuilder report = new StringBuilder();
         report.append("Room Occupancy Report By Room Types:\n");
-        int total, vacant;
-        List<String> vacantRoomNumbers;
         for (RoomType roomType : RoomType.values()) {
-            // count vacant rooms of this room type
-            total = 0;
-            vacant = 0;
-            vacantRoomNumbers = new ArrayList<>();
-
-            for (Room r : roomList) {
-                if (r.getRoomType() == roomType) {
-                    total++;
-                    if (r.getRoomStatus() == RoomStatus.VACANT) {
-                        vacant++;
-                        vacantRoomNumbers.add(r.getRoomNumber());
-                    }
-                }
-            }
-
-            report.append(roomType.toString()).append(" : ").append("Number : ").append(vacant)
-                    .append(" out of ").append(total).append(" rooms are ").append("vacant.\n");
+            List<String> vacantRoomNumbers = index.roomNumbers(roomType, RoomStatus.VACANT);
+            report.append(roomType.toString()).append(" : ").append("Number : ").append(vacantRoomNumbers.size())
+                    .append(" out of ").append(index.count(roomType)).append(" rooms are ").append("vacant.\n");
             report.append("\tRooms : ");
-            StringJoiner sj = new StringJoiner(", ");
-            for (String n : vacantRoomNumbers)
-                sj.add(n);
-            report.append(sj.toString());
+            report.append(String.join(", ", vacantRoomNumbers));
             report.append(vacantRoomNumbers.size() > 0 ? "." : "").append("\n");
         }
         return report.toString();
     }
 
     /**
-     * Get rooms numbers with each room status.
+     * Get rooms numbers with each room status, from the occupancy index.
      *
      * @return A String representing rooms numbers with each room status.
      */
     public String getRoomStatusRateReport() {
+        RoomOccupancyIndex index = occupancyIndex;
         StringBuilder sb = new StringBuilder("Room Report By Current Status:\n");
         for (RoomStatus status : RoomStatus.values()) {
             sb.append(status.toString()).append(" : ");
             int counter = 0;
-            List<Room> currentStatusRooms = new ArrayList<>();
-            for (Room room : roomList) {
-                if (room.getRoomStatus() == status) {
-                    currentStatusRooms.add(room);
-                }
-            }
-            Iterator<Room> iterator = currentStatusRooms.iterator();
+            Iterator<String> iterator = index.roomNumbers(status).iterator();
             while (iterator.hasNext()) {
-                sb.append(iterator.next().getRoomNumber());
+                sb.append(iterator.next());
                 counter++;
                 if (iterator.hasNext()) {
                     sb.append(", ");
@@ -608,4 +763,38 @@ public class RoomController {
         }
         return sb.toString();
     }
+
+    /**
+     * Write the number of vacant rooms out of all rooms of each room type, with the vacant rooms' numbers, from the
+     * occupancy index.
+     *
+     * @param writer The report writer to write to.
+     * @throws IOException If the report cannot be written.
+     */
+    public void writeRoomOccupancyReport(ReportWriter writer) throws IOException {
+        RoomOccupancyIndex index = occupancyIndex;
+        writer.writeTitle("Room Occupancy Report By Room Types:");
+        writer.writeHeader("Room type", "Vacant", "Total", "Vacant rooms");
+        for (RoomType roomType : RoomType.values()) {
+            List<String> vacantRoomNumbers = index.roomNumbers(roomType, RoomStatus.VACANT);
+            writer.writeRow(roomType, vacantRoomNumbers.size(), index.count(roomType),
+                    String.join(" ", vacantRoomNumbers));
+        }
+    }
+
+    /**
+     * Write the number of rooms with each room status, with the rooms' numbers, from the occupancy index.
+     *
+     * @param writer The report writer to write to.
+     * @throws IOException If the report cannot be written.
+     */
+    public void writeRoomStatusReport(ReportWriter writer) throws IOException {
+        RoomOccupancyIndex index = occupancyIndex;
+        writer.writeTitle("Room Report By Current Status:");
+        writer.writeHeader("Room status", "Number of rooms", "Rooms");
+        for (RoomStatus status : RoomStatus.values()) {
+            List<String> roomNumbers = index.roomNumbers(status);
+            writer.writeRow(status, roomNumbers.size(), String.join(" ", roomNumbers));
+        }
+    }
 }
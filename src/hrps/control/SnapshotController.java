@@ -0,0 +1,140 @@
+package hrps.control;
+
+import hrps.entity.*;
+import tool.SerializeDB;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The controller that publishes immutable snapshots of rooms, reservations and room service orders after each
+ * commit, so that reports and list views can read a consistent point in time without taking any lock. A new snapshot
+ * is built on the committing thread, copying only the parts whose data files were written, and replaces the old one
+ * in a single volatile write.
+ *
+ * @author Peng Wenxuan
+ */
+public class SnapshotController {
+    /**
+     * The static controller instance to avoid multiple instantiations.
+     */
+    private static SnapshotController instance = null;
+    /**
+     * To copy rooms.
+     */
+    private final RoomController roomController = RoomController.getInstance();
+    /**
+     * To copy reservations, its lock guards the state while the first snapshot is built.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+    /**
+     * To copy orders.
+     */
+    private final OrderController orderController = OrderController.getInstance();
+    /**
+     * The latest published snapshot.
+     */
+    private volatile StateSnapshot snapshot;
+
+    /**
+     * Build the first snapshot and start publishing a new one after each commit.
+     */
+    private SnapshotController() {
+        synchronized (reservationController) {
+            snapshot = new StateSnapshot(copyRooms(), copyReservations(reservationController.getAllReservations()),
+                    copyReservations(reservationController.getAllWaitingReservations()), copyOrders(),
+                    LocalDateTime.now());
+        }
+        SerializeDB.addCommitListener(this::publish);
+    }
+
+    /**
+     * Get the controller instance. This is to avoid multiple instantiation of controller.
+     *
+     * @return The singleton SnapshotController instance.
+     */
+    public static SnapshotController getInstance() {
+        if (Objects.isNull(instance)) {
+            instance = new SnapshotController();
+        }
+        return instance;
+    }
+
+    /**
+     * Get the latest published snapshot. Never blocks.
+     *
+     * @return The snapshot.
+     */
+    public StateSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Publish a new snapshot after a commit, copying the parts whose data files were written and sharing the rest
+     * with the previous snapshot.
+     *
+     * @param filenames Names of the data files written by the commit.
+     */
+    private synchronized void publish(Set<String> filenames) {
+        boolean isRoomsChanged = filenames.contains(RoomController.ROOM_STATUS_DATA_DIR)
+                || filenames.contains(RoomController.ROOM_LIST_DATA_DIR);
+        boolean isReservationsChanged = filenames.contains(ReservationController.RESERVATION_DATA_DIR);
+        boolean isWaitListChanged = filenames.contains(ReservationController.WAITING_RESERVATION_DATA_DIR);
+        boolean isOrdersChanged = filenames.contains(OrderController.ORDER_DATA_DIR);
+        if (!isRoomsChanged && !isReservationsChanged && !isWaitListChanged && !isOrdersChanged) {
+            return;
+        }
+        StateSnapshot previous = snapshot;
+        snapshot = new StateSnapshot(
+                isRoomsChanged ? copyRooms() : previous.getRooms(),
+                isReservationsChanged ? copyReservations(reservationController.getAllReservations()) :
+                        previous.getReservations(),
+                isWaitListChanged ? copyReservations(reservationController.getAllWaitingReservations()) :
+                        previous.getWaitListReservations(),
+                isOrdersChanged ? copyOrders() : previous.getOrders(),
+                LocalDateTime.now());
+    }
+
+    /**
+     * Copy all rooms.
+     *
+     * @return Copies of all rooms.
+     */
+    private List<RoomSnapshot> copyRooms() {
+        List<RoomSnapshot> rooms = new ArrayList<>();
+        for (Room room : roomController.getAllRooms()) {
+            rooms.add(new RoomSnapshot(room));
+        }
+        return rooms;
+    }
+
+    /**
+     * Copy a list of reservations.
+     *
+     * @param reservations The reservations.
+     * @return Copies of the reservations.
+     */
+    private List<ReservationSnapshot> copyReservations(List<? extends Reservation> reservations) {
+        List<ReservationSnapshot> copies = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            copies.add(new ReservationSnapshot(reservation));
+        }
+        return copies;
+    }
+
+    /**
+     * Copy all orders.
+     *
+     * @return Copies of all orders.
+     */
+    private List<OrderSnapshot> copyOrders() {
+        List<OrderSnapshot> orders = new ArrayList<>();
+        for (OrderedRoomService order : orderController.getAllOrders()) {
+            orders.add(new OrderSnapshot(order));
+        }
+        return orders;
+    }
+}
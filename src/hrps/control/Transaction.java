@@ -0,0 +1,220 @@
+package hrps.control;
+
+import tool.SerializeDB;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * A unit of work spanning the guest, reservation, room, order and folio controllers. A transaction is begun, the
+ * changes of any of the controllers are staged in it, then it is committed, persisting all the data files it wrote
+ * with one SerializeDB commit, or rolled back, restoring the controllers' state in memory to what it was when the
+ * transaction began. A transaction begun while a batch is already open joins that batch and leaves committing it to
+ * its owner.
+ * <p>
+ * Nothing is copied when a transaction begins. Instead, each change a controller makes while a transaction is open
+ * on the thread is {@link #record recorded} with the action undoing it, so the cost of a transaction is that of the
+ * changes it makes. A rollback undoes the changes in the reverse order they were made. A transaction begun while
+ * another is open on the thread is nested in it: when the nested transaction commits, its changes are undone if the
+ * outer one rolls back.
+ * <p>
+ * The controllers are guarded by the lock of the ReservationController, which must be held for the whole
+ * transaction. {@link #apply} takes the lock, and begins, commits or rolls back the transaction around a piece of
+ * work:
+ * <pre>{@code
+ * Reservation reservation = Transaction.apply(() -> {
+ *     Guest guest = guestController.createGuest(...);
+ *     return reservationController.createWalkInReservation(guest, ...);
+ * });
+ * }</pre>
+ *
+ * @author Peng Wenxuan
+ */
+public final class Transaction implements AutoCloseable {
+    /**
+     * The innermost transaction open on each thread.
+     */
+    private static final ThreadLocal<Transaction> current = new ThreadLocal<>();
+    /**
+     * The transaction this one is nested in, null if none.
+     */
+    private final Transaction outer;
+    /**
+     * The actions undoing the changes made in the transaction, the latest first.
+     */
+    private final Deque<Runnable> undoLog = new ArrayDeque<>();
+    /**
+     * true if the transaction opened the batch it is persisted with.
+     */
+    private final boolean isOwnBatch;
+    /**
+     * true once the transaction is committed or rolled back.
+     */
+    private boolean isFinished = false;
+
+    /**
+     * Begin a transaction on the calling thread.
+     *
+     * @param outer      The transaction this one is nested in, null if none.
+     * @param isOwnBatch true if the transaction opens its own batch.
+     */
+    private Transaction(Transaction outer, boolean isOwnBatch) {
+        this.outer = outer;
+        this.isOwnBatch = isOwnBatch;
+        if (isOwnBatch) {
+            SerializeDB.beginBatch();
+        }
+        current.set(this);
+    }
+
+    /**
+     * Begin a transaction. The calling thread must hold the lock of the ReservationController until the transaction
+     * is committed or rolled back.
+     *
+     * @return The transaction.
+     * @throws IllegalStateException If the calling thread does not hold the lock of the ReservationController.
+     */
+    public static Transaction begin() {
+        ReservationController reservationController = ReservationController.getInstance();
+        if (!Thread.holdsLock(reservationController)) {
+            throw new IllegalStateException("A transaction needs the lock of the ReservationController");
+        }
+        return new Transaction(current.get(), !SerializeDB.isInBatch());
+    }
+
+    /**
+     * Record how to undo a change a controller has just made in memory, if a transaction is open on the calling
+     * thread. Does nothing otherwise, so the controllers record their changes whether or not they are part of a
+     * transaction.
+     *
+     * @param undo The action undoing the change.
+     */
+    static void record(Runnable undo) {
+        Transaction transaction = current.get();
+        if (transaction != null) {
+            transaction.undoLog.push(undo);
+        }
+    }
+
+    /**
+     * Apply a piece of work as one transaction, holding the lock of the ReservationController. The writes of the work
+     * are persisted with one commit, or with the caller's batch if one is open. If the work or the commit fails, the
+     * controllers are restored in memory to their state before the work, so the work is never left half done.
+     *
+     * @param work The work.
+     * @param <T>  Type of the result of the work.
+     * @param <E>  Type of the exception thrown by the work when it breaks a business rule.
+     * @return The result of the work.
+     * @throws E                    If the work breaks a business rule.
+     * @throws UncheckedIOException If the changes cannot be persisted.
+     */
+    public static <T, E extends Exception> T apply(Work<T, E> work) throws E {
+        synchronized (ReservationController.getInstance()) {
+            try (Transaction transaction = begin()) {
+                T result = work.apply();
+                try {
+                    transaction.commit();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Commit the transaction, persisting its writes with one commit unless it joined a batch. If the commit fails,
+     * the transaction is rolled back. The changes of a nested transaction are handed to the transaction it is nested
+     * in, to be undone if that one rolls back.
+     *
+     * @throws IOException           If the changes cannot be persisted.
+     * @throws IllegalStateException If the transaction is already committed or rolled back, or a transaction nested
+     *                               in it is still open.
+     */
+    public void commit() throws IOException {
+        checkNotFinished();
+        if (isOwnBatch) {
+            try {
+                SerializeDB.commitBatch();
+            } catch (IOException | RuntimeException e) {
+                rollBack();
+                throw e;
+            }
+        }
+        isFinished = true;
+        current.set(outer);
+        if (outer != null) {
+            for (Iterator<Runnable> undos = undoLog.descendingIterator(); undos.hasNext(); ) {
+                outer.undoLog.push(undos.next());
+            }
+        }
+    }
+
+    /**
+     * Roll back the transaction: drop its batch if it opened one, and undo its changes in memory, the latest first.
+     * The undoing itself is not recorded in any transaction.
+     *
+     * @throws IllegalStateException If the transaction is already committed or rolled back, or a transaction nested
+     *                               in it is still open.
+     */
+    public void rollBack() {
+        checkNotFinished();
+        isFinished = true;
+        if (isOwnBatch && SerializeDB.isInBatch()) {
+            SerializeDB.abortBatch();
+        }
+        current.remove();
+        try {
+            while (!undoLog.isEmpty()) {
+                undoLog.pop().run();
+            }
+        } finally {
+            current.set(outer);
+        }
+    }
+
+    /**
+     * Roll back the transaction unless it is already committed or rolled back.
+     */
+    @Override
+    public void close() {
+        if (!isFinished) {
+            rollBack();
+        }
+    }
+
+    /**
+     * Check that the transaction can still be committed or rolled back.
+     *
+     * @throws IllegalStateException If the transaction is already committed or rolled back, or a transaction nested
+     *                               in it is still open.
+     */
+    private void checkNotFinished() {
+        if (isFinished) {
+            throw new IllegalStateException("The transaction is already finished");
+        }
+        if (current.get() != this) {
+            throw new IllegalStateException("A transaction nested in this one is still open");
+        }
+    }
+
+    /**
+     * A piece of work applied as one transaction.
+     *
+     * @param <T> Type of the result of the work.
+     * @param <E> Type of the exception thrown by the work when it breaks a business rule.
+     */
+    @FunctionalInterface
+    public interface Work<T, E extends Exception> {
+        /**
+         * Apply the work.
+         *
+         * @return The result of the work.
+         * @throws E If the work breaks a business rule.
+         */
+        T apply() throws E;
+    }
+}
@@ -1,5 +1,9 @@
 package hrps.entity;
 
+import tool.ReportWriter;
+
+import java.io.IOException;
+
 /**
  * This class represents the bill of a payment, including number of days (weekend/non-weekend) stayed, room price,
  * service price, tax, promotion and total amount needed to be paid.
@@ -7,113 +11,106 @@ package hrps.entity;
  * @author An Ruyi
  */
 public class Bill {
-    /**
-     * Multiplier of price after promotion.
-     */
-    private static final double PROMOTION_RATE = 0.9;
-    /**
-     * Multiplier of weekend room rate.
-     */
-    private static final double WEEKEND_RATE = 1.1;
-    /**
-     * Multiplier of weekday room rate.
-     */
-    private static final double WEEKDAY_RATE = 1.0;
-    /**
-     * Multiplier of tax.
-     */
-    private static final double TAX_RATE = 0.07;
-
     /**
      * The reservation that is billed.
      */
     private final CheckedOutReservation checkedOutReservation;
     /**
-     * Base price of this bill's reservation's room.
-     */
-    private final double roomFlatPrice;
-    /**
-     * This bill is applied promotion or not.
-     */
-    private final boolean hasPromotion;
-    /**
-     * This bill's reservation's room service price.
+     * The breakdown of this bill, computed once when the bill is created.
      */
-    private final double servicePrice;
+    private final BillBreakdown breakdown;
 
     /**
      * Create a bill with information from a CheckedOutReservation.
      *
      * @param checkedOutReservation The checked out reservation needed to bill.
-     * @param roomFlatPrice         Room basic price.
+     * @param roomPrice             Room price of the stay, the sum of its nightly rates.
      * @param servicePrice          Room service price.
-     * @param hasPromotion          Whether this bill is applied promotion or not.
+     * @param folioAdjustments      Total of the adjustments posted to the stay's folio, negative for a credit.
+     * @param pipeline              The pricing rules applied to the bill.
+     * @param promoCode             The promotion code given by the guest, null if none.
      */
-    public Bill(CheckedOutReservation checkedOutReservation, double roomFlatPrice,
-                double servicePrice, boolean hasPromotion) {
+    public Bill(CheckedOutReservation checkedOutReservation, Money roomPrice,
+                Money servicePrice, Money folioAdjustments, PricingPipeline pipeline, String promoCode) {
         this.checkedOutReservation = checkedOutReservation;
-        this.roomFlatPrice = roomFlatPrice;
-        this.hasPromotion = hasPromotion;
-        this.servicePrice = servicePrice;
+        this.breakdown = new BillBreakdown(checkedOutReservation.getNumberOfWeekdayStayed(),
+                checkedOutReservation.getNumberOfWeekendStayed(), roomPrice, servicePrice, folioAdjustments,
+                checkedOutReservation.getNumChild(), pipeline, promoCode);
     }
 
     /**
-     * Get the total price that the guest needs to pay (tax included).
+     * Get the total price that the guest needs to pay (tax included), which is the price after promotion plus the
+     * tax payable.
      *
      * @return total amount of money the guest needs to pay.
      */
-    public double getTotalPrice() {
-        double rawPrice = calculateRoomPrice() + servicePrice;
-        double promotedPrice;
-        if (hasPromotion) {
-            promotedPrice = rawPrice * PROMOTION_RATE;
-        } else {
-            promotedPrice = rawPrice;
-        }
-        return calculatePostTaxPrice(promotedPrice);
+    public Money getTotalPrice() {
+        return breakdown.getTotalPrice();
     }
 
     /**
-     * Gets the amount of price reduction by promotion on a raw price.
+     * Get the checked-out reservation that is billed.
      *
-     * @param rawPrice Price before promotion.
-     * @return price reduction by promotion.
+     * @return The checked-out reservation.
      */
-    private double calculatePromotionDiscount(double rawPrice) {
-        return rawPrice * (1 - PROMOTION_RATE);
+    public CheckedOutReservation getCheckedOutReservation() {
+        return checkedOutReservation;
     }
 
     /**
-     * Get the amount of tax on a raw price.
+     * Get the breakdown of this bill.
      *
-     * @param rawPrice Price before tax.
-     * @return Amount of tax.
+     * @return The breakdown.
      */
-    private double calculateTaxPayable(double rawPrice) {
-        return rawPrice * TAX_RATE;
+    public BillBreakdown getBreakdown() {
+        return breakdown;
     }
 
     /**
-     * Calculate the price after tax, which is rawPrice * (1 + TAX_RATE).
-     * @param rawPrice The base price.
-     * @return A double representing post-tax price.
+     * Get the room price of the stay, before promotion and tax.
+     *
+     * @return The room price.
+     */
+    public Money getRoomPrice() {
+        return breakdown.getRoomPrice();
+    }
+
+    /**
+     * Get the room service price of the stay, before promotion and tax.
+     *
+     * @return The room service price.
+     */
+    public Money getServicePrice() {
+        return breakdown.getServicePrice();
+    }
+
+    /**
+     * Get the price reduction by promotion, 0 if this bill is not applied promotion.
+     *
+     * @return The promotion discount.
+     */
+    public Money getPromotionDiscount() {
+        return breakdown.getPromotionDiscount();
+    }
+
+    /**
+     * Get the tax payable on the price after promotion.
+     *
+     * @return The tax payable.
      */
-    private double calculatePostTaxPrice(double rawPrice) {
-        return rawPrice * (1 + TAX_RATE);
+    public Money getTaxPayable() {
+        return breakdown.getTaxPayable();
     }
 
     /**
-     * Calculates room price of the associated reservation based on number of weekday and weekend
-     * stays.
+     * Write the bill row by row: numbers of days (weekends/weekdays) stayed, room flat price, service price, tax,
+     * promotion (optional) and total price.
      *
-     * @return Room price.
+     * @param writer The report writer to write to.
+     * @throws IOException If the bill cannot be written.
      */
-    private double calculateRoomPrice() {
-        int numberOfWeekends = checkedOutReservation.getNumberOfWeekendStayed();
-        int numberOfWeekdays = checkedOutReservation.getNumberOfWeekdayStayed();
-        double weekendPrice = roomFlatPrice * numberOfWeekends * WEEKEND_RATE;
-        double weekdayPrice = roomFlatPrice * numberOfWeekdays * WEEKDAY_RATE;
-        return weekendPrice + weekdayPrice;
+    public void writeTo(ReportWriter writer) throws IOException {
+        breakdown.writeTo(writer);
     }
 
     /**
@@ -124,45 +121,6 @@ public class Bill {
      */
     @Override
     public String toString() {
-        int numberOfRows = hasPromotion ? 9 : 8;
-        String[][] table = new String[numberOfRows][];
-        table[0] = new String[]{"Number of days stayed",
-                Integer.toString(checkedOutReservation.getNumberOfDayStayed())};
-        table[1] = new String[]{"Number of weekdays stayed",
-                Integer.toString(checkedOutReservation.getNumberOfWeekdayStayed())};
-        table[2] = new String[]{"Number of weekends stayed",
-                Integer.toString(checkedOutReservation.getNumberOfWeekendStayed())};
-        table[3] = new String[]{"Total room price: ", String.format("$%.2f", calculateRoomPrice())};
-        table[4] = new String[]{"Total service price: ", String.format("$%.2f", servicePrice)};
-        if (hasPromotion) {
-            double promotionPercentage = (1 - PROMOTION_RATE) * 100;
-            String promotionPercentageString = String.format("(-%%%.0f)", promotionPercentage);
-            table[5] = new String[]{"Promotion discount: " + promotionPercentageString, String.format("-$%.2f",
-                    calculatePromotionDiscount(calculateRoomPrice() + servicePrice))};
-            table[6] = new String[]{"Remaining price: ", String.format("$%.2f",
-                    calculateRoomPrice() + servicePrice -
-                            calculatePromotionDiscount(calculateRoomPrice() + servicePrice))};
-            table[7] = new String[]{"Tax payable: ",
-                    String.format("$%.2f",
-                            calculateTaxPayable(calculateRoomPrice() + servicePrice
-                                    - calculatePromotionDiscount(calculateRoomPrice() + servicePrice)))};
-            table[8] = new String[]{"Total amount payable: ", String.format("$%.2f",
-                    getTotalPrice())};
-        } else {
-            table[5] = new String[]{"Raw price: ", String.format("$%.2f",
-                    calculateRoomPrice() + servicePrice)};
-            table[6] = new String[]{"Tax payable: ", String.format("$%.2f",
-                    calculateTaxPayable(calculateRoomPrice() + servicePrice))};
-            table[7] = new String[]{"Total amount payable: ", String.format("$%.2f",
-                    getTotalPrice())};
-        }
-        String invoiceTitle = "-----------------------BILL INVOICE------------------------\n";
-        String separator = "-----------------------------+-----------------------------\n";
-        StringBuilder display = new StringBuilder(invoiceTitle);
-        for (String[] row : table) {
-            display.append(String.format("| %-27s| %-27s|%n", row));
-            display.append(separator);
-        }
-        return display.toString();
+        return breakdown.toString();
     }
 }
@@ -0,0 +1,298 @@
+package hrps.entity;
+
+import hrps.entity.enums.PricingRuleType;
+import tool.ReportWriter;
+import tool.TableReportWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * This class represents the breakdown of a bill: the nights stayed (weekdays/weekends), the room and service prices,
+ * the amount each pricing rule adds or takes off, and the total amount payable. It is computed once when the stay is
+ * checked out and never changed, and the console, the invoice and the API all render the bill from it.
+ *
+ * @author Peng Wenxuan
+ */
+public final class BillBreakdown {
+    /**
+     * Number of weekday nights stayed.
+     */
+    private final int weekdayNights;
+    /**
+     * Number of weekend nights stayed.
+     */
+    private final int weekendNights;
+    /**
+     * Room price of the stay, before promotion and tax.
+     */
+    private final Money roomPrice;
+    /**
+     * Room service price of the stay, before promotion and tax.
+     */
+    private final Money servicePrice;
+    /**
+     * Total of the adjustments posted to the stay's folio, negative for a credit.
+     */
+    private final Money folioAdjustments;
+    /**
+     * The pricing rules the bill was priced with.
+     */
+    private final PricingPipeline pipeline;
+    /**
+     * Amount in cents each rule adds to the price, negative for a discount and 0 if it does not apply.
+     */
+    private final long[] adjustments;
+
+    /**
+     * Create a breakdown of a bill by pricing a stay.
+     *
+     * @param weekdayNights    Number of weekday nights stayed.
+     * @param weekendNights    Number of weekend nights stayed.
+     * @param roomPrice        Room price of the stay, before promotion and tax.
+     * @param servicePrice     Room service price of the stay, before promotion and tax.
+     * @param folioAdjustments Total of the adjustments posted to the stay's folio, negative for a credit.
+     * @param numberOfChild    Number of children.
+     * @param pipeline         The pricing rules.
+     * @param promoCode        The promotion code given, null if none.
+     */
+    public BillBreakdown(int weekdayNights, int weekendNights, Money roomPrice, Money servicePrice,
+                         Money folioAdjustments, int numberOfChild, PricingPipeline pipeline, String promoCode) {
+        this.weekdayNights = weekdayNights;
+        this.weekendNights = weekendNights;
+        this.roomPrice = roomPrice;
+        this.servicePrice = servicePrice;
+        this.folioAdjustments = folioAdjustments;
+        this.pipeline = pipeline;
+        this.adjustments = new long[pipeline.size()];
+        pipeline.price(roomPrice.getCents(), servicePrice.plus(folioAdjustments).getCents(),
+                weekdayNights + weekendNights, numberOfChild, promoCode, adjustments);
+    }
+
+    /**
+     * Get the number of nights stayed.
+     *
+     * @return The number of nights.
+     */
+    public int getNumberOfNights() {
+        return weekdayNights + weekendNights;
+    }
+
+    /**
+     * Get the number of weekday nights stayed.
+     *
+     * @return The number of nights.
+     */
+    public int getWeekdayNights() {
+        return weekdayNights;
+    }
+
+    /**
+     * Get the number of weekend nights stayed.
+     *
+     * @return The number of nights.
+     */
+    public int getWeekendNights() {
+        return weekendNights;
+    }
+
+    /**
+     * Get the room price of the stay, before promotion and tax.
+     *
+     * @return The room price.
+     */
+    public Money getRoomPrice() {
+        return roomPrice;
+    }
+
+    /**
+     * Get the room service price of the stay, before promotion and tax.
+     *
+     * @return The room service price.
+     */
+    public Money getServicePrice() {
+        return servicePrice;
+    }
+
+    /**
+     * Get the total of the adjustments posted to the stay's folio.
+     *
+     * @return The adjustments, negative for a credit.
+     */
+    public Money getFolioAdjustments() {
+        return folioAdjustments;
+    }
+
+    /**
+     * Get the price of the room, the room services and the adjustments, before promotion and tax.
+     *
+     * @return The raw price.
+     */
+    public Money getRawPrice() {
+        return roomPrice.plus(servicePrice).plus(folioAdjustments);
+    }
+
+    /**
+     * Get the charges for children.
+     *
+     * @return The child charges, 0 if none.
+     */
+    public Money getChildCharge() {
+        return Money.ofCents(sumAdjustments(PricingRuleType.CHILD));
+    }
+
+    /**
+     * Check if the bill is applied promotion.
+     *
+     * @return true if any discount applies to the bill, false otherwise.
+     */
+    public boolean hasPromotion() {
+        return getPromotionDiscount().getCents() != 0;
+    }
+
+    /**
+     * Get the price reduction by promotion codes and length-of-stay discounts.
+     *
+     * @return The promotion discount, 0 if the bill is not applied promotion.
+     */
+    public Money getPromotionDiscount() {
+        return Money.ofCents(-sumAdjustments(PricingRuleType.PROMO_CODE)
+                - sumAdjustments(PricingRuleType.LENGTH_OF_STAY));
+    }
+
+    /**
+     * Get the price after all discounts and charges, before tax.
+     *
+     * @return The price after promotion.
+     */
+    public Money getPriceAfterPromotion() {
+        return getRawPrice().plus(getChildCharge()).minus(getPromotionDiscount());
+    }
+
+    /**
+     * Get the taxes payable on the price after all discounts and charges.
+     *
+     * @return The tax payable.
+     */
+    public Money getTaxPayable() {
+        return Money.ofCents(sumAdjustments(PricingRuleType.TAX));
+    }
+
+    /**
+     * Get the total amount payable, which is the price after promotion plus the tax payable.
+     *
+     * @return The total amount payable.
+     */
+    public Money getTotalPrice() {
+        return getPriceAfterPromotion().plus(getTaxPayable());
+    }
+
+    /**
+     * Get the number of pricing rules the bill was priced with.
+     *
+     * @return The number of rules.
+     */
+    public int getNumberOfAdjustments() {
+        return adjustments.length;
+    }
+
+    /**
+     * Get a pricing rule the bill was priced with.
+     *
+     * @param index Index of the rule in the order they were applied.
+     * @return The rule.
+     */
+    public PricingRule getRule(int index) {
+        return pipeline.getRules().get(index);
+    }
+
+    /**
+     * Get the amount a pricing rule adds to the bill.
+     *
+     * @param index Index of the rule in the order they were applied.
+     * @return The amount, negative for a discount and 0 if the rule does not apply.
+     */
+    public Money getAdjustment(int index) {
+        return Money.ofCents(adjustments[index]);
+    }
+
+    /**
+     * Sum the amounts the rules of a kind add to the bill.
+     *
+     * @param type Kind of the rules.
+     * @return The sum in cents.
+     */
+    private long sumAdjustments(PricingRuleType type) {
+        long sum = 0;
+        for (int i = 0; i < adjustments.length; i++) {
+            if (pipeline.getType(i) == type) {
+                sum += adjustments[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Write the bill row by row: numbers of days (weekends/weekdays) stayed, room flat price, service price, tax,
+     * promotion (optional) and total price.
+     *
+     * @param writer The report writer to write to.
+     * @throws IOException If the bill cannot be written.
+     */
+    public void writeTo(ReportWriter writer) throws IOException {
+        writer.writeTitle("-----------------------BILL INVOICE------------------------");
+        writer.writeRow("Number of days stayed", Integer.toString(getNumberOfNights()));
+        writer.writeRow("Number of weekdays stayed", Integer.toString(weekdayNights));
+        writer.writeRow("Number of weekends stayed", Integer.toString(weekendNights));
+        writer.writeRow("Total room price: ", "$" + roomPrice);
+        writer.writeRow("Total service price: ", "$" + servicePrice);
+        if (folioAdjustments.getCents() != 0) {
+            writer.writeRow("Adjustments: ", formatAdjustment(folioAdjustments.getCents()));
+        }
+        boolean isAdjusted = false;
+        for (int i = 0; i < adjustments.length; i++) {
+            if (pipeline.getType(i) != PricingRuleType.TAX && adjustments[i] != 0) {
+                writer.writeRow(pipeline.getLabel(i), formatAdjustment(adjustments[i]));
+                isAdjusted = true;
+            }
+        }
+        if (isAdjusted) {
+            writer.writeRow("Remaining price: ", "$" + getPriceAfterPromotion());
+        } else {
+            writer.writeRow("Raw price: ", "$" + getRawPrice());
+        }
+        for (int i = 0; i < adjustments.length; i++) {
+            if (pipeline.getType(i) == PricingRuleType.TAX) {
+                writer.writeRow(pipeline.getLabel(i), formatAdjustment(adjustments[i]));
+            }
+        }
+        writer.writeRow("Total amount payable: ", "$" + getTotalPrice());
+    }
+
+    /**
+     * Format an amount added to the bill, with the minus sign before the dollar sign for a discount.
+     *
+     * @param cents The amount in cents.
+     * @return A String representing the amount.
+     */
+    private static String formatAdjustment(long cents) {
+        return (cents < 0 ? "-$" : "$") + Money.ofCents(Math.abs(cents));
+    }
+
+    /**
+     * Represents the bill as a table of its rows.
+     *
+     * @return A String representing the bill.
+     */
+    @Override
+    public String toString() {
+        StringWriter display = new StringWriter();
+        try (ReportWriter writer = new TableReportWriter(display, 27, 27)) {
+            writeTo(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return display.toString();
+    }
+}
@@ -9,19 +9,19 @@ public class CashPayment implements Payable {
     /**
      * Amount of this payment.
      */
-    private final double amount;
+    private final Money amount;
 
     /**
      * Create a cash payment request.
      *
      * @param amount The amount of cash in this payment.
      */
-    public CashPayment(double amount) {
+    public CashPayment(Money amount) {
         this.amount = amount;
     }
 
     @Override
-    public double getTotalAmount() {
+    public Money getTotalAmount() {
         return amount;
     }
 
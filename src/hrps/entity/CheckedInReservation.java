@@ -15,6 +15,10 @@ import java.util.UUID;
  * @author An Ruyi, Peng Wenxuan
  */
 public class CheckedInReservation extends Reservation implements Serializable {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = -4951084823885255486L;
     /**
      * Time when guest of this reservation checked-in.
      */
@@ -87,20 +91,20 @@ public class CheckedInReservation extends Reservation implements Serializable {
     /**
      * Get total price of this reservation's ordered room services.
      *
-     * @return A Double represents total price of room services.
+     * @return The total price of room services.
      */
-    double getTotalServicePrice() {
-        double totalPrice = 0;
+    Money getTotalServicePrice() {
+        long totalCents = 0;
         for (OrderedRoomService orderedRoomService : orderedRoomServices) {
-            totalPrice += orderedRoomService.getTotalPrice();
+            totalCents += orderedRoomService.getTotalPrice().getCents();
         }
-        return totalPrice;
+        return Money.ofCents(totalCents);
     }
 
     @Override
     public CheckedOutReservation checkOut(LocalDateTime checkOutTime) {
-        return new CheckedOutReservation(getNumAdult(), getNumChild(), getGuest(),
-                getReservationCode(), this.checkInTime, checkOutTime, getRoomNum());
+        return succeededBy(new CheckedOutReservation(getNumAdult(), getNumChild(), getGuest(),
+                getReservationCode(), this.checkInTime, checkOutTime, getRoomNum()));
     }
 
     @Override
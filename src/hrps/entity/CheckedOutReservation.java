@@ -13,6 +13,10 @@ import java.util.UUID;
  * @author An Ruyi, Peng wenxuan
  */
 public class CheckedOutReservation extends Reservation {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = 355949726285103744L;
     /**
      * Guest's checked-in time.
      */
@@ -56,13 +60,8 @@ public class CheckedOutReservation extends Reservation {
      * @return An integer represents total number of weekdays stayed.
      */
     public int getNumberOfWeekdayStayed() {
-        int weekdayStayed = 0;
-        for (int i = 0; i < getNumberOfDayStayed(); i++) {
-            if (checkInTime.plusDays(i).getDayOfWeek().getValue() < 6) {
-                weekdayStayed++;
-            }
-        }
-        return weekdayStayed;
+        int numberOfDayStayed = getNumberOfDayStayed();
+        return numberOfDayStayed - countWeekends(checkInTime.getDayOfWeek().getValue() - 1, numberOfDayStayed);
     }
 
     /**
@@ -71,13 +70,36 @@ public class CheckedOutReservation extends Reservation {
      * @return An integer represents total number of weekends stayed.
      */
     public int getNumberOfWeekendStayed() {
-        int weekendStayed = 0;
-        for (int i = 0; i < getNumberOfDayStayed(); i++) {
-            if (checkInTime.plusDays(i).getDayOfWeek().getValue() > 5) {
-                weekendStayed++;
-            }
+        return countWeekends(checkInTime.getDayOfWeek().getValue() - 1, getNumberOfDayStayed());
+    }
+
+    /**
+     * Count the Saturdays and Sundays among consecutive days without walking through them: every whole week has two,
+     * and the remaining days are at most one more week starting from the first day's day of the week.
+     *
+     * @param firstDay     Day of the week of the first day, 0 for Monday to 6 for Sunday.
+     * @param numberOfDays Number of consecutive days.
+     * @return Number of weekend days among the days.
+     */
+    private static int countWeekends(int firstDay, int numberOfDays) {
+        if (numberOfDays <= 0) {
+            return 0;
         }
-        return weekendStayed;
+        int lastDay = firstDay + numberOfDays % 7;
+        int remainingWeekends = lastDay <= 7
+                ? countWeekendsBefore(lastDay) - countWeekendsBefore(firstDay)
+                : countWeekendsBefore(7) - countWeekendsBefore(firstDay) + countWeekendsBefore(lastDay - 7);
+        return numberOfDays / 7 * 2 + remainingWeekends;
+    }
+
+    /**
+     * Count the weekend days in the first days of a week starting on Monday.
+     *
+     * @param numberOfDays Number of days from Monday, 0 to 7.
+     * @return Number of weekend days among them.
+     */
+    private static int countWeekendsBefore(int numberOfDays) {
+        return Math.max(0, numberOfDays - 5);
     }
 
     @Override
@@ -11,6 +11,10 @@ import java.time.LocalDateTime;
  * @author An Ruyi, Peng Wenxuan
  */
 public class ConfirmedReservation extends Reservation {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = -3973299538973886255L;
     /**
      * Guest's confirmed check-in time.
      */
@@ -49,13 +53,14 @@ public class ConfirmedReservation extends Reservation {
 
     @Override
     public ExpiredReservation cancel() {
-        return new ExpiredReservation(getNumAdult(), getNumChild(), getGuest(), getRoomNum(), confirmedCheckInTime);
+        return succeededBy(new ExpiredReservation(getNumAdult(), getNumChild(), getGuest(), getRoomNum(),
+                confirmedCheckInTime));
     }
 
     @Override
     public CheckedInReservation checkIn(LocalDateTime actualCheckInTime) {
-        return new CheckedInReservation(getNumAdult(), getNumChild(), getGuest(),
-                getReservationCode(), actualCheckInTime, getCheckOutTime(), getRoomNum());
+        return succeededBy(new CheckedInReservation(getNumAdult(), getNumChild(), getGuest(),
+                getReservationCode(), actualCheckInTime, getCheckOutTime(), getRoomNum()));
     }
 
     @Override
@@ -80,6 +85,6 @@ public class ConfirmedReservation extends Reservation {
 
     @Override
     public void setCheckOutTime(LocalDateTime checkOutTime) {
-        confirmedCheckInTime = checkOutTime;
+        confirmedCheckOutTime = checkOutTime;
     }
 }
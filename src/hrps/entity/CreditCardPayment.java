@@ -13,7 +13,7 @@ public class CreditCardPayment implements Payable {
     /**
      * Amount of this payment.
      */
-    private final double amount;
+    private final Money amount;
 
     /**
      * Billing address of this payment.
@@ -26,7 +26,7 @@ public class CreditCardPayment implements Payable {
      * @param creditCard The credit card used to make payment.
      * @param amount     The total amount of money need to be paid.
      */
-    public CreditCardPayment(CreditCard creditCard, double amount) {
+    public CreditCardPayment(CreditCard creditCard, Money amount) {
         this.creditCard = creditCard;
         this.amount = amount;
         this.billingAddress = creditCard.getBillingAddress();
@@ -45,7 +45,7 @@ public class CreditCardPayment implements Payable {
     }
 
     @Override
-    public double getTotalAmount() {
+    public Money getTotalAmount() {
         return amount;
     }
 
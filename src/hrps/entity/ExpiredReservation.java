@@ -17,6 +17,10 @@ import java.time.format.DateTimeFormatter;
  * @author An Ruyi, Peng Wenxuan
  */
 public class ExpiredReservation extends Reservation {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = -6588859460307988076L;
     /**
      * Guest's expected check-in time (if exceeding this check in time for more than 24 hours, reservation will expire).
      */
@@ -0,0 +1,220 @@
+package hrps.entity;
+
+import hrps.entity.enums.PostingType;
+import tool.ReportWriter;
+import tool.TableReportWriter;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * This class represents the folio of a stay: the room charges, room service orders and adjustments posted to it
+ * while the guest is in house, in the order they were posted. Postings are only ever appended, and the balance and
+ * the total of each kind of posting are kept as they are posted, so settling the stay at check-out reads them in
+ * constant time.
+ *
+ * @author Peng Wenxuan
+ */
+public class Folio implements Serializable {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * Format of the posting times on a statement.
+     */
+    private static final DateTimeFormatter POSTING_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    /**
+     * Code of the stay's reservation.
+     */
+    private final UUID reservationCode;
+    /**
+     * Number of the stay's room.
+     */
+    private final String roomNumber;
+    /**
+     * The postings, in the order they were posted.
+     */
+    private final ArrayList<FolioPosting> postings = new ArrayList<>();
+    /**
+     * Total in cents of each kind of posting, by posting type ordinal.
+     */
+    private final long[] totals = new long[PostingType.values().length];
+    /**
+     * Last night whose room charge was posted, null if none.
+     */
+    private LocalDate lastRoomChargeNight;
+
+    /**
+     * Create an empty folio.
+     *
+     * @param reservationCode Code of the stay's reservation.
+     * @param roomNumber      Number of the stay's room.
+     */
+    public Folio(UUID reservationCode, String roomNumber) {
+        this.reservationCode = reservationCode;
+        this.roomNumber = roomNumber;
+    }
+
+    /**
+     * Get the code of the stay's reservation.
+     *
+     * @return The reservation code.
+     */
+    public UUID getReservationCode() {
+        return reservationCode;
+    }
+
+    /**
+     * Get the number of the stay's room.
+     *
+     * @return The room number.
+     */
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    /**
+     * Append a posting.
+     *
+     * @param postingTime Time of the posting.
+     * @param type        Kind of the posting.
+     * @param description Description of the posting.
+     * @param amount      Amount posted, negative for a credit.
+     * @return The posting, with the balance after it.
+     */
+    public FolioPosting post(LocalDateTime postingTime, PostingType type, String description, Money amount) {
+        totals[type.ordinal()] = Math.addExact(totals[type.ordinal()], amount.getCents());
+        FolioPosting posting = new FolioPosting(postingTime, type, description, amount, getBalance());
+        postings.add(posting);
+        return posting;
+    }
+
+    /**
+     * Append a night's room charge, unless that night or a later night was posted already.
+     *
+     * @param postingTime Time of the posting.
+     * @param night       Date of the night.
+     * @param amount      The room charge of the night.
+     * @return true if the room charge is posted, false if the night was posted already.
+     */
+    public boolean postRoomCharge(LocalDateTime postingTime, LocalDate night, Money amount) {
+        if (Objects.nonNull(lastRoomChargeNight) && !night.isAfter(lastRoomChargeNight)) {
+            return false;
+        }
+        post(postingTime, PostingType.ROOM_CHARGE, "Room charge of " + night, amount);
+        lastRoomChargeNight = night;
+        return true;
+    }
+
+    /**
+     * Get the last night whose room charge was posted.
+     *
+     * @return The date of the night, null if no room charge was posted.
+     */
+    public LocalDate getLastRoomChargeNight() {
+        return lastRoomChargeNight;
+    }
+
+    /**
+     * Remove the postings after the first ones, to undo postings that could not be persisted.
+     *
+     * @param numberOfPostings    Number of postings kept.
+     * @param lastRoomChargeNight Last night whose room charge is kept, null if none.
+     */
+    public void truncate(int numberOfPostings, LocalDate lastRoomChargeNight) {
+        while (postings.size() > numberOfPostings) {
+            FolioPosting posting = postings.remove(postings.size() - 1);
+            totals[posting.getType().ordinal()] -= posting.getAmount().getCents();
+        }
+        this.lastRoomChargeNight = lastRoomChargeNight;
+    }
+
+    /**
+     * Get the postings.
+     *
+     * @return A read-only list of the postings, in the order they were posted.
+     */
+    public List<FolioPosting> getPostings() {
+        return Collections.unmodifiableList(postings);
+    }
+
+    /**
+     * Get the total of a kind of posting.
+     *
+     * @param type Kind of the postings.
+     * @return The total amount posted.
+     */
+    public Money getTotal(PostingType type) {
+        return Money.ofCents(totals[type.ordinal()]);
+    }
+
+    /**
+     * Get the balance of the folio, the total of all postings.
+     *
+     * @return The balance.
+     */
+    public Money getBalance() {
+        long balance = 0;
+        for (long total : totals) {
+            balance += total;
+        }
+        return Money.ofCents(balance);
+    }
+
+    /**
+     * Write the statement of the folio: every posting with the running balance, then the total of each kind of
+     * posting and the balance.
+     *
+     * @param writer The report writer to write to.
+     * @throws IOException If the statement cannot be written.
+     */
+    public void writeStatement(ReportWriter writer) throws IOException {
+        writer.writeTitle(String.format("FOLIO STATEMENT - ROOM %s - %s", roomNumber, reservationCode));
+        writer.writeHeader("Time", "Description", "Amount", "Balance");
+        for (FolioPosting posting : postings) {
+            writer.writeRow(posting.getPostingTime().format(POSTING_TIME_FORMAT), posting.getDescription(),
+                    format(posting.getAmount()), format(posting.getBalance()));
+        }
+        writer.writeRow("", "Room charges", format(getTotal(PostingType.ROOM_CHARGE)), "");
+        writer.writeRow("", "Room service", format(getTotal(PostingType.ROOM_SERVICE)), "");
+        writer.writeRow("", "Adjustments", format(getTotal(PostingType.ADJUSTMENT)), "");
+        writer.writeRow("", "Balance", "", format(getBalance()));
+    }
+
+    /**
+     * Format an amount on a statement, with the minus sign before the dollar sign for a credit.
+     *
+     * @param amount The amount.
+     * @return A String representing the amount.
+     */
+    private static String format(Money amount) {
+        return (amount.isNegative() ? "-$" : "$") + Money.ofCents(Math.abs(amount.getCents()));
+    }
+
+    /**
+     * Represents the folio as its statement.
+     *
+     * @return A String representing the folio.
+     */
+    @Override
+    public String toString() {
+        StringWriter display = new StringWriter();
+        try (ReportWriter writer = new TableReportWriter(display, 17, 36, 12, 12)) {
+            writeStatement(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return display.toString();
+    }
+}
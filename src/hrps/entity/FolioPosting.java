@@ -0,0 +1,101 @@
+package hrps.entity;
+
+import hrps.entity.enums.PostingType;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * This class represents a line of a stay's folio: an amount posted at a time, and the folio's balance after it.
+ *
+ * @author Peng Wenxuan
+ */
+public final class FolioPosting implements Serializable {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * Time of the posting.
+     */
+    private final LocalDateTime postingTime;
+    /**
+     * Kind of the posting.
+     */
+    private final PostingType type;
+    /**
+     * Description of the posting.
+     */
+    private final String description;
+    /**
+     * Amount posted, negative for a credit.
+     */
+    private final Money amount;
+    /**
+     * Balance of the folio after the posting.
+     */
+    private final Money balance;
+
+    /**
+     * Create a posting.
+     *
+     * @param postingTime Time of the posting.
+     * @param type        Kind of the posting.
+     * @param description Description of the posting.
+     * @param amount      Amount posted, negative for a credit.
+     * @param balance     Balance of the folio after the posting.
+     */
+    public FolioPosting(LocalDateTime postingTime, PostingType type, String description, Money amount,
+                        Money balance) {
+        this.postingTime = postingTime;
+        this.type = type;
+        this.description = description;
+        this.amount = amount;
+        this.balance = balance;
+    }
+
+    /**
+     * Get the time of the posting.
+     *
+     * @return The posting time.
+     */
+    public LocalDateTime getPostingTime() {
+        return postingTime;
+    }
+
+    /**
+     * Get the kind of the posting.
+     *
+     * @return The kind of the posting.
+     */
+    public PostingType getType() {
+        return type;
+    }
+
+    /**
+     * Get the description of the posting.
+     *
+     * @return The description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Get the amount posted.
+     *
+     * @return The amount, negative for a credit.
+     */
+    public Money getAmount() {
+        return amount;
+    }
+
+    /**
+     * Get the balance of the folio after the posting.
+     *
+     * @return The running balance.
+     */
+    public Money getBalance() {
+        return balance;
+    }
+}
@@ -0,0 +1,169 @@
+package hrps.entity;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class represents the front desk's lists: the arrivals of each day (confirmed reservations by check-in date),
+ * the departures of each day (checked-in reservations by expected check-out date) and the guests in house. Every
+ * reservation is moved between the lists as it changes, which only touches the lists it leaves and enters. The
+ * lists are kept sorted and are never changed once published, a change replaces them instead, so a list is read in
+ * time proportional to its length without any lock.
+ *
+ * @author Peng Wenxuan
+ */
+public class FrontDeskView {
+    /**
+     * Order of the arrivals, by check-in time and then by room number.
+     */
+    private static final Comparator<ReservationSnapshot> BY_CHECK_IN_TIME =
+            Comparator.comparing(ReservationSnapshot::getCheckInTime).thenComparing(ReservationSnapshot::getRoomNum)
+                    .thenComparing(ReservationSnapshot::getReservationCode);
+    /**
+     * Order of the departures, by check-out time and then by room number.
+     */
+    private static final Comparator<ReservationSnapshot> BY_CHECK_OUT_TIME =
+            Comparator.comparing(ReservationSnapshot::getCheckOutTime).thenComparing(ReservationSnapshot::getRoomNum)
+                    .thenComparing(ReservationSnapshot::getReservationCode);
+    /**
+     * Order of the guests in house, by room number and then by check-in time.
+     */
+    private static final Comparator<ReservationSnapshot> BY_ROOM_NUMBER =
+            Comparator.comparing(ReservationSnapshot::getRoomNum).thenComparing(ReservationSnapshot::getCheckInTime)
+                    .thenComparing(ReservationSnapshot::getReservationCode);
+    /**
+     * The copy listed for each reservation, by reservation code.
+     */
+    private final Map<UUID, ReservationSnapshot> listed = new HashMap<>();
+    /**
+     * Published arrivals by check-in date.
+     */
+    private final Map<LocalDate, List<ReservationSnapshot>> arrivals = new ConcurrentHashMap<>();
+    /**
+     * Published departures by expected check-out date.
+     */
+    private final Map<LocalDate, List<ReservationSnapshot>> departures = new ConcurrentHashMap<>();
+    /**
+     * Published guests in house.
+     */
+    private volatile List<ReservationSnapshot> inHouse = List.of();
+
+    /**
+     * List a reservation by its current state, replacing the copy listed for it before if any. A confirmed
+     * reservation is listed as an arrival, a checked-in reservation as a departure and in house, and any other
+     * reservation is not listed.
+     *
+     * @param reservation The reservation.
+     */
+    public synchronized void put(Reservation reservation) {
+        remove(reservation.getReservationCode());
+        ReservationSnapshot snapshot = new ReservationSnapshot(reservation);
+        if (reservation instanceof ConfirmedReservation) {
+            arrivals.put(snapshot.getCheckInTime().toLocalDate(),
+                    insert(arrivals.get(snapshot.getCheckInTime().toLocalDate()), snapshot, BY_CHECK_IN_TIME));
+        } else if (reservation instanceof CheckedInReservation) {
+            departures.put(snapshot.getCheckOutTime().toLocalDate(),
+                    insert(departures.get(snapshot.getCheckOutTime().toLocalDate()), snapshot, BY_CHECK_OUT_TIME));
+            inHouse = insert(inHouse, snapshot, BY_ROOM_NUMBER);
+        } else {
+            return;
+        }
+        listed.put(snapshot.getReservationCode(), snapshot);
+    }
+
+    /**
+     * Stop listing a reservation.
+     *
+     * @param reservationCode Code of the reservation.
+     */
+    public synchronized void remove(UUID reservationCode) {
+        ReservationSnapshot snapshot = listed.remove(reservationCode);
+        if (Objects.isNull(snapshot)) {
+            return;
+        }
+        LocalDate checkInDate = snapshot.getCheckInTime().toLocalDate();
+        LocalDate checkOutDate = snapshot.getCheckOutTime().toLocalDate();
+        if (arrivals.containsKey(checkInDate) && arrivals.get(checkInDate).contains(snapshot)) {
+            replace(arrivals, checkInDate, delete(arrivals.get(checkInDate), snapshot));
+        }
+        if (departures.containsKey(checkOutDate) && departures.get(checkOutDate).contains(snapshot)) {
+            replace(departures, checkOutDate, delete(departures.get(checkOutDate), snapshot));
+            inHouse = delete(inHouse, snapshot);
+        }
+    }
+
+    /**
+     * Get the confirmed reservations expected to check in on a date.
+     *
+     * @param date The date.
+     * @return A read-only list of the arrivals, by check-in time and then by room number.
+     */
+    public List<ReservationSnapshot> getArrivals(LocalDate date) {
+        return arrivals.getOrDefault(date, List.of());
+    }
+
+    /**
+     * Get the checked-in reservations expected to check out on a date.
+     *
+     * @param date The date.
+     * @return A read-only list of the departures, by check-out time and then by room number.
+     */
+    public List<ReservationSnapshot> getDepartures(LocalDate date) {
+        return departures.getOrDefault(date, List.of());
+    }
+
+    /**
+     * Get the checked-in reservations.
+     *
+     * @return A read-only list of the guests in house, by room number.
+     */
+    public List<ReservationSnapshot> getInHouse() {
+        return inHouse;
+    }
+
+    /**
+     * Copy a sorted list with a reservation inserted in order.
+     *
+     * @param list       The sorted list, null if empty.
+     * @param snapshot   The reservation.
+     * @param comparator Order of the list.
+     * @return A read-only copy of the list with the reservation.
+     */
+    private static List<ReservationSnapshot> insert(List<ReservationSnapshot> list, ReservationSnapshot snapshot,
+                                                    Comparator<ReservationSnapshot> comparator) {
+        List<ReservationSnapshot> copy = new ArrayList<>(Objects.isNull(list) ? List.of() : list);
+        int index = Collections.binarySearch(copy, snapshot, comparator);
+        copy.add(index < 0 ? -index - 1 : index, snapshot);
+        return Collections.unmodifiableList(copy);
+    }
+
+    /**
+     * Copy a list without a reservation.
+     *
+     * @param list     The list.
+     * @param snapshot The reservation.
+     * @return A read-only copy of the list without the reservation.
+     */
+    private static List<ReservationSnapshot> delete(List<ReservationSnapshot> list, ReservationSnapshot snapshot) {
+        List<ReservationSnapshot> copy = new ArrayList<>(list);
+        copy.remove(snapshot);
+        return Collections.unmodifiableList(copy);
+    }
+
+    /**
+     * Publish the list of a date, dropping the date if the list is empty.
+     *
+     * @param lists The lists by date.
+     * @param date  The date.
+     * @param list  The new list of the date.
+     */
+    private static void replace(Map<LocalDate, List<ReservationSnapshot>> lists, LocalDate date,
+                                List<ReservationSnapshot> list) {
+        if (list.isEmpty()) {
+            lists.remove(date);
+        } else {
+            lists.put(date, list);
+        }
+    }
+}
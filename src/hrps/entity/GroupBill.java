@@ -0,0 +1,123 @@
+package hrps.entity;
+
+import tool.ReportWriter;
+import tool.TableReportWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * This class represents the bills of a group of rooms checked out together, and the master folio consolidating them
+ * into one amount, so that the group can settle all its rooms with one payment.
+ *
+ * @author Peng Wenxuan
+ */
+public class GroupBill {
+    /**
+     * The rooms checked out.
+     */
+    private final List<Room> rooms;
+    /**
+     * The bill of each room, in the order of the rooms.
+     */
+    private final List<Bill> bills;
+    /**
+     * Total price of all the bills.
+     */
+    private final Money totalPrice;
+
+    /**
+     * Create the group bill of rooms checked out together.
+     *
+     * @param rooms The rooms checked out.
+     * @param bills The bill of each room, in the order of the rooms.
+     * @throws IllegalArgumentException If there is not exactly one bill per room.
+     */
+    public GroupBill(List<Room> rooms, List<Bill> bills) {
+        if (rooms.size() != bills.size()) {
+            throw new IllegalArgumentException("A group bill needs exactly one bill per room.");
+        }
+        this.rooms = List.copyOf(rooms);
+        this.bills = List.copyOf(bills);
+        Money total = Money.ZERO;
+        for (Bill bill : bills) {
+            total = total.plus(bill.getTotalPrice());
+        }
+        this.totalPrice = total;
+    }
+
+    /**
+     * Get the rooms checked out.
+     *
+     * @return A read-only list of the rooms.
+     */
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Get the bills of the rooms.
+     *
+     * @return A read-only list of the bills, in the order of the rooms.
+     */
+    public List<Bill> getBills() {
+        return bills;
+    }
+
+    /**
+     * Get the total price of all the bills, the amount of the master folio.
+     *
+     * @return The total price.
+     */
+    public Money getTotalPrice() {
+        return totalPrice;
+    }
+
+    /**
+     * Write the master folio: one row per room with its guest, nights, room and service prices, tax and total, then
+     * the totals of the group.
+     *
+     * @param writer The report writer to write to.
+     * @throws IOException If the master folio cannot be written.
+     */
+    public void writeTo(ReportWriter writer) throws IOException {
+        writer.writeTitle(String.format("MASTER FOLIO - %d ROOM(S)", rooms.size()));
+        writer.writeHeader("Room", "Guest", "Nights", "Room price", "Service", "Tax", "Total");
+        int nights = 0;
+        Money roomPrice = Money.ZERO;
+        Money servicePrice = Money.ZERO;
+        Money taxPayable = Money.ZERO;
+        for (int i = 0; i < bills.size(); i++) {
+            BillBreakdown breakdown = bills.get(i).getBreakdown();
+            int stayNights = breakdown.getNumberOfNights();
+            writer.writeRow(rooms.get(i).getRoomNumber(),
+                    bills.get(i).getCheckedOutReservation().getGuest().getGuestName(), String.valueOf(stayNights),
+                    "$" + breakdown.getRoomPrice(), "$" + breakdown.getServicePrice(),
+                    "$" + breakdown.getTaxPayable(), "$" + breakdown.getTotalPrice());
+            nights += stayNights;
+            roomPrice = roomPrice.plus(breakdown.getRoomPrice());
+            servicePrice = servicePrice.plus(breakdown.getServicePrice());
+            taxPayable = taxPayable.plus(breakdown.getTaxPayable());
+        }
+        writer.writeRow("Total", "", String.valueOf(nights), "$" + roomPrice, "$" + servicePrice,
+                "$" + taxPayable, "$" + totalPrice);
+    }
+
+    /**
+     * Represents the group bill as its master folio.
+     *
+     * @return A String representing the group bill.
+     */
+    @Override
+    public String toString() {
+        StringWriter display = new StringWriter();
+        try (ReportWriter writer = new TableReportWriter(display, 8, 20, 7, 12, 12, 10, 12)) {
+            writeTo(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return display.toString();
+    }
+}
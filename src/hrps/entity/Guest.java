@@ -3,6 +3,7 @@ package hrps.entity;
 import hrps.entity.enums.IDType;
 
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * This class represents guests with information including name, gender, address, country, nationality, contact info,
@@ -11,6 +12,10 @@ import java.io.Serializable;
  * @author An Ruyi
  */
 public class Guest implements Serializable {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = 2246609050807729201L;
     /**
      * This guest's full name.
      */
@@ -71,6 +76,51 @@ public class Guest implements Serializable {
         id = new ID(idType, idNumber);
     }
 
+    /**
+     * Create a copy of a guest's details, with a copy of its credit card since the card is changed in place.
+     *
+     * @param guest The guest to be copied.
+     */
+    private Guest(Guest guest) {
+        creditCard = Objects.isNull(guest.creditCard) ? null :
+                new CreditCard(guest.creditCard.getCreditCardNumber(), guest.creditCard.getBillingAddress());
+        guestName = guest.guestName;
+        address = guest.address;
+        country = guest.country;
+        gender = guest.gender;
+        nationality = guest.nationality;
+        contact = guest.contact;
+        id = guest.id;
+    }
+
+    /**
+     * Copy this guest's details, to put them back later with {@link #restore(Guest)}.
+     *
+     * @return A copy of this guest's details.
+     */
+    public Guest copy() {
+        return new Guest(this);
+    }
+
+    /**
+     * Put back the details of this guest as they were copied, eg. to undo a change that could not be persisted.
+     *
+     * @param copy A copy of this guest's details made with {@link #copy()}.
+     */
+    public void restore(Guest copy) {
+        if (Objects.nonNull(creditCard) && Objects.nonNull(copy.creditCard)) {
+            creditCard.setCreditCardNumber(copy.creditCard.getCreditCardNumber());
+            creditCard.setBillingAddress(copy.creditCard.getBillingAddress());
+        }
+        guestName = copy.guestName;
+        address = copy.address;
+        country = copy.country;
+        gender = copy.gender;
+        nationality = copy.nationality;
+        contact = copy.contact;
+        id = copy.id;
+    }
+
     /**
      * Get guest's name.
      *
@@ -0,0 +1,151 @@
+package hrps.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * This class represents the invoice issued for a paid bill: the rendered bill and payment receipt of a stay, with
+ * the details it is looked up by. Invoices are never changed once issued.
+ *
+ * @author Peng Wenxuan
+ */
+public final class Invoice {
+    /**
+     * Number of the invoice, in the order invoices are issued.
+     */
+    private final long invoiceNumber;
+    /**
+     * Code of the stay's reservation.
+     */
+    private final UUID reservationCode;
+    /**
+     * Number of the stay's room.
+     */
+    private final String roomNumber;
+    /**
+     * Name of the guest billed.
+     */
+    private final String guestName;
+    /**
+     * Contact of the guest billed.
+     */
+    private final String guestContact;
+    /**
+     * Time the invoice is issued.
+     */
+    private final LocalDateTime issueTime;
+    /**
+     * Total amount paid.
+     */
+    private final Money totalPrice;
+    /**
+     * The rendered invoice.
+     */
+    private final String text;
+
+    /**
+     * Create an invoice.
+     *
+     * @param invoiceNumber   Number of the invoice.
+     * @param reservationCode Code of the stay's reservation.
+     * @param roomNumber      Number of the stay's room.
+     * @param guestName       Name of the guest billed.
+     * @param guestContact    Contact of the guest billed.
+     * @param issueTime       Time the invoice is issued.
+     * @param totalPrice      Total amount paid.
+     * @param text            The rendered invoice.
+     */
+    public Invoice(long invoiceNumber, UUID reservationCode, String roomNumber, String guestName, String guestContact,
+                   LocalDateTime issueTime, Money totalPrice, String text) {
+        this.invoiceNumber = invoiceNumber;
+        this.reservationCode = reservationCode;
+        this.roomNumber = roomNumber;
+        this.guestName = guestName;
+        this.guestContact = guestContact;
+        this.issueTime = issueTime;
+        this.totalPrice = totalPrice;
+        this.text = text;
+    }
+
+    /**
+     * Get the number of the invoice.
+     *
+     * @return The invoice number.
+     */
+    public long getInvoiceNumber() {
+        return invoiceNumber;
+    }
+
+    /**
+     * Get the code of the stay's reservation.
+     *
+     * @return The reservation code.
+     */
+    public UUID getReservationCode() {
+        return reservationCode;
+    }
+
+    /**
+     * Get the number of the stay's room.
+     *
+     * @return The room number.
+     */
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    /**
+     * Get the name of the guest billed.
+     *
+     * @return The guest's name.
+     */
+    public String getGuestName() {
+        return guestName;
+    }
+
+    /**
+     * Get the contact of the guest billed.
+     *
+     * @return The guest's contact.
+     */
+    public String getGuestContact() {
+        return guestContact;
+    }
+
+    /**
+     * Get the time the invoice is issued.
+     *
+     * @return The issue time.
+     */
+    public LocalDateTime getIssueTime() {
+        return issueTime;
+    }
+
+    /**
+     * Get the total amount paid.
+     *
+     * @return The total price.
+     */
+    public Money getTotalPrice() {
+        return totalPrice;
+    }
+
+    /**
+     * Get the rendered invoice.
+     *
+     * @return The text of the invoice.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Represents the invoice as its text.
+     *
+     * @return A String representing the invoice.
+     */
+    @Override
+    public String toString() {
+        return text;
+    }
+}
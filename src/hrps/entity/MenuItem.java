@@ -1,6 +1,8 @@
 package hrps.entity;
 
 import javax.sql.rowset.serial.SerialArray;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 /**
@@ -9,6 +11,10 @@ import java.io.Serializable;
  * @author An Ruyi
  */
 public class MenuItem implements Serializable {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = 8997439364128578333L;
     /**
      * This item's name, unique for each item.
      */
@@ -18,9 +24,14 @@ public class MenuItem implements Serializable {
      */
     private String description;
     /**
-     * This item's price per item.
+     * This item's price per item in dollars, the form in which it is serialized so that existing menu and order data
+     * files stay readable.
      */
     private double price;
+    /**
+     * This item's price per item in cents, set with the price in dollars and when the item is read from a data file.
+     */
+    private transient long priceCents;
 
     /**
      * Create a menu item with a name, description and price.
@@ -29,10 +40,23 @@ public class MenuItem implements Serializable {
      * @param description Description about the menu item.
      * @param price       Price for each of this menu item.
      */
-    public MenuItem(String name, String description, double price) {
+    public MenuItem(String name, String description, Money price) {
         this.name = name;
         this.description = description;
-        this.price = price;
+        this.price = price.toDouble();
+        this.priceCents = price.getCents();
+    }
+
+    /**
+     * Read a menu item from a data file, and keep its price in cents.
+     *
+     * @param in The stream the menu item is read from.
+     * @throws IOException            If the menu item cannot be read.
+     * @throws ClassNotFoundException If the class of a field cannot be found.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        priceCents = Money.of(price).getCents();
     }
 
     /**
@@ -47,10 +71,10 @@ public class MenuItem implements Serializable {
     /**
      * Get the price for each of this menu item.
      *
-     * @return A double representing price.
+     * @return The price of one item.
      */
-    public double getPrice() {
-        return price;
+    public Money getPrice() {
+        return Money.ofCents(priceCents);
     }
 
     /**
@@ -85,8 +109,9 @@ public class MenuItem implements Serializable {
      *
      * @param price New price.
      */
-    public void setPrice(double price) {
-        this.price = price;
+    public void setPrice(Money price) {
+        this.price = price.toDouble();
+        this.priceCents = price.getCents();
     }
 
     /**
@@ -96,7 +121,7 @@ public class MenuItem implements Serializable {
      * @return A new MenuItem object with exactly same information as this MenuItem.
      */
     public MenuItem clone() {
-        return new MenuItem(this.name, this.description, this.price);
+        return new MenuItem(this.name, this.description, Money.ofCents(priceCents));
     }
 
     /**
@@ -126,7 +151,7 @@ public class MenuItem implements Serializable {
             seperatedText = description;
         }
         table[1] = new String[]{"Item Description", seperatedText};
-        table[2] = new String[]{"Item Price", "$" + String.format("%.2f", price)};
+        table[2] = new String[]{"Item Price", "$" + Money.ofCents(priceCents)};
         String separator = "----------------------+-------------------------------------\n";
         StringBuilder display = new StringBuilder(separator);
         for (String[] row : table) {
@@ -0,0 +1,183 @@
+package hrps.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * This class represents an exact amount of money in cents. Amounts are added and multiplied as whole cents, and a
+ * percentage of an amount is rounded half up to the cent once, so a bill's lines always add up to its total. The
+ * static methods on cents let long sums of many amounts be accumulated in a primitive long.
+ *
+ * @author Peng Wenxuan
+ */
+public final class Money implements Comparable<Money>, Serializable {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * No money.
+     */
+    public static final Money ZERO = new Money(0);
+    /**
+     * The amount in cents.
+     */
+    private final long cents;
+
+    /**
+     * Create an amount.
+     *
+     * @param cents The amount in cents.
+     */
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * Get an amount of cents.
+     *
+     * @param cents The amount in cents.
+     * @return The amount.
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Get an amount of dollars, rounded half up to the cent. The dollars are read as the shortest decimal that
+     * represents the double, so a price keyed in as 1.005 is 1.01 and not 1.00.
+     *
+     * @param dollars The amount in dollars.
+     * @return The amount.
+     * @throws IllegalArgumentException If the amount is not finite.
+     */
+    public static Money of(double dollars) {
+        if (!Double.isFinite(dollars)) {
+            throw new IllegalArgumentException("Invalid amount of money: " + dollars);
+        }
+        return ofCents(BigDecimal.valueOf(dollars).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Get a percentage of an amount in cents, rounded half up to the cent.
+     *
+     * @param cents   The amount in cents.
+     * @param percent The percentage.
+     * @return The percentage of the amount in cents.
+     */
+    public static long percentOf(long cents, long percent) {
+        return Math.floorDiv(Math.multiplyExact(cents, percent) + 50, 100);
+    }
+
+    /**
+     * Get the amount in cents.
+     *
+     * @return The amount in cents.
+     */
+    public long getCents() {
+        return cents;
+    }
+
+    /**
+     * Get the amount in dollars, for display and for JSON.
+     *
+     * @return The amount in dollars.
+     */
+    public double toDouble() {
+        return cents / 100.0;
+    }
+
+    /**
+     * Add an amount to this amount.
+     *
+     * @param other The amount to be added.
+     * @return The sum.
+     */
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    /**
+     * Subtract an amount from this amount.
+     *
+     * @param other The amount to be subtracted.
+     * @return The difference.
+     */
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    /**
+     * Multiply this amount by a whole number, eg. a unit price by a quantity.
+     *
+     * @param multiplier The whole number.
+     * @return The product.
+     */
+    public Money times(long multiplier) {
+        return ofCents(Math.multiplyExact(cents, multiplier));
+    }
+
+    /**
+     * Get a percentage of this amount, rounded half up to the cent.
+     *
+     * @param percent The percentage, eg. 7 for a 7% tax.
+     * @return The percentage of this amount.
+     */
+    public Money percent(long percent) {
+        return ofCents(percentOf(cents, percent));
+    }
+
+    /**
+     * Check if this amount is below zero.
+     *
+     * @return true if this amount is negative, false otherwise.
+     */
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    /**
+     * Compare this amount with another amount.
+     *
+     * @param other The other amount.
+     * @return A negative integer, zero, or a positive integer as this amount is less than, equal to, or greater than
+     * the other amount.
+     */
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    /**
+     * Check if an object is the same amount of money.
+     *
+     * @param o The object.
+     * @return true if the object is a Money of the same amount, false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money && ((Money) o).cents == cents;
+    }
+
+    /**
+     * Get the hash code of this amount.
+     *
+     * @return The hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * Represents this amount in dollars with two decimals, eg. "12.50" or "-0.05".
+     *
+     * @return A String representing this amount.
+     */
+    @Override
+    public String toString() {
+        long absoluteCents = Math.abs(cents);
+        return String.format("%s%d.%02d", cents < 0 ? "-" : "", absoluteCents / 100, absoluteCents % 100);
+    }
+}
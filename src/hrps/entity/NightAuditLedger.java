@@ -0,0 +1,128 @@
+package hrps.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * This class represents the books kept by the night audit: the current business date, and the room charges posted to
+ * each checked-in stay with the last night posted, so that a night is never posted twice.
+ *
+ * @author Peng Wenxuan
+ */
+public class NightAuditLedger implements Serializable {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = 2L;
+    /**
+     * The business date, the date of the night to be audited next.
+     */
+    private LocalDate businessDate;
+    /**
+     * Room charges posted to each stay, by reservation code.
+     */
+    private final HashMap<UUID, Money> postedRoomCharges;
+    /**
+     * Last night posted to each stay, by reservation code.
+     */
+    private final HashMap<UUID, LocalDate> lastPostedNights;
+
+    /**
+     * Create a ledger with nothing posted.
+     *
+     * @param businessDate The first business date.
+     */
+    public NightAuditLedger(LocalDate businessDate) {
+        this.businessDate = businessDate;
+        this.postedRoomCharges = new HashMap<>();
+        this.lastPostedNights = new HashMap<>();
+    }
+
+    /**
+     * Create a copy of another ledger.
+     *
+     * @param ledger The ledger to copy.
+     */
+    public NightAuditLedger(NightAuditLedger ledger) {
+        this.businessDate = ledger.businessDate;
+        this.postedRoomCharges = new HashMap<>(ledger.postedRoomCharges);
+        this.lastPostedNights = new HashMap<>(ledger.lastPostedNights);
+    }
+
+    /**
+     * Get the business date.
+     *
+     * @return The date of the night to be audited next.
+     */
+    public LocalDate getBusinessDate() {
+        return businessDate;
+    }
+
+    /**
+     * Move the business date to the next day.
+     */
+    public void rollBusinessDate() {
+        businessDate = businessDate.plusDays(1);
+    }
+
+    /**
+     * Post the room charge of a night to a stay, unless that night is already posted.
+     *
+     * @param reservationCode Code of the stay's reservation.
+     * @param night           Date of the night.
+     * @param roomCharge      Room charge of the night.
+     * @return true if the charge is posted, false if the night was already posted.
+     */
+    public boolean postRoomCharge(UUID reservationCode, LocalDate night, Money roomCharge) {
+        LocalDate lastPostedNight = lastPostedNights.get(reservationCode);
+        if (lastPostedNight != null && !night.isAfter(lastPostedNight)) {
+            return false;
+        }
+        lastPostedNights.put(reservationCode, night);
+        postedRoomCharges.merge(reservationCode, roomCharge, Money::plus);
+        return true;
+    }
+
+    /**
+     * Get the room charges posted to a stay.
+     *
+     * @param reservationCode Code of the stay's reservation.
+     * @return The total room charges posted, 0 if none.
+     */
+    public Money getPostedRoomCharge(UUID reservationCode) {
+        return postedRoomCharges.getOrDefault(reservationCode, Money.ZERO);
+    }
+
+    /**
+     * Forget the postings of stays that are no longer checked in.
+     *
+     * @param checkedInReservationCodes Codes of the reservations that are checked in.
+     */
+    public void retainStays(Set<UUID> checkedInReservationCodes) {
+        postedRoomCharges.keySet().retainAll(checkedInReservationCodes);
+        lastPostedNights.keySet().retainAll(checkedInReservationCodes);
+    }
+
+    /**
+     * Get the number of stays with postings.
+     *
+     * @return The number of stays.
+     */
+    public int getNumberOfStays() {
+        return postedRoomCharges.size();
+    }
+
+    /**
+     * Get the room charges posted to each stay.
+     *
+     * @return An unmodifiable map of the room charges by reservation code.
+     */
+    public Map<UUID, Money> getPostedRoomCharges() {
+        return Collections.unmodifiableMap(postedRoomCharges);
+    }
+}
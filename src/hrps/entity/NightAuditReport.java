@@ -0,0 +1,121 @@
+package hrps.entity;
+
+import java.time.LocalDate;
+
+/**
+ * This class represents the outcome of one run of the night audit.
+ *
+ * @author Peng Wenxuan
+ */
+public class NightAuditReport {
+    /**
+     * The business date that was audited.
+     */
+    private final LocalDate auditedDate;
+    /**
+     * Number of no-show reservations expired.
+     */
+    private final int numberOfExpiredReservations;
+    /**
+     * Number of stays the night's room charge was posted to.
+     */
+    private final int numberOfPostedStays;
+    /**
+     * Total room charges posted.
+     */
+    private final Money postedRoomCharges;
+    /**
+     * Number of occupied rooms after the audit.
+     */
+    private final int numberOfOccupiedRooms;
+    /**
+     * Number of rooms after the audit.
+     */
+    private final int numberOfRooms;
+
+    /**
+     * Create a night audit report.
+     *
+     * @param auditedDate                 The business date that was audited.
+     * @param numberOfExpiredReservations Number of no-show reservations expired.
+     * @param numberOfPostedStays         Number of stays the night's room charge was posted to.
+     * @param postedRoomCharges           Total room charges posted.
+     * @param numberOfOccupiedRooms       Number of occupied rooms after the audit.
+     * @param numberOfRooms               Number of rooms after the audit.
+     */
+    public NightAuditReport(LocalDate auditedDate, int numberOfExpiredReservations, int numberOfPostedStays,
+                            Money postedRoomCharges, int numberOfOccupiedRooms, int numberOfRooms) {
+        this.auditedDate = auditedDate;
+        this.numberOfExpiredReservations = numberOfExpiredReservations;
+        this.numberOfPostedStays = numberOfPostedStays;
+        this.postedRoomCharges = postedRoomCharges;
+        this.numberOfOccupiedRooms = numberOfOccupiedRooms;
+        this.numberOfRooms = numberOfRooms;
+    }
+
+    /**
+     * Get the business date that was audited.
+     *
+     * @return The audited date.
+     */
+    public LocalDate getAuditedDate() {
+        return auditedDate;
+    }
+
+    /**
+     * Get the number of no-show reservations expired.
+     *
+     * @return The number of reservations.
+     */
+    public int getNumberOfExpiredReservations() {
+        return numberOfExpiredReservations;
+    }
+
+    /**
+     * Get the number of stays the night's room charge was posted to.
+     *
+     * @return The number of stays.
+     */
+    public int getNumberOfPostedStays() {
+        return numberOfPostedStays;
+    }
+
+    /**
+     * Get the total room charges posted.
+     *
+     * @return The room charges.
+     */
+    public Money getPostedRoomCharges() {
+        return postedRoomCharges;
+    }
+
+    /**
+     * Get the number of occupied rooms after the audit.
+     *
+     * @return The number of rooms.
+     */
+    public int getNumberOfOccupiedRooms() {
+        return numberOfOccupiedRooms;
+    }
+
+    /**
+     * Get the number of rooms after the audit.
+     *
+     * @return The number of rooms.
+     */
+    public int getNumberOfRooms() {
+        return numberOfRooms;
+    }
+
+    /**
+     * Represents the report as a summary of the audit.
+     *
+     * @return A String representing the report.
+     */
+    @Override
+    public String toString() {
+        return String.format("Night audit of %s: %d no-show reservation(s) expired, room charges of $%s posted " +
+                        "to %d stay(s), %d/%d rooms occupied.", auditedDate, numberOfExpiredReservations,
+                postedRoomCharges, numberOfPostedStays, numberOfOccupiedRooms, numberOfRooms);
+    }
+}
@@ -0,0 +1,266 @@
+package hrps.entity;
+
+import hrps.entity.enums.ForecastCategory;
+import hrps.entity.enums.RoomType;
+
+import java.nio.IntBuffer;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * This class represents the forecast of room-nights over the coming nights, by room type and by whether they are
+ * confirmed, checked in or waitlisted. Every stay is added, moved or removed as its reservation changes, which only
+ * touches the counts of the nights of that stay. The counts are never changed once published, a change copies the
+ * affected rows instead, so the forecast of a whole horizon is read as a primitive buffer in constant time without
+ * any lock.
+ *
+ * @author Peng Wenxuan
+ */
+public class OccupancyForecast {
+    /**
+     * Number of nights returned by a forecast.
+     */
+    public static final int HORIZON = 365;
+    /**
+     * Number of rows of each category, one per room type plus one for all room types.
+     */
+    private static final int NUMBER_OF_ROWS = RoomType.values().length + 1;
+    /**
+     * The stay counted for each reservation, by reservation code.
+     */
+    private final Map<UUID, Stay> stays = new HashMap<>();
+    /**
+     * The published counts.
+     */
+    private volatile Counts counts;
+
+    /**
+     * The nights a reservation counts in the forecast.
+     */
+    private static class Stay {
+        /**
+         * Category of the room-nights.
+         */
+        private final ForecastCategory category;
+        /**
+         * Row of the room type.
+         */
+        private final int row;
+        /**
+         * Epoch day of the first night.
+         */
+        private final long firstNight;
+        /**
+         * Epoch day of the night after the last night.
+         */
+        private final long endNight;
+
+        /**
+         * Create a stay.
+         *
+         * @param category   Category of the room-nights.
+         * @param row        Row of the room type.
+         * @param firstNight Epoch day of the first night.
+         * @param endNight   Epoch day of the night after the last night.
+         */
+        Stay(ForecastCategory category, int row, long firstNight, long endNight) {
+            this.category = category;
+            this.row = row;
+            this.firstNight = firstNight;
+            this.endNight = endNight;
+        }
+    }
+
+    /**
+     * Counts of room-nights from a base night on. Never changed once published.
+     */
+    private static class Counts {
+        /**
+         * Epoch day of the night at index 0.
+         */
+        private final long baseNight;
+        /**
+         * Counts by category ordinal, row and night index.
+         */
+        private final int[][][] nights;
+
+        /**
+         * Create counts.
+         *
+         * @param baseNight Epoch day of the night at index 0.
+         * @param nights    Counts by category ordinal, row and night index.
+         */
+        Counts(long baseNight, int[][][] nights) {
+            this.baseNight = baseNight;
+            this.nights = nights;
+        }
+
+        /**
+         * Get the number of nights covered.
+         *
+         * @return The number of nights.
+         */
+        int length() {
+            return nights[0][0].length;
+        }
+    }
+
+    /**
+     * Create an empty forecast starting from today.
+     */
+    public OccupancyForecast() {
+        counts = countStays(LocalDate.now().toEpochDay(), 2 * HORIZON);
+    }
+
+    /**
+     * Count a reservation's stay, replacing the stay counted for it before if any. Nights before the forecast's
+     * earliest night are not counted.
+     *
+     * @param reservationCode Code of the reservation.
+     * @param category        Category of the room-nights.
+     * @param roomType        Type of the reservation's room.
+     * @param firstNight      Date of the first night, the check-in date.
+     * @param checkOutDate    Date of the check-out, whose night is not counted.
+     */
+    public synchronized void put(UUID reservationCode, ForecastCategory category, RoomType roomType,
+                                 LocalDate firstNight, LocalDate checkOutDate) {
+        Stay stay = new Stay(category, roomType.ordinal(), firstNight.toEpochDay(), checkOutDate.toEpochDay());
+        Stay oldStay = stays.put(reservationCode, stay);
+        Counts counts = this.counts;
+        if (stay.endNight > counts.baseNight + counts.length()) {
+            this.counts = countStays(counts.baseNight, (int) (stay.endNight - counts.baseNight) + HORIZON);
+            return;
+        }
+        int[][][] nights = copyRows(counts.nights);
+        if (oldStay != null) {
+            addStay(counts.baseNight, nights, counts.nights, oldStay, -1);
+        }
+        addStay(counts.baseNight, nights, counts.nights, stay, 1);
+        this.counts = new Counts(counts.baseNight, nights);
+    }
+
+    /**
+     * Stop counting a reservation's stay.
+     *
+     * @param reservationCode Code of the reservation.
+     */
+    public synchronized void remove(UUID reservationCode) {
+        Stay oldStay = stays.remove(reservationCode);
+        if (oldStay == null) {
+            return;
+        }
+        Counts counts = this.counts;
+        int[][][] nights = copyRows(counts.nights);
+        addStay(counts.baseNight, nights, counts.nights, oldStay, -1);
+        this.counts = new Counts(counts.baseNight, nights);
+    }
+
+    /**
+     * Get the number of rooms of a type in a category on each night of the horizon.
+     *
+     * @param category   Category of the room-nights.
+     * @param roomType   The room type, null for all room types.
+     * @param firstNight Date of the first night of the horizon.
+     * @return A read-only buffer of {@value #HORIZON} counts, the count of the first night at index 0.
+     */
+    public IntBuffer getForecast(ForecastCategory category, RoomType roomType, LocalDate firstNight) {
+        Counts counts = this.counts;
+        long offset = firstNight.toEpochDay() - counts.baseNight;
+        if (offset < 0 || offset + HORIZON > counts.length()) {
+            counts = rebase(firstNight.toEpochDay());
+            offset = firstNight.toEpochDay() - counts.baseNight;
+        }
+        int row = roomType == null ? NUMBER_OF_ROWS - 1 : roomType.ordinal();
+        return IntBuffer.wrap(counts.nights[category.ordinal()][row], (int) offset, HORIZON).slice()
+                .asReadOnlyBuffer();
+    }
+
+    /**
+     * Get the number of rooms of a type in a category on a night.
+     *
+     * @param category Category of the room-nights.
+     * @param roomType The room type, null for all room types.
+     * @param night    Date of the night.
+     * @return The number of rooms.
+     */
+    public int getRoomNights(ForecastCategory category, RoomType roomType, LocalDate night) {
+        return getForecast(category, roomType, night).get(0);
+    }
+
+    /**
+     * Recount every stay from a new base night, unless another reader did it first.
+     *
+     * @param baseNight Epoch day of the first night that has to be covered.
+     * @return Counts covering the horizon from the night.
+     */
+    private synchronized Counts rebase(long baseNight) {
+        Counts counts = this.counts;
+        if (baseNight >= counts.baseNight && baseNight + HORIZON <= counts.baseNight + counts.length()) {
+            return counts;
+        }
+        this.counts = countStays(baseNight, 2 * HORIZON);
+        return this.counts;
+    }
+
+    /**
+     * Count every stay from a base night on.
+     *
+     * @param baseNight Epoch day of the night at index 0.
+     * @param length    Least number of nights covered.
+     * @return The counts.
+     */
+    private Counts countStays(long baseNight, int length) {
+        for (Stay stay : stays.values()) {
+            length = (int) Math.max(length, stay.endNight - baseNight);
+        }
+        int[][][] nights = new int[ForecastCategory.values().length][NUMBER_OF_ROWS][length];
+        for (Stay stay : stays.values()) {
+            addStay(baseNight, nights, nights, stay, 1);
+        }
+        return new Counts(baseNight, nights);
+    }
+
+    /**
+     * Add a stay's room-nights to the counts, copying the rows it changes if they are still shared with the
+     * published counts.
+     *
+     * @param baseNight       Epoch day of the night at index 0.
+     * @param nights          The counts to be changed.
+     * @param publishedNights The published counts, whose rows must not be changed.
+     * @param stay            The stay.
+     * @param delta           1 to add the stay, -1 to subtract it.
+     */
+    private static void addStay(long baseNight, int[][][] nights, int[][][] publishedNights, Stay stay, int delta) {
+        int from = (int) Math.max(0, stay.firstNight - baseNight);
+        int to = (int) Math.max(0, stay.endNight - baseNight);
+        if (from >= to) {
+            return;
+        }
+        int[][] categoryNights = nights[stay.category.ordinal()];
+        for (int row : new int[]{stay.row, NUMBER_OF_ROWS - 1}) {
+            if (categoryNights[row] == publishedNights[stay.category.ordinal()][row]
+                    && nights != publishedNights) {
+                categoryNights[row] = categoryNights[row].clone();
+            }
+            for (int night = from; night < to; night++) {
+                categoryNights[row][night] += delta;
+            }
+        }
+    }
+
+    /**
+     * Copy the outer arrays of the counts, sharing every row.
+     *
+     * @param nights The counts.
+     * @return The copy.
+     */
+    private static int[][][] copyRows(int[][][] nights) {
+        int[][][] copy = new int[nights.length][][];
+        for (int category = 0; category < nights.length; category++) {
+            copy[category] = nights[category].clone();
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,122 @@
+package hrps.entity;
+
+import hrps.entity.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * This class represents an immutable copy of a room service order's state at one point in time, used by reports and
+ * searches that must not block or be disturbed by updates.
+ *
+ * @author Peng Wenxuan
+ */
+public class OrderSnapshot {
+    /**
+     * Order ID.
+     */
+    private final UUID orderID;
+    /**
+     * Number of the room the order is for.
+     */
+    private final String roomNumber;
+    /**
+     * Time of ordering.
+     */
+    private final LocalDateTime orderTime;
+    /**
+     * Remark of the order.
+     */
+    private final String remark;
+    /**
+     * Order status.
+     */
+    private final OrderStatus orderStatus;
+    /**
+     * Ordered items, which are not changed after ordering.
+     */
+    private final List<OrderedMenuItem> orderItems;
+    /**
+     * Total price of the order.
+     */
+    private final Money totalPrice;
+
+    /**
+     * Copy the current state of an order.
+     *
+     * @param order The order.
+     */
+    public OrderSnapshot(OrderedRoomService order) {
+        this.orderID = order.getOrderID();
+        this.roomNumber = order.getRoom().getRoomNumber();
+        this.orderTime = order.getOrderTime();
+        this.remark = order.getRemark();
+        this.orderStatus = order.getOrderStatus();
+        this.orderItems = List.copyOf(order.getOrderItems());
+        this.totalPrice = order.getTotalPrice();
+    }
+
+    /**
+     * Get the order ID.
+     *
+     * @return The order ID.
+     */
+    public UUID getOrderID() {
+        return orderID;
+    }
+
+    /**
+     * Get the number of the room the order is for.
+     *
+     * @return The room number.
+     */
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    /**
+     * Get the time of ordering.
+     *
+     * @return The order time.
+     */
+    public LocalDateTime getOrderTime() {
+        return orderTime;
+    }
+
+    /**
+     * Get the remark of the order.
+     *
+     * @return The remark.
+     */
+    public String getRemark() {
+        return remark;
+    }
+
+    /**
+     * Get the order status.
+     *
+     * @return The order status.
+     */
+    public OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    /**
+     * Get the ordered items.
+     *
+     * @return An unmodifiable list of the ordered items.
+     */
+    public List<OrderedMenuItem> getOrderItems() {
+        return orderItems;
+    }
+
+    /**
+     * Get the total price of the order.
+     *
+     * @return The total price.
+     */
+    public Money getTotalPrice() {
+        return totalPrice;
+    }
+}
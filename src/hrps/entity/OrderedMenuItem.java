@@ -8,6 +8,10 @@ import java.io.Serializable;
  * @author Peng Wenxuan
  */
 public class OrderedMenuItem extends MenuItem {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = 2565252920025356778L;
     /**
      * The ordered quantity of this item.
      */
@@ -22,7 +26,7 @@ public class OrderedMenuItem extends MenuItem {
      * @param price       Price for each of this menu item.
      * @param quantity    Number of this menu item being ordered.
      */
-    public OrderedMenuItem(String name, String description, double price, int quantity) {
+    public OrderedMenuItem(String name, String description, Money price, int quantity) {
         super(name, description, price);
         this.quantity = quantity;
     }
@@ -39,11 +43,11 @@ public class OrderedMenuItem extends MenuItem {
     /**
      * Get the total price of this order.
      *
-     * @return A double representing total price.
+     * @return The total price.
      */
     @Override
-    public double getPrice() {
-        return super.getPrice() * quantity;
+    public Money getPrice() {
+        return super.getPrice().times(quantity);
     }
 
     /**
@@ -15,6 +15,10 @@ import java.util.UUID;
  * @author Peng Wenxuan
  */
 public class OrderedRoomService implements Serializable {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = 4147531581531346982L;
     /**
      * Unique ID of this room services order.
      */
@@ -43,14 +47,14 @@ public class OrderedRoomService implements Serializable {
     /**
      * Get total price of this order, which is sum of all the price of orders of each item.
      *
-     * @return A double representing total price.
+     * @return The total price.
      */
-    public double getTotalPrice() {
-        double totalPrice = 0;
+    public Money getTotalPrice() {
+        long totalCents = 0;
         for (OrderedMenuItem item : orderItems) {
-            totalPrice += item.getPrice();
+            totalCents += item.getPrice().getCents();
         }
-        return totalPrice;
+        return Money.ofCents(totalCents);
     }
 
     /**
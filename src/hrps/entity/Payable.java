@@ -9,9 +9,9 @@ public interface Payable {
     /**
      * Get the total amount of money of this payment.
      *
-     * @return A double represents total amount of money.
+     * @return The total amount of money.
      */
-    public double getTotalAmount();
+    public Money getTotalAmount();
 
     /**
      * Get the payment method of this payment.
@@ -0,0 +1,167 @@
+package hrps.entity;
+
+import hrps.entity.enums.PricingRuleType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class represents a set of pricing rules compiled into the order they are applied: charges for children, then
+ * discounts, each on the price left by the rules before it, then taxes, each on the price after all discounts and
+ * charges. The rules are laid out in arrays, so pricing a bill walks them once in cents without creating any object,
+ * and one pipeline can price any number of bills from any number of threads.
+ *
+ * @author Peng Wenxuan
+ */
+public final class PricingPipeline {
+    /**
+     * The rules in the order they are applied.
+     */
+    private final List<PricingRule> rules;
+    /**
+     * Kind of each rule.
+     */
+    private final PricingRuleType[] types;
+    /**
+     * Promotion code of each rule, null if it is not a promotion code rule.
+     */
+    private final String[] promoCodes;
+    /**
+     * Least number of nights of each rule.
+     */
+    private final int[] minimumNights;
+    /**
+     * Percentage or charge in cents of each rule.
+     */
+    private final long[] values;
+    /**
+     * Line of each rule on a bill.
+     */
+    private final String[] labels;
+
+    /**
+     * Compile rules into a pipeline. Rules of the same kind are applied in the order given.
+     *
+     * @param rules The rules.
+     */
+    public PricingPipeline(List<PricingRule> rules) {
+        List<PricingRule> ordered = new ArrayList<>(rules);
+        ordered.sort(Comparator.comparing(PricingRule::getType));
+        this.rules = List.copyOf(ordered);
+        int size = ordered.size();
+        types = new PricingRuleType[size];
+        promoCodes = new String[size];
+        minimumNights = new int[size];
+        values = new long[size];
+        labels = new String[size];
+        for (int i = 0; i < size; i++) {
+            PricingRule rule = ordered.get(i);
+            types[i] = rule.getType();
+            promoCodes[i] = rule.getPromoCode();
+            minimumNights[i] = rule.getMinimumNights();
+            values[i] = rule.getValue();
+            labels[i] = rule.getLabel();
+        }
+    }
+
+    /**
+     * Get the number of rules.
+     *
+     * @return The number of rules.
+     */
+    public int size() {
+        return types.length;
+    }
+
+    /**
+     * Get the rules in the order they are applied.
+     *
+     * @return A read-only list of the rules.
+     */
+    public List<PricingRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Get the kind of a rule.
+     *
+     * @param index Index of the rule in the order they are applied.
+     * @return The kind of the rule.
+     */
+    public PricingRuleType getType(int index) {
+        return types[index];
+    }
+
+    /**
+     * Get the line of a rule on a bill.
+     *
+     * @param index Index of the rule in the order they are applied.
+     * @return The label of the rule.
+     */
+    public String getLabel(int index) {
+        return labels[index];
+    }
+
+    /**
+     * Check if a promotion code is given by any rule.
+     *
+     * @param promoCode The promotion code.
+     * @return true if a promotion code rule has the code, ignoring case, false otherwise.
+     */
+    public boolean isValidPromoCode(String promoCode) {
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == PricingRuleType.PROMO_CODE && promoCodes[i].equalsIgnoreCase(promoCode)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Price a stay by applying every rule in order.
+     *
+     * @param roomCents      Room price of the stay in cents.
+     * @param serviceCents   Room service price of the stay in cents.
+     * @param numberOfNights Number of nights stayed.
+     * @param numberOfChild  Number of children.
+     * @param promoCode      The promotion code given, null if none.
+     * @param adjustments    Filled with the amount in cents each rule adds to the price, negative for a discount
+     *                       and 0 if it does not apply; at least {@link #size()} long, or null if not needed.
+     * @return The total price in cents.
+     */
+    public long price(long roomCents, long serviceCents, int numberOfNights, int numberOfChild, String promoCode,
+                      long[] adjustments) {
+        long price = roomCents + serviceCents;
+        long priceBeforeTax = price;
+        for (int i = 0; i < types.length; i++) {
+            long adjustment = 0;
+            switch (types[i]) {
+                case CHILD:
+                    adjustment = values[i] * numberOfChild * numberOfNights;
+                    break;
+                case PROMO_CODE:
+                    if (promoCodes[i].equalsIgnoreCase(promoCode)) {
+                        adjustment = -Money.percentOf(price, values[i]);
+                    }
+                    break;
+                case LENGTH_OF_STAY:
+                    if (numberOfNights >= minimumNights[i]) {
+                        adjustment = -Money.percentOf(price, values[i]);
+                    }
+                    break;
+                case TAX:
+                    adjustment = Money.percentOf(priceBeforeTax, values[i]);
+                    break;
+            }
+            price += adjustment;
+            if (types[i] != PricingRuleType.TAX) {
+                priceBeforeTax = price;
+            }
+            if (adjustments != null) {
+                adjustments[i] = adjustment;
+            }
+        }
+        return price;
+    }
+}
@@ -0,0 +1,212 @@
+package hrps.entity;
+
+import hrps.entity.enums.PricingRuleType;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * This class represents a pricing rule applied to bills: a promotion code, a length-of-stay discount, a charge for
+ * children or a tax. Rules are never changed once created, and are compiled into a {@link PricingPipeline} to be
+ * applied.
+ *
+ * @author Peng Wenxuan
+ */
+public final class PricingRule implements Serializable {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * Kind of the rule.
+     */
+    private final PricingRuleType type;
+    /**
+     * Name of the rule, shown on the bill.
+     */
+    private final String name;
+    /**
+     * Promotion code of a promotion code rule, null otherwise.
+     */
+    private final String promoCode;
+    /**
+     * Least number of nights of a length-of-stay rule, 0 otherwise.
+     */
+    private final int minimumNights;
+    /**
+     * Percentage of a discount or a tax, or the charge in cents per child per night of a child rule.
+     */
+    private final long value;
+
+    /**
+     * Create a pricing rule.
+     *
+     * @param type          Kind of the rule.
+     * @param name          Name of the rule, shown on the bill.
+     * @param promoCode     Promotion code of a promotion code rule, null otherwise.
+     * @param minimumNights Least number of nights of a length-of-stay rule, 0 otherwise.
+     * @param value         Percentage of a discount or a tax, or the charge in cents per child per night.
+     */
+    private PricingRule(PricingRuleType type, String name, String promoCode, int minimumNights, long value) {
+        if (Objects.isNull(name) || name.isBlank()) {
+            throw new IllegalArgumentException("A pricing rule needs a name.");
+        }
+        this.type = type;
+        this.name = name;
+        this.promoCode = promoCode;
+        this.minimumNights = minimumNights;
+        this.value = value;
+    }
+
+    /**
+     * Create a rule that takes a percentage off the price of guests who give a promotion code.
+     *
+     * @param name      Name of the rule, shown on the bill.
+     * @param promoCode The promotion code, matched ignoring case.
+     * @param percent   The percentage off, from 0 to 100.
+     * @return The rule.
+     * @throws IllegalArgumentException If the code is empty or the percentage is out of range.
+     */
+    public static PricingRule promoCode(String name, String promoCode, long percent) {
+        if (Objects.isNull(promoCode) || promoCode.isBlank()) {
+            throw new IllegalArgumentException("A promotion code cannot be empty.");
+        }
+        return new PricingRule(PricingRuleType.PROMO_CODE, name, promoCode.trim(), 0, checkDiscount(percent));
+    }
+
+    /**
+     * Create a rule that takes a percentage off the price of stays of at least a number of nights.
+     *
+     * @param name          Name of the rule, shown on the bill.
+     * @param minimumNights Least number of nights.
+     * @param percent       The percentage off, from 0 to 100.
+     * @return The rule.
+     * @throws IllegalArgumentException If the number of nights is not positive or the percentage is out of range.
+     */
+    public static PricingRule lengthOfStay(String name, int minimumNights, long percent) {
+        if (minimumNights < 1) {
+            throw new IllegalArgumentException("Minimum number of nights must be at least 1.");
+        }
+        return new PricingRule(PricingRuleType.LENGTH_OF_STAY, name, null, minimumNights, checkDiscount(percent));
+    }
+
+    /**
+     * Create a rule that charges an amount per child per night.
+     *
+     * @param name   Name of the rule, shown on the bill.
+     * @param charge The charge per child per night.
+     * @return The rule.
+     * @throws IllegalArgumentException If the charge is negative.
+     */
+    public static PricingRule childCharge(String name, Money charge) {
+        if (charge.isNegative()) {
+            throw new IllegalArgumentException("Child charge must be greater or equals to 0.");
+        }
+        return new PricingRule(PricingRuleType.CHILD, name, null, 0, charge.getCents());
+    }
+
+    /**
+     * Create a rule that charges a percentage of the price after all discounts and charges.
+     *
+     * @param name    Name of the rule, shown on the bill.
+     * @param percent The percentage.
+     * @return The rule.
+     * @throws IllegalArgumentException If the percentage is negative.
+     */
+    public static PricingRule tax(String name, long percent) {
+        if (percent < 0) {
+            throw new IllegalArgumentException("Tax rate must be greater or equals to 0.");
+        }
+        return new PricingRule(PricingRuleType.TAX, name, null, 0, percent);
+    }
+
+    /**
+     * Check the percentage of a discount.
+     *
+     * @param percent The percentage.
+     * @return The percentage.
+     * @throws IllegalArgumentException If the percentage is not from 0 to 100.
+     */
+    private static long checkDiscount(long percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Discount must be from 0 to 100 percent.");
+        }
+        return percent;
+    }
+
+    /**
+     * Get the kind of the rule.
+     *
+     * @return The kind of the rule.
+     */
+    public PricingRuleType getType() {
+        return type;
+    }
+
+    /**
+     * Get the name of the rule.
+     *
+     * @return The name, shown on the bill.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the promotion code of a promotion code rule.
+     *
+     * @return The promotion code, null for other rules.
+     */
+    public String getPromoCode() {
+        return promoCode;
+    }
+
+    /**
+     * Get the least number of nights of a length-of-stay rule.
+     *
+     * @return The number of nights, 0 for other rules.
+     */
+    public int getMinimumNights() {
+        return minimumNights;
+    }
+
+    /**
+     * Get the percentage of a discount or a tax, or the charge in cents per child per night of a child rule.
+     *
+     * @return The value of the rule.
+     */
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * Get the line of the rule on a bill, with the percentage taken off for a discount.
+     *
+     * @return The label of the rule.
+     */
+    public String getLabel() {
+        if (type == PricingRuleType.PROMO_CODE || type == PricingRuleType.LENGTH_OF_STAY) {
+            return String.format("%s (-%%%d)", name.trim(), value);
+        }
+        return name;
+    }
+
+    /**
+     * Represents the rule as its kind, name and parameters.
+     *
+     * @return A String representing the rule.
+     */
+    @Override
+    public String toString() {
+        switch (type) {
+            case PROMO_CODE:
+                return String.format("%s: %s, code %s, %d%% off", type, name.trim(), promoCode, value);
+            case LENGTH_OF_STAY:
+                return String.format("%s: %s, %d+ nights, %d%% off", type, name.trim(), minimumNights, value);
+            case CHILD:
+                return String.format("%s: %s, $%s per child per night", type, name.trim(), Money.ofCents(value));
+            default:
+                return String.format("%s: %s, %d%%", type, name.trim(), value);
+        }
+    }
+}
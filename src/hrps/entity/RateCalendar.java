@@ -0,0 +1,313 @@
+package hrps.entity;
+
+import hrps.entity.enums.RoomType;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class represents the nightly room rates over a horizon of several years. A night's rate of a room is the rate
+ * set for that room on that night if any, else the rate set for its room type on that night if any, else its flat
+ * rate with the weekday or weekend percentage. The rates of every room are kept as prefix sums over the horizon, so
+ * the room price of any stay is the difference of two sums, read in constant time without any lock. The sums of a
+ * room are recomputed, and replaced, only when one of its rates is changed.
+ *
+ * @author Peng Wenxuan
+ */
+public class RateCalendar implements Serializable {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * Number of years covered, starting from the first day of the year the calendar is created in.
+     */
+    public static final int HORIZON_YEARS = 3;
+    /**
+     * Percentage of the flat rate charged on a weekday night.
+     */
+    public static final long WEEKDAY_RATE = 100;
+    /**
+     * Percentage of the flat rate charged on a weekend night.
+     */
+    public static final long WEEKEND_RATE = 110;
+    /**
+     * Marks a night whose rate is not set.
+     */
+    private static final long UNSET = -1;
+    /**
+     * Epoch day of the night at index 0.
+     */
+    private final long baseNight;
+    /**
+     * Number of nights covered.
+     */
+    private final int numberOfNights;
+    /**
+     * Rates in cents set for each room type, by room type ordinal and night index.
+     */
+    private final long[][] roomTypeRates;
+    /**
+     * Rates in cents set for single rooms, by room number and night index.
+     */
+    private final HashMap<String, long[]> roomRates = new HashMap<>();
+    /**
+     * The rooms priced, by room number.
+     */
+    private transient Map<String, Room> rooms;
+    /**
+     * Published prefix sums of the nightly rates in cents of each room, by room number. The sum at index i is the
+     * price of the nights before night index i.
+     */
+    private transient Map<String, long[]> prices;
+
+    /**
+     * Create a calendar with no rate set, covering {@value #HORIZON_YEARS} years from the first day of a year.
+     *
+     * @param date A date of the first year covered.
+     */
+    public RateCalendar(LocalDate date) {
+        LocalDate firstNight = date.withDayOfYear(1);
+        baseNight = firstNight.toEpochDay();
+        numberOfNights = (int) (firstNight.plusYears(HORIZON_YEARS).toEpochDay() - baseNight);
+        roomTypeRates = new long[RoomType.values().length][numberOfNights];
+        for (long[] rates : roomTypeRates) {
+            Arrays.fill(rates, UNSET);
+        }
+        rooms = new HashMap<>();
+        prices = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Create a calendar covering {@value #HORIZON_YEARS} years from the first day of a year, keeping the rates set in
+     * another calendar on the nights both cover.
+     *
+     * @param date     A date of the first year covered.
+     * @param calendar The other calendar.
+     */
+    public RateCalendar(LocalDate date, RateCalendar calendar) {
+        this(date);
+        for (int row = 0; row < roomTypeRates.length; row++) {
+            copyRates(calendar, calendar.roomTypeRates[row], roomTypeRates[row]);
+        }
+        for (Map.Entry<String, long[]> entry : calendar.roomRates.entrySet()) {
+            long[] rates = newRates();
+            copyRates(calendar, entry.getValue(), rates);
+            roomRates.put(entry.getKey(), rates);
+        }
+    }
+
+    /**
+     * Get the first night covered.
+     *
+     * @return The date of the first night.
+     */
+    public LocalDate getFirstNight() {
+        return LocalDate.ofEpochDay(baseNight);
+    }
+
+    /**
+     * Get the night after the last night covered.
+     *
+     * @return The date of the night after the last night.
+     */
+    public LocalDate getEndNight() {
+        return LocalDate.ofEpochDay(baseNight + numberOfNights);
+    }
+
+    /**
+     * Price a room, replacing its prices if it was priced before. To be called again whenever its flat rate changes.
+     *
+     * @param room The room.
+     */
+    public synchronized void putRoom(Room room) {
+        rooms.put(room.getRoomNumber(), room);
+        prices.put(room.getRoomNumber(), sumRates(room));
+    }
+
+    /**
+     * Set the nightly rate of a room type over a period.
+     *
+     * @param roomType   The room type.
+     * @param firstNight Date of the first night.
+     * @param endNight   Date of the night after the last night.
+     * @param rate       The nightly rate, null to fall back to each room's flat rate.
+     * @throws IllegalArgumentException If the period is empty or not covered, or the rate is negative.
+     */
+    public synchronized void setRoomTypeRate(RoomType roomType, LocalDate firstNight, LocalDate endNight,
+                                             Money rate) {
+        fillRates(roomTypeRates[roomType.ordinal()], firstNight, endNight, rate);
+        for (Room room : rooms.values()) {
+            if (room.getRoomType() == roomType) {
+                prices.put(room.getRoomNumber(), sumRates(room));
+            }
+        }
+    }
+
+    /**
+     * Set the nightly rate of a single room over a period, overriding the rate of its room type.
+     *
+     * @param room       The room.
+     * @param firstNight Date of the first night.
+     * @param endNight   Date of the night after the last night.
+     * @param rate       The nightly rate, null to fall back to the rate of its room type.
+     * @throws IllegalArgumentException If the period is empty or not covered, or the rate is negative.
+     */
+    public synchronized void setRoomRate(Room room, LocalDate firstNight, LocalDate endNight, Money rate) {
+        long[] rates = roomRates.containsKey(room.getRoomNumber()) ? roomRates.get(room.getRoomNumber())
+                : newRates();
+        fillRates(rates, firstNight, endNight, rate);
+        roomRates.put(room.getRoomNumber(), rates);
+        putRoom(room);
+    }
+
+    /**
+     * Get the room price of a stay, before promotion and tax.
+     *
+     * @param room       The room.
+     * @param firstNight Date of the first night.
+     * @param endNight   Date of the night after the last night, which is not charged.
+     * @return The sum of the nightly rates of the stay.
+     */
+    public Money getStayPrice(Room room, LocalDate firstNight, LocalDate endNight) {
+        long[] sums = prices.get(room.getRoomNumber());
+        if (Objects.isNull(sums)) {
+            putRoom(room);
+            sums = prices.get(room.getRoomNumber());
+        }
+        long from = firstNight.toEpochDay() - baseNight;
+        long to = endNight.toEpochDay() - baseNight;
+        if (from >= to) {
+            return Money.ZERO;
+        }
+        long fromInHorizon = Math.min(Math.max(from, 0), numberOfNights);
+        long toInHorizon = Math.min(Math.max(to, 0), numberOfNights);
+        long cents = sums[(int) toInHorizon] - sums[(int) fromInHorizon];
+        for (long night = from; night < Math.min(to, 0); night++) {     // before the horizon
+            cents += getFlatNightRate(room, baseNight + night);
+        }
+        for (long night = Math.max(from, numberOfNights); night < to; night++) {     // after the horizon
+            cents += getFlatNightRate(room, baseNight + night);
+        }
+        return Money.ofCents(cents);
+    }
+
+    /**
+     * Get the rate of a room on a night.
+     *
+     * @param room  The room.
+     * @param night Date of the night.
+     * @return The nightly rate.
+     */
+    public Money getNightRate(Room room, LocalDate night) {
+        return getStayPrice(room, night, night.plusDays(1));
+    }
+
+    /**
+     * Compute the prefix sums of the nightly rates of a room.
+     *
+     * @param room The room.
+     * @return The prefix sums in cents, one more than the number of nights.
+     */
+    private long[] sumRates(Room room) {
+        long[] typeRates = roomTypeRates[room.getRoomType().ordinal()];
+        long[] overrides = roomRates.get(room.getRoomNumber());
+        long weekdayRate = room.getRate().percent(WEEKDAY_RATE).getCents();
+        long weekendRate = room.getRate().percent(WEEKEND_RATE).getCents();
+        int firstDay = LocalDate.ofEpochDay(baseNight).getDayOfWeek().getValue() - 1;
+        long[] sums = new long[numberOfNights + 1];
+        for (int night = 0; night < numberOfNights; night++) {
+            long rate;
+            if (Objects.nonNull(overrides) && overrides[night] != UNSET) {
+                rate = overrides[night];
+            } else if (typeRates[night] != UNSET) {
+                rate = typeRates[night];
+            } else {
+                rate = (firstDay + night) % 7 >= 5 ? weekendRate : weekdayRate;
+            }
+            sums[night + 1] = sums[night] + rate;
+        }
+        return sums;
+    }
+
+    /**
+     * Get the flat rate of a room on a night outside the horizon, where no rate can be set.
+     *
+     * @param room  The room.
+     * @param night Epoch day of the night.
+     * @return The nightly rate in cents.
+     */
+    private static long getFlatNightRate(Room room, long night) {
+        boolean isWeekend = LocalDate.ofEpochDay(night).getDayOfWeek().getValue() > 5;
+        return room.getRate().percent(isWeekend ? WEEKEND_RATE : WEEKDAY_RATE).getCents();
+    }
+
+    /**
+     * Set a row of rates over a period.
+     *
+     * @param rates      The row of rates in cents.
+     * @param firstNight Date of the first night.
+     * @param endNight   Date of the night after the last night.
+     * @param rate       The nightly rate, null to unset it.
+     * @throws IllegalArgumentException If the period is empty or not covered, or the rate is negative.
+     */
+    private void fillRates(long[] rates, LocalDate firstNight, LocalDate endNight, Money rate) {
+        long from = firstNight.toEpochDay() - baseNight;
+        long to = endNight.toEpochDay() - baseNight;
+        if (from < 0 || to > numberOfNights || from >= to) {
+            throw new IllegalArgumentException("Rates can only be set for nights from " + getFirstNight() +
+                    " to before " + getEndNight() + ".");
+        }
+        if (Objects.nonNull(rate) && rate.isNegative()) {
+            throw new IllegalArgumentException("Room rate must be greater or equals to 0.");
+        }
+        Arrays.fill(rates, (int) from, (int) to, Objects.isNull(rate) ? UNSET : rate.getCents());
+    }
+
+    /**
+     * Get a row with no rate set.
+     *
+     * @return The row of rates.
+     */
+    private long[] newRates() {
+        long[] rates = new long[numberOfNights];
+        Arrays.fill(rates, UNSET);
+        return rates;
+    }
+
+    /**
+     * Copy the rates of the nights covered by both this calendar and another calendar.
+     *
+     * @param calendar The other calendar.
+     * @param from     A row of rates of the other calendar.
+     * @param to       The row of rates of this calendar.
+     */
+    private void copyRates(RateCalendar calendar, long[] from, long[] to) {
+        long firstNight = Math.max(baseNight, calendar.baseNight);
+        long endNight = Math.min(baseNight + numberOfNights, calendar.baseNight + calendar.numberOfNights);
+        if (firstNight < endNight) {
+            System.arraycopy(from, (int) (firstNight - calendar.baseNight), to, (int) (firstNight - baseNight),
+                    (int) (endNight - firstNight));
+        }
+    }
+
+    /**
+     * Restore the calendar from its serialized form, with no room priced.
+     *
+     * @param in The stream to read from.
+     * @throws IOException            If the calendar cannot be read.
+     * @throws ClassNotFoundException If a class of the calendar cannot be found.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        rooms = new HashMap<>();
+        prices = new ConcurrentHashMap<>();
+    }
+}
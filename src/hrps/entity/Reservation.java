@@ -3,7 +3,10 @@ package hrps.entity;
 import hrps.exception.IllegalChangeOfDateException;
 import hrps.exception.InvalidStatusChangeException;
 
-import java.io.Serializable;
+import tool.ReportWriter;
+import tool.TableReportWriter;
+
+import java.io.*;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -14,7 +17,10 @@ import java.util.UUID;
  * @author An Ruyi
  */
 public abstract class Reservation implements Serializable {
-    // private static final long serialVersionUID = 1L;
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = -5302300210115623044L;
     /**
      * This reservation's code, unique for each reservation.
      */
@@ -35,6 +41,11 @@ public abstract class Reservation implements Serializable {
      * Room number wished to be booked for this reservation.
      */
     private String roomNum;
+    /**
+     * Version stamp of this reservation, increased by one on every committed change (including status changes), used
+     * to detect concurrent modifications.
+     */
+    private long version;
 
     /**
      * This is only called when we would like to instantiate a new reservation's subclass,
@@ -161,6 +172,46 @@ public abstract class Reservation implements Serializable {
         return roomNum;
     }
 
+    /**
+     * Get the version stamp of this reservation.
+     *
+     * @return A long represents the current version of this reservation.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Increase the version stamp of this reservation by one, called whenever a change to this reservation is committed.
+     *
+     * @return The new version of this reservation.
+     */
+    public long incrementVersion() {
+        return ++version;
+    }
+
+    /**
+     * Put back the version stamp this reservation had before a change that could not be persisted.
+     *
+     * @param version The version before the change.
+     */
+    public void restoreVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Let the reservation that replaces this one after a status change continue this reservation's version history,
+     * so that a caller holding the version of this reservation cannot modify its successor.
+     *
+     * @param successor The reservation created from this reservation by a status change.
+     * @param <T>       Type of the successor.
+     * @return The successor, whose version is one greater than the version of this reservation.
+     */
+    <T extends Reservation> T succeededBy(T successor) {
+        ((Reservation) successor).version = version + 1;
+        return successor;
+    }
+
     /**
      * Get check-in time, return null if guest has not provided the information.
      *
@@ -241,33 +292,100 @@ public abstract class Reservation implements Serializable {
      */
     @Override
     public String toString() {
-        String checkInTimePrefix;
+        return toTable(getRoomNum(), getStatus(), guest.getGuestName(), guest.getContact(), numAdult, numChild,
+                getCheckInTimePrefix(), getCheckInTime(), getCheckOutTimePrefix(), getCheckOutTime());
+    }
+
+    /**
+     * Get the prefix of the check-in time's label, which tells if the time is expected or actual.
+     *
+     * @return "Actual " if the guest has checked in, "Expected " otherwise.
+     */
+    String getCheckInTimePrefix() {
         if (this instanceof CheckedInReservation || this instanceof CheckedOutReservation) {
-            checkInTimePrefix = "Actual ";
+            return "Actual ";
         } else {
-            checkInTimePrefix = "Expected ";
+            return "Expected ";
         }
-        String checkOutTimePrefix;
+    }
+
+    /**
+     * Get the prefix of the check-out time's label, which tells if the time is expected or actual.
+     *
+     * @return "Actual " if the guest has checked out, "Expected " otherwise.
+     */
+    String getCheckOutTimePrefix() {
         if (this instanceof CheckedOutReservation) {
-            checkOutTimePrefix = "Actual ";
+            return "Actual ";
         } else {
-            checkOutTimePrefix = "Expected ";
+            return "Expected ";
         }
+    }
+
+    /**
+     * Create a report writer that writes reservations in the table format of {@link #toString()}. Each reservation
+     * is a table of its own, written with a new report writer.
+     *
+     * @param out The writer to write to.
+     * @return The report writer.
+     */
+    public static ReportWriter tableWriter(Writer out) {
+        return new TableReportWriter(out, "| %-25s|  %-20s|%n", "---------------------------+-----------------------");
+    }
+
+    /**
+     * Write the details of a reservation row by row.
+     *
+     * @param writer             The report writer to write to.
+     * @param roomNum            Reserved room number.
+     * @param status             Reservation status.
+     * @param guestName          Guest's name.
+     * @param contact            Guest's contact.
+     * @param numAdult           Number of adults.
+     * @param numChild           Number of children.
+     * @param checkInTimePrefix  Prefix of the check-in time's label.
+     * @param checkInTime        Check-in time.
+     * @param checkOutTimePrefix Prefix of the check-out time's label.
+     * @param checkOutTime       Check-out time.
+     * @throws IOException If the reservation cannot be written.
+     */
+    static void writeTable(ReportWriter writer, String roomNum, String status, String guestName, String contact,
+                           int numAdult, int numChild, String checkInTimePrefix, LocalDateTime checkInTime,
+                           String checkOutTimePrefix, LocalDateTime checkOutTime) throws IOException {
+        writer.writeRow("Room number", roomNum);
+        writer.writeRow("Reservation status", status);
+        writer.writeRow("Guest Name", guestName);
+        writer.writeRow("Guest Contact", contact);
+        writer.writeRow("Number of Adult", Integer.toString(numAdult));
+        writer.writeRow("Number of children", Integer.toString(numChild));
+        writer.writeRow(checkInTimePrefix + "Check-in time", checkInTime.toString());
+        writer.writeRow(checkOutTimePrefix + "Check-out time", checkOutTime.toString());
+    }
 
-        String[][] table = new String[8][];
-        table[0] = new String[]{"Room number", getRoomNum()};
-        table[1] = new String[]{"Reservation status", getStatus()};
-        table[2] = new String[]{"Guest Name", guest.getGuestName()};
-        table[3] = new String[]{"Guest Contact", guest.getContact()};
-        table[4] = new String[]{"Number of Adult", Integer.toString(numAdult)};
-        table[5] = new String[]{"Number of children", Integer.toString(numChild)};
-        table[6] = new String[]{checkInTimePrefix + "Check-in time", getCheckInTime().toString()};
-        table[7] = new String[]{checkOutTimePrefix + "Check-out time", getCheckOutTime().toString()};
-        String separator = "---------------------------+-----------------------\n";
-        StringBuilder display = new StringBuilder(separator);
-        for (String[] row : table) {
-            display.append(String.format("| %-25s|  %-20s|%n", row));
-            display.append(separator);
+    /**
+     * Format basic reservation information in a table.
+     *
+     * @param roomNum            Reserved room number.
+     * @param status             Reservation status.
+     * @param guestName          Guest's name.
+     * @param contact            Guest's contact.
+     * @param numAdult           Number of adults.
+     * @param numChild           Number of children.
+     * @param checkInTimePrefix  Prefix of the check-in time's label.
+     * @param checkInTime        Check-in time.
+     * @param checkOutTimePrefix Prefix of the check-out time's label.
+     * @param checkOutTime       Check-out time.
+     * @return The table as a String.
+     */
+    static String toTable(String roomNum, String status, String guestName, String contact, int numAdult,
+                          int numChild, String checkInTimePrefix, LocalDateTime checkInTime,
+                          String checkOutTimePrefix, LocalDateTime checkOutTime) {
+        StringWriter display = new StringWriter();
+        try (ReportWriter writer = tableWriter(display)) {
+            writeTable(writer, roomNum, status, guestName, contact, numAdult, numChild, checkInTimePrefix,
+                    checkInTime, checkOutTimePrefix, checkOutTime);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
         return display.toString();
     }
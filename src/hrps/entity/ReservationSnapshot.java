@@ -0,0 +1,196 @@
+package hrps.entity;
+
+import tool.ReportWriter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * This class represents an immutable copy of a reservation's state at one point in time, used by reports and
+ * searches that must not block or be disturbed by updates.
+ *
+ * @author Peng Wenxuan
+ */
+public class ReservationSnapshot {
+    /**
+     * Reservation code.
+     */
+    private final UUID reservationCode;
+    /**
+     * Version of the reservation when it was copied.
+     */
+    private final long version;
+    /**
+     * Reservation status, eg. "Confirmed".
+     */
+    private final String status;
+    /**
+     * Reserved room number.
+     */
+    private final String roomNum;
+    /**
+     * Guest's name.
+     */
+    private final String guestName;
+    /**
+     * Guest's contact.
+     */
+    private final String contact;
+    /**
+     * Number of adults.
+     */
+    private final int numAdult;
+    /**
+     * Number of children.
+     */
+    private final int numChild;
+    /**
+     * Expected or actual check-in time.
+     */
+    private final LocalDateTime checkInTime;
+    /**
+     * Expected or actual check-out time.
+     */
+    private final LocalDateTime checkOutTime;
+    /**
+     * Prefix of the check-in time's label.
+     */
+    private final String checkInTimePrefix;
+    /**
+     * Prefix of the check-out time's label.
+     */
+    private final String checkOutTimePrefix;
+
+    /**
+     * Copy the current state of a reservation.
+     *
+     * @param reservation The reservation.
+     */
+    public ReservationSnapshot(Reservation reservation) {
+        this.reservationCode = reservation.getReservationCode();
+        this.version = reservation.getVersion();
+        this.status = reservation.getStatus();
+        this.roomNum = reservation.getRoomNum();
+        this.guestName = reservation.getGuest().getGuestName();
+        this.contact = reservation.getGuest().getContact();
+        this.numAdult = reservation.getNumAdult();
+        this.numChild = reservation.getNumChild();
+        this.checkInTime = reservation.getCheckInTime();
+        this.checkOutTime = reservation.getCheckOutTime();
+        this.checkInTimePrefix = reservation.getCheckInTimePrefix();
+        this.checkOutTimePrefix = reservation.getCheckOutTimePrefix();
+    }
+
+    /**
+     * Get the reservation code.
+     *
+     * @return The reservation code.
+     */
+    public UUID getReservationCode() {
+        return reservationCode;
+    }
+
+    /**
+     * Get the version of the reservation when it was copied.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the reservation status.
+     *
+     * @return The reservation status.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Get the reserved room number.
+     *
+     * @return The room number.
+     */
+    public String getRoomNum() {
+        return roomNum;
+    }
+
+    /**
+     * Get the guest's name.
+     *
+     * @return The guest's name.
+     */
+    public String getGuestName() {
+        return guestName;
+    }
+
+    /**
+     * Get the guest's contact.
+     *
+     * @return The guest's contact.
+     */
+    public String getContact() {
+        return contact;
+    }
+
+    /**
+     * Get the number of adults.
+     *
+     * @return The number of adults.
+     */
+    public int getNumAdult() {
+        return numAdult;
+    }
+
+    /**
+     * Get the number of children.
+     *
+     * @return The number of children.
+     */
+    public int getNumChild() {
+        return numChild;
+    }
+
+    /**
+     * Get the expected or actual check-in time.
+     *
+     * @return The check-in time.
+     */
+    public LocalDateTime getCheckInTime() {
+        return checkInTime;
+    }
+
+    /**
+     * Get the expected or actual check-out time.
+     *
+     * @return The check-out time.
+     */
+    public LocalDateTime getCheckOutTime() {
+        return checkOutTime;
+    }
+
+    /**
+     * Write the details of the reservation row by row, in the same rows as {@link Reservation#toString()}.
+     *
+     * @param writer The report writer to write to.
+     * @throws IOException If the reservation cannot be written.
+     */
+    public void writeTo(ReportWriter writer) throws IOException {
+        Reservation.writeTable(writer, roomNum, status, guestName, contact, numAdult, numChild, checkInTimePrefix,
+                checkInTime, checkOutTimePrefix, checkOutTime);
+    }
+
+    /**
+     * Get a string of the reservation in the same table format as {@link Reservation#toString()}.
+     *
+     * @return A String represents this reservation.
+     */
+    @Override
+    public String toString() {
+        return Reservation.toTable(roomNum, status, guestName, contact, numAdult, numChild, checkInTimePrefix,
+                checkInTime, checkOutTimePrefix, checkOutTime);
+    }
+}
@@ -0,0 +1,190 @@
+package hrps.entity;
+
+/**
+ * This class represents the revenue of the stays settled over a period, with the hotel's key revenue measures: the
+ * average daily rate (ADR), which is the room revenue per room-night sold, and the revenue per available room
+ * (RevPAR), which is the room revenue per room-night available. Revenues are taken before promotion and tax.
+ *
+ * @author Peng Wenxuan
+ */
+public class RevenueSummary {
+    /**
+     * Number of stays settled.
+     */
+    private final long numberOfStays;
+    /**
+     * Number of room-nights sold on weekdays.
+     */
+    private final long weekdayRoomNights;
+    /**
+     * Number of room-nights sold on weekends.
+     */
+    private final long weekendRoomNights;
+    /**
+     * Room revenue.
+     */
+    private final Money roomRevenue;
+    /**
+     * Room service revenue.
+     */
+    private final Money serviceRevenue;
+    /**
+     * Price reduction by promotion.
+     */
+    private final Money promotionDiscount;
+    /**
+     * Tax collected.
+     */
+    private final Money tax;
+    /**
+     * Number of room-nights available over the period.
+     */
+    private final long availableRoomNights;
+
+    /**
+     * Create a revenue summary.
+     *
+     * @param numberOfStays       Number of stays settled.
+     * @param weekdayRoomNights   Number of room-nights sold on weekdays.
+     * @param weekendRoomNights   Number of room-nights sold on weekends.
+     * @param roomRevenue         Room revenue.
+     * @param serviceRevenue      Room service revenue.
+     * @param promotionDiscount   Price reduction by promotion.
+     * @param tax                 Tax collected.
+     * @param availableRoomNights Number of room-nights available over the period.
+     */
+    public RevenueSummary(long numberOfStays, long weekdayRoomNights, long weekendRoomNights, Money roomRevenue,
+                          Money serviceRevenue, Money promotionDiscount, Money tax, long availableRoomNights) {
+        this.numberOfStays = numberOfStays;
+        this.weekdayRoomNights = weekdayRoomNights;
+        this.weekendRoomNights = weekendRoomNights;
+        this.roomRevenue = roomRevenue;
+        this.serviceRevenue = serviceRevenue;
+        this.promotionDiscount = promotionDiscount;
+        this.tax = tax;
+        this.availableRoomNights = availableRoomNights;
+    }
+
+    /**
+     * Get the number of stays settled.
+     *
+     * @return The number of stays.
+     */
+    public long getNumberOfStays() {
+        return numberOfStays;
+    }
+
+    /**
+     * Get the number of room-nights sold.
+     *
+     * @return The number of room-nights.
+     */
+    public long getRoomNights() {
+        return weekdayRoomNights + weekendRoomNights;
+    }
+
+    /**
+     * Get the number of room-nights sold on weekdays.
+     *
+     * @return The number of room-nights.
+     */
+    public long getWeekdayRoomNights() {
+        return weekdayRoomNights;
+    }
+
+    /**
+     * Get the number of room-nights sold on weekends.
+     *
+     * @return The number of room-nights.
+     */
+    public long getWeekendRoomNights() {
+        return weekendRoomNights;
+    }
+
+    /**
+     * Get the room revenue.
+     *
+     * @return The room revenue.
+     */
+    public Money getRoomRevenue() {
+        return roomRevenue;
+    }
+
+    /**
+     * Get the room service revenue.
+     *
+     * @return The room service revenue.
+     */
+    public Money getServiceRevenue() {
+        return serviceRevenue;
+    }
+
+    /**
+     * Get the price reduction by promotion.
+     *
+     * @return The promotion discount.
+     */
+    public Money getPromotionDiscount() {
+        return promotionDiscount;
+    }
+
+    /**
+     * Get the tax collected.
+     *
+     * @return The tax.
+     */
+    public Money getTax() {
+        return tax;
+    }
+
+    /**
+     * Get the number of room-nights available over the period.
+     *
+     * @return The number of room-nights.
+     */
+    public long getAvailableRoomNights() {
+        return availableRoomNights;
+    }
+
+    /**
+     * Get the average daily rate, the room revenue per room-night sold.
+     *
+     * @return The ADR rounded half up to the cent, or 0 if no room-night is sold.
+     */
+    public Money getAverageDailyRate() {
+        return divide(roomRevenue, getRoomNights());
+    }
+
+    /**
+     * Get the revenue per available room, the room revenue per room-night available.
+     *
+     * @return The RevPAR rounded half up to the cent, or 0 if no room-night is available.
+     */
+    public Money getRevenuePerAvailableRoom() {
+        return divide(roomRevenue, availableRoomNights);
+    }
+
+    /**
+     * Divide an amount by a number of room-nights.
+     *
+     * @param amount     The amount.
+     * @param roomNights The number of room-nights.
+     * @return The amount per room-night rounded half up to the cent, or 0 if there is no room-night.
+     */
+    private static Money divide(Money amount, long roomNights) {
+        return roomNights == 0 ? Money.ZERO
+                : Money.ofCents(Math.floorDiv(2 * amount.getCents() + roomNights, 2 * roomNights));
+    }
+
+    /**
+     * Represents the summary as a line of its measures.
+     *
+     * @return A String representing the summary.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d stays, %d room-nights, room revenue $%s, ADR $%s, RevPAR $%s, " +
+                        "service revenue $%s", numberOfStays, getRoomNights(), roomRevenue, getAverageDailyRate(),
+                getRevenuePerAvailableRoom(), serviceRevenue);
+    }
+}
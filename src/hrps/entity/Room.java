@@ -5,6 +5,8 @@ import hrps.entity.enums.RoomFacing;
 import hrps.entity.enums.RoomStatus;
 import hrps.entity.enums.RoomType;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 /**
@@ -14,6 +16,10 @@ import java.io.Serializable;
  * @author An Ruyi
  */
 public class Room implements Serializable {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = -3267218617456697398L;
     /**
      * This room's number, unique for each room.
      */
@@ -43,9 +49,14 @@ public class Room implements Serializable {
      */
     private boolean isSmokingFree;
     /**
-     * This room's base rate.
+     * This room's base rate in dollars, the form in which it is serialized so that existing room data files stay
+     * readable.
      */
     private double rate;
+    /**
+     * This room's base rate in cents, set with the rate in dollars and when the room is read from a data file.
+     */
+    private transient long rateCents;
     /**
      * This room's currently staying guest, null if no one is staying in this room.
      */
@@ -66,7 +77,7 @@ public class Room implements Serializable {
      */
     public Room(String roomNumber, RoomType roomType, RoomBedType roomBedType,
                 RoomFacing roomFacing, RoomStatus roomStatus,
-                boolean hasWiFi, boolean isSmokingFree, double rate) {
+                boolean hasWiFi, boolean isSmokingFree, Money rate) {
         this.roomNumber = roomNumber;
         this.roomType = roomType;
         this.roomBedType = roomBedType;
@@ -74,7 +85,20 @@ public class Room implements Serializable {
         this.roomStatus = roomStatus;
         this.hasWiFi = hasWiFi;
         this.isSmokingFree = isSmokingFree;
-        this.rate = rate;
+        this.rate = rate.toDouble();
+        this.rateCents = rate.getCents();
+    }
+
+    /**
+     * Read a room from a data file, and keep its base rate in cents.
+     *
+     * @param in The stream the room is read from.
+     * @throws IOException            If the room cannot be read.
+     * @throws ClassNotFoundException If the class of a field cannot be found.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        rateCents = Money.of(rate).getCents();
     }
 
     /**
@@ -152,10 +176,10 @@ public class Room implements Serializable {
     /**
      * Get the price per day of this room.
      *
-     * @return A double representing the price per day of this room.
+     * @return The price per day of this room.
      */
-    public double getRate() {
-        return rate;
+    public Money getRate() {
+        return Money.ofCents(rateCents);
     }
 
     /**
@@ -181,8 +205,9 @@ public class Room implements Serializable {
      *
      * @param rate New rate.
      */
-    public void setRate(double rate) {
-        this.rate = rate;
+    public void setRate(Money rate) {
+        this.rate = rate.toDouble();
+        this.rateCents = rate.getCents();
     }
 
     /**
@@ -200,7 +225,7 @@ public class Room implements Serializable {
         table[4] = new String[]{"Room Status", roomStatus.toString()};
         table[5] = new String[]{"Wifi", hasWiFi ? "Yes" : "No"};
         table[6] = new String[]{"Is Smoking Free", isSmokingFree ? "Yes" : "No"};
-        table[7] = new String[]{"Rate", String.format("%.2f", rate)};
+        table[7] = new String[]{"Rate", getRate().toString()};
         String separator = "----------------------+-----------------------\n";
         StringBuilder display = new StringBuilder(separator);
         for (String[] row : table) {
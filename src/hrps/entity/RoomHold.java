@@ -0,0 +1,118 @@
+package hrps.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * This class represents a short-lived hold on a room for a period of stay, placed while a guest completes a booking
+ * (eg. at a self-service kiosk). While the hold has not expired, the room is not available to other bookings for that
+ * period. Holds are kept in memory only.
+ *
+ * @author Peng Wenxuan
+ */
+public class RoomHold {
+    /**
+     * This hold's ID, unique for each hold.
+     */
+    private final UUID holdId;
+    /**
+     * Number of the held room.
+     */
+    private final String roomNum;
+    /**
+     * Check-in time of the held period.
+     */
+    private final LocalDateTime checkInTime;
+    /**
+     * Check-out time of the held period.
+     */
+    private final LocalDateTime checkOutTime;
+    /**
+     * Time after which this hold no longer blocks the room.
+     */
+    private final LocalDateTime expiryTime;
+
+    /**
+     * Create a hold on a room.
+     *
+     * @param roomNum      Number of the held room.
+     * @param checkInTime  Check-in time of the held period.
+     * @param checkOutTime Check-out time of the held period.
+     * @param expiryTime   Time after which the hold expires.
+     */
+    public RoomHold(String roomNum, LocalDateTime checkInTime, LocalDateTime checkOutTime, LocalDateTime expiryTime) {
+        this.holdId = UUID.randomUUID();
+        this.roomNum = roomNum;
+        this.checkInTime = checkInTime;
+        this.checkOutTime = checkOutTime;
+        this.expiryTime = expiryTime;
+    }
+
+    /**
+     * Get this hold's ID.
+     *
+     * @return A UUID represents this hold's ID.
+     */
+    public UUID getHoldId() {
+        return holdId;
+    }
+
+    /**
+     * Get the number of the held room.
+     *
+     * @return A String represents the room number.
+     */
+    public String getRoomNum() {
+        return roomNum;
+    }
+
+    /**
+     * Get the check-in time of the held period.
+     *
+     * @return A LocalDateTime represents the check-in time.
+     */
+    public LocalDateTime getCheckInTime() {
+        return checkInTime;
+    }
+
+    /**
+     * Get the check-out time of the held period.
+     *
+     * @return A LocalDateTime represents the check-out time.
+     */
+    public LocalDateTime getCheckOutTime() {
+        return checkOutTime;
+    }
+
+    /**
+     * Get the time after which this hold expires.
+     *
+     * @return A LocalDateTime represents the expiry time.
+     */
+    public LocalDateTime getExpiryTime() {
+        return expiryTime;
+    }
+
+    /**
+     * Check if this hold has expired at the specified time.
+     *
+     * @param now The time to check at.
+     * @return true if the hold has expired, false otherwise.
+     */
+    public boolean isExpired(LocalDateTime now) {
+        return now.isAfter(expiryTime);
+    }
+
+    /**
+     * Check if this hold blocks the specified room for any part of the specified period.
+     *
+     * @param roomNum      The room number.
+     * @param checkInTime  Check-in time of the period.
+     * @param checkOutTime Check-out time of the period.
+     * @return true if the hold is on the room and overlaps the period.
+     */
+    public boolean overlaps(String roomNum, LocalDateTime checkInTime, LocalDateTime checkOutTime) {
+        return this.roomNum.equals(roomNum)
+                && !(checkInTime.isAfter(this.checkOutTime) || checkOutTime.isBefore(this.checkInTime));
+    }
+}
@@ -0,0 +1,197 @@
+package hrps.entity;
+
+import hrps.entity.enums.RoomStatus;
+import hrps.entity.enums.RoomType;
+
+import java.util.*;
+
+/**
+ * This class represents an immutable index of room numbers by room type and room status, which answers occupancy
+ * counts in constant time and lists of rooms in time proportional to their length. A status change produces a new
+ * index that shares every untouched cell with the old one, so readers can use an index without any lock while
+ * updates go on.
+ *
+ * @author Peng Wenxuan
+ */
+public class RoomOccupancyIndex {
+    /**
+     * Sorted room numbers of each room type and status.
+     */
+    private final EnumMap<RoomType, EnumMap<RoomStatus, String[]>> roomNumbers;
+
+    /**
+     * Create an index from its cells.
+     *
+     * @param roomNumbers Sorted room numbers of each room type and status.
+     */
+    private RoomOccupancyIndex(EnumMap<RoomType, EnumMap<RoomStatus, String[]>> roomNumbers) {
+        this.roomNumbers = roomNumbers;
+    }
+
+    /**
+     * Build an index of the current statuses of rooms.
+     *
+     * @param rooms The rooms.
+     * @return The index.
+     */
+    public static RoomOccupancyIndex of(List<Room> rooms) {
+        EnumMap<RoomType, EnumMap<RoomStatus, List<String>>> lists = new EnumMap<>(RoomType.class);
+        for (RoomType type : RoomType.values()) {
+            lists.put(type, new EnumMap<>(RoomStatus.class));
+            for (RoomStatus status : RoomStatus.values()) {
+                lists.get(type).put(status, new ArrayList<>());
+            }
+        }
+        for (Room room : rooms) {
+            lists.get(room.getRoomType()).get(room.getRoomStatus()).add(room.getRoomNumber());
+        }
+        EnumMap<RoomType, EnumMap<RoomStatus, String[]>> roomNumbers = new EnumMap<>(RoomType.class);
+        for (RoomType type : RoomType.values()) {
+            roomNumbers.put(type, new EnumMap<>(RoomStatus.class));
+            for (RoomStatus status : RoomStatus.values()) {
+                String[] cell = lists.get(type).get(status).toArray(new String[0]);
+                Arrays.sort(cell);
+                roomNumbers.get(type).put(status, cell);
+            }
+        }
+        return new RoomOccupancyIndex(roomNumbers);
+    }
+
+    /**
+     * Get the index after a room changes from one status to another.
+     *
+     * @param roomType   Type of the room.
+     * @param roomNumber Number of the room.
+     * @param oldStatus  Status before the change.
+     * @param newStatus  Status after the change.
+     * @return The new index, or this index if the status did not change.
+     */
+    public RoomOccupancyIndex withStatusChange(RoomType roomType, String roomNumber, RoomStatus oldStatus,
+                                               RoomStatus newStatus) {
+        if (oldStatus == newStatus) {
+            return this;
+        }
+        EnumMap<RoomStatus, String[]> cells = new EnumMap<>(roomNumbers.get(roomType));
+        cells.put(oldStatus, without(cells.get(oldStatus), roomNumber));
+        cells.put(newStatus, with(cells.get(newStatus), roomNumber));
+        EnumMap<RoomType, EnumMap<RoomStatus, String[]>> newRoomNumbers = new EnumMap<>(roomNumbers);
+        newRoomNumbers.put(roomType, cells);
+        return new RoomOccupancyIndex(newRoomNumbers);
+    }
+
+    /**
+     * Get the number of rooms of a type with a status.
+     *
+     * @param roomType   The room type.
+     * @param roomStatus The room status.
+     * @return The number of rooms.
+     */
+    public int count(RoomType roomType, RoomStatus roomStatus) {
+        return roomNumbers.get(roomType).get(roomStatus).length;
+    }
+
+    /**
+     * Get the number of rooms of a type.
+     *
+     * @param roomType The room type.
+     * @return The number of rooms.
+     */
+    public int count(RoomType roomType) {
+        int total = 0;
+        for (String[] cell : roomNumbers.get(roomType).values()) {
+            total += cell.length;
+        }
+        return total;
+    }
+
+    /**
+     * Get the number of rooms with a status.
+     *
+     * @param roomStatus The room status.
+     * @return The number of rooms.
+     */
+    public int count(RoomStatus roomStatus) {
+        int total = 0;
+        for (EnumMap<RoomStatus, String[]> cells : roomNumbers.values()) {
+            total += cells.get(roomStatus).length;
+        }
+        return total;
+    }
+
+    /**
+     * Get the numbers of rooms of a type with a status.
+     *
+     * @param roomType   The room type.
+     * @param roomStatus The room status.
+     * @return An unmodifiable sorted list of room numbers.
+     */
+    public List<String> roomNumbers(RoomType roomType, RoomStatus roomStatus) {
+        return Collections.unmodifiableList(Arrays.asList(roomNumbers.get(roomType).get(roomStatus)));
+    }
+
+    /**
+     * Get the numbers of rooms with a status, of all types.
+     *
+     * @param roomStatus The room status.
+     * @return A sorted list of room numbers.
+     */
+    public List<String> roomNumbers(RoomStatus roomStatus) {
+        List<String[]> cells = new ArrayList<>();
+        for (EnumMap<RoomStatus, String[]> typeCells : roomNumbers.values()) {
+            cells.add(typeCells.get(roomStatus));
+        }
+        int[] positions = new int[cells.size()];
+        List<String> merged = new ArrayList<>(count(roomStatus));
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < cells.size(); i++) {
+                if (positions[i] < cells.get(i).length && (next < 0
+                        || cells.get(i)[positions[i]].compareTo(cells.get(next)[positions[next]]) < 0)) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                return merged;
+            }
+            merged.add(cells.get(next)[positions[next]++]);
+        }
+    }
+
+    /**
+     * Copy a sorted cell with a room number added.
+     *
+     * @param cell       The cell.
+     * @param roomNumber The room number.
+     * @return The new cell.
+     */
+    private static String[] with(String[] cell, String roomNumber) {
+        int position = Arrays.binarySearch(cell, roomNumber);
+        if (position >= 0) {
+            return cell;
+        }
+        position = -position - 1;
+        String[] newCell = new String[cell.length + 1];
+        System.arraycopy(cell, 0, newCell, 0, position);
+        newCell[position] = roomNumber;
+        System.arraycopy(cell, position, newCell, position + 1, cell.length - position);
+        return newCell;
+    }
+
+    /**
+     * Copy a sorted cell with a room number removed.
+     *
+     * @param cell       The cell.
+     * @param roomNumber The room number.
+     * @return The new cell.
+     */
+    private static String[] without(String[] cell, String roomNumber) {
+        int position = Arrays.binarySearch(cell, roomNumber);
+        if (position < 0) {
+            return cell;
+        }
+        String[] newCell = new String[cell.length - 1];
+        System.arraycopy(cell, 0, newCell, 0, position);
+        System.arraycopy(cell, position + 1, newCell, position, cell.length - position - 1);
+        return newCell;
+    }
+}
@@ -0,0 +1,135 @@
+package hrps.entity;
+
+import hrps.entity.enums.RoomBedType;
+import hrps.entity.enums.RoomFacing;
+import hrps.entity.enums.RoomStatus;
+import hrps.entity.enums.RoomType;
+
+/**
+ * This class represents an immutable copy of a room's state at one point in time, used by reports and searches that
+ * must not block or be disturbed by updates.
+ *
+ * @author Peng Wenxuan
+ */
+public class RoomSnapshot {
+    /**
+     * Room number.
+     */
+    private final String roomNumber;
+    /**
+     * Room type.
+     */
+    private final RoomType roomType;
+    /**
+     * Room bed type.
+     */
+    private final RoomBedType roomBedType;
+    /**
+     * Room facing direction.
+     */
+    private final RoomFacing roomFacing;
+    /**
+     * Room status.
+     */
+    private final RoomStatus roomStatus;
+    /**
+     * Whether the room has WiFi.
+     */
+    private final boolean hasWiFi;
+    /**
+     * Whether the room is smoking free.
+     */
+    private final boolean isSmokingFree;
+    /**
+     * Room rate.
+     */
+    private final Money rate;
+
+    /**
+     * Copy the current state of a room.
+     *
+     * @param room The room.
+     */
+    public RoomSnapshot(Room room) {
+        this.roomNumber = room.getRoomNumber();
+        this.roomType = room.getRoomType();
+        this.roomBedType = room.getRoomBedType();
+        this.roomFacing = room.getRoomFacing();
+        this.roomStatus = room.getRoomStatus();
+        this.hasWiFi = room.isHasWiFi();
+        this.isSmokingFree = room.isSmokingFree();
+        this.rate = room.getRate();
+    }
+
+    /**
+     * Get the room number.
+     *
+     * @return The room number.
+     */
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    /**
+     * Get the room type.
+     *
+     * @return The room type.
+     */
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    /**
+     * Get the room bed type.
+     *
+     * @return The room bed type.
+     */
+    public RoomBedType getRoomBedType() {
+        return roomBedType;
+    }
+
+    /**
+     * Get the room facing direction.
+     *
+     * @return The room facing direction.
+     */
+    public RoomFacing getRoomFacing() {
+        return roomFacing;
+    }
+
+    /**
+     * Get the room status.
+     *
+     * @return The room status.
+     */
+    public RoomStatus getRoomStatus() {
+        return roomStatus;
+    }
+
+    /**
+     * Check if the room has WiFi.
+     *
+     * @return true if the room has WiFi.
+     */
+    public boolean isHasWiFi() {
+        return hasWiFi;
+    }
+
+    /**
+     * Check if the room is smoking free.
+     *
+     * @return true if the room is smoking free.
+     */
+    public boolean isSmokingFree() {
+        return isSmokingFree;
+    }
+
+    /**
+     * Get the room rate.
+     *
+     * @return The room rate.
+     */
+    public Money getRate() {
+        return rate;
+    }
+}
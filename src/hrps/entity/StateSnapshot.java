@@ -0,0 +1,97 @@
+package hrps.entity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * This class represents an immutable, consistent view of all rooms, reservations and room service orders as of one
+ * commit. Readers can use it without any lock while updates go on.
+ *
+ * @author Peng Wenxuan
+ */
+public class StateSnapshot {
+    /**
+     * All rooms.
+     */
+    private final List<RoomSnapshot> rooms;
+    /**
+     * All reservations not in the waitlist.
+     */
+    private final List<ReservationSnapshot> reservations;
+    /**
+     * All reservations in the waitlist.
+     */
+    private final List<ReservationSnapshot> waitListReservations;
+    /**
+     * All room service orders being handled.
+     */
+    private final List<OrderSnapshot> orders;
+    /**
+     * Time the snapshot was published.
+     */
+    private final LocalDateTime publishTime;
+
+    /**
+     * Create a snapshot.
+     *
+     * @param rooms                All rooms.
+     * @param reservations         All reservations not in the waitlist.
+     * @param waitListReservations All reservations in the waitlist.
+     * @param orders               All room service orders being handled.
+     * @param publishTime          Time the snapshot is published.
+     */
+    public StateSnapshot(List<RoomSnapshot> rooms, List<ReservationSnapshot> reservations,
+                         List<ReservationSnapshot> waitListReservations, List<OrderSnapshot> orders,
+                         LocalDateTime publishTime) {
+        this.rooms = List.copyOf(rooms);
+        this.reservations = List.copyOf(reservations);
+        this.waitListReservations = List.copyOf(waitListReservations);
+        this.orders = List.copyOf(orders);
+        this.publishTime = publishTime;
+    }
+
+    /**
+     * Get all rooms.
+     *
+     * @return An unmodifiable list of all rooms.
+     */
+    public List<RoomSnapshot> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Get all reservations not in the waitlist.
+     *
+     * @return An unmodifiable list of the reservations.
+     */
+    public List<ReservationSnapshot> getReservations() {
+        return reservations;
+    }
+
+    /**
+     * Get all reservations in the waitlist.
+     *
+     * @return An unmodifiable list of the reservations.
+     */
+    public List<ReservationSnapshot> getWaitListReservations() {
+        return waitListReservations;
+    }
+
+    /**
+     * Get all room service orders being handled.
+     *
+     * @return An unmodifiable list of the orders.
+     */
+    public List<OrderSnapshot> getOrders() {
+        return orders;
+    }
+
+    /**
+     * Get the time the snapshot was published.
+     *
+     * @return The publish time.
+     */
+    public LocalDateTime getPublishTime() {
+        return publishTime;
+    }
+}
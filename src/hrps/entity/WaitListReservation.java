@@ -13,6 +13,10 @@ import java.time.LocalDateTime;
  * @author An Ruyi, Peng Wenxuan
  */
 public class WaitListReservation extends Reservation {
+    /**
+     * For serialization.
+     */
+    private static final long serialVersionUID = 491413239134896305L;
     /**
      * Guest's desired check-in time.
      */
@@ -51,13 +55,14 @@ public class WaitListReservation extends Reservation {
 
     @Override
     public ConfirmedReservation confirm(String roomNum) {
-        return new ConfirmedReservation(getNumAdult(), getNumChild(), getGuest(),
-                desiredCheckInTime, desiredCheckOutTime, roomNum);
+        return succeededBy(new ConfirmedReservation(getNumAdult(), getNumChild(), getGuest(),
+                desiredCheckInTime, desiredCheckOutTime, roomNum));
     }
 
     @Override
     public ExpiredReservation cancel() {
-        return new ExpiredReservation(getNumAdult(), getNumChild(), getGuest(), getRoomNum(), desiredCheckInTime);
+        return succeededBy(new ExpiredReservation(getNumAdult(), getNumChild(), getGuest(), getRoomNum(),
+                desiredCheckInTime));
     }
 
     @Override
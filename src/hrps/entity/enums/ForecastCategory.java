@@ -0,0 +1,19 @@
+package hrps.entity.enums;
+
+/**
+ * All kinds of room-nights counted by the occupancy forecast.
+ */
+public enum ForecastCategory {
+    /**
+     * Room-nights of confirmed reservations that are not checked in yet.
+     */
+    CONFIRMED,
+    /**
+     * Room-nights of checked-in reservations until their expected check-out.
+     */
+    CHECKED_IN,
+    /**
+     * Room-nights wished by waitlisted reservations.
+     */
+    WAITLISTED
+}
@@ -0,0 +1,19 @@
+package hrps.entity.enums;
+
+/**
+ * All kinds of postings to a stay's folio.
+ */
+public enum PostingType {
+    /**
+     * A night's room charge, posted by the night audit.
+     */
+    ROOM_CHARGE,
+    /**
+     * A room service order.
+     */
+    ROOM_SERVICE,
+    /**
+     * A manual adjustment, negative for a credit.
+     */
+    ADJUSTMENT
+}
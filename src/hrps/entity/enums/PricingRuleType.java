@@ -0,0 +1,23 @@
+package hrps.entity.enums;
+
+/**
+ * All kinds of pricing rules, in the order their stages are applied to a bill.
+ */
+public enum PricingRuleType {
+    /**
+     * A charge per child per night.
+     */
+    CHILD,
+    /**
+     * A percentage off for guests who give a promotion code.
+     */
+    PROMO_CODE,
+    /**
+     * A percentage off for stays of at least a number of nights.
+     */
+    LENGTH_OF_STAY,
+    /**
+     * A percentage of the price after all discounts and charges.
+     */
+    TAX
+}
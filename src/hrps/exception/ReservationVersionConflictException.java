@@ -0,0 +1,14 @@
+package hrps.exception;
+
+/**
+ * When a reservation was changed by another operation after the caller read it, i.e. the version the caller expected
+ * is no longer the current version of the reservation. The caller may reload the reservation and retry.
+ */
+public class ReservationVersionConflictException extends HRPSException {
+    private static final String RESERVATION_VERSION_CONFLICT_MESSAGE = "This reservation has been modified by " +
+            "another operation. Please reload it and try again.";
+
+    public ReservationVersionConflictException() {
+        super(RESERVATION_VERSION_CONFLICT_MESSAGE);
+    }
+}
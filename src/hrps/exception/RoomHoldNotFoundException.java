@@ -0,0 +1,12 @@
+package hrps.exception;
+
+/**
+ * When trying to use or release a room hold that does not exist or has expired.
+ */
+public class RoomHoldNotFoundException extends HRPSException {
+    private static final String ROOM_HOLD_NOT_FOUND_MESSAGE = "The room hold does not exist or has expired.";
+
+    public RoomHoldNotFoundException() {
+        super(ROOM_HOLD_NOT_FOUND_MESSAGE);
+    }
+}
@@ -0,0 +1,13 @@
+package hrps.exception;
+
+/**
+ * When trying to book a room that is not available for the requested period of stay.
+ */
+public class RoomNotAvailableException extends HRPSException {
+    private static final String ROOM_NOT_AVAILABLE_MESSAGE = "The room is not available for the requested " +
+            "period of stay.";
+
+    public RoomNotAvailableException() {
+        super(ROOM_NOT_AVAILABLE_MESSAGE);
+    }
+}
@@ -0,0 +1,112 @@
+package tool;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * CsvReportWriter writes a report as comma-separated values. A cell containing a comma, a double quote or a line
+ * break is quoted, and reports have no title.
+ */
+public class CsvReportWriter implements ReportWriter {
+    /**
+     * The buffered Writer to write to.
+     */
+    private final BufferedWriter out;
+    /**
+     * Whether a row has been written, the first row being flushed at once.
+     */
+    private boolean hasWrittenRow = false;
+
+    /**
+     * Creates a CsvReportWriter.
+     *
+     * @param out the Writer to write to
+     */
+    public CsvReportWriter(Writer out) {
+        this.out = new BufferedWriter(out, BUFFER_SIZE);
+    }
+
+    /**
+     * Does nothing because CSV has no titles.
+     *
+     * @param title the title
+     */
+    @Override
+    public void writeTitle(String title) {
+    }
+
+    /**
+     * Writes the names of the columns as the first line.
+     *
+     * @param columnNames the names of the columns
+     * @throws IOException if the header cannot be written
+     */
+    @Override
+    public void writeHeader(String... columnNames) throws IOException {
+        writeRow((Object[]) columnNames);
+    }
+
+    /**
+     * Writes a row as a line of comma-separated cells.
+     *
+     * @param cells the cells of the row
+     * @throws IOException if the row cannot be written
+     */
+    @Override
+    public void writeRow(Object... cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeCell(String.valueOf(cells[i]));
+        }
+        out.write("\r\n");
+        if (!hasWrittenRow) {
+            hasWrittenRow = true;
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes a cell, quoting it if needed.
+     *
+     * @param cell the cell
+     * @throws IOException if the cell cannot be written
+     */
+    private void writeCell(String cell) throws IOException {
+        if (cell.indexOf(',') < 0 && cell.indexOf('"') < 0 && cell.indexOf('\n') < 0 && cell.indexOf('\r') < 0) {
+            out.write(cell);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < cell.length(); i++) {
+            char c = cell.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    /**
+     * Writes the buffered rows to the Writer and flushes it.
+     *
+     * @throws IOException if the rows cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Flushes this CsvReportWriter, leaving the Writer open.
+     *
+     * @throws IOException if the rows cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -0,0 +1,364 @@
+package tool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Json is a class that converts plain Java values to JSON text and parses JSON text back to plain Java values.
+ * Objects are represented as Maps, arrays as Lists, numbers as Doubles (or Longs when written), and the rest as
+ * Strings, Booleans or null.
+ */
+public class Json {
+    /**
+     * Dummy constructor because all methods of this class are static.
+     */
+    private Json() {}
+
+    /**
+     * Converts a value to JSON text. Maps become objects, Collections become arrays, Numbers and Booleans are
+     * written as they are, and any other value is written as the string returned by its toString().
+     *
+     * @param value the value to convert
+     * @return the JSON text of the value
+     */
+    public static String write(Object value) {
+        StringBuilder sb = new StringBuilder();
+        write(sb, value);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the JSON text of a value to a StringBuilder.
+     *
+     * @param sb    the StringBuilder to append to
+     * @param value the value to convert
+     */
+    public static void write(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof Map) {
+            sb.append('{');
+            boolean isFirst = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!isFirst) {
+                    sb.append(',');
+                }
+                isFirst = false;
+                quote(sb, String.valueOf(entry.getKey()));
+                sb.append(':');
+                write(sb, entry.getValue());
+            }
+            sb.append('}');
+        } else if (value instanceof Collection) {
+            sb.append('[');
+            boolean isFirst = true;
+            for (Object element : (Collection<?>) value) {
+                if (!isFirst) {
+                    sb.append(',');
+                }
+                isFirst = false;
+                write(sb, element);
+            }
+            sb.append(']');
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else {
+            quote(sb, value.toString());
+        }
+    }
+
+    /**
+     * Appends a string as a quoted and escaped JSON string.
+     *
+     * @param sb the StringBuilder to append to
+     * @param s  the string to quote
+     */
+    private static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Parses JSON text to a plain Java value.
+     *
+     * @param text the JSON text
+     * @return a Map, List, String, Double, Boolean or null
+     * @throws IllegalArgumentException if the text is not valid JSON
+     */
+    public static Object parse(String text) {
+        Parser parser = new Parser(text);
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw new IllegalArgumentException("Unexpected character at " + parser.pos);
+        }
+        return value;
+    }
+
+    /**
+     * Parses JSON text that must be an object.
+     *
+     * @param text the JSON text, an empty text is treated as an empty object
+     * @return the object as a Map
+     * @throws IllegalArgumentException if the text is not a valid JSON object
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String text) {
+        if (text.isBlank()) {
+            return new LinkedHashMap<>();
+        }
+        Object value = parse(text);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("A JSON object is expected");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * A recursive descent parser over a JSON text.
+     */
+    private static class Parser {
+        /**
+         * The text being parsed.
+         */
+        private final String text;
+        /**
+         * Index of the next character to read.
+         */
+        private int pos;
+
+        /**
+         * Creates a parser at the start of a text.
+         *
+         * @param text the text to parse
+         */
+        Parser(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Skips whitespace characters.
+         */
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        /**
+         * Reads the value starting at the current position.
+         *
+         * @return the value read
+         */
+        Object readValue() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw new IllegalArgumentException("Unexpected end of JSON text");
+            }
+            char c = text.charAt(pos);
+            switch (c) {
+                case '{':
+                    return readObject();
+                case '[':
+                    return readArray();
+                case '"':
+                    return readString();
+                case 't':
+                    return readLiteral("true", Boolean.TRUE);
+                case 'f':
+                    return readLiteral("false", Boolean.FALSE);
+                case 'n':
+                    return readLiteral("null", null);
+                default:
+                    return readNumber();
+            }
+        }
+
+        /**
+         * Reads an object.
+         *
+         * @return the object as a Map keeping the order of the keys
+         */
+        Map<String, Object> readObject() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return object;
+            }
+            do {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                object.put(key, readValue());
+                skipWhitespace();
+            } while (tryRead(','));
+            expect('}');
+            return object;
+        }
+
+        /**
+         * Reads an array.
+         *
+         * @return the array as a List
+         */
+        List<Object> readArray() {
+            List<Object> array = new ArrayList<>();
+            expect('[');
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return array;
+            }
+            do {
+                array.add(readValue());
+                skipWhitespace();
+            } while (tryRead(','));
+            expect(']');
+            return array;
+        }
+
+        /**
+         * Reads a string.
+         *
+         * @return the unescaped string
+         */
+        String readString() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                if (pos >= text.length()) {
+                    throw new IllegalArgumentException("Unterminated string");
+                }
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'u':
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default:
+                        sb.append(escaped);
+                }
+            }
+        }
+
+        /**
+         * Reads a number.
+         *
+         * @return the number as a Double
+         */
+        Double readNumber() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw new IllegalArgumentException("Unexpected character at " + pos);
+            }
+            return Double.parseDouble(text.substring(start, pos));
+        }
+
+        /**
+         * Reads a literal word such as true, false or null.
+         *
+         * @param word  the expected word
+         * @param value the value the word stands for
+         * @return the value
+         */
+        Object readLiteral(String word, Object value) {
+            if (!text.startsWith(word, pos)) {
+                throw new IllegalArgumentException("Unexpected character at " + pos);
+            }
+            pos += word.length();
+            return value;
+        }
+
+        /**
+         * Get the current character without consuming it.
+         *
+         * @return the current character, or 0 at the end of the text
+         */
+        char peek() {
+            return pos < text.length() ? text.charAt(pos) : 0;
+        }
+
+        /**
+         * Consumes the current character if it is the specified one.
+         *
+         * @param c the character to consume
+         * @return true if it was consumed
+         */
+        boolean tryRead(char c) {
+            if (peek() == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Consumes the current character, which must be the specified one.
+         *
+         * @param c the expected character
+         */
+        void expect(char c) {
+            if (!tryRead(c)) {
+                throw new IllegalArgumentException("Expected '" + c + "' at " + pos);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package tool;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * ReportWriter writes a report row by row to a Writer, so that a report of any size is written with bounded
+ * buffering and its first row reaches the Writer as soon as it is written. Closing a ReportWriter flushes it but
+ * leaves the underlying Writer open.
+ */
+public interface ReportWriter extends Closeable, Flushable {
+    /**
+     * Size of the buffer between a ReportWriter and its Writer, in characters.
+     */
+    int BUFFER_SIZE = 8192;
+
+    /**
+     * Writes the title of the report, if the format has titles.
+     *
+     * @param title the title
+     * @throws IOException if the title cannot be written
+     */
+    void writeTitle(String title) throws IOException;
+
+    /**
+     * Writes the names of the columns.
+     *
+     * @param columnNames the names of the columns
+     * @throws IOException if the header cannot be written
+     */
+    void writeHeader(String... columnNames) throws IOException;
+
+    /**
+     * Writes a row.
+     *
+     * @param cells the cells of the row, written as the strings returned by their toString()
+     * @throws IOException if the row cannot be written
+     */
+    void writeRow(Object... cells) throws IOException;
+}
@@ -1,11 +1,51 @@
 package tool;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * SerializeDB is a class that serializes data to a file and deserializes data from a file.
+ * A thread may open a batch, in which writes are only recorded, and commit it to write every file touched by the
+ * batch once. A batch is committed atomically: its files are written aside, then a commit log naming them is written,
+ * and only then are they moved into place. If the app stops before the moves are done, they are redone from the
+ * commit log the next time a file of that directory is used, so either all or none of a batch is ever read back.
+ * Listeners are told the names of the files after every successful write or commit.
  */
 public class SerializeDB {
+    /**
+     * Objects to be written when the batch opened by the current thread is committed, keyed by file name, or null if
+     * the thread has no open batch.
+     */
+    private static final ThreadLocal<Map<String, Object>> batch = new ThreadLocal<>();
+    /**
+     * Listeners told the names of the files written by each successful write or commit.
+     */
+    private static final List<Consumer<Set<String>>> commitListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Name of the commit log written next to the files of a batch while they are moved into place.
+     */
+    private static final String COMMIT_LOG_NAME = "commit.log";
+    /**
+     * Directories already checked for a commit that was not finished.
+     */
+    private static final Set<Path> recoveredDirectories = ConcurrentHashMap.newKeySet();
+    /**
+     * Held while a commit log is written, redone or removed.
+     */
+    private static final Object commitLock = new Object();
+
     /**
      * Deserializes an object from a binary file.
      *
@@ -13,6 +53,7 @@ public class SerializeDB {
      * @return the deserialized object
      */
     public static Object readSerializedObject(String filename) {
+        recover(Paths.get(filename));
         Object pDetails = null;
         FileInputStream fis = null;
         ObjectInputStream in = null;
@@ -37,6 +78,12 @@ public class SerializeDB {
      * @param object  the Serializable object to serialize
      */
     public static void writeSerializedObject(String filename, Object object) {
+        Map<String, Object> pending = batch.get();
+        if (pending != null) {
+            pending.put(filename, object);
+            return;
+        }
+        recover(Paths.get(filename));
         FileOutputStream fos = null;
         ObjectOutputStream out = null;
         try {
@@ -45,8 +92,151 @@ public class SerializeDB {
             out.writeObject(object);
             out.close();
             //	System.out.println("Object Persisted");
+            notifyCommitListeners(Set.of(filename));
         } catch (IOException ex) {
             ex.printStackTrace();
         }
     }
+
+    /**
+     * Opens a batch for the current thread. Until the batch is committed or aborted, writes of the thread are only
+     * recorded, and a later write to the same file replaces an earlier one.
+     *
+     * @throws IllegalStateException if the thread already has an open batch
+     */
+    public static void beginBatch() {
+        if (batch.get() != null) {
+            throw new IllegalStateException("A batch is already open");
+        }
+        batch.set(new LinkedHashMap<>());
+    }
+
+    /**
+     * Checks if the current thread has an open batch.
+     *
+     * @return true if a batch is open
+     */
+    public static boolean isInBatch() {
+        return batch.get() != null;
+    }
+
+    /**
+     * Closes the batch of the current thread and writes every file it touched once, with the last object written to
+     * it. Each file is written to a temporary file first, then a commit log naming them all is written, and only then
+     * are they moved over the old ones, so a failed write leaves all the old files intact.
+     *
+     * @throws IOException           if a file cannot be written, in which case none of the batch is committed
+     * @throws IllegalStateException if the thread has no open batch
+     */
+    public static void commitBatch() throws IOException {
+        Map<String, Object> pending = batch.get();
+        if (pending == null) {
+            throw new IllegalStateException("No batch is open");
+        }
+        batch.remove();
+        List<String> targets = new ArrayList<>(pending.size());
+        for (Map.Entry<String, Object> entry : pending.entrySet()) {
+            Path target = Paths.get(entry.getKey());
+            recover(target);
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(tempOf(target))))) {
+                out.writeObject(entry.getValue());
+            }
+            targets.add(entry.getKey());
+        }
+        if (!targets.isEmpty()) {
+            Path log = Paths.get(targets.get(0)).resolveSibling(COMMIT_LOG_NAME);
+            synchronized (commitLock) {
+                if (Files.exists(log)) {
+                    redo(log);      // finish an earlier commit before its log is replaced
+                }
+                Files.write(tempOf(log), targets, StandardCharsets.UTF_8);
+                // the batch is committed once its log is in place, the moves are redone later if they fail now
+                Files.move(tempOf(log), log, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                try {
+                    redo(log);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        notifyCommitListeners(pending.keySet());
+    }
+
+    /**
+     * Gets the file a file is written to before it is moved into place.
+     *
+     * @param file the file
+     * @return the temporary file
+     */
+    private static Path tempOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    /**
+     * Moves the files named by a commit log into place, then removes the log.
+     *
+     * @param log the commit log
+     * @throws IOException if a file cannot be moved or the log cannot be removed
+     */
+    private static void redo(Path log) throws IOException {
+        for (String filename : Files.readAllLines(log, StandardCharsets.UTF_8)) {
+            Path target = Paths.get(filename);
+            if (Files.exists(tempOf(target))) {
+                Files.move(tempOf(target), target, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        Files.delete(log);
+    }
+
+    /**
+     * Finishes a commit that was not finished in the directory of a file, the first time the directory is used.
+     *
+     * @param file the file
+     */
+    private static void recover(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory == null || !recoveredDirectories.add(directory)) {
+            return;
+        }
+        Path log = file.resolveSibling(COMMIT_LOG_NAME);
+        synchronized (commitLock) {
+            if (Files.exists(log)) {
+                try {
+                    redo(log);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the batch of the current thread without writing anything.
+     */
+    public static void abortBatch() {
+        batch.remove();
+    }
+
+    /**
+     * Adds a listener to be told the names of the files written by each successful write or commit. The listener is
+     * called on the writing thread, after the files are written.
+     *
+     * @param listener the listener
+     */
+    public static void addCommitListener(Consumer<Set<String>> listener) {
+        commitListeners.add(listener);
+    }
+
+    /**
+     * Tells every listener the names of files just written.
+     *
+     * @param filenames the names of the files
+     */
+    private static void notifyCommitListeners(Set<String> filenames) {
+        for (Consumer<Set<String>> listener : commitListeners) {
+            listener.accept(filenames);
+        }
+    }
 }
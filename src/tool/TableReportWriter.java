@@ -0,0 +1,159 @@
+package tool;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Formatter;
+
+/**
+ * TableReportWriter writes a report as a fixed-width table: every row is formatted with the same format and
+ * followed by a separator line. A table without a title also starts with a separator line.
+ */
+public class TableReportWriter implements ReportWriter {
+    /**
+     * The buffered Writer to write to.
+     */
+    private final BufferedWriter out;
+    /**
+     * Formats rows into the buffered Writer.
+     */
+    private final Formatter formatter;
+    /**
+     * The format of a row, with one %s conversion per column.
+     */
+    private final String rowFormat;
+    /**
+     * The separator line, without line break.
+     */
+    private final String separator;
+    /**
+     * Whether anything has been written.
+     */
+    private boolean hasStarted = false;
+    /**
+     * Whether a row has been written, the first row being flushed at once.
+     */
+    private boolean hasWrittenRow = false;
+
+    /**
+     * Creates a TableReportWriter with a row format and separator line.
+     *
+     * @param out       the Writer to write to
+     * @param rowFormat the format of a row, with one %s conversion per column and ending with a line break
+     * @param separator the separator line, without line break
+     */
+    public TableReportWriter(Writer out, String rowFormat, String separator) {
+        this.out = new BufferedWriter(out, BUFFER_SIZE);
+        this.formatter = new Formatter(this.out);
+        this.rowFormat = rowFormat;
+        this.separator = separator;
+    }
+
+    /**
+     * Creates a TableReportWriter with columns of the specified widths, written as "| cell| cell|". Longer cells
+     * widen their row.
+     *
+     * @param out    the Writer to write to
+     * @param widths the width of each column
+     */
+    public TableReportWriter(Writer out, int... widths) {
+        this(out, toRowFormat(widths), toSeparator(widths));
+    }
+
+    /**
+     * Writes the title as a line of its own.
+     *
+     * @param title the title
+     * @throws IOException if the title cannot be written
+     */
+    @Override
+    public void writeTitle(String title) throws IOException {
+        out.write(title);
+        out.write('\n');
+        hasStarted = true;
+    }
+
+    /**
+     * Writes the names of the columns as the first row.
+     *
+     * @param columnNames the names of the columns
+     * @throws IOException if the header cannot be written
+     */
+    @Override
+    public void writeHeader(String... columnNames) throws IOException {
+        writeRow((Object[]) columnNames);
+    }
+
+    /**
+     * Writes a row followed by a separator line.
+     *
+     * @param cells the cells of the row
+     * @throws IOException if the row cannot be written
+     */
+    @Override
+    public void writeRow(Object... cells) throws IOException {
+        if (!hasStarted) {
+            out.write(separator);
+            out.write('\n');
+            hasStarted = true;
+        }
+        formatter.format(rowFormat, cells);
+        if (formatter.ioException() != null) {
+            throw formatter.ioException();
+        }
+        out.write(separator);
+        out.write('\n');
+        if (!hasWrittenRow) {
+            hasWrittenRow = true;
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes the buffered rows to the Writer and flushes it.
+     *
+     * @throws IOException if the rows cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Flushes this TableReportWriter, leaving the Writer open.
+     *
+     * @throws IOException if the rows cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    /**
+     * Builds the format of a row with columns of the specified widths.
+     *
+     * @param widths the width of each column
+     * @return the row format
+     */
+    private static String toRowFormat(int... widths) {
+        StringBuilder rowFormat = new StringBuilder("|");
+        for (int width : widths) {
+            rowFormat.append(" %-").append(width).append("s|");
+        }
+        return rowFormat.append("%n").toString();
+    }
+
+    /**
+     * Builds the separator line of columns of the specified widths.
+     *
+     * @param widths the width of each column
+     * @return the separator line
+     */
+    private static String toSeparator(int... widths) {
+        StringBuilder separator = new StringBuilder("-");
+        for (int i = 0; i < widths.length; i++) {
+            separator.append("-".repeat(widths[i] + 1)).append(i < widths.length - 1 ? '+' : '-');
+        }
+        return separator.toString();
+    }
+}
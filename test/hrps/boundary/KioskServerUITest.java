@@ -0,0 +1,213 @@
+package hrps.boundary;
+
+import hrps.control.GuestController;
+import hrps.entity.enums.IDType;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the kiosks' binary protocol, spoken over a real connection to the kiosk server.
+ *
+ * @author Peng Wenxuan
+ */
+public class KioskServerUITest {
+    /**
+     * Contact of the guest who books through the kiosk.
+     */
+    private static final String CONTACT = "87770028";
+    /**
+     * Check-in time of the stays asked about, far after the reservations of the shipped data.
+     */
+    private static final LocalDateTime CHECK_IN_TIME = LocalDateTime.of(2041, 3, 1, 14, 0);
+    /**
+     * Check-out time of the stays asked about.
+     */
+    private static final LocalDateTime CHECK_OUT_TIME = LocalDateTime.of(2041, 3, 3, 12, 0);
+    /**
+     * The server under test.
+     */
+    private static final KioskServerUI kioskServer = KioskServerUI.getInstance();
+    /**
+     * The port the server listens on.
+     */
+    private static int port;
+
+    /**
+     * Start the server on a free port and register the guest.
+     *
+     * @throws IOException If the server cannot be started.
+     */
+    @BeforeClass
+    public static void startServer() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        kioskServer.start(port);
+        GuestController guestController = GuestController.getInstance();
+        if (guestController.searchGuestByContact(CONTACT).isEmpty()) {
+            guestController.createGuest("Kiosk Guest", "4111111111111111", "1 Test Road", "1 Test Road",
+                    "Singapore", "M", "K28", IDType.PASSPORT, "Singaporean", CONTACT);
+        }
+    }
+
+    /**
+     * Stop the server.
+     */
+    @AfterClass
+    public static void stopServer() {
+        kioskServer.stop();
+    }
+
+    /**
+     * Pipelined requests are answered in order with their request IDs, and a room held and then booked through the
+     * kiosk is no longer available, while its hold cannot be booked twice.
+     *
+     * @throws IOException If the connection fails.
+     */
+    @Test
+    public void holdsAndBooksPipelinedRequests() throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            send(out, 1, KioskServerUI.PING, ByteBuffer.allocate(0));
+            send(out, 2, KioskServerUI.AVAILABILITY, availability());
+            out.flush();
+
+            assertEquals(0, expect(in, 1, KioskServerUI.STATUS_OK).remaining());
+            List<String> available = roomNumbers(expect(in, 2, KioskServerUI.STATUS_OK));
+            assertFalse(available.isEmpty());
+            String roomNum = available.get(0);
+
+            ByteBuffer hold = KioskServerUI.putString(ByteBuffer.allocate(64), roomNum);
+            KioskServerUI.putDateTime(hold, CHECK_IN_TIME);
+            KioskServerUI.putDateTime(hold, CHECK_OUT_TIME);
+            hold.putInt(300);
+            send(out, 3, KioskServerUI.HOLD, hold);
+            send(out, 4, KioskServerUI.AVAILABILITY, availability());
+            out.flush();
+            UUID holdId = KioskServerUI.getUuid(expect(in, 3, KioskServerUI.STATUS_OK));
+            assertFalse(roomNumbers(expect(in, 4, KioskServerUI.STATUS_OK)).contains(roomNum));
+
+            ByteBuffer book = ByteBuffer.allocate(64);
+            KioskServerUI.putUuid(book, holdId);
+            book = KioskServerUI.putString(book, CONTACT).put((byte) 1).put((byte) 0);
+            send(out, 5, KioskServerUI.BOOK, book.duplicate());
+            send(out, 6, KioskServerUI.BOOK, book);
+            out.flush();
+            UUID reservationCode = KioskServerUI.getUuid(expect(in, 5, KioskServerUI.STATUS_OK));
+            assertFalse(KioskServerUI.getString(expect(in, 6, KioskServerUI.STATUS_REJECTED)).isEmpty());
+
+            ByteBuffer cancel = ByteBuffer.allocate(16);
+            KioskServerUI.putUuid(cancel, reservationCode);
+            send(out, 7, KioskServerUI.CANCEL, cancel);
+            send(out, 8, KioskServerUI.AVAILABILITY, availability());
+            out.flush();
+            expect(in, 7, KioskServerUI.STATUS_OK);
+            assertTrue(roomNumbers(expect(in, 8, KioskServerUI.STATUS_OK)).contains(roomNum));
+        }
+    }
+
+    /**
+     * A malformed request is answered as such and the connection stays open, but a frame of an illegal length closes
+     * the connection.
+     *
+     * @throws IOException If the connection fails.
+     */
+    @Test
+    public void rejectsMalformedRequests() throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            send(out, 1, (byte) 99, ByteBuffer.allocate(0));
+            send(out, 2, KioskServerUI.HOLD, ByteBuffer.allocate(3).put(new byte[]{0, 9, 1}));
+            send(out, 3, KioskServerUI.PING, ByteBuffer.allocate(0));
+            out.flush();
+            expect(in, 1, KioskServerUI.STATUS_MALFORMED);
+            expect(in, 2, KioskServerUI.STATUS_MALFORMED);
+            expect(in, 3, KioskServerUI.STATUS_OK);
+
+            out.writeInt(2);
+            out.writeShort(0);
+            out.flush();
+            assertThrows(EOFException.class, in::readInt);
+        }
+    }
+
+    /**
+     * Build the payload of an availability request for any room type.
+     *
+     * @return The payload, in write mode.
+     */
+    private static ByteBuffer availability() {
+        ByteBuffer payload = KioskServerUI.putString(ByteBuffer.allocate(32), "");
+        KioskServerUI.putDateTime(payload, CHECK_IN_TIME);
+        KioskServerUI.putDateTime(payload, CHECK_OUT_TIME);
+        return payload;
+    }
+
+    /**
+     * Write a request frame.
+     *
+     * @param out       The connection's output.
+     * @param requestId ID of the request.
+     * @param opcode    Opcode of the request.
+     * @param payload   Payload of the request, in write mode.
+     * @throws IOException If the frame cannot be written.
+     */
+    private static void send(DataOutputStream out, int requestId, byte opcode, ByteBuffer payload)
+            throws IOException {
+        payload.flip();
+        out.writeInt(5 + payload.remaining());
+        out.writeInt(requestId);
+        out.writeByte(opcode);
+        out.write(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining());
+    }
+
+    /**
+     * Read a response frame and check its request ID and status.
+     *
+     * @param in        The connection's input.
+     * @param requestId Expected request ID.
+     * @param status    Expected status.
+     * @return The response payload, in read mode.
+     * @throws IOException If the frame cannot be read.
+     */
+    private static ByteBuffer expect(DataInputStream in, int requestId, byte status) throws IOException {
+        byte[] frame = new byte[in.readInt()];
+        in.readFully(frame);
+        ByteBuffer response = ByteBuffer.wrap(frame);
+        assertEquals(requestId, response.getInt());
+        assertEquals(status, response.get());
+        return response.slice();
+    }
+
+    /**
+     * Read the room numbers of an availability response.
+     *
+     * @param payload The response payload.
+     * @return The room numbers.
+     */
+    private static List<String> roomNumbers(ByteBuffer payload) {
+        int count = Short.toUnsignedInt(payload.getShort());
+        List<String> roomNumbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            roomNumbers.add(KioskServerUI.getString(payload));
+        }
+        return roomNumbers;
+    }
+}
@@ -0,0 +1,109 @@
+package hrps.control;
+
+import hrps.entity.ConfirmedReservation;
+import hrps.entity.Guest;
+import hrps.entity.Reservation;
+import hrps.entity.Room;
+import hrps.entity.enums.IDType;
+import hrps.exception.RoomNotAvailableException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of pipelining dependent operations through the asynchronous controller.
+ *
+ * @author Peng Wenxuan
+ */
+public class AsyncControllerTest {
+    /**
+     * The controller under test.
+     */
+    private final AsyncController asyncController = AsyncController.getInstance();
+    /**
+     * To look up reservations.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+
+    /**
+     * Create the rooms if the data files have none.
+     *
+     * @throws IOException If the rooms cannot be created.
+     */
+    @BeforeClass
+    public static void initializeRooms() throws IOException {
+        TestData.initializeRooms();
+    }
+
+    /**
+     * Start the command engine, which other tests may have stopped.
+     */
+    @Before
+    public void start() {
+        CommandEngine.getInstance().start();
+    }
+
+    /**
+     * Stop the command engine.
+     */
+    @After
+    public void stop() {
+        CommandEngine.getInstance().stop();
+    }
+
+    /**
+     * A guest, their booking and a change to it are submitted at once, each using the result of the one before, and
+     * all of them are persisted.
+     *
+     * @throws Exception If the room cannot be found.
+     */
+    @Test
+    public void pipelinesDependentOperations() throws Exception {
+        Room room = TestData.vacantRooms(1).get(0);
+        CompletableFuture<Guest> guest = asyncController.createGuest("Async Guest", "4111111111111111",
+                "1 Test Road", "1 Test Road", "Singapore", "F", "A31", IDType.PASSPORT, "Singaporean", "86660031");
+        CompletableFuture<ConfirmedReservation> reservation = asyncController.bookRoom(guest,
+                TestData.future(90, 14), TestData.future(91, 12), 1, 0, room.getRoomNumber());
+        CompletableFuture<Reservation> updated = asyncController.updateNumberOfGuests(reservation, 2, 1);
+
+        assertSame(reservation.join(), updated.join());
+        assertSame(guest.join(), reservation.join().getGuest());
+        assertEquals(2, updated.join().getNumAdult());
+        assertEquals(1, updated.join().getNumChild());
+        assertFalse(reservationController.searchReservationsByCode(reservation.join().getReservationCode())
+                .isEmpty());
+    }
+
+    /**
+     * An operation that breaks a business rule fails its future, and so do the operations submitted with that
+     * future, without changing anything.
+     *
+     * @throws Exception If the room cannot be booked.
+     */
+    @Test
+    public void failurePropagatesToDependentOperations() throws Exception {
+        Guest guest = TestData.createGuest("Async Failure");
+        Room room = TestData.vacantRooms(1).get(0);
+        reservationController.bookRoom(guest, TestData.future(92, 14), TestData.future(93, 12), 1, 0,
+                room.getRoomNumber());
+        int reservations = reservationController.getAllReservations().size();
+
+        CompletableFuture<ConfirmedReservation> reservation = asyncController.bookRoom(
+                CompletableFuture.completedFuture(guest), TestData.future(92, 14), TestData.future(93, 12), 1, 0,
+                room.getRoomNumber());
+        CompletableFuture<Boolean> cancelled = asyncController.cancelReservation(reservation);
+
+        CompletionException failure = assertThrows(CompletionException.class, reservation::join);
+        assertTrue(failure.getCause() instanceof RoomNotAvailableException);
+        failure = assertThrows(CompletionException.class, cancelled::join);
+        assertTrue(failure.getCause() instanceof RoomNotAvailableException);
+        assertEquals(reservations, reservationController.getAllReservations().size());
+    }
+}
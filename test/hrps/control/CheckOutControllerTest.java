@@ -0,0 +1,241 @@
+package hrps.control;
+
+import hrps.entity.Bill;
+import hrps.entity.CheckedInReservation;
+import hrps.entity.GroupBill;
+import hrps.entity.Guest;
+import hrps.entity.Money;
+import hrps.entity.Room;
+import hrps.exception.IllegalRoomInSerializableBinaryFileException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of checking out rooms.
+ *
+ * @author Peng Wenxuan
+ */
+public class CheckOutControllerTest {
+    /**
+     * The controller under test.
+     */
+    private final CheckOutController checkOutController = CheckOutController.getInstance();
+    /**
+     * To check guests in.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+    /**
+     * To read the revenue recorded.
+     */
+    private final RevenueController revenueController = RevenueController.getInstance();
+
+    /**
+     * Create the rooms if the data files have none.
+     *
+     * @throws IOException If the rooms cannot be created.
+     */
+    @BeforeClass
+    public static void initializeRooms() throws IOException {
+        TestData.initializeRooms();
+    }
+
+    /**
+     * A group is billed room by room in the order given, and every room is released with one commit once paid.
+     *
+     * @throws Exception If the rooms cannot be found or checked out.
+     */
+    @Test
+    public void checksOutGroup() throws Exception {
+        List<Room> rooms = TestData.vacantRooms(3);
+        for (Room room : rooms) {
+            walkIn("Group", room);
+        }
+        LocalDateTime checkOutTime = TestData.future(202, 11);
+        GroupBill groupBill = checkOutController.checkOutGroup(rooms, null, checkOutTime);
+        assertEquals(rooms.size(), groupBill.getBills().size());
+        for (int i = 0; i < rooms.size(); i++) {
+            assertEquals(rooms.get(i).getRoomNumber(),
+                    groupBill.getBills().get(i).getCheckedOutReservation().getRoomNum());
+        }
+
+        int commits = TestData.commitCount();
+        Map<String, Boolean> isVacant = checkOutController.finishGroupCheckOut(checkOutTime, groupBill);
+        assertEquals(1, TestData.commitsSince(commits).size());
+        for (Room room : rooms) {
+            assertTrue(isVacant.containsKey(room.getRoomNumber()));
+            assertNull(reservationController.findCheckedInReservationByRoom(room));
+        }
+    }
+
+    /**
+     * A group is not checked out if one of its rooms is no longer checked in under the reservation it was billed
+     * for, and the other rooms stay checked in.
+     *
+     * @throws Exception If the rooms cannot be found or checked out.
+     */
+    @Test
+    public void groupCheckOutFailsForRoomCheckedInAgain() throws Exception {
+        List<Room> rooms = TestData.vacantRooms(2);
+        CheckedInReservation stay = walkIn("Stale Group", rooms.get(0));
+        walkIn("Stale Group", rooms.get(1));
+        LocalDateTime checkOutTime = TestData.future(202, 11);
+        GroupBill groupBill = checkOutController.checkOutGroup(rooms, null, checkOutTime);
+
+        Room room = rooms.get(1);
+        Bill bill = checkOutController.checkOut(room, null, checkOutTime);
+        checkOutController.finishCheckOut(room, checkOutTime, bill);
+        walkIn("Next Guest", room);
+
+        int commits = TestData.commitCount();
+        assertThrows(IllegalRoomInSerializableBinaryFileException.class,
+                () -> checkOutController.finishGroupCheckOut(checkOutTime, groupBill));
+        assertEquals(commits, TestData.commitCount());
+        assertSame(stay, reservationController.findCheckedInReservationByRoom(rooms.get(0)));
+        assertEquals("Next Guest",
+                reservationController.findCheckedInReservationByRoom(room).getGuest().getGuestName());
+    }
+
+    /**
+     * The room price of a stay is the room charges posted to its folio, plus the rates of the nights not posted yet.
+     *
+     * @throws Exception If the rooms cannot be found or checked out.
+     */
+    @Test
+    public void settlesRoomPriceFromFolio() throws Exception {
+        List<Room> rooms = TestData.vacantRooms(2);
+        CheckedInReservation partlyPosted = walkIn("Folio Settlement", rooms.get(0));
+        CheckedInReservation fullyPosted = walkIn("Folio Settlement", rooms.get(1));
+        LocalDate firstNight = partlyPosted.getCheckInTime().toLocalDate();
+        LocalDateTime checkOutTime = TestData.future(202, 14);
+        FolioController folioController = FolioController.getInstance();
+        folioController.postRoomCharge(partlyPosted, firstNight, Money.ofCents(12_345));
+        folioController.postRoomCharge(fullyPosted, firstNight, Money.ofCents(12_345));
+        folioController.postRoomCharge(fullyPosted, firstNight.plusDays(1), Money.ofCents(6_789));
+
+        Money nextNightRate = RoomController.getInstance().getRateCalendar().getNightRate(rooms.get(0),
+                firstNight.plusDays(1));
+        Bill bill = checkOutController.checkOut(rooms.get(0), null, checkOutTime);
+        assertEquals(Money.ofCents(12_345).plus(nextNightRate), bill.getBreakdown().getRoomPrice());
+        GroupBill groupBill = checkOutController.checkOutGroup(rooms, null, checkOutTime);
+        assertEquals(bill.getBreakdown().getRoomPrice(), groupBill.getBills().get(0).getBreakdown().getRoomPrice());
+        assertEquals(Money.ofCents(19_134), groupBill.getBills().get(1).getBreakdown().getRoomPrice());
+        checkOutController.finishGroupCheckOut(checkOutTime, groupBill);
+    }
+
+    /**
+     * A room is not checked out if it is no longer checked in under the reservation it was billed for.
+     *
+     * @throws Exception If the rooms cannot be found or checked out.
+     */
+    @Test
+    public void checkOutFailsForRoomCheckedInAgain() throws Exception {
+        Room room = TestData.vacantRooms(1).get(0);
+        walkIn("Stale Stay", room);
+        LocalDateTime checkOutTime = TestData.future(202, 11);
+        Bill staleBill = checkOutController.checkOut(room, null, checkOutTime);
+        checkOutController.finishCheckOut(room, checkOutTime, checkOutController.checkOut(room, null, checkOutTime));
+        CheckedInReservation stay = walkIn("Next Stay", room);
+
+        int commits = TestData.commitCount();
+        int stays = revenueController.getNumberOfStays();
+        assertThrows(IllegalRoomInSerializableBinaryFileException.class,
+                () -> checkOutController.finishCheckOut(room, checkOutTime, staleBill));
+        assertEquals(commits, TestData.commitCount());
+        assertEquals(stays, revenueController.getNumberOfStays());
+        assertSame(stay, reservationController.findCheckedInReservationByRoom(room));
+    }
+
+    /**
+     * The revenue of a stay is recorded with its check-out, and neither is done if the check-out cannot be
+     * committed.
+     *
+     * @throws Exception If the rooms cannot be found or checked out.
+     */
+    @Test
+    public void recordsRevenueOnlyIfCheckOutCommits() throws Exception {
+        Room room = TestData.vacantRooms(1).get(0);
+        CheckedInReservation stay = walkIn("Revenue Stay", room);
+        LocalDateTime checkOutTime = TestData.future(202, 11);
+        Bill bill = checkOutController.checkOut(room, null, checkOutTime);
+        File revenueFile = new File(RevenueController.REVENUE_DATA_DIR);
+        int stays = revenueController.getNumberOfStays();
+        long revenueLength = revenueFile.length();
+
+        File blocker = TestData.block(ReservationController.RESERVATION_DATA_DIR);
+        try {
+            assertThrows(UncheckedIOException.class, () -> checkOutController.finishCheckOut(room, checkOutTime, bill));
+        } finally {
+            TestData.unblock(blocker);
+        }
+        assertEquals(stays, revenueController.getNumberOfStays());
+        assertEquals(revenueLength, revenueFile.length());
+        assertSame(stay, reservationController.findCheckedInReservationByRoom(room));
+
+        checkOutController.finishCheckOut(room, checkOutTime, bill);
+        assertEquals(stays + 1, revenueController.getNumberOfStays());
+        assertTrue(revenueFile.length() > revenueLength);
+        assertNull(reservationController.findCheckedInReservationByRoom(room));
+    }
+
+    /**
+     * A room is not checked out if the revenue of its stay cannot be recorded.
+     *
+     * @throws Exception If the rooms cannot be found or checked out.
+     */
+    @Test
+    public void checkOutFailsIfRevenueCannotBeRecorded() throws Exception {
+        Room room = TestData.vacantRooms(1).get(0);
+        CheckedInReservation stay = walkIn("Unrecorded Stay", room);
+        LocalDateTime checkOutTime = TestData.future(202, 11);
+        Bill bill = checkOutController.checkOut(room, null, checkOutTime);
+        int stays = revenueController.getNumberOfStays();
+
+        Path revenueFile = Paths.get(RevenueController.REVENUE_DATA_DIR);
+        Path movedRevenueFile = revenueFile.resolveSibling("revenueCents.dat.moved");
+        boolean hasRevenueFile = Files.exists(revenueFile);
+        if (hasRevenueFile) {
+            Files.move(revenueFile, movedRevenueFile);
+        }
+        int commits = TestData.commitCount();
+        try {
+            Files.createDirectory(revenueFile);     // the rows cannot be appended to a directory
+            assertThrows(UncheckedIOException.class, () -> checkOutController.finishCheckOut(room, checkOutTime, bill));
+        } finally {
+            Files.deleteIfExists(revenueFile);
+            if (hasRevenueFile) {
+                Files.move(movedRevenueFile, revenueFile);
+            }
+        }
+        assertEquals(commits, TestData.commitCount());
+        assertEquals(stays, revenueController.getNumberOfStays());
+        assertSame(stay, reservationController.findCheckedInReservationByRoom(room));
+    }
+
+    /**
+     * Check a new guest into a room as a walk-in.
+     *
+     * @param name Name of the guest.
+     * @param room The room.
+     * @return The checked-in reservation.
+     */
+    private CheckedInReservation walkIn(String name, Room room) {
+        Guest guest = TestData.createGuest(name);
+        CheckedInReservation reservation = reservationController.createWalkInReservation(guest, guest.getContact(),
+                TestData.future(200, 14), TestData.future(202, 12), 1, 0, room.getRoomNumber());
+        RoomController.getInstance().checkIn(room.getRoomNumber(), guest);
+        return reservation;
+    }
+}
@@ -0,0 +1,181 @@
+package hrps.control;
+
+import hrps.entity.Guest;
+import hrps.exception.RoomNotAvailableException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of applying commands on the writer thread of the command engine.
+ *
+ * @author Peng Wenxuan
+ */
+public class CommandEngineTest {
+    /**
+     * The engine under test.
+     */
+    private final CommandEngine engine = CommandEngine.getInstance();
+    /**
+     * To create and look up guests.
+     */
+    private final GuestController guestController = GuestController.getInstance();
+
+    /**
+     * Create the rooms if the data files have none.
+     *
+     * @throws IOException If the rooms cannot be created.
+     */
+    @BeforeClass
+    public static void initializeRooms() throws IOException {
+        TestData.initializeRooms();
+    }
+
+    /**
+     * Start the writer thread.
+     */
+    @Before
+    public void start() {
+        engine.start();
+    }
+
+    /**
+     * Stop the writer thread.
+     */
+    @After
+    public void stop() {
+        engine.stop();
+    }
+
+    /**
+     * A command's result is returned once it is persisted.
+     *
+     * @throws Exception If the command fails.
+     */
+    @Test
+    public void callReturnsResultOfCommand() throws Exception {
+        int commits = TestData.commitCount();
+        Guest guest = engine.call(() -> TestData.createGuest("Engine"));
+        assertEquals("Engine", guest.getGuestName());
+        assertTrue(TestData.commitCount() > commits);
+    }
+
+    /**
+     * A command that fails leaves none of its changes behind.
+     */
+    @Test
+    public void failedCommandIsRolledBack() {
+        assertThrows(RoomNotAvailableException.class, () -> engine.call(() -> {
+            TestData.createGuest("Engine Failure");
+            throw new RoomNotAvailableException();
+        }));
+        assertTrue(guestController.searchGuestByName("Engine Failure").isEmpty());
+    }
+
+    /**
+     * When a batch cannot be persisted, its changes are rolled back and its commands fail.
+     *
+     * @throws Exception If the data file cannot be blocked.
+     */
+    @Test
+    public void failedCommitIsRolledBack() throws Exception {
+        File blocker = TestData.block("src/data/guests.dat");
+        try {
+            CompletionException failure = assertThrows(CompletionException.class,
+                    () -> engine.submit(() -> TestData.createGuest("Engine Commit")).join());
+            assertTrue(failure.getCause() instanceof UncheckedIOException);
+        } finally {
+            TestData.unblock(blocker);
+        }
+        assertTrue(guestController.searchGuestByName("Engine Commit").isEmpty());
+    }
+
+    /**
+     * Every command submitted before the engine stops is applied, and none is accepted after.
+     */
+    @Test
+    public void stopRejectsLaterCommands() {
+        CommandEngine.CommandFuture<Guest> future = engine.submit(() -> TestData.createGuest("Engine Stop"));
+        engine.stop();
+        assertTrue(future.isDone());
+        assertThrows(IllegalStateException.class, () -> engine.submit(() -> null));
+    }
+
+    /**
+     * A command that throws an error is rolled back and only its own future fails.
+     *
+     * @throws Exception If a command fails.
+     */
+    @Test
+    public void errorFailsOnlyItsCommand() throws Exception {
+        CommandEngine.CommandFuture<Guest> before = engine.submit(() -> TestData.createGuest("Engine Before Error"));
+        CommandEngine.CommandFuture<Guest> error = engine.submit(() -> {
+            TestData.createGuest("Engine Error");
+            throw new AssertionError("Broken command");
+        });
+        CommandEngine.CommandFuture<Guest> after = engine.submit(() -> TestData.createGuest("Engine After Error"));
+        assertEquals("Engine Before Error", before.join().getGuestName());
+        assertEquals("Engine After Error", after.join().getGuestName());
+        CompletionException failure = assertThrows(CompletionException.class, error::join);
+        assertTrue(failure.getCause() instanceof AssertionError);
+        assertThrows(AssertionError.class, () -> CommandEngine.resultOf(error));
+        assertTrue(guestController.searchGuestByName("Engine Error").isEmpty());
+        assertEquals(1, (int) engine.call(() -> 1));
+    }
+
+    /**
+     * Commands submitted by several threads while the engine stops, more than the ring buffer holds, are each either
+     * rejected or applied once before the stop returns.
+     *
+     * @throws Exception If a submitting thread is interrupted.
+     */
+    @Test
+    public void stopDrainsConcurrentSubmitters() throws Exception {
+        AtomicInteger applied = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch halfSubmitted = new CountDownLatch(4);
+        List<Thread> submitters = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread submitter = new Thread(() -> {
+                try {
+                    for (int j = 0; j < CommandEngine.CAPACITY; j++) {
+                        if (j == CommandEngine.CAPACITY / 2) {
+                            halfSubmitted.countDown();
+                        }
+                        futures.add(engine.submit(applied::incrementAndGet));
+                    }
+                } catch (IllegalStateException e) {
+                    // the engine stopped
+                } finally {
+                    halfSubmitted.countDown();
+                }
+            });
+            submitter.start();
+            submitters.add(submitter);
+        }
+        halfSubmitted.await();
+        engine.stop();
+        for (CompletableFuture<Integer> future : new ArrayList<>(futures)) {
+            assertTrue(future.isDone());
+        }
+        for (Thread submitter : submitters) {
+            submitter.join();
+        }
+        assertEquals(futures.size(), applied.get());
+        assertEquals(futures.size(), futures.stream().mapToInt(CompletableFuture::join).distinct().count());
+    }
+}
@@ -0,0 +1,132 @@
+package hrps.control;
+
+import hrps.entity.Bill;
+import hrps.entity.CheckedOutReservation;
+import hrps.entity.Guest;
+import hrps.entity.Invoice;
+import hrps.entity.Money;
+import hrps.entity.PricingPipeline;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of issuing and archiving invoices.
+ *
+ * @author Peng Wenxuan
+ */
+public class InvoiceControllerTest {
+    /**
+     * The controller under test.
+     */
+    private final InvoiceController invoiceController = InvoiceController.getInstance();
+
+    /**
+     * Create the rooms if the data files have none.
+     *
+     * @throws IOException If the rooms cannot be created.
+     */
+    @BeforeClass
+    public static void initializeRooms() throws IOException {
+        TestData.initializeRooms();
+    }
+
+    /**
+     * An issued invoice is found by number, reservation and guest, and read back the same from the archive file.
+     *
+     * @throws Exception If the archive cannot be read again.
+     */
+    @Test
+    public void archivesInvoice() throws Exception {
+        Guest guest = TestData.createGuest("Invoice");
+        Bill bill = bill(guest);
+        long invoiceNumber = invoiceController.issueInvoice(bill, "Paid in cash");
+        UUID reservationCode = bill.getCheckedOutReservation().getReservationCode();
+
+        Invoice invoice = invoiceController.getInvoice(invoiceNumber);
+        assertEquals(reservationCode, invoice.getReservationCode());
+        assertEquals(bill.getTotalPrice(), invoice.getTotalPrice());
+        assertTrue(invoice.getText().contains("Paid in cash"));
+        assertEquals(List.of(invoice), invoiceController.findInvoicesByReservation(reservationCode));
+        assertEquals(List.of(invoice), invoiceController.findInvoicesByGuest(guest.getContact()));
+
+        Invoice archived = readArchive().getInvoice(invoiceNumber);
+        assertEquals(invoice.getReservationCode(), archived.getReservationCode());
+        assertEquals(invoice.getRoomNumber(), archived.getRoomNumber());
+        assertEquals(invoice.getGuestName(), archived.getGuestName());
+        assertEquals(invoice.getGuestContact(), archived.getGuestContact());
+        assertEquals(invoice.getIssueTime(), archived.getIssueTime());
+        assertEquals(invoice.getTotalPrice(), archived.getTotalPrice());
+        assertEquals(invoice.getText(), archived.getText());
+    }
+
+    /**
+     * An invoice that cannot be appended to the archive file is not indexed, and the invoices issued after it are
+     * archived as usual.
+     *
+     * @throws Exception If the archive file cannot be moved aside.
+     */
+    @Test
+    public void skipsInvoiceThatCannotBeArchived() throws Exception {
+        Guest guest = TestData.createGuest("Unarchived Invoice");
+        Path archive = Paths.get(InvoiceController.INVOICE_DATA_DIR);
+        Path movedArchive = archive.resolveSibling("invoices.dat.moved");
+        boolean hasArchive = Files.exists(archive);
+        long failedNumber;
+        try {
+            invoiceController.getInvoice(0);    // wait for the invoices queued by other tests
+            if (hasArchive) {
+                Files.move(archive, movedArchive);
+            }
+            Files.createDirectory(archive);     // the invoice cannot be appended to a directory
+            failedNumber = invoiceController.issueInvoice(bill(guest), "Unarchived");
+            assertNull(invoiceController.getInvoice(failedNumber));
+        } finally {
+            Files.deleteIfExists(archive);
+            if (hasArchive) {
+                Files.move(movedArchive, archive);
+            }
+        }
+        assertTrue(invoiceController.findInvoicesByGuest(guest.getContact()).isEmpty());
+
+        long invoiceNumber = invoiceController.issueInvoice(bill(guest), "Archived");
+        assertTrue(invoiceNumber > failedNumber);
+        assertEquals(1, invoiceController.findInvoicesByGuest(guest.getContact()).size());
+        assertNotNull(readArchive().getInvoice(invoiceNumber));
+        assertNull(readArchive().getInvoice(failedNumber));
+    }
+
+    /**
+     * Read the archive file into a new controller, as when the app starts.
+     *
+     * @return The new controller.
+     * @throws Exception If the controller cannot be created.
+     */
+    private static InvoiceController readArchive() throws Exception {
+        Constructor<InvoiceController> constructor = InvoiceController.class.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return constructor.newInstance();
+    }
+
+    /**
+     * Create the paid bill of a stay without pricing rules.
+     *
+     * @param guest Guest of the stay.
+     * @return The bill.
+     */
+    private static Bill bill(Guest guest) {
+        CheckedOutReservation reservation = new CheckedOutReservation(1, 0, guest, UUID.randomUUID(),
+                TestData.future(300, 14), TestData.future(302, 11), "02-01");
+        return new Bill(reservation, Money.ofCents(20_000), Money.ofCents(1_250), Money.ZERO,
+                new PricingPipeline(List.of()), null);
+    }
+}
@@ -0,0 +1,134 @@
+package hrps.control;
+
+import hrps.entity.OrderedRoomService;
+import hrps.entity.Room;
+import hrps.entity.enums.OrderStatus;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of scheduling room service orders on the kitchen's stations.
+ *
+ * @author Peng Wenxuan
+ */
+public class KitchenControllerTest {
+    /**
+     * Time after which the kitchen has nothing left to do, moved on by each test.
+     */
+    private static LocalDateTime idleTime = LocalDateTime.now().plusDays(1).withNano(0);
+    /**
+     * The controller under test.
+     */
+    private final KitchenController kitchenController = KitchenController.getInstance();
+    /**
+     * Its lock guards the orders.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+
+    /**
+     * Create the rooms if the data files have none.
+     *
+     * @throws IOException If the rooms cannot be created.
+     */
+    @BeforeClass
+    public static void initializeRooms() throws IOException {
+        TestData.initializeRooms();
+    }
+
+    /**
+     * Orders are taken in the order they were made by the stations as they become free, and each is delivered the
+     * delivery time after its station took it, as estimated beforehand.
+     */
+    @Test
+    public void schedulesOrdersOnFreeStations() {
+        LocalDateTime time = idle();
+        kitchenController.setCapacity(3);
+        OrderedRoomService first = order(time);
+        OrderedRoomService second = order(time);
+        OrderedRoomService fourth = order(time.plusMinutes(2));
+        OrderedRoomService third = order(time.plusMinutes(1));
+
+        Map<UUID, LocalDateTime> estimates = kitchenController.getEstimatedDeliveryTimes(time);
+        assertEquals(time.plusMinutes(60), estimates.get(first.getOrderID()));
+        assertEquals(time.plusMinutes(60), estimates.get(second.getOrderID()));
+        assertEquals(time.plusMinutes(61), estimates.get(third.getOrderID()));
+        assertEquals(time.plusMinutes(90), estimates.get(fourth.getOrderID()));
+
+        assertEquals(3, kitchenController.advance(time.plusMinutes(5)));
+        assertEquals(OrderStatus.PREPARING, third.getOrderStatus());
+        assertEquals(OrderStatus.CONFIRMED, fourth.getOrderStatus());
+        assertEquals(0, kitchenController.advance(time.plusMinutes(29)));
+        assertEquals(1, kitchenController.advance(time.plusMinutes(30)));
+        assertEquals(OrderStatus.PREPARING, fourth.getOrderStatus());
+        assertEquals(2, kitchenController.advance(time.plusMinutes(60)));
+        assertEquals(OrderStatus.DELIVERED, second.getOrderStatus());
+        assertEquals(OrderStatus.PREPARING, third.getOrderStatus());
+        assertEquals(estimates.get(fourth.getOrderID()),
+                kitchenController.getEstimatedDeliveryTimes(time.plusMinutes(60)).get(fourth.getOrderID()));
+        assertEquals(2, kitchenController.advance(time.plusMinutes(90)));
+        assertEquals(OrderStatus.DELIVERED, fourth.getOrderStatus());
+    }
+
+    /**
+     * Orders moved on by a tick that cannot be persisted are put back as they were, and are moved on again by the
+     * next tick.
+     *
+     * @throws Exception If the data file cannot be blocked.
+     */
+    @Test
+    public void undoesTickThatFailsToCommit() throws Exception {
+        LocalDateTime time = idle();
+        OrderedRoomService order = order(time);
+        LocalDateTime estimate = kitchenController.getEstimatedDeliveryTimes(time).get(order.getOrderID());
+
+        File blocker = TestData.block(OrderController.ORDER_DATA_DIR);
+        try {
+            assertThrows(UncheckedIOException.class, () -> kitchenController.advance(time.plusMinutes(1)));
+        } finally {
+            TestData.unblock(blocker);
+        }
+        assertEquals(OrderStatus.CONFIRMED, order.getOrderStatus());
+        assertEquals(estimate, kitchenController.getEstimatedDeliveryTimes(time).get(order.getOrderID()));
+
+        assertEquals(1, kitchenController.advance(time.plusMinutes(1)));
+        assertEquals(OrderStatus.PREPARING, order.getOrderStatus());
+    }
+
+    /**
+     * Deliver every order made so far, and get a time after which every station is free.
+     *
+     * @return The time.
+     */
+    private LocalDateTime idle() {
+        kitchenController.advance(idleTime);
+        LocalDateTime time = idleTime.plusHours(1);
+        idleTime = idleTime.plusDays(1);
+        return time;
+    }
+
+    /**
+     * Add a confirmed order made at a time.
+     *
+     * @param orderTime Time of the order.
+     * @return The order.
+     */
+    private OrderedRoomService order(LocalDateTime orderTime) {
+        Room room = RoomController.getInstance().getAllRooms().get(0);
+        OrderedRoomService order = new OrderedRoomService(room, orderTime, "", OrderStatus.CONFIRMED,
+                new ArrayList<>());
+        synchronized (reservationController) {
+            OrderController.getInstance().getAllOrders().add(order);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,80 @@
+package hrps.control;
+
+import hrps.entity.CheckedInReservation;
+import hrps.entity.ConfirmedReservation;
+import hrps.entity.Guest;
+import hrps.entity.Money;
+import hrps.entity.Room;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of running the night audit.
+ *
+ * @author Peng Wenxuan
+ */
+public class NightAuditControllerTest {
+    /**
+     * The controller under test.
+     */
+    private final NightAuditController nightAuditController = NightAuditController.getInstance();
+    /**
+     * To create the reservations audited.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+
+    /**
+     * Create the rooms if the data files have none.
+     *
+     * @throws IOException If the rooms cannot be created.
+     */
+    @BeforeClass
+    public static void initializeRooms() throws IOException {
+        TestData.initializeRooms();
+    }
+
+    /**
+     * An audit whose commit fails leaves the no-shows, the room charges and the business date as they were, and can
+     * be run again.
+     *
+     * @throws Exception If the rooms cannot be found.
+     */
+    @Test
+    public void failedAuditCanBeRunAgain() throws Exception {
+        List<Room> rooms = TestData.vacantRooms(2);
+        LocalDate night = nightAuditController.getBusinessDate();
+        Guest guest = TestData.createGuest("No Show");
+        ConfirmedReservation noShow = reservationController.createConfirmedReservation(guest,
+                night.minusDays(2).atTime(14, 0), night.atTime(12, 0), 1, 0, rooms.get(0).getRoomNumber());
+        Guest stayingGuest = TestData.createGuest("Staying");
+        CheckedInReservation stay = reservationController.createWalkInReservation(stayingGuest,
+                stayingGuest.getContact(), night.atTime(14, 0), night.plusDays(2).atTime(12, 0), 1, 0,
+                rooms.get(1).getRoomNumber());
+        Money rate = RoomController.getInstance().getRateCalendar().getNightRate(rooms.get(1), night);
+
+        int commits = TestData.commitCount();
+        File blocker = TestData.block(NightAuditController.NIGHT_AUDIT_DATA_DIR);
+        try {
+            assertThrows(UncheckedIOException.class, nightAuditController::runNightAudit);
+        } finally {
+            TestData.unblock(blocker);
+        }
+        assertEquals(commits, TestData.commitCount());
+        assertEquals(night, nightAuditController.getBusinessDate());
+        assertTrue(reservationController.getAllReservations().contains(noShow));
+        assertEquals(Money.ZERO, nightAuditController.getPostedRoomCharge(stay.getReservationCode()));
+
+        nightAuditController.runNightAudit();
+        assertEquals(night.plusDays(1), nightAuditController.getBusinessDate());
+        assertFalse(reservationController.getAllReservations().contains(noShow));
+        assertEquals(rate, nightAuditController.getPostedRoomCharge(stay.getReservationCode()));
+    }
+}
@@ -0,0 +1,146 @@
+package hrps.control;
+
+import hrps.entity.RoomOccupancyIndex;
+import hrps.entity.enums.RoomStatus;
+import hrps.entity.enums.RoomType;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of capturing the daily occupancy history and reading it back from its segment files.
+ *
+ * @author Peng Wenxuan
+ */
+public class OccupancyHistoryControllerTest {
+    /**
+     * The controller under test.
+     */
+    private final OccupancyHistoryController historyController = OccupancyHistoryController.getInstance();
+
+    /**
+     * Create the rooms if the data files have none.
+     *
+     * @throws IOException If the rooms cannot be created.
+     */
+    @BeforeClass
+    public static void initializeRooms() throws IOException {
+        TestData.initializeRooms();
+    }
+
+    /**
+     * Every day up to the due day is captured once with the current counts, and the room-nights of any range are
+     * the sums of its days.
+     */
+    @Test
+    public void capturesEachDayOnce() {
+        LocalDate first = nextDay();
+        assertEquals(3, historyController.captureThrough(first.plusDays(2)));
+        assertEquals(0, historyController.captureThrough(first.plusDays(2)));
+        assertEquals(first.plusDays(2), historyController.getLastDay());
+
+        RoomOccupancyIndex index = RoomController.getInstance().getOccupancyIndex();
+        for (RoomType roomType : RoomType.values()) {
+            for (RoomStatus roomStatus : RoomStatus.values()) {
+                int count = index.count(roomType, roomStatus);
+                assertEquals(3L * count, historyController.getRoomNights(roomType, roomStatus, first,
+                        first.plusDays(2)));
+                assertEquals(count, historyController.getRoomNights(roomType, roomStatus, first.plusDays(1),
+                        first.plusDays(1)));
+                assertEquals(count, historyController.getRoomNights(roomType, roomStatus, first.plusDays(2),
+                        first.plusDays(30)));
+            }
+        }
+        assertEquals(0, historyController.getRoomNights(null, RoomStatus.VACANT, first.plusDays(3),
+                first.plusDays(30)));
+        double occupancyRate = (double) index.count(RoomStatus.OCCUPIED) / RoomController.getInstance()
+                .getAllRooms().size();
+        assertEquals(occupancyRate, historyController.getOccupancyRate(null, first, first.plusDays(2)), 1e-9);
+    }
+
+    /**
+     * A day is captured only once its cut-off time has passed.
+     */
+    @Test
+    public void capturesAfterCutOff() {
+        LocalDate day = nextDay();
+        LocalDate previous = historyController.getLastDay();
+        assertEquals(0, historyController.captureIfDue(day.atTime(historyController.getCutOff()).minusMinutes(1)));
+        assertEquals(previous, historyController.getLastDay());
+        assertEquals(1, historyController.captureIfDue(day.atTime(historyController.getCutOff())));
+        assertEquals(day, historyController.getLastDay());
+    }
+
+    /**
+     * The history read from the segment files is the one captured, and an incomplete row left by an interrupted
+     * append is cut off before the next row is appended.
+     *
+     * @throws Exception If the history cannot be read.
+     */
+    @Test
+    public void readsHistoryBack() throws Exception {
+        LocalDate first = nextDay();
+        historyController.captureThrough(first.plusDays(1));
+        File segment = latestSegment();
+        long length = segment.length();
+        try (FileOutputStream out = new FileOutputStream(segment, true)) {
+            out.write(new byte[]{0, 0, 0, 1, 2});
+        }
+
+        OccupancyHistoryController history = readHistory();
+        assertEquals(length, segment.length());
+        assertEquals(historyController.getFirstDay(), history.getFirstDay());
+        assertEquals(historyController.getLastDay(), history.getLastDay());
+        for (RoomStatus roomStatus : RoomStatus.values()) {
+            assertEquals(historyController.getRoomNights(null, roomStatus, history.getFirstDay(), first),
+                    history.getRoomNights(null, roomStatus, history.getFirstDay(), first));
+        }
+
+        assertEquals(1, history.captureThrough(first.plusDays(2)));
+        assertEquals(first.plusDays(2), readHistory().getLastDay());
+    }
+
+    /**
+     * Get the first day not captured yet, taking today if nothing is.
+     *
+     * @return The day.
+     */
+    private LocalDate nextDay() {
+        LocalDate lastDay = historyController.getLastDay();
+        return lastDay == null ? LocalDate.now() : lastDay.plusDays(1);
+    }
+
+    /**
+     * Get the segment file rows are appended to.
+     *
+     * @return The segment file with the latest first day.
+     */
+    private static File latestSegment() {
+        File[] segments = new File(OccupancyHistoryController.HISTORY_DATA_DIR).listFiles();
+        assertNotNull(segments);
+        return Arrays.stream(segments).max(Comparator.comparingLong(segment ->
+                Long.parseLong(segment.getName().replaceAll("\\D", "")))).orElseThrow();
+    }
+
+    /**
+     * Create another controller, which reads the history from the segment files.
+     *
+     * @return The controller.
+     * @throws Exception If the controller cannot be created.
+     */
+    private static OccupancyHistoryController readHistory() throws Exception {
+        Constructor<OccupancyHistoryController> constructor =
+                OccupancyHistoryController.class.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return constructor.newInstance();
+    }
+}
@@ -0,0 +1,324 @@
+package hrps.control;
+
+import hrps.entity.CheckedInReservation;
+import hrps.entity.ConfirmedReservation;
+import hrps.entity.FrontDeskView;
+import hrps.entity.Guest;
+import hrps.entity.OccupancyForecast;
+import hrps.entity.Room;
+import hrps.entity.enums.ForecastCategory;
+import hrps.entity.enums.RoomStatus;
+import hrps.entity.enums.RoomType;
+import hrps.exception.InvalidDatePairException;
+import hrps.exception.RoomNotAvailableException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of booking rooms and changing the stay period of a reservation.
+ *
+ * @author Peng Wenxuan
+ */
+public class ReservationControllerTest {
+    /**
+     * The controller under test.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+
+    /**
+     * Create the rooms if the data files have none.
+     *
+     * @throws IOException If the rooms cannot be created.
+     */
+    @BeforeClass
+    public static void initializeRooms() throws IOException {
+        TestData.initializeRooms();
+    }
+
+    /**
+     * A room cannot be booked, booked in a block or held for a period that does not end after it starts, and nothing
+     * is written when it is tried.
+     *
+     * @throws Exception If the rooms cannot be found.
+     */
+    @Test
+    public void rejectsPeriodNotEndingAfterItStarts() throws Exception {
+        Guest guest = TestData.createGuest("Date Pair");
+        Room room = TestData.vacantRooms(1).get(0);
+        LocalDateTime time = TestData.future(0, 12);
+        int reservations = reservationController.getAllReservations().size();
+        int commits = TestData.commitCount();
+        assertThrows(InvalidDatePairException.class, () ->
+                reservationController.bookRoom(guest, time, time, 1, 0, room.getRoomNumber()));
+        assertThrows(InvalidDatePairException.class, () ->
+                reservationController.bookRoom(guest, time, time.minusDays(1), 1, 0, room.getRoomNumber()));
+        assertThrows(InvalidDatePairException.class, () ->
+                reservationController.bookRooms(guest, null, null, null, time, time, 1, 1, 0));
+        assertThrows(InvalidDatePairException.class, () ->
+                reservationController.holdRoom(room.getRoomNumber(), time, time, Duration.ofMinutes(5)));
+        assertEquals(reservations, reservationController.getAllReservations().size());
+        assertEquals(commits, TestData.commitCount());
+        assertFalse(reservationController.isHeld(room, time.minusDays(1), time.plusDays(1)));
+    }
+
+    /**
+     * Both ends of a stay period are changed together with one write and one new version.
+     *
+     * @throws Exception If the room cannot be booked.
+     */
+    @Test
+    public void updateStayPeriodChangesBothTimesWithOneCommit() throws Exception {
+        Guest guest = TestData.createGuest("Stay Period");
+        Room room = TestData.vacantRooms(1).get(0);
+        ConfirmedReservation reservation = reservationController.bookRoom(guest, TestData.future(10, 14),
+                TestData.future(12, 12), 1, 0, room.getRoomNumber());
+        long version = reservation.getVersion();
+        int commits = TestData.commitCount();
+
+        reservationController.updateStayPeriod(reservation, TestData.future(20, 14), TestData.future(21, 12),
+                version);
+
+        assertEquals(TestData.future(20, 14), reservation.getCheckInTime());
+        assertEquals(TestData.future(21, 12), reservation.getCheckOutTime());
+        assertEquals(version + 1, reservation.getVersion());
+        List<Set<String>> written = TestData.commitsSince(commits);
+        assertEquals(1, written.size());
+        assertTrue(written.get(0).contains(ReservationController.RESERVATION_DATA_DIR));
+    }
+
+    /**
+     * A stay period whose check-in is not before its check-out is rejected before anything is changed.
+     *
+     * @throws Exception If the room cannot be booked.
+     */
+    @Test
+    public void updateStayPeriodRejectsPeriodNotEndingAfterItStarts() throws Exception {
+        Guest guest = TestData.createGuest("Stay Period Pair");
+        Room room = TestData.vacantRooms(1).get(0);
+        ConfirmedReservation reservation = reservationController.bookRoom(guest, TestData.future(30, 14),
+                TestData.future(32, 12), 1, 0, room.getRoomNumber());
+        long version = reservation.getVersion();
+        int commits = TestData.commitCount();
+
+        assertThrows(InvalidDatePairException.class, () -> reservationController.updateStayPeriod(reservation,
+                TestData.future(33, 12), TestData.future(33, 12), version));
+        assertThrows(InvalidDatePairException.class, () -> reservationController.updateCheckInTime(reservation,
+                TestData.future(32, 12), version));
+
+        assertEquals(TestData.future(30, 14), reservation.getCheckInTime());
+        assertEquals(TestData.future(32, 12), reservation.getCheckOutTime());
+        assertEquals(version, reservation.getVersion());
+        assertEquals(commits, TestData.commitCount());
+    }
+
+    /**
+     * The reservation controller can be the first controller used by a program, with reservations saved in the data
+     * files, although it builds its views of them from the rooms of the room controller it starts.
+     *
+     * @throws Exception If the program cannot be run.
+     */
+    @Test
+    public void startsBeforeRoomController() throws Exception {
+        assertFalse(reservationController.getAllReservations().isEmpty());
+        Process process = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), FirstUse.class.getName())
+                .redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes());
+        assertEquals(output, 0, process.waitFor());
+    }
+
+    /**
+     * The stays of the reservations booked and cancelled are added to and removed from the occupancy forecast.
+     *
+     * @throws Exception If the room cannot be booked.
+     */
+    @Test
+    public void forecastFollowsReservations() throws Exception {
+        Guest guest = TestData.createGuest("Forecast");
+        Room room = TestData.vacantRooms(1).get(0);
+        OccupancyForecast forecast = reservationController.getOccupancyForecast();
+        LocalDate firstNight = TestData.future(40, 14).toLocalDate();
+        int[] before = nights(forecast, room.getRoomType(), firstNight);
+
+        ConfirmedReservation reservation = reservationController.bookRoom(guest, TestData.future(40, 14),
+                TestData.future(42, 12), 1, 0, room.getRoomNumber());
+        int[] booked = nights(forecast, room.getRoomType(), firstNight);
+        assertArrayEquals(new int[]{before[0] + 1, before[1] + 1, before[2]}, booked);
+
+        reservationController.cancelReservation(reservation);
+        assertArrayEquals(before, nights(forecast, room.getRoomType(), firstNight));
+    }
+
+    /**
+     * A block of rooms is booked with one commit, one room per reservation, and a block larger than the rooms
+     * available is not booked at all.
+     *
+     * @throws Exception If the rooms cannot be booked.
+     */
+    @Test
+    public void bookRoomsBooksWholeBlock() throws Exception {
+        Guest guest = TestData.createGuest("Group Block");
+        int reservations = reservationController.getAllReservations().size();
+        int commits = TestData.commitCount();
+
+        List<ConfirmedReservation> booked = reservationController.bookRooms(guest, null, null, null,
+                TestData.future(60, 14), TestData.future(62, 12), 3, 2, 0);
+        assertEquals(3, booked.size());
+        assertEquals(3, booked.stream().map(ConfirmedReservation::getRoomNum).distinct().count());
+        assertEquals(reservations + 3, reservationController.getAllReservations().size());
+        assertEquals(1, TestData.commitsSince(commits).size());
+
+        int rooms = RoomController.getInstance().getAllRooms().size();
+        int afterBooking = TestData.commitCount();
+        assertThrows(RoomNotAvailableException.class, () -> reservationController.bookRooms(guest, null, null,
+                null, TestData.future(60, 14), TestData.future(62, 12), rooms, 2, 0));
+        assertEquals(reservations + 3, reservationController.getAllReservations().size());
+        assertEquals(afterBooking, TestData.commitCount());
+    }
+
+    /**
+     * A block of rooms that cannot be persisted leaves no reservation and no room status behind, so the rooms can
+     * still be booked.
+     *
+     * @throws Exception If the rooms cannot be booked.
+     */
+    @Test
+    public void bookRoomsBooksNothingIfNotPersisted() throws Exception {
+        Guest guest = TestData.createGuest("Group Failure");
+        List<Room> rooms = RoomController.getInstance().getAllRooms();
+        List<RoomStatus> statuses = rooms.stream().map(Room::getRoomStatus).collect(Collectors.toList());
+        int reservations = reservationController.getAllReservations().size();
+
+        File blocker = TestData.block(ReservationController.RESERVATION_DATA_DIR);
+        try {
+            assertThrows(UncheckedIOException.class, () -> reservationController.bookRooms(guest, null, null, null,
+                    TestData.future(70, 14), TestData.future(71, 12), 2, 1, 0));
+        } finally {
+            TestData.unblock(blocker);
+        }
+        assertEquals(reservations, reservationController.getAllReservations().size());
+        assertEquals(statuses, rooms.stream().map(Room::getRoomStatus).collect(Collectors.toList()));
+
+        assertEquals(2, reservationController.bookRooms(guest, null, null, null, TestData.future(70, 14),
+                TestData.future(71, 12), 2, 1, 0).size());
+    }
+
+    /**
+     * Checking in replaces the reservation by its checked-in successor in place and occupies the room, all persisted
+     * in one commit.
+     *
+     * @throws Exception If the room cannot be booked.
+     */
+    @Test
+    public void checkInCommitsOnce() throws Exception {
+        Guest guest = TestData.createGuest("Check In");
+        Room room = TestData.vacantRooms(1).get(0);
+        ConfirmedReservation reservation = reservationController.bookRoom(guest, TestData.future(100, 14),
+                TestData.future(101, 12), 1, 0, room.getRoomNumber());
+        int index = reservationController.getAllReservations().indexOf(reservation);
+        int commits = TestData.commitCount();
+
+        CheckedInReservation checkedIn = reservationController.checkIn(reservation, TestData.future(100, 15));
+        assertSame(checkedIn, reservationController.getAllReservations().get(index));
+        assertSame(checkedIn, reservationController.findCheckedInReservationByRoom(room));
+        assertEquals(RoomStatus.OCCUPIED, room.getRoomStatus());
+        assertSame(guest, room.getCurrentGuest());
+        List<Set<String>> written = TestData.commitsSince(commits);
+        assertEquals(1, written.size());
+        assertTrue(written.get(0).containsAll(List.of(ReservationController.RESERVATION_DATA_DIR,
+                RoomController.ROOM_STATUS_DATA_DIR)));
+    }
+
+    /**
+     * A check-in that cannot be persisted leaves the reservation, the room and the front desk as they were.
+     *
+     * @throws Exception If the room cannot be booked.
+     */
+    @Test
+    public void checkInRollsBackIfNotPersisted() throws Exception {
+        Guest guest = TestData.createGuest("Check In Failure");
+        Room room = TestData.vacantRooms(1).get(0);
+        ConfirmedReservation reservation = reservationController.bookRoom(guest, TestData.future(102, 14),
+                TestData.future(103, 12), 1, 0, room.getRoomNumber());
+        int index = reservationController.getAllReservations().indexOf(reservation);
+        RoomStatus status = room.getRoomStatus();
+        Guest currentGuest = room.getCurrentGuest();
+
+        File blocker = TestData.block(ReservationController.RESERVATION_DATA_DIR);
+        try {
+            assertThrows(UncheckedIOException.class, () ->
+                    reservationController.checkIn(reservation, TestData.future(102, 15)));
+        } finally {
+            TestData.unblock(blocker);
+        }
+        assertSame(reservation, reservationController.getAllReservations().get(index));
+        assertNull(reservationController.findCheckedInReservationByRoom(room));
+        assertEquals(status, room.getRoomStatus());
+        assertSame(currentGuest, room.getCurrentGuest());
+        assertTrue(reservationController.getFrontDeskView().getArrivals(TestData.future(102, 14).toLocalDate())
+                .stream().anyMatch(arrival -> arrival.getReservationCode().equals(reservation.getReservationCode())));
+    }
+
+    /**
+     * The front desk lists a booking among the arrivals of its check-in day until it is cancelled.
+     *
+     * @throws Exception If the room cannot be booked.
+     */
+    @Test
+    public void frontDeskFollowsReservations() throws Exception {
+        Guest guest = TestData.createGuest("Front Desk");
+        Room room = TestData.vacantRooms(1).get(0);
+        FrontDeskView frontDeskView = reservationController.getFrontDeskView();
+        LocalDateTime checkIn = TestData.future(50, 14);
+
+        ConfirmedReservation reservation = reservationController.bookRoom(guest, checkIn, TestData.future(51, 12),
+                1, 0, room.getRoomNumber());
+        assertTrue(frontDeskView.getArrivals(checkIn.toLocalDate()).stream()
+                .anyMatch(arrival -> arrival.getReservationCode().equals(reservation.getReservationCode())));
+
+        reservationController.cancelReservation(reservation);
+        assertTrue(frontDeskView.getArrivals(checkIn.toLocalDate()).stream()
+                .noneMatch(arrival -> arrival.getReservationCode().equals(reservation.getReservationCode())));
+    }
+
+    /**
+     * Read the confirmed room-nights of a room type on three nights.
+     *
+     * @param forecast   The forecast.
+     * @param roomType   The room type.
+     * @param firstNight The first of the nights.
+     * @return The room-nights of each night.
+     */
+    private static int[] nights(OccupancyForecast forecast, RoomType roomType, LocalDate firstNight) {
+        IntBuffer nights = forecast.getForecast(ForecastCategory.CONFIRMED, roomType, firstNight);
+        return new int[]{nights.get(0), nights.get(1), nights.get(2)};
+    }
+
+    /**
+     * A program whose first use of the controllers is the reservation controller.
+     */
+    static class FirstUse {
+        /**
+         * Get the reservation controller before any other controller.
+         *
+         * @param args Not used.
+         */
+        public static void main(String[] args) {
+            ReservationController.getInstance().getOccupancyForecast();
+        }
+    }
+}
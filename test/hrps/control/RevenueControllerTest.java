@@ -0,0 +1,91 @@
+package hrps.control;
+
+import hrps.entity.Bill;
+import hrps.entity.CheckedOutReservation;
+import hrps.entity.Guest;
+import hrps.entity.Money;
+import hrps.entity.PricingPipeline;
+import hrps.entity.RevenueSummary;
+import hrps.entity.Room;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the revenue analytics.
+ *
+ * @author Peng Wenxuan
+ */
+public class RevenueControllerTest {
+    /**
+     * Number of stays recorded, enough for the rows to be summed in several chunks.
+     */
+    private static final int NUMBER_OF_STAYS = 40_000;
+    /**
+     * The controller under test.
+     */
+    private final RevenueController revenueController = RevenueController.getInstance();
+
+    /**
+     * Create the rooms if the data files have none.
+     *
+     * @throws IOException If the rooms cannot be created.
+     */
+    @BeforeClass
+    public static void initializeRooms() throws IOException {
+        TestData.initializeRooms();
+    }
+
+    /**
+     * The sums of a period add up every row checked out within it, across the chunks summed in parallel, and no row
+     * checked out outside it.
+     *
+     * @throws Exception If the rooms cannot be found.
+     */
+    @Test
+    public void sumsEveryChunkOfThePeriod() throws Exception {
+        Room room = TestData.vacantRooms(1).get(0);
+        Guest guest = TestData.createGuest("Revenue");
+        PricingPipeline pipeline = new PricingPipeline(List.of());
+        LocalDateTime checkInTime = LocalDateTime.of(2041, 3, 1, 14, 0);
+        List<Bill> bills = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_STAYS; i++) {
+            bills.add(bill(guest, checkInTime, checkInTime.plusDays(2), pipeline));
+        }
+        bills.add(bill(guest, checkInTime.plusMonths(1), checkInTime.plusMonths(1).plusDays(2), pipeline));
+        revenueController.recordSettledBills(bills, Collections.nCopies(bills.size(), room));
+
+        RevenueSummary summary = revenueController.getRevenue(LocalDate.of(2041, 3, 1), LocalDate.of(2041, 3, 31));
+        assertEquals(NUMBER_OF_STAYS, summary.getNumberOfStays());
+        assertEquals(2L * NUMBER_OF_STAYS, summary.getRoomNights());
+        assertEquals(Money.ofCents(10_001L * NUMBER_OF_STAYS), summary.getRoomRevenue());
+        assertEquals(Money.ofCents(7L * NUMBER_OF_STAYS), summary.getServiceRevenue());
+        assertEquals(NUMBER_OF_STAYS, revenueController.getRevenueByRoomType(LocalDate.of(2041, 3, 1),
+                LocalDate.of(2041, 3, 31)).get(room.getRoomType()).getNumberOfStays());
+    }
+
+    /**
+     * Create the paid bill of a stay without pricing rules.
+     *
+     * @param guest        Guest of the stay.
+     * @param checkInTime  Check-in time.
+     * @param checkOutTime Check-out time.
+     * @param pipeline     The pipeline with no rule.
+     * @return The bill.
+     */
+    private static Bill bill(Guest guest, LocalDateTime checkInTime, LocalDateTime checkOutTime,
+                             PricingPipeline pipeline) {
+        CheckedOutReservation reservation = new CheckedOutReservation(1, 0, guest, UUID.randomUUID(), checkInTime,
+                checkOutTime, "02-01");
+        return new Bill(reservation, Money.ofCents(10_001), Money.ofCents(7), Money.ZERO, pipeline, null);
+    }
+}
@@ -0,0 +1,161 @@
+package hrps.control;
+
+import hrps.entity.Guest;
+import hrps.entity.Room;
+import hrps.entity.RoomOccupancyIndex;
+import hrps.entity.enums.RoomStatus;
+import hrps.entity.enums.RoomType;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import tool.CsvReportWriter;
+import tool.ReportWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of changing the status of rooms and keeping the occupancy index up to date.
+ *
+ * @author Peng Wenxuan
+ */
+public class RoomControllerTest {
+    /**
+     * The controller under test.
+     */
+    private final RoomController roomController = RoomController.getInstance();
+    /**
+     * Its lock guards the rooms.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+
+    /**
+     * Create the rooms if the data files have none.
+     *
+     * @throws IOException If the rooms cannot be created.
+     */
+    @BeforeClass
+    public static void initializeRooms() throws IOException {
+        TestData.initializeRooms();
+    }
+
+    /**
+     * Every status change moves the room between the lists of the occupancy index, and the index read before a change
+     * is never changed.
+     *
+     * @throws Exception If the rooms cannot be found.
+     */
+    @Test
+    public void occupancyIndexFollowsStatusChanges() throws Exception {
+        Room room = TestData.vacantRooms(1).get(0);
+        RoomOccupancyIndex vacant = roomController.getOccupancyIndex();
+        assertTrue(vacant.roomNumbers(room.getRoomType(), RoomStatus.VACANT).contains(room.getRoomNumber()));
+
+        roomController.maintain(room.getRoomNumber());
+        assertIndexed(room, RoomStatus.MAINTENANCE);
+        roomController.finishMaintain(room.getRoomNumber());
+        assertIndexed(room, RoomStatus.VACANT);
+        Guest guest = TestData.createGuest("Room Index");
+        roomController.checkIn(room.getRoomNumber(), guest);
+        assertIndexed(room, RoomStatus.OCCUPIED);
+        roomController.updateRoomStatus(room, "VACANT");
+        assertIndexed(room, RoomStatus.VACANT);
+        assertEquals(vacant.count(room.getRoomType()), roomController.getOccupancyIndex().count(room.getRoomType()));
+        assertEquals(RoomStatus.VACANT, room.getRoomStatus());
+    }
+
+    /**
+     * A status change that cannot be persisted is rolled back in the occupancy index as well as in the room.
+     *
+     * @throws Exception If the rooms cannot be found.
+     */
+    @Test
+    public void occupancyIndexIsRolledBack() throws Exception {
+        Room room = TestData.vacantRooms(1).get(0);
+        RoomOccupancyIndex before = roomController.getOccupancyIndex();
+        File blocker = TestData.block(RoomController.ROOM_STATUS_DATA_DIR);
+        try {
+            assertThrows(UncheckedIOException.class,
+                    () -> Transaction.apply(() -> roomController.maintain(room.getRoomNumber())));
+        } finally {
+            TestData.unblock(blocker);
+        }
+        assertEquals(RoomStatus.VACANT, room.getRoomStatus());
+        assertIndexed(room, RoomStatus.VACANT);
+        assertEquals(before.count(RoomStatus.MAINTENANCE), roomController.getOccupancyIndex()
+                .count(RoomStatus.MAINTENANCE));
+    }
+
+    /**
+     * A room cannot be changed while another thread holds the lock of the ReservationController, eg. in the middle of
+     * a transaction.
+     *
+     * @throws Exception If the rooms cannot be found.
+     */
+    @Test
+    public void mutatorsTakeReservationLock() throws Exception {
+        Room room = TestData.vacantRooms(1).get(0);
+        CountDownLatch started = new CountDownLatch(1);
+        Thread maintainer = new Thread(() -> {
+            started.countDown();
+            roomController.maintain(room.getRoomNumber());
+        });
+        synchronized (reservationController) {
+            maintainer.start();
+            started.await();
+            maintainer.join(200);
+            assertTrue(maintainer.isAlive());
+            assertEquals(RoomStatus.VACANT, room.getRoomStatus());
+        }
+        maintainer.join();
+        assertEquals(RoomStatus.MAINTENANCE, room.getRoomStatus());
+        roomController.finishMaintain(room.getRoomNumber());
+    }
+
+    /**
+     * The room reports are written row by row from one occupancy index, whatever the format.
+     *
+     * @throws IOException If the reports cannot be written.
+     */
+    @Test
+    public void writesRoomReportsAsCsv() throws IOException {
+        RoomOccupancyIndex index = roomController.getOccupancyIndex();
+        StringWriter occupancy = new StringWriter();
+        try (ReportWriter writer = new CsvReportWriter(occupancy)) {
+            roomController.writeRoomOccupancyReport(writer);
+        }
+        String[] lines = occupancy.toString().split("\r\n");
+        assertEquals("Room type,Vacant,Total,Vacant rooms", lines[0]);
+        assertEquals(RoomType.values().length + 1, lines.length);
+        for (RoomType roomType : RoomType.values()) {
+            List<String> vacantRoomNumbers = index.roomNumbers(roomType, RoomStatus.VACANT);
+            assertEquals(roomType + "," + vacantRoomNumbers.size() + "," + index.count(roomType) + ","
+                    + String.join(" ", vacantRoomNumbers), lines[roomType.ordinal() + 1]);
+        }
+
+        StringWriter status = new StringWriter();
+        try (ReportWriter writer = new CsvReportWriter(status)) {
+            roomController.writeRoomStatusReport(writer);
+        }
+        assertEquals(RoomStatus.values().length + 1, status.toString().split("\r\n").length);
+    }
+
+    /**
+     * Check that the occupancy index lists a room under its status only.
+     *
+     * @param room   The room.
+     * @param status The room's status.
+     */
+    private void assertIndexed(Room room, RoomStatus status) {
+        RoomOccupancyIndex index = roomController.getOccupancyIndex();
+        for (RoomStatus roomStatus : RoomStatus.values()) {
+            assertEquals(roomStatus == status,
+                    index.roomNumbers(room.getRoomType(), roomStatus).contains(room.getRoomNumber()));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package hrps.control;
+
+import hrps.entity.ConfirmedReservation;
+import hrps.entity.Guest;
+import hrps.entity.ReservationSnapshot;
+import hrps.entity.Room;
+import hrps.entity.RoomSnapshot;
+import hrps.entity.StateSnapshot;
+import hrps.entity.enums.RoomStatus;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of publishing snapshots of the rooms and reservations after each commit.
+ *
+ * @author Peng Wenxuan
+ */
+public class SnapshotControllerTest {
+    /**
+     * The controller under test.
+     */
+    private final SnapshotController snapshotController = SnapshotController.getInstance();
+    /**
+     * To book rooms.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+
+    /**
+     * Create the rooms if the data files have none.
+     *
+     * @throws IOException If the rooms cannot be created.
+     */
+    @BeforeClass
+    public static void initializeRooms() throws IOException {
+        TestData.initializeRooms();
+    }
+
+    /**
+     * A booking is published in a new snapshot with the room's new status, the orders are shared with the previous
+     * snapshot, and the previous snapshot is left as it was.
+     *
+     * @throws Exception If the room cannot be booked.
+     */
+    @Test
+    public void publishesBookingAfterCommit() throws Exception {
+        Guest guest = TestData.createGuest("Snapshot Booking");
+        Room room = TestData.vacantRooms(1).get(0);
+        StateSnapshot previous = snapshotController.getSnapshot();
+
+        ConfirmedReservation reservation = reservationController.bookRoom(guest, TestData.future(80, 14),
+                TestData.future(81, 12), 1, 0, room.getRoomNumber());
+        StateSnapshot snapshot = snapshotController.getSnapshot();
+        assertNotSame(previous, snapshot);
+        assertTrue(reservationCodes(snapshot).contains(reservation.getReservationCode()));
+        assertFalse(reservationCodes(previous).contains(reservation.getReservationCode()));
+        assertEquals(room.getRoomStatus(), roomStatuses(snapshot).get(room.getRoomNumber()));
+        assertSame(previous.getOrders(), snapshot.getOrders());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getReservations().clear());
+    }
+
+    /**
+     * Reservations that fail to commit are never published, and the published rooms are those restored by the
+     * rollback.
+     *
+     * @throws Exception If the data file cannot be blocked.
+     */
+    @Test
+    public void publishesNothingThatFailsToCommit() throws Exception {
+        Guest guest = TestData.createGuest("Snapshot Failure");
+        List<UUID> before = reservationCodes(snapshotController.getSnapshot());
+
+        File blocker = TestData.block(ReservationController.RESERVATION_DATA_DIR);
+        try {
+            assertThrows(UncheckedIOException.class, () -> reservationController.bookRooms(guest, null, null, null,
+                    TestData.future(82, 14), TestData.future(83, 12), 2, 1, 0));
+        } finally {
+            TestData.unblock(blocker);
+        }
+        StateSnapshot snapshot = snapshotController.getSnapshot();
+        assertEquals(before, reservationCodes(snapshot));
+        Map<String, RoomStatus> statuses = roomStatuses(snapshot);
+        for (Room room : RoomController.getInstance().getAllRooms()) {
+            assertEquals(room.getRoomStatus(), statuses.get(room.getRoomNumber()));
+        }
+    }
+
+    /**
+     * Get the codes of the reservations of a snapshot.
+     *
+     * @param snapshot The snapshot.
+     * @return The reservation codes, in order.
+     */
+    private static List<UUID> reservationCodes(StateSnapshot snapshot) {
+        return snapshot.getReservations().stream().map(ReservationSnapshot::getReservationCode)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the status of each room of a snapshot.
+     *
+     * @param snapshot The snapshot.
+     * @return The room statuses by room number.
+     */
+    private static Map<String, RoomStatus> roomStatuses(StateSnapshot snapshot) {
+        return snapshot.getRooms().stream().collect(Collectors.toMap(RoomSnapshot::getRoomNumber,
+                RoomSnapshot::getRoomStatus));
+    }
+}
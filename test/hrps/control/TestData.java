@@ -0,0 +1,153 @@
+package hrps.control;
+
+import hrps.entity.Guest;
+import hrps.entity.Room;
+import hrps.entity.enums.IDType;
+import hrps.entity.enums.RoomStatus;
+import tool.SerializeDB;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Data shared by the controller tests. The controllers are singletons reading the data files in the working
+ * directory, so every test creates its own guests and uses rooms and dates no other test uses.
+ *
+ * @author Peng Wenxuan
+ */
+final class TestData {
+    /**
+     * The files written by every commit since the tests started, the latest last.
+     */
+    private static final List<Set<String>> commits = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * Number of guests created so far, to give each guest a unique ID number and contact.
+     */
+    private static int guestCount = 0;
+
+    static {
+        SerializeDB.addCommitListener(commits::add);
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private TestData() {
+    }
+
+    /**
+     * Create the rooms from the room data text file if no room was read from the data files.
+     *
+     * @throws IOException If the room data text file cannot be read.
+     */
+    static synchronized void initializeRooms() throws IOException {
+        RoomController roomController = RoomController.getInstance();
+        if (roomController.getAllRooms().isEmpty()) {
+            roomController.initializeRooms();
+        }
+    }
+
+    /**
+     * Create a guest with a valid credit card.
+     *
+     * @param name Name of the guest.
+     * @return The guest.
+     */
+    static synchronized Guest createGuest(String name) {
+        guestCount++;
+        return GuestController.getInstance().createGuest(name, "4111111111111111", "1 Test Road", "1 Test Road",
+                "Singapore", "F", "T" + guestCount, IDType.PASSPORT, "Singaporean", "9" + (5550000 + guestCount));
+    }
+
+    /**
+     * Get some rooms that are vacant and have no checked-in reservation.
+     *
+     * @param count Number of rooms.
+     * @return The rooms.
+     * @throws IOException If the rooms cannot be initialized.
+     */
+    static List<Room> vacantRooms(int count) throws IOException {
+        initializeRooms();
+        ReservationController reservationController = ReservationController.getInstance();
+        List<Room> rooms = new ArrayList<>();
+        synchronized (reservationController) {
+            for (Room room : RoomController.getInstance().getAllRooms()) {
+                if (rooms.size() < count && room.getRoomStatus() == RoomStatus.VACANT
+                        && reservationController.findCheckedInReservationByRoom(room) == null) {
+                    rooms.add(room);
+                }
+            }
+        }
+        if (rooms.size() < count) {
+            throw new IllegalStateException("Not enough vacant rooms");
+        }
+        return rooms;
+    }
+
+    /**
+     * Get a time on a day far in the future, on which no reservation of the shipped data is.
+     *
+     * @param day  Number of days after the first day used by the tests.
+     * @param hour Hour of the day.
+     * @return The time.
+     */
+    static LocalDateTime future(int day, int hour) {
+        return LocalDateTime.of(2040, 1, 1, hour, 0).plusDays(day);
+    }
+
+    /**
+     * Get the number of commits so far.
+     *
+     * @return The number of commits.
+     */
+    static int commitCount() {
+        return commits.size();
+    }
+
+    /**
+     * Get the files written by the commits after some number of commits.
+     *
+     * @param from The number of commits before.
+     * @return The files written by each commit after those, the latest last.
+     */
+    static List<Set<String>> commitsSince(int from) {
+        synchronized (commits) {
+            return new ArrayList<>(commits.subList(from, commits.size()));
+        }
+    }
+
+    /**
+     * Make the next commit that writes a data file fail, by putting a directory where the temporary file of its
+     * write goes. A temporary file left by an earlier failed commit is removed first.
+     *
+     * @param dataFile The data file, eg. ReservationController.RESERVATION_DATA_DIR.
+     * @return The blocker, to be passed to {@link #unblock(File)}.
+     * @throws IOException If the blocker cannot be created.
+     */
+    static File block(String dataFile) throws IOException {
+        File blocker = new File(dataFile + ".tmp");
+        if (blocker.isFile()) {
+            Files.delete(blocker.toPath());
+        }
+        if (!blocker.mkdir() || !new File(blocker, "blocker").createNewFile()) {
+            throw new IOException("Cannot block " + dataFile);
+        }
+        return blocker;
+    }
+
+    /**
+     * Let the commits write a data file again.
+     *
+     * @param blocker The blocker returned by {@link #block(String)}.
+     */
+    static void unblock(File blocker) {
+        new File(blocker, "blocker").delete();
+        blocker.delete();
+    }
+}
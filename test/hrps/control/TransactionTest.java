@@ -0,0 +1,223 @@
+package hrps.control;
+
+import hrps.entity.CheckedInReservation;
+import hrps.entity.Guest;
+import hrps.entity.Money;
+import hrps.entity.OrderedMenuItem;
+import hrps.entity.OrderedRoomService;
+import hrps.entity.Room;
+import hrps.entity.enums.OrderStatus;
+import hrps.entity.enums.RoomStatus;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of committing and rolling back transactions spanning the controllers.
+ *
+ * @author Peng Wenxuan
+ */
+public class TransactionTest {
+    /**
+     * Holds the lock of the transactions.
+     */
+    private final ReservationController reservationController = ReservationController.getInstance();
+    /**
+     * To create and change guests.
+     */
+    private final GuestController guestController = GuestController.getInstance();
+    /**
+     * To check guests into rooms.
+     */
+    private final RoomController roomController = RoomController.getInstance();
+
+    /**
+     * Create the rooms if the data files have none.
+     *
+     * @throws IOException If the rooms cannot be created.
+     */
+    @BeforeClass
+    public static void initializeRooms() throws IOException {
+        TestData.initializeRooms();
+    }
+
+    /**
+     * A transaction cannot begin without the lock of the ReservationController.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void beginNeedsTheLock() {
+        Transaction.begin();
+    }
+
+    /**
+     * A walk-in applied as one transaction is persisted with one commit.
+     *
+     * @throws Exception If the rooms cannot be found.
+     */
+    @Test
+    public void applyCommitsOnce() throws Exception {
+        Room room = TestData.vacantRooms(1).get(0);
+        int commits = TestData.commitCount();
+        CheckedInReservation reservation = Transaction.apply(() -> walkIn("Walk In", room));
+        assertEquals(1, TestData.commitsSince(commits).size());
+        assertEquals(RoomStatus.OCCUPIED, room.getRoomStatus());
+        assertSame(reservation, reservationController.findCheckedInReservationByRoom(room));
+    }
+
+    /**
+     * When the work fails, every change it made is undone in memory and nothing is written, including changes made
+     * in place to a guest.
+     *
+     * @throws Exception If the rooms cannot be found.
+     */
+    @Test
+    public void failedWorkIsUndone() throws Exception {
+        Room room = TestData.vacantRooms(1).get(0);
+        Guest guest = TestData.createGuest("Undo");
+        int guests = guestController.searchGuestByName("Undo").size();
+        int reservations = reservationController.getAllReservations().size();
+        int commits = TestData.commitCount();
+
+        IllegalArgumentException failure = assertThrows(IllegalArgumentException.class, () ->
+                Transaction.apply(() -> {
+                    guestController.updateGender(guest, "m");
+                    guestController.updateGuestName(guest, "Changed");
+                    guestController.updateCreditCard(guest, "5555555555554444", "2 Other Road");
+                    walkIn("Undo", room);
+                    throw new IllegalArgumentException("business rule");
+                }));
+
+        assertEquals("business rule", failure.getMessage());
+        assertEquals(commits, TestData.commitCount());
+        assertEquals("Undo", guest.getGuestName());
+        assertEquals("Female", guest.getGender());
+        assertEquals("4111111111111111", guest.getCreditCard().getCreditCardNumber());
+        assertEquals("1 Test Road", guest.getCreditCard().getBillingAddress());
+        assertEquals(guests, guestController.searchGuestByName("Undo").size());
+        assertEquals(reservations, reservationController.getAllReservations().size());
+        assertNull(reservationController.findCheckedInReservationByRoom(room));
+        assertEquals(RoomStatus.VACANT, room.getRoomStatus());
+        assertNull(room.getCurrentGuest());
+    }
+
+    /**
+     * The changes of a guest without a credit card, as read from old data files, are undone too.
+     *
+     * @throws Exception If the credit card cannot be removed.
+     */
+    @Test
+    public void undoesChangesOfGuestWithoutCreditCard() throws Exception {
+        Guest guest = TestData.createGuest("No Card");
+        Field creditCard = Guest.class.getDeclaredField("creditCard");
+        creditCard.setAccessible(true);
+        creditCard.set(guest, null);
+        String contact = guest.getContact();
+        synchronized (reservationController) {
+            try (Transaction transaction = Transaction.begin()) {
+                guestController.updateContact(guest, "90000000");
+                transaction.rollBack();
+            }
+        }
+        assertEquals(contact, guest.getContact());
+        assertNull(guest.getCreditCard());
+    }
+
+    /**
+     * The status of an order changed in place is put back on rollback, and so are the orders removed.
+     *
+     * @throws Exception If the rooms cannot be found.
+     */
+    @Test
+    public void undoesOrderStatusChange() throws Exception {
+        Room room = TestData.vacantRooms(1).get(0);
+        OrderController orderController = OrderController.getInstance();
+        OrderedRoomService order = orderController.makeOrder(room, "",
+                List.of(new OrderedMenuItem("Tea", "Teh tarik", Money.ofCents(350), 1)));
+        synchronized (reservationController) {
+            try (Transaction transaction = Transaction.begin()) {
+                orderController.changeOrderStatus(order, OrderStatus.DELIVERED);
+                orderController.flushRoomOrderAfterCheckOut(room);
+                transaction.rollBack();
+            }
+        }
+        assertEquals(OrderStatus.CONFIRMED, order.getOrderStatus());
+        assertTrue(orderController.getAllOrders().contains(order));
+        orderController.flushRoomOrderAfterCheckOut(room);
+    }
+
+    /**
+     * When the commit fails, the changes are undone and the failure is reported.
+     *
+     * @throws Exception If the rooms cannot be found.
+     */
+    @Test
+    public void failedCommitIsRolledBack() throws Exception {
+        Room room = TestData.vacantRooms(1).get(0);
+        int reservations = reservationController.getAllReservations().size();
+        int commits = TestData.commitCount();
+        File blocker = TestData.block(ReservationController.RESERVATION_DATA_DIR);
+        try {
+            synchronized (reservationController) {
+                try (Transaction transaction = Transaction.begin()) {
+                    walkIn("Failed Commit", room);
+                    assertThrows(IOException.class, transaction::commit);
+                }
+            }
+        } finally {
+            TestData.unblock(blocker);
+        }
+        assertEquals(commits, TestData.commitCount());
+        assertEquals(reservations, reservationController.getAllReservations().size());
+        assertEquals(RoomStatus.VACANT, room.getRoomStatus());
+        assertTrue(guestController.searchGuestByName("Failed Commit").isEmpty());
+    }
+
+    /**
+     * The changes of a committed nested transaction are undone when the transaction it is nested in rolls back.
+     *
+     * @throws Exception If the rooms cannot be found.
+     */
+    @Test
+    public void rollBackUndoesCommittedNestedTransaction() throws Exception {
+        List<Room> rooms = TestData.vacantRooms(2);
+        int commits = TestData.commitCount();
+        synchronized (reservationController) {
+            try (Transaction outer = Transaction.begin()) {
+                walkIn("Outer", rooms.get(0));
+                try (Transaction inner = Transaction.begin()) {
+                    walkIn("Inner", rooms.get(1));
+                    inner.commit();
+                }
+                assertEquals(RoomStatus.OCCUPIED, rooms.get(1).getRoomStatus());
+                outer.rollBack();
+            }
+        }
+        assertEquals(commits, TestData.commitCount());
+        for (Room room : rooms) {
+            assertEquals(RoomStatus.VACANT, room.getRoomStatus());
+            assertNull(reservationController.findCheckedInReservationByRoom(room));
+        }
+        assertTrue(guestController.searchGuestByName("Inner").isEmpty());
+    }
+
+    /**
+     * Check a new guest into a room as a walk-in.
+     *
+     * @param name Name of the guest.
+     * @param room The room.
+     * @return The checked-in reservation.
+     */
+    private CheckedInReservation walkIn(String name, Room room) {
+        Guest guest = TestData.createGuest(name);
+        CheckedInReservation reservation = reservationController.createWalkInReservation(guest, guest.getContact(),
+                TestData.future(100, 14), TestData.future(101, 12), 1, 0, room.getRoomNumber());
+        roomController.checkIn(room.getRoomNumber(), guest);
+        return reservation;
+    }
+}
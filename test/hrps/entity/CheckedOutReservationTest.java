@@ -0,0 +1,67 @@
+package hrps.entity;
+
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of counting the weekdays and weekend days of a stay.
+ *
+ * @author Peng Wenxuan
+ */
+public class CheckedOutReservationTest {
+    /**
+     * The weekend days counted without walking through the stay are those found by walking through it, for stays
+     * starting on every day of the week and lasting up to several weeks.
+     */
+    @Test
+    public void countsWeekendsOfEveryStay() {
+        LocalDate monday = LocalDate.of(2030, 1, 7);
+        for (int firstDay = 0; firstDay < 7; firstDay++) {
+            for (int numberOfDays = 0; numberOfDays <= 30; numberOfDays++) {
+                LocalDate firstNight = monday.plusDays(firstDay);
+                CheckedOutReservation reservation = stay(firstNight.atTime(14, 0),
+                        firstNight.plusDays(numberOfDays).atTime(14, 0));
+                int weekends = 0;
+                for (LocalDate night = firstNight; night.isBefore(firstNight.plusDays(numberOfDays));
+                     night = night.plusDays(1)) {
+                    if (night.getDayOfWeek() == DayOfWeek.SATURDAY || night.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                        weekends++;
+                    }
+                }
+                String stay = firstNight.getDayOfWeek() + " + " + numberOfDays;
+                assertEquals(stay, numberOfDays, reservation.getNumberOfDayStayed());
+                assertEquals(stay, weekends, reservation.getNumberOfWeekendStayed());
+                assertEquals(stay, numberOfDays - weekends, reservation.getNumberOfWeekdayStayed());
+            }
+        }
+    }
+
+    /**
+     * Only whole days are counted, so a stay checked out before the hour it was checked in is a day shorter.
+     */
+    @Test
+    public void countsWholeDays() {
+        LocalDateTime friday = LocalDateTime.of(2030, 1, 11, 14, 0);
+        CheckedOutReservation reservation = stay(friday, friday.plusDays(2).withHour(12));
+        assertEquals(1, reservation.getNumberOfDayStayed());
+        assertEquals(1, reservation.getNumberOfWeekdayStayed());
+        assertEquals(0, reservation.getNumberOfWeekendStayed());
+    }
+
+    /**
+     * Create a checked-out stay of one adult.
+     *
+     * @param checkInTime  Check-in time.
+     * @param checkOutTime Check-out time.
+     * @return The checked-out reservation.
+     */
+    private static CheckedOutReservation stay(LocalDateTime checkInTime, LocalDateTime checkOutTime) {
+        return new CheckedOutReservation(1, 0, null, UUID.randomUUID(), checkInTime, checkOutTime, "02-01");
+    }
+}
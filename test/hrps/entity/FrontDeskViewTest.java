@@ -0,0 +1,104 @@
+package hrps.entity;
+
+import hrps.entity.enums.IDType;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of moving reservations between the front desk's arrivals, departures and in-house lists.
+ *
+ * @author Peng Wenxuan
+ */
+public class FrontDeskViewTest {
+    /**
+     * The day the tests look at.
+     */
+    private static final LocalDate TODAY = LocalDate.of(2035, 6, 1);
+    /**
+     * A guest of every reservation.
+     */
+    private static final Guest GUEST = new Guest("Front Desk", "4111111111111111", "1 Test Road", "1 Test Road",
+            "Singapore", "F", "FD1", IDType.PASSPORT, "Singaporean", "95559999");
+    /**
+     * The view under test.
+     */
+    private final FrontDeskView view = new FrontDeskView();
+
+    /**
+     * Arrivals are listed by day and check-in time, and a reservation checked in moves from the arrivals to the
+     * departures of its check-out day and the guests in house.
+     */
+    @Test
+    public void movesArrivalToInHouse() {
+        ConfirmedReservation late = confirmed("03-01", TODAY.atTime(18, 0), TODAY.plusDays(2).atTime(12, 0));
+        ConfirmedReservation early = confirmed("02-01", TODAY.atTime(9, 0), TODAY.plusDays(1).atTime(12, 0));
+        ConfirmedReservation tomorrow = confirmed("02-02", TODAY.plusDays(1).atTime(14, 0),
+                TODAY.plusDays(3).atTime(12, 0));
+        view.put(late);
+        view.put(early);
+        view.put(tomorrow);
+        assertEquals(List.of("02-01", "03-01"), roomNumbers(view.getArrivals(TODAY)));
+        assertEquals(List.of("02-02"), roomNumbers(view.getArrivals(TODAY.plusDays(1))));
+        assertTrue(view.getInHouse().isEmpty());
+
+        List<ReservationSnapshot> arrivals = view.getArrivals(TODAY);
+        CheckedInReservation checkedIn = late.checkIn(TODAY.atTime(17, 0));
+        view.put(checkedIn);
+        assertEquals(List.of("02-01"), roomNumbers(view.getArrivals(TODAY)));
+        assertEquals(List.of("03-01"), roomNumbers(view.getDepartures(TODAY.plusDays(2))));
+        assertEquals(List.of("03-01"), roomNumbers(view.getInHouse()));
+        assertEquals(2, arrivals.size());       // a list read before is never changed
+        assertThrows(UnsupportedOperationException.class, () -> view.getInHouse().clear());
+    }
+
+    /**
+     * In-house guests are listed by room number, and a reservation that is checked out or removed is no longer
+     * listed anywhere.
+     */
+    @Test
+    public void removesDeparture() {
+        CheckedInReservation second = confirmed("05-01", TODAY.atTime(14, 0), TODAY.plusDays(1).atTime(12, 0))
+                .checkIn(TODAY.atTime(14, 0));
+        CheckedInReservation first = confirmed("02-03", TODAY.atTime(15, 0), TODAY.plusDays(1).atTime(10, 0))
+                .checkIn(TODAY.atTime(15, 0));
+        view.put(second);
+        view.put(first);
+        assertEquals(List.of("02-03", "05-01"), roomNumbers(view.getInHouse()));
+        assertEquals(List.of("02-03", "05-01"), roomNumbers(view.getDepartures(TODAY.plusDays(1))));
+
+        view.put(second.checkOut(TODAY.plusDays(1).atTime(11, 0)));
+        view.remove(first.getReservationCode());
+        view.remove(first.getReservationCode());
+        assertTrue(view.getInHouse().isEmpty());
+        assertTrue(view.getDepartures(TODAY.plusDays(1)).isEmpty());
+    }
+
+    /**
+     * Get the room numbers of listed reservations.
+     *
+     * @param reservations The listed reservations.
+     * @return The room number of each reservation, in order.
+     */
+    private static List<String> roomNumbers(List<ReservationSnapshot> reservations) {
+        return reservations.stream().map(ReservationSnapshot::getRoomNum).collect(Collectors.toList());
+    }
+
+    /**
+     * Create a confirmed reservation.
+     *
+     * @param roomNumber   Number of the room.
+     * @param checkInTime  Check-in time.
+     * @param checkOutTime Check-out time.
+     * @return The reservation.
+     */
+    private static ConfirmedReservation confirmed(String roomNumber, LocalDateTime checkInTime,
+                                                  LocalDateTime checkOutTime) {
+        return new ConfirmedReservation(1, 0, GUEST, checkInTime, checkOutTime, roomNumber);
+    }
+}
@@ -0,0 +1,75 @@
+package hrps.entity;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the exact arithmetic of amounts of money in cents.
+ *
+ * @author Peng Wenxuan
+ */
+public class MoneyTest {
+    /**
+     * Amounts in dollars are rounded half up to the nearest cent, also when the double is just below the half.
+     */
+    @Test
+    public void ofRoundsDollarsHalfUpToTheCent() {
+        assertEquals(1005, Money.of(10.05).getCents());
+        assertEquals(30, Money.of(0.1 + 0.2).getCents());
+        assertEquals(101, Money.of(1.005).getCents());
+        assertEquals(-101, Money.of(-1.005).getCents());
+        assertEquals(14999, Money.of(149.99).getCents());
+    }
+
+    /**
+     * Sums of amounts in cents do not drift the way sums of doubles do.
+     */
+    @Test
+    public void plusAndMinusAreExact() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.of(0.1));
+        }
+        assertEquals(Money.ofCents(100), total);
+        assertEquals(Money.ofCents(-5), Money.ofCents(95).minus(Money.ofCents(100)));
+        assertTrue(Money.ofCents(-5).isNegative());
+        assertFalse(Money.ZERO.isNegative());
+    }
+
+    /**
+     * Percentages are rounded half up to the cent, towards positive infinity for negative amounts.
+     */
+    @Test
+    public void percentRoundsHalfUp() {
+        assertEquals(Money.ofCents(7), Money.ofCents(100).percent(7));
+        assertEquals(Money.ofCents(1), Money.ofCents(7).percent(10));
+        assertEquals(Money.ofCents(105), Money.ofCents(1050).percent(10));
+        assertEquals(Money.ofCents(4), Money.ofCents(35).percent(10));
+        assertEquals(-3, Money.percentOf(-35, 10));
+        assertEquals(Money.ofCents(3000), Money.ofCents(14999).times(2).percent(10));
+    }
+
+    /**
+     * Overflowing arithmetic fails instead of wrapping around.
+     */
+    @Test(expected = ArithmeticException.class)
+    public void timesFailsOnOverflow() {
+        Money.ofCents(Long.MAX_VALUE / 2 + 1).times(2);
+    }
+
+    /**
+     * Amounts are shown in dollars with two decimals, and compare and hash by their cents.
+     */
+    @Test
+    public void toStringEqualsAndCompareTo() {
+        assertEquals("12.50", Money.ofCents(1250).toString());
+        assertEquals("-0.05", Money.ofCents(-5).toString());
+        assertEquals("0.00", Money.ZERO.toString());
+        assertEquals(12.5, Money.ofCents(1250).toDouble(), 0);
+        assertEquals(Money.of(12.5), Money.ofCents(1250));
+        assertEquals(Money.of(12.5).hashCode(), Money.ofCents(1250).hashCode());
+        assertTrue(Money.ofCents(1).compareTo(Money.ofCents(2)) < 0);
+        assertEquals(0, Money.ofCents(2).compareTo(Money.ofCents(2)));
+    }
+}
@@ -0,0 +1,81 @@
+package hrps.entity;
+
+import hrps.entity.enums.ForecastCategory;
+import hrps.entity.enums.RoomType;
+import org.junit.Test;
+
+import java.nio.IntBuffer;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of keeping the occupancy forecast up to date as stays are added, moved and removed.
+ *
+ * @author Peng Wenxuan
+ */
+public class OccupancyForecastTest {
+    /**
+     * A night a few days ahead, within the forecast's first horizon.
+     */
+    private static final LocalDate NIGHT = LocalDate.now().plusDays(3);
+    /**
+     * The forecast under test.
+     */
+    private final OccupancyForecast forecast = new OccupancyForecast();
+
+    /**
+     * A stay counts on each of its nights but not on its check-out night, in its room type's row and the row of all
+     * room types.
+     */
+    @Test
+    public void countsNightsOfStay() {
+        forecast.put(UUID.randomUUID(), ForecastCategory.CONFIRMED, RoomType.DELUXE, NIGHT, NIGHT.plusDays(2));
+        forecast.put(UUID.randomUUID(), ForecastCategory.CONFIRMED, RoomType.SINGLE, NIGHT.plusDays(1),
+                NIGHT.plusDays(2));
+        IntBuffer deluxe = forecast.getForecast(ForecastCategory.CONFIRMED, RoomType.DELUXE, NIGHT);
+        assertEquals(OccupancyForecast.HORIZON, deluxe.remaining());
+        assertEquals(1, deluxe.get(0));
+        assertEquals(1, deluxe.get(1));
+        assertEquals(0, deluxe.get(2));
+        assertEquals(2, forecast.getRoomNights(ForecastCategory.CONFIRMED, null, NIGHT.plusDays(1)));
+        assertEquals(0, forecast.getRoomNights(ForecastCategory.CHECKED_IN, RoomType.DELUXE, NIGHT));
+        assertTrue(deluxe.isReadOnly());
+    }
+
+    /**
+     * Putting the stay of a reservation again moves it, to other nights, another room type or another category, and
+     * removing it stops counting it.
+     */
+    @Test
+    public void movesAndRemovesStay() {
+        UUID reservationCode = UUID.randomUUID();
+        forecast.put(reservationCode, ForecastCategory.CONFIRMED, RoomType.DELUXE, NIGHT, NIGHT.plusDays(1));
+        IntBuffer published = forecast.getForecast(ForecastCategory.CONFIRMED, RoomType.DELUXE, NIGHT);
+        forecast.put(reservationCode, ForecastCategory.CHECKED_IN, RoomType.SUITE, NIGHT.plusDays(1),
+                NIGHT.plusDays(3));
+        assertEquals(0, forecast.getRoomNights(ForecastCategory.CONFIRMED, RoomType.DELUXE, NIGHT));
+        assertEquals(1, forecast.getRoomNights(ForecastCategory.CHECKED_IN, RoomType.SUITE, NIGHT.plusDays(2)));
+        assertEquals(1, published.get(0));      // what was read before is never changed
+
+        forecast.remove(reservationCode);
+        forecast.remove(reservationCode);
+        assertEquals(0, forecast.getRoomNights(ForecastCategory.CHECKED_IN, null, NIGHT.plusDays(1)));
+    }
+
+    /**
+     * Stays ending far beyond the nights covered so far, and forecasts read from any later night, are counted in
+     * full.
+     */
+    @Test
+    public void countsBeyondHorizon() {
+        LocalDate farNight = NIGHT.plusDays(3 * OccupancyForecast.HORIZON);
+        forecast.put(UUID.randomUUID(), ForecastCategory.WAITLISTED, RoomType.VIP, NIGHT, farNight.plusDays(1));
+        assertEquals(1, forecast.getRoomNights(ForecastCategory.WAITLISTED, RoomType.VIP, NIGHT));
+        assertEquals(1, forecast.getRoomNights(ForecastCategory.WAITLISTED, RoomType.VIP, farNight));
+        IntBuffer later = forecast.getForecast(ForecastCategory.WAITLISTED, RoomType.VIP, farNight);
+        assertEquals(1, later.get(0));
+        assertEquals(0, later.get(1));
+    }
+}
@@ -0,0 +1,86 @@
+package hrps.entity;
+
+import hrps.entity.enums.PricingRuleType;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of pricing stays through a pipeline of pricing rules.
+ *
+ * @author Peng Wenxuan
+ */
+public class PricingPipelineTest {
+    /**
+     * A pipeline of one rule of each kind, given out of order.
+     */
+    private final PricingPipeline pipeline = new PricingPipeline(List.of(
+            PricingRule.tax("GST", 10),
+            PricingRule.lengthOfStay("Long stay", 3, 10),
+            PricingRule.promoCode("Promotion", "SAVE", 20),
+            PricingRule.childCharge("Child", Money.ofCents(500))));
+
+    /**
+     * The rules are applied charges for children first, then discounts, then taxes.
+     */
+    @Test
+    public void appliesRulesByKind() {
+        assertEquals(4, pipeline.size());
+        assertEquals(PricingRuleType.CHILD, pipeline.getType(0));
+        assertEquals(PricingRuleType.PROMO_CODE, pipeline.getType(1));
+        assertEquals(PricingRuleType.LENGTH_OF_STAY, pipeline.getType(2));
+        assertEquals(PricingRuleType.TAX, pipeline.getType(3));
+        assertEquals("Promotion (-%20)", pipeline.getLabel(1));
+    }
+
+    /**
+     * Each discount is taken off the price left by the rules before it, and the tax is charged on the price after
+     * all discounts and charges.
+     */
+    @Test
+    public void pricesStayThroughEveryRule() {
+        long[] adjustments = new long[pipeline.size()];
+        long price = pipeline.price(30_000, 1_000, 3, 2, "save", adjustments);
+        assertArrayEquals(new long[]{3_000, -6_800, -2_720, 2_448}, adjustments);
+        assertEquals(26_928, price);
+    }
+
+    /**
+     * Rules that do not apply to a stay add nothing to its price.
+     */
+    @Test
+    public void skipsRulesThatDoNotApply() {
+        long[] adjustments = new long[pipeline.size()];
+        assertEquals(33_000, pipeline.price(30_000, 0, 2, 0, "OTHER", adjustments));
+        assertArrayEquals(new long[]{0, 0, 0, 3_000}, adjustments);
+        assertEquals(33_000, pipeline.price(30_000, 0, 2, 0, null, null));
+        assertTrue(pipeline.isValidPromoCode("Save"));
+        assertFalse(pipeline.isValidPromoCode("OTHER"));
+    }
+
+    /**
+     * Several taxes are each charged on the price before taxes, not on each other.
+     */
+    @Test
+    public void chargesTaxesOnPriceBeforeTaxes() {
+        PricingPipeline taxes = new PricingPipeline(List.of(PricingRule.tax("Service charge", 10),
+                PricingRule.tax("GST", 7)));
+        assertEquals(11_700, taxes.price(10_000, 0, 1, 0, null, null));
+        assertEquals(10_000, new PricingPipeline(List.of()).price(9_000, 1_000, 1, 0, null, null));
+    }
+
+    /**
+     * Rules with parameters out of range cannot be created.
+     */
+    @Test
+    public void rejectsInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> PricingRule.promoCode("Promotion", " ", 10));
+        assertThrows(IllegalArgumentException.class, () -> PricingRule.promoCode("Promotion", "SAVE", 101));
+        assertThrows(IllegalArgumentException.class, () -> PricingRule.lengthOfStay("Long stay", 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> PricingRule.childCharge("Child", Money.ofCents(-1)));
+        assertThrows(IllegalArgumentException.class, () -> PricingRule.tax("GST", -1));
+        assertThrows(IllegalArgumentException.class, () -> PricingRule.tax(" ", 7));
+    }
+}
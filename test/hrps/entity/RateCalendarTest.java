@@ -0,0 +1,125 @@
+package hrps.entity;
+
+import hrps.entity.enums.RoomBedType;
+import hrps.entity.enums.RoomFacing;
+import hrps.entity.enums.RoomStatus;
+import hrps.entity.enums.RoomType;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of pricing stays from the nightly rates of a rate calendar.
+ *
+ * @author Peng Wenxuan
+ */
+public class RateCalendarTest {
+    /**
+     * A Monday within the horizon of the calendars of the tests.
+     */
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+    /**
+     * The calendar under test, covering 2030 to 2032.
+     */
+    private final RateCalendar calendar = new RateCalendar(MONDAY);
+    /**
+     * A deluxe room with a flat rate of $100.00.
+     */
+    private final Room room = room("03-01", RoomType.DELUXE);
+
+    /**
+     * Without any rate set, a room is charged its flat rate on weekdays and the weekend percentage of it on
+     * Saturdays and Sundays.
+     */
+    @Test
+    public void chargesFlatRatesByDayOfWeek() {
+        assertEquals(Money.ofCents(10_000), calendar.getNightRate(room, MONDAY));
+        assertEquals(Money.ofCents(11_000), calendar.getNightRate(room, MONDAY.plusDays(5)));
+        assertEquals(Money.ofCents(5 * 10_000 + 2 * 11_000), calendar.getStayPrice(room, MONDAY, MONDAY.plusDays(7)));
+        assertEquals(Money.ZERO, calendar.getStayPrice(room, MONDAY, MONDAY));
+    }
+
+    /**
+     * A rate set for a room overrides the rate of its room type, which overrides the flat rate, and unsetting a rate
+     * falls back to the next one.
+     */
+    @Test
+    public void roomRatesOverrideRoomTypeRates() {
+        Room otherRoom = room("03-02", RoomType.DELUXE);
+        calendar.setRoomTypeRate(RoomType.DELUXE, MONDAY, MONDAY.plusDays(3), Money.ofCents(20_000));
+        calendar.setRoomRate(room, MONDAY.plusDays(1), MONDAY.plusDays(2), Money.ofCents(30_000));
+
+        assertEquals(Money.ofCents(20_000 + 30_000 + 20_000 + 10_000),
+                calendar.getStayPrice(room, MONDAY, MONDAY.plusDays(4)));
+        assertEquals(Money.ofCents(3 * 20_000 + 10_000), calendar.getStayPrice(otherRoom, MONDAY, MONDAY.plusDays(4)));
+
+        calendar.setRoomRate(room, MONDAY.plusDays(1), MONDAY.plusDays(2), null);
+        assertEquals(Money.ofCents(20_000), calendar.getNightRate(room, MONDAY.plusDays(1)));
+        calendar.setRoomTypeRate(RoomType.DELUXE, MONDAY, MONDAY.plusDays(3), null);
+        assertEquals(Money.ofCents(10_000), calendar.getNightRate(room, MONDAY.plusDays(1)));
+    }
+
+    /**
+     * The price of any stay read from the prefix sums is the sum of its nightly rates.
+     */
+    @Test
+    public void stayPriceIsSumOfNightRates() {
+        calendar.setRoomTypeRate(RoomType.DELUXE, MONDAY.plusDays(10), MONDAY.plusDays(40), Money.ofCents(15_055));
+        calendar.setRoomRate(room, MONDAY.plusDays(20), MONDAY.plusDays(25), Money.ofCents(9_999));
+        for (int first = 0; first < 60; first += 7) {
+            for (int end = first; end < 60; end += 3) {
+                long cents = 0;
+                for (int night = first; night < end; night++) {
+                    cents += calendar.getNightRate(room, MONDAY.plusDays(night)).getCents();
+                }
+                assertEquals(Money.ofCents(cents),
+                        calendar.getStayPrice(room, MONDAY.plusDays(first), MONDAY.plusDays(end)));
+            }
+        }
+    }
+
+    /**
+     * Nights outside the horizon, before or after it, are charged the flat rates, also by stays partly within it.
+     */
+    @Test
+    public void chargesFlatRatesOutsideHorizon() {
+        LocalDate endNight = calendar.getEndNight();
+        calendar.setRoomTypeRate(RoomType.DELUXE, endNight.minusDays(2), endNight, Money.ofCents(50_000));
+        LocalDate saturday = LocalDate.of(2033, 1, 1);
+        assertEquals(endNight, saturday);
+        assertEquals(Money.ofCents(2 * 50_000 + 2 * 11_000 + 10_000),
+                calendar.getStayPrice(room, endNight.minusDays(2), endNight.plusDays(3)));
+        LocalDate firstNight = calendar.getFirstNight();
+        assertEquals(Money.ofCents(10_000 + 10_000 + 10_000),
+                calendar.getStayPrice(room, firstNight.minusDays(1), firstNight.plusDays(2)));
+        assertThrows(IllegalArgumentException.class, () ->
+                calendar.setRoomRate(room, endNight.minusDays(1), endNight.plusDays(1), Money.ofCents(1)));
+    }
+
+    /**
+     * A calendar created from another keeps the rates set on the nights both cover.
+     */
+    @Test
+    public void keepsRatesOfOverlappingNights() {
+        calendar.setRoomRate(room, LocalDate.of(2031, 6, 1), LocalDate.of(2031, 6, 2), Money.ofCents(12_345));
+        calendar.setRoomRate(room, LocalDate.of(2030, 6, 1), LocalDate.of(2030, 6, 2), Money.ofCents(12_345));
+        RateCalendar nextCalendar = new RateCalendar(LocalDate.of(2031, 1, 1), calendar);
+        assertEquals(Money.ofCents(12_345), nextCalendar.getNightRate(room, LocalDate.of(2031, 6, 1)));
+        assertEquals(room.getRate(), nextCalendar.getNightRate(room, LocalDate.of(2030, 6, 3)));
+        assertEquals(nextCalendar.getFirstNight().plusYears(RateCalendar.HORIZON_YEARS), nextCalendar.getEndNight());
+    }
+
+    /**
+     * Create a vacant room with a flat rate of $100.00.
+     *
+     * @param roomNumber Number of the room.
+     * @param roomType   Type of the room.
+     * @return The room.
+     */
+    private static Room room(String roomNumber, RoomType roomType) {
+        return new Room(roomNumber, roomType, RoomBedType.DOUBLE, RoomFacing.NORTH, RoomStatus.VACANT, true, true,
+                Money.ofCents(10_000));
+    }
+}
@@ -0,0 +1,116 @@
+package hrps.entity;
+
+import hrps.entity.enums.OrderStatus;
+import hrps.entity.enums.RoomBedType;
+import hrps.entity.enums.RoomFacing;
+import hrps.entity.enums.RoomStatus;
+import hrps.entity.enums.RoomType;
+import org.junit.Test;
+
+import java.io.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the entities priced in cents still read the data files written before the prices were kept in cents.
+ *
+ * @author Peng Wenxuan
+ */
+public class SerializationCompatibilityTest {
+    /**
+     * A room, a menu item and an order, serialized with the classes that kept the prices as doubles only.
+     */
+    private static final String BASELINE_FIXTURE = "baseline-entities.ser";
+    /**
+     * The shipped menu data file, relative to the working directory.
+     */
+    private static final String MENU_DATA_FILE = "src/data/menu.dat";
+
+    /**
+     * The entities serialized with the original classes are read with their prices in cents.
+     *
+     * @throws Exception If the fixture cannot be read.
+     */
+    @Test
+    public void readsEntitiesSerializedBeforeThePricesWereKeptInCents() throws Exception {
+        List<?> entities;
+        try (ObjectInputStream in = new ObjectInputStream(getClass().getResourceAsStream(BASELINE_FIXTURE))) {
+            entities = (List<?>) in.readObject();
+        }
+        Room room = (Room) entities.get(0);
+        assertEquals("02-03", room.getRoomNumber());
+        assertEquals(Money.ofCents(14999), room.getRate());
+        MenuItem item = (MenuItem) entities.get(1);
+        assertEquals("Laksa", item.getName());
+        assertEquals(Money.ofCents(895), item.getPrice());
+        assertEquals(Money.ofCents(895), item.clone().getPrice());
+        OrderedRoomService order = (OrderedRoomService) entities.get(2);
+        assertEquals(OrderStatus.PREPARING, order.getOrderStatus());
+        assertEquals(Money.ofCents(14999), order.getRoom().getRate());
+        OrderedMenuItem orderedItem = order.getOrderItems().get(0);
+        assertEquals(2, orderedItem.getQuantity());
+        assertEquals(Money.ofCents(2500), orderedItem.getPrice());
+        assertEquals(Money.ofCents(2500), order.getTotalPrice());
+    }
+
+    /**
+     * The shipped menu data file is read with the pinned class versions.
+     *
+     * @throws Exception If the menu data file cannot be read.
+     */
+    @Test
+    public void readsTheShippedMenu() throws Exception {
+        Menu menu;
+        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(MENU_DATA_FILE))) {
+            menu = (Menu) in.readObject();
+        }
+        assertFalse(menu.isEmpty());
+    }
+
+    /**
+     * The prices in cents survive a round trip, including those set after the entity was created.
+     *
+     * @throws Exception If the entities cannot be written or read.
+     */
+    @Test
+    public void roundTripKeepsThePricesInCents() throws Exception {
+        Room room = new Room("03-01", RoomType.SINGLE, RoomBedType.SINGLE, RoomFacing.EAST, RoomStatus.VACANT,
+                false, true, Money.ofCents(9950));
+        room.setRate(Money.ofCents(10005));
+        MenuItem item = new MenuItem("Tea", "Teh tarik", Money.ofCents(350));
+        item.setPrice(Money.ofCents(405));
+        List<OrderedMenuItem> orderItems = new ArrayList<>();
+        orderItems.add(new OrderedMenuItem("Tea", "Teh tarik", Money.ofCents(405), 3));
+        OrderedRoomService order = new OrderedRoomService(room, LocalDateTime.of(2022, 11, 1, 8, 0), "",
+                OrderStatus.CONFIRMED, orderItems);
+        ArrayList<Object> entities = new ArrayList<>();
+        entities.add(room);
+        entities.add(item);
+        entities.add(order);
+
+        List<?> copies = (List<?>) roundTrip(entities);
+        assertEquals(Money.ofCents(10005), ((Room) copies.get(0)).getRate());
+        assertEquals(Money.ofCents(405), ((MenuItem) copies.get(1)).getPrice());
+        assertEquals(Money.ofCents(1215), ((OrderedRoomService) copies.get(2)).getTotalPrice());
+    }
+
+    /**
+     * Serialize an object and read it back.
+     *
+     * @param object The object.
+     * @return The copy read back.
+     * @throws Exception If the object cannot be written or read.
+     */
+    private static Object roundTrip(Serializable object) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return in.readObject();
+        }
+    }
+}
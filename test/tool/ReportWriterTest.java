@@ -0,0 +1,91 @@
+package tool;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of writing reports as CSV and as fixed-width tables.
+ *
+ * @author Peng Wenxuan
+ */
+public class ReportWriterTest {
+    /**
+     * Line break written by the row formats of tables.
+     */
+    private static final String NL = System.lineSeparator();
+
+    /**
+     * A CSV report has a line per row and no title, and quotes the cells with commas, quotes or line breaks.
+     *
+     * @throws IOException If the report cannot be written.
+     */
+    @Test
+    public void writesCsv() throws IOException {
+        StringWriter out = new StringWriter();
+        try (ReportWriter writer = new CsvReportWriter(out)) {
+            writer.writeTitle("Ignored");
+            writer.writeHeader("Room", "Guest", "Remarks");
+            writer.writeRow("02-01", "Tan, Ah Kow", "said \"hi\"");
+            writer.writeRow("02-02", null, "two\nlines");
+        }
+        assertEquals("Room,Guest,Remarks\r\n"
+                + "02-01,\"Tan, Ah Kow\",\"said \"\"hi\"\"\"\r\n"
+                + "02-02,null,\"two\nlines\"\r\n", out.toString());
+    }
+
+    /**
+     * A table has a separator line after every row, and starts with one when it has no title.
+     *
+     * @throws IOException If the report cannot be written.
+     */
+    @Test
+    public void writesTable() throws IOException {
+        StringWriter out = new StringWriter();
+        try (ReportWriter writer = new TableReportWriter(out, 4, 6)) {
+            writer.writeHeader("No", "Status");
+            writer.writeRow(1, "VACANT");
+        }
+        assertEquals("------+--------\n"
+                + "| No  | Status|" + NL + "------+--------\n"
+                + "| 1   | VACANT|" + NL + "------+--------\n", out.toString());
+
+        StringWriter titled = new StringWriter();
+        try (ReportWriter writer = new TableReportWriter(titled, "%s=%s" + NL, "--")) {
+            writer.writeTitle("TITLE");
+            writer.writeRow("a", "b");
+        }
+        assertEquals("TITLE\na=b" + NL + "--\n", titled.toString());
+    }
+
+    /**
+     * The first row is written through at once so that a long report starts showing, and the later rows are
+     * buffered until the writer is flushed or closed.
+     *
+     * @throws IOException If the report cannot be written.
+     */
+    @Test
+    public void streamsFirstRowAtOnce() throws IOException {
+        StringWriter csv = new StringWriter();
+        ReportWriter csvWriter = new CsvReportWriter(csv);
+        csvWriter.writeRow("first");
+        assertEquals("first\r\n", csv.toString());
+        csvWriter.writeRow("second");
+        assertEquals("first\r\n", csv.toString());
+        csvWriter.close();
+        assertEquals("first\r\nsecond\r\n", csv.toString());
+
+        StringWriter table = new StringWriter();
+        ReportWriter tableWriter = new TableReportWriter(table, 5);
+        tableWriter.writeRow("first");
+        String firstRow = table.toString();
+        assertTrue(firstRow.contains("first"));
+        tableWriter.writeRow("second");
+        assertEquals(firstRow, table.toString());
+        tableWriter.flush();
+        assertTrue(table.toString().contains("second"));
+    }
+}